@@ -0,0 +1,82 @@
+package cipher;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A benchmark printing the speedup of the parallel VigenereCipher and MatrixCipher methods
+ * over the sequential ones for every pool size from one thread to the number of cores
+ * Usage: ParallelCipherBench [message length in characters, default 8 million]
+ * @author Noah Kime
+ */
+public class ParallelCipherBench {
+
+	private static final int WARMUP = 5;
+	private static final int RUNS = 10;
+
+
+	/**
+	 * Runs the benchmark
+	 * @param args The message length, optional
+	 */
+	public static void main(String[] args) {
+		int length = (args.length > 0) ? Integer.parseInt(args[0]) : 8 << 20;
+		int cores = Runtime.getRuntime().availableProcessors();
+		Alphabet alph = new Alphabet();
+		String msg = randomMessage(alph, length);
+
+		for (VigenereCipher cipher : new VigenereCipher[] {new VigenereCipher(alph), new MatrixCipher(alph)}) {
+			String expected = cipher.encrypt(msg);
+			double base = time(() -> cipher.encrypt(msg));
+
+			System.out.printf("%s, %d chars, sequential %.1f ms%n", cipher.getClass().getSimpleName(), length, base);
+
+			for (int threads = 1; threads <= cores; threads++) {
+				ForkJoinPool pool = new ForkJoinPool(threads);
+
+				if (!cipher.encryptParallel(msg, pool).equals(expected))
+					throw new IllegalStateException("Parallel output differs from sequential output");
+
+				double ms = time(() -> cipher.encryptParallel(msg, pool));
+				System.out.printf("  %2d threads %8.1f ms  speedup %.2f%n", threads, ms, base / ms);
+
+				pool.shutdown();
+			}
+		}
+	} //END main
+
+
+	/**
+	 * Returns the mean time of a given task in milliseconds, after warming it up
+	 * @param task The given task
+	 * @return The mean time of the given task in milliseconds
+	 */
+	private static double time(Runnable task) {
+		for (int i = 0; i < WARMUP; i++)
+			task.run();
+
+		long start = System.nanoTime();
+		for (int i = 0; i < RUNS; i++)
+			task.run();
+
+		return (System.nanoTime() - start) / 1e6 / RUNS;
+	} //END time
+
+
+	/**
+	 * Returns a random message of a given length over a given Alphabet
+	 * @param alph The given Alphabet
+	 * @param length The given length
+	 * @return A random message of the given length
+	 */
+	private static String randomMessage(Alphabet alph, int length) {
+		Random rand = new Random(42);
+		char[] chars = new char[length];
+
+		for (int i = 0; i < length; i++)
+			chars[i] = alph.charAt(rand.nextInt(alph.getSize()));
+
+		return new String(chars);
+	} //END randomMessage
+
+} //END ParallelCipherBench
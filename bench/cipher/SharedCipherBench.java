@@ -0,0 +1,134 @@
+package cipher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A stress test and benchmark of one MatrixCipher shared by many threads without locks
+ * Every thread encrypts and decrypts its own messages with the same MatrixCipher and checks
+ * each result against the one computed beforehand on a single thread. The total throughput is
+ * printed for every thread count from one to twice the number of cores; any mismatch aborts.
+ * Usage: SharedCipherBench [operations per thread, default 200] [message length, default 64K]
+ * @author Noah Kime
+ */
+public class SharedCipherBench {
+
+	private static final int MESSAGES = 16;
+
+
+	/**
+	 * Runs the stress test
+	 * @param args The number of operations per thread and the message length, both optional
+	 * @throws InterruptedException Thrown if interrupted while waiting for the threads
+	 * @throws ExecutionException Thrown if a thread fails or sees a wrong result
+	 */
+	public static void main(String[] args) throws InterruptedException, ExecutionException {
+		int ops = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+		int length = (args.length > 1) ? Integer.parseInt(args[1]) : 1 << 16;
+		int cores = Runtime.getRuntime().availableProcessors();
+
+		//01 ENCRYPT EVERY MESSAGE ONCE ON THIS THREAD
+		Alphabet alph = new Alphabet();
+		MatrixCipher cipher = new MatrixCipher(alph);
+		Random rand = new Random(42);
+
+		String[] plain = new String[MESSAGES];
+		String[] expected = new String[MESSAGES];
+
+		for (int i = 0; i < MESSAGES; i++) {
+			plain[i] = randomMessage(alph, length, rand);
+			expected[i] = cipher.encrypt(plain[i]);
+		}
+
+		System.out.printf("MatrixCipher n=%d, %d chars per message, %d cores%n", cipher.getBlockSize(), length, cores);
+		run(cipher, plain, expected, 1, ops);
+
+		//02 SHARE THE CIPHER BETWEEN A GROWING NUMBER OF THREADS
+		double base = 0;
+
+		for (int threads = 1; threads <= 2 * cores; threads++) {
+			double rate = run(cipher, plain, expected, threads, ops);
+
+			if (threads == 1)
+				base = rate;
+
+			System.out.printf("  %2d threads %8.1f MB/s  scaling %.2f%n", threads, rate, rate / base);
+		}
+	} //END main
+
+
+	/**
+	 * Encrypts and decrypts the given messages with a shared cipher on a given number of
+	 * threads, checking every result, and returns the throughput
+	 * @param cipher The shared cipher
+	 * @param plain The given messages
+	 * @param expected The encryption of each given message
+	 * @param threads The number of threads
+	 * @param ops The number of encryptions and decryptions per thread
+	 * @return The number of megabytes encrypted or decrypted per second across all threads
+	 * @throws InterruptedException Thrown if interrupted while waiting for the threads
+	 * @throws ExecutionException Thrown if a thread fails or sees a wrong result
+	 */
+	private static double run(Cipher cipher, String[] plain, String[] expected, int threads, int ops)
+			throws InterruptedException, ExecutionException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Callable<Long>> tasks = new ArrayList<Callable<Long>>();
+
+		for (int t = 0; t < threads; t++) {
+			int first = t;
+
+			tasks.add(() -> {
+				long chars = 0;
+
+				for (int i = 0; i < ops; i++) {
+					int k = (first + i) % plain.length;
+					String enc = cipher.encrypt(plain[k]);
+
+					if (!enc.equals(expected[k]) || !cipher.decrypt(enc).equals(plain[k].trim()))
+						throw new IllegalStateException("Shared cipher gave a wrong result on " + Thread.currentThread().getName());
+
+					chars += 2L * plain[k].length();
+				}
+
+				return chars;
+			});
+		}
+
+		long start = System.nanoTime();
+		long chars = 0;
+
+		try {
+			for (Future<Long> f : pool.invokeAll(tasks))
+				chars += f.get();
+		}
+		finally {
+			pool.shutdown();
+		}
+
+		return chars / ((System.nanoTime() - start) / 1e3);
+	} //END run
+
+
+	/**
+	 * Returns a random message of a given length over a given Alphabet
+	 * @param alph The given Alphabet
+	 * @param length The given length
+	 * @param rand The random number generator
+	 * @return A random message of the given length
+	 */
+	private static String randomMessage(Alphabet alph, int length, Random rand) {
+		char[] chars = new char[length];
+
+		for (int i = 0; i < length; i++)
+			chars[i] = alph.charAt(rand.nextInt(alph.getSize()));
+
+		return new String(chars);
+	} //END randomMessage
+
+} //END SharedCipherBench
@@ -0,0 +1,171 @@
+package cipher.server;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import cipher.Alphabet;
+
+/**
+ * A loopback load generator for CipherServer
+ * Starts a CipherServer on a free loopback port, creates one key of each type and, for every
+ * concurrency level, keeps that many virtual threads sending encrypt requests back to back for a
+ * fixed time. The requests per second and the p50 and p99 latency are printed for each key type
+ * and level. Every response is checked to be successful.
+ * Usage: LoadGenerator [seconds per level, default 5] [message length, default 1024]
+ * @author Noah Kime
+ */
+public class LoadGenerator {
+
+	private static final int[] CONCURRENCY = {1, 2, 4, 8, 16, 32, 64, 128};
+	private static final String[] TYPES = {"affine", "vigenere", "matrix"};
+	private static final double WARMUP_SECONDS = 5;
+
+
+	/**
+	 * Runs the load generator
+	 * @param args The seconds per level and the message length, both optional
+	 * @throws IOException Thrown if the server cannot be started
+	 * @throws InterruptedException Thrown if interrupted while waiting for the clients
+	 * @throws ExecutionException Thrown if a client fails or receives an error
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+		double seconds = (args.length > 0) ? Double.parseDouble(args[0]) : 5;
+		int length = (args.length > 1) ? Integer.parseInt(args[1]) : 1024;
+
+		//Measure with Nagle's algorithm disabled, as CipherServer.main runs
+		if (System.getProperty("sun.net.httpserver.nodelay") == null)
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+
+		try (CipherServer server = new CipherServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0))) {
+			server.start();
+
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+			String base = "http://127.0.0.1:" + server.getPort();
+			String msg = randomMessage(new Alphabet(), length);
+
+			System.out.printf("%d char messages, %.1f s per level, %d cores%n", length, seconds, Runtime.getRuntime().availableProcessors());
+			System.out.printf("%-9s %5s %10s %10s %10s%n", "key", "conc", "req/s", "p50 ms", "p99 ms");
+
+			for (String type : TYPES) {
+				URI uri = URI.create(base + "/encrypt/" + server.newKey(type));
+				HttpRequest request = HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString(msg)).build();
+
+				//01 WARM UP THE SERVER AND CLIENT
+				load(client, request, 16, WARMUP_SECONDS);
+
+				//02 MEASURE EACH LEVEL OF CONCURRENCY
+				for (int level : CONCURRENCY) {
+					long start = System.nanoTime();
+					long[] latencies = load(client, request, level, seconds);
+					double elapsed = (System.nanoTime() - start) / 1e9;
+
+					System.out.printf("%-9s %5d %10.0f %10.3f %10.3f%n", type, level, latencies.length / elapsed,
+							percentile(latencies, 0.50) / 1e6, percentile(latencies, 0.99) / 1e6);
+				}
+			}
+		}
+	} //END main
+
+
+	/**
+	 * Sends a given request back to back from a given number of virtual threads for a given
+	 * time and returns the sorted latency of every request
+	 * @param client The HttpClient sending the requests
+	 * @param request The given request
+	 * @param threads The number of concurrent virtual threads
+	 * @param seconds The given time in seconds
+	 * @return The latency of every request in nanoseconds, sorted
+	 * @throws InterruptedException Thrown if interrupted while waiting for the clients
+	 * @throws ExecutionException Thrown if a client fails or receives an error
+	 */
+	private static long[] load(HttpClient client, HttpRequest request, int threads, double seconds)
+			throws InterruptedException, ExecutionException {
+		long deadline = System.nanoTime() + (long) (seconds * 1e9);
+		List<Future<long[]>> results = new ArrayList<Future<long[]>>();
+
+		try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int t = 0; t < threads; t++) {
+				results.add(exec.submit(() -> {
+					long[] times = new long[1024];
+					int count = 0;
+
+					while (System.nanoTime() < deadline) {
+						long start = System.nanoTime();
+						HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+						if (response.statusCode() != 200)
+							throw new IllegalStateException("Request failed with status " + response.statusCode());
+
+						if (count == times.length)
+							times = Arrays.copyOf(times, 2 * count);
+						times[count++] = System.nanoTime() - start;
+					}
+
+					return Arrays.copyOf(times, count);
+				}));
+			}
+		}
+
+		//MERGE THE LATENCIES OF EVERY THREAD
+		long[][] parts = new long[threads][];
+		int total = 0;
+
+		for (int t = 0; t < threads; t++) {
+			parts[t] = results.get(t).get();
+			total += parts[t].length;
+		}
+
+		long[] all = new long[total];
+		for (int t = 0, pos = 0; t < threads; pos += parts[t].length, t++)
+			System.arraycopy(parts[t], 0, all, pos, parts[t].length);
+
+		Arrays.sort(all);
+
+		return all;
+	} //END load
+
+
+	/**
+	 * Returns a given percentile of given sorted values by the nearest rank
+	 * @param sorted The given values, sorted
+	 * @param p The given percentile, in (0,1]
+	 * @return The given percentile of the given values, 0 if there are none
+	 */
+	private static long percentile(long[] sorted, double p) {
+		if (sorted.length == 0)
+			return 0;
+
+		return sorted[Math.max(0, (int) Math.ceil(p * sorted.length) - 1)];
+	} //END percentile
+
+
+	/**
+	 * Returns a random message of a given length over a given Alphabet
+	 * @param alph The given Alphabet
+	 * @param length The given length
+	 * @return A random message of the given length
+	 */
+	private static String randomMessage(Alphabet alph, int length) {
+		Random rand = new Random(42);
+		char[] chars = new char[length];
+
+		for (int i = 0; i < length; i++)
+			chars[i] = alph.charAt(rand.nextInt(alph.getSize()));
+
+		return new String(chars);
+	} //END randomMessage
+
+} //END LoadGenerator
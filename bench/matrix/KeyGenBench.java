@@ -0,0 +1,57 @@
+package matrix;
+
+import java.util.SplittableRandom;
+
+import ring.modInt.Z_M;
+
+/**
+ * A benchmark printing how many random GLn_Zm keys are generated per second for a range of
+ * sizes n and moduli m
+ * Usage: KeyGenBench [largest n, default 1024]
+ * @author Noah Kime
+ */
+public class KeyGenBench {
+
+	private static final int[] MODULI = {2, 95, 97, 256, 65521};
+	private static final long MIN_NANOS = 500_000_000L;
+
+
+	/**
+	 * Runs the benchmark
+	 * @param args The largest size, optional
+	 * @throws Exception Thrown if a key cannot be generated
+	 */
+	public static void main(String[] args) throws Exception {
+		int maxN = (args.length > 0) ? Integer.parseInt(args[0]) : 1024;
+		SplittableRandom rand = new SplittableRandom(42);
+
+		System.out.printf("%6s", "n \\ m");
+		for (int mod : MODULI)
+			System.out.printf("%12d", mod);
+		System.out.println("   (keys/s)");
+
+		for (int n = 8; n <= maxN; n *= 2) {
+			System.out.printf("%6d", n);
+
+			for (int mod : MODULI) {
+				Z_M z = new Z_M(mod);
+
+				//WARM UP, THEN COUNT KEYS FOR AT LEAST MIN_NANOS
+				new GLn_Zm(n, z, rand.split());
+
+				long start = System.nanoTime();
+				long keys = 0;
+
+				while (System.nanoTime() - start < MIN_NANOS) {
+					new GLn_Zm(n, z, rand.split());
+					keys++;
+				}
+
+				System.out.printf("%12.1f", keys * 1e9 / (System.nanoTime() - start));
+			}
+
+			System.out.println();
+		}
+	} //END main
+
+} //END KeyGenBench
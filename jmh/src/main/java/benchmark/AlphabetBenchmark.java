@@ -0,0 +1,62 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import cipher.Alphabet;
+
+/**
+ * Benchmarks the lookup of character numbers in an Alphabet
+ * One in eight probes is a character outside the Alphabet.
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlphabetBenchmark {
+
+	private static final int PROBES = 1024;
+
+	@Param({"26", "95", "256"})
+	public int alphabetSize;
+
+	private Alphabet alph;
+	private Character[] probes;
+
+
+	/**
+	 * Builds the Alphabet and the characters looked up in it
+	 */
+	@Setup
+	public void setup() {
+		SplittableRandom rand = new SplittableRandom(Fixtures.SEED);
+
+		alph = Fixtures.alphabet(alphabetSize);
+		probes = new Character[PROBES];
+
+		for (int i = 0; i < PROBES; i++)
+			probes[i] = (rand.nextInt(8) == 0) ? Character.valueOf('\u4E00') : alph.getChar(rand.nextInt(alphabetSize));
+	} //END setup
+
+
+	/**
+	 * Looks up the number of every probe with getCharNum
+	 * @return The sum of the numbers, so the lookups are not eliminated
+	 */
+	@Benchmark
+	@OperationsPerInvocation(PROBES)
+	public int getCharNum() {
+		int sum = 0;
+
+		for (Character c : probes)
+			sum += alph.getCharNum(c);
+
+		return sum;
+	} //END getCharNum
+
+} //END AlphabetBenchmark
@@ -0,0 +1,85 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import cipher.AffineCipher;
+import cipher.Alphabet;
+import cipher.Cipher;
+import cipher.MatrixCipher;
+import cipher.VigenereCipher;
+
+/**
+ * Benchmarks encrypting and decrypting a random message with each Cipher
+ * An AffineCipher has no blocks, so its results do not vary with cipherSize.
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CipherBenchmark {
+
+	@Param({"affine", "vigenere", "matrix"})
+	public String cipher;
+
+	@Param({"1024", "65536", "1048576"})
+	public int messageSize;
+
+	@Param({"10", "50", "100"})
+	public int cipherSize;
+
+	@Param({"26", "95"})
+	public int alphabetSize;
+
+	private Cipher c;
+	private String plain;
+	private String encrypted;
+
+
+	/**
+	 * Builds the Cipher and the message, and encrypts the message once
+	 */
+	@Setup
+	public void setup() {
+		Alphabet alph = Fixtures.alphabet(alphabetSize);
+
+		switch (cipher) {
+			case "affine":
+				c = new AffineCipher(alph);
+				break;
+			case "vigenere":
+				c = new VigenereCipher(alph, cipherSize);
+				break;
+			default:
+				c = new MatrixCipher(alph, cipherSize);
+		}
+
+		plain = Fixtures.message(alph, messageSize);
+		encrypted = c.encrypt(plain);
+	} //END setup
+
+
+	/**
+	 * Encrypts the message
+	 * @return The encrypted message
+	 */
+	@Benchmark
+	public String encrypt() {
+		return c.encrypt(plain);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts the encrypted message
+	 * @return The decrypted message
+	 */
+	@Benchmark
+	public String decrypt() {
+		return c.decrypt(encrypted);
+	} //END decrypt
+
+} //END CipherBenchmark
@@ -0,0 +1,55 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+
+import cipher.Alphabet;
+
+/**
+ * A class that builds the inputs shared by the benchmarks
+ * Every input is drawn from a fixed seed, so each run of a benchmark measures the same data.
+ * @author Noah Kime
+ */
+final class Fixtures {
+
+	static final long SEED = 42;
+
+
+	/**
+	 * Prevents instantiation of Fixtures
+	 */
+	private Fixtures() {
+	} //END Fixtures (constructor)
+
+
+	/**
+	 * Returns an Alphabet of a given number of consecutive characters, starting from the space
+	 * @param size The given number of characters
+	 * @return An Alphabet of the given number of characters
+	 */
+	static Alphabet alphabet(int size) {
+		char[] chars = new char[size];
+
+		for (int i = 0; i < size; i++)
+			chars[i] = (char) (' ' + i);
+
+		return new Alphabet(new String(chars));
+	} //END alphabet
+
+
+	/**
+	 * Returns a random message of a given length over a given Alphabet
+	 * @param alph The given Alphabet
+	 * @param length The given length
+	 * @return A random message of the given length
+	 */
+	static String message(Alphabet alph, int length) {
+		SplittableRandom rand = new SplittableRandom(SEED);
+		char[] chars = new char[length];
+
+		for (int i = 0; i < length; i++)
+			chars[i] = alph.charAt(rand.nextInt(alph.getSize()));
+
+		return new String(chars);
+	} //END message
+
+} //END Fixtures
@@ -0,0 +1,140 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import cipher.Alphabet;
+import cipher.GF256Cipher;
+import cipher.MatrixCipher;
+import matrix.GLn_GF256;
+import matrix.GLn_Zm;
+import matrix.Grid;
+import matrix.matrixException.MatrixException;
+import ring.gf.GF256;
+import ring.modInt.ModInt_M;
+import ring.modInt.Z_M;
+
+/**
+ * Compares matrix keys and ciphers over the field GF(2^8) against those over Z/256Z
+ * Both elimination benchmarks invert a random key of the same size; both ciphers encrypt and
+ * decrypt the same random binary message.
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GF256Benchmark {
+
+	@Param({"10", "50", "99"})
+	public int cipherSize;
+
+	@Param({"65536"})
+	public int messageSize;
+
+	private Grid<ModInt_M> zKey;
+	private Grid<GF256> gfKey;
+
+	private MatrixCipher zCipher;
+	private GF256Cipher gfCipher;
+
+	private byte[] msg;
+	private byte[] zEnc;
+	private byte[] gfEnc;
+
+
+	/**
+	 * Builds a random key over each ring, a cipher over each and a random binary message
+	 * @throws MatrixException Thrown if a key cannot be generated
+	 */
+	@Setup
+	public void setup() throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(Fixtures.SEED);
+
+		zKey = new GLn_Zm(cipherSize, new Z_M(256), rand).asGrid();
+		gfKey = null;
+		while (gfKey == null) {
+			try {
+				gfKey = new GLn_GF256(cipherSize, rand).asGrid();
+			}
+			catch (MatrixException e) {
+				// draw again
+			}
+		}
+
+		zCipher = new MatrixCipher(Alphabet.bytes(), cipherSize);
+		gfCipher = new GF256Cipher(cipherSize);
+
+		msg = new byte[messageSize];
+		rand.nextBytes(msg);
+		zEnc = zCipher.encrypt(msg);
+		gfEnc = gfCipher.encrypt(msg);
+	} //END setup
+
+
+	/**
+	 * Finds the determinant and inverse of the key over Z/256Z with the elimination of GLn_Zm
+	 * @return The key with its determinant and inverse
+	 * @throws MatrixException Never, the key is invertible
+	 */
+	@Benchmark
+	public GLn_Zm genDetZ256() throws MatrixException {
+		return new GLn_Zm(zKey);
+	} //END genDetZ256
+
+
+	/**
+	 * Finds the determinant and inverse of the key over GF(2^8) with the elimination of GLn_GF256
+	 * @return The key with its determinant and inverse
+	 * @throws MatrixException Never, the key is invertible
+	 */
+	@Benchmark
+	public GLn_GF256 genDetGF256() throws MatrixException {
+		return new GLn_GF256(gfKey);
+	} //END genDetGF256
+
+
+	/**
+	 * Encrypts the message with a MatrixCipher over the byte Alphabet
+	 * @return The encrypted message
+	 */
+	@Benchmark
+	public byte[] encryptZ256() {
+		return zCipher.encrypt(msg);
+	} //END encryptZ256
+
+
+	/**
+	 * Encrypts the message with a GF256Cipher
+	 * @return The encrypted message
+	 */
+	@Benchmark
+	public byte[] encryptGF256() {
+		return gfCipher.encrypt(msg);
+	} //END encryptGF256
+
+
+	/**
+	 * Decrypts the message with a MatrixCipher over the byte Alphabet
+	 * @return The decrypted message
+	 */
+	@Benchmark
+	public byte[] decryptZ256() {
+		return zCipher.decrypt(zEnc);
+	} //END decryptZ256
+
+
+	/**
+	 * Decrypts the message with a GF256Cipher
+	 * @return The decrypted message
+	 */
+	@Benchmark
+	public byte[] decryptGF256() {
+		return gfCipher.decrypt(gfEnc);
+	} //END decryptGF256
+
+} //END GF256Benchmark
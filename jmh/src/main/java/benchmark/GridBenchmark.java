@@ -0,0 +1,82 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import matrix.Grid;
+import ring.modInt.ModInt_M;
+import ring.modInt.Z_M;
+
+/**
+ * Benchmarks reading and writing every entry of an nxn Grid of ModInt_M, row by row
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GridBenchmark {
+
+	@Param({"10", "50", "100"})
+	public int cipherSize;
+
+	@Param({"95"})
+	public int alphabetSize;
+
+	private Grid<ModInt_M> grid;
+	private ModInt_M[] vals;
+
+
+	/**
+	 * Builds a random Grid and the values written to it
+	 */
+	@Setup
+	public void setup() {
+		SplittableRandom rand = new SplittableRandom(Fixtures.SEED);
+		Z_M z = new Z_M(alphabetSize);
+
+		grid = new Grid<ModInt_M>(cipherSize, cipherSize);
+		vals = new ModInt_M[cipherSize * cipherSize];
+
+		for (int i = 0; i < vals.length; i++)
+			vals[i] = ModInt_M.valueOf(rand.nextInt(alphabetSize), z);
+
+		for (int i = 0; i < vals.length; i++)
+			grid.set(i / cipherSize, i % cipherSize, vals[vals.length - 1 - i]);
+	} //END setup
+
+
+	/**
+	 * Reads every entry with Grid.get
+	 * @return The sum of the values read, so the reads are not eliminated
+	 */
+	@Benchmark
+	public int get() {
+		int sum = 0;
+
+		for (int i = 0; i < cipherSize; i++)
+			for (int j = 0; j < cipherSize; j++)
+				sum += grid.get(i,j).getVal();
+
+		return sum;
+	} //END get
+
+
+	/**
+	 * Writes every entry with Grid.set
+	 * @return The Grid written
+	 */
+	@Benchmark
+	public Grid<ModInt_M> set() {
+		for (int i = 0; i < cipherSize; i++)
+			for (int j = 0; j < cipherSize; j++)
+				grid.set(i,j, vals[i*cipherSize + j]);
+
+		return grid;
+	} //END set
+
+} //END GridBenchmark
@@ -0,0 +1,137 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import cipher.Alphabet;
+import matrix.IntModMatrix;
+import matrix.Kernel;
+import matrix.matrixException.MatrixException;
+import ring.modInt.Z_M;
+
+/**
+ * Compares the scalar and Vector API Kernels on the products and lookups that run through them
+ * The Kernel is chosen once per JVM, so the same benchmarks run in forks forcing the scalar
+ * Kernel (Scalar) and the vector Kernel (Vector). Every benchmark processes MESSAGE characters:
+ * blocks encrypts them as nxn blocks with IntModMatrix.multAddBlocks, encode and decode map them
+ * through the default Alphabet. mult is one product of two nxn matrices. The Kernel in use is
+ * printed at setup, so a fork that could not use the Vector API shows as scalar. Vector code is
+ * very slow until the JIT compiler has compiled it fully, hence the longer warmup.
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public abstract class KernelBenchmark {
+
+	private static final int MESSAGE = 1 << 16;
+
+	@Param({"10", "16", "24", "32", "48", "64", "80", "99"})
+	public int cipherSize;
+
+	private IntModMatrix a;
+	private int[] offset;
+	private int[] msgNums;
+	private int[] encNums;
+	private Alphabet alph;
+	private char[] text;
+
+
+	/**
+	 * Builds a random nxn matrix and offset over Z_95 and a random message of MESSAGE characters
+	 * @throws MatrixException Never, the values match the dimensions
+	 */
+	@Setup
+	public void setup() throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(Fixtures.SEED);
+		int n = cipherSize;
+		int[] vals = new int[n * n];
+
+		alph = new Alphabet();
+		int mod = alph.getSize();
+
+		for (int i = 0; i < vals.length; i++)
+			vals[i] = rand.nextInt(mod);
+
+		a = new IntModMatrix(n, n, vals, new Z_M(mod));
+		offset = rand.ints(n, 0, mod).toArray();
+		msgNums = rand.ints(MESSAGE / n * n, 0, mod).toArray();
+		encNums = new int[msgNums.length];
+
+		text = new char[MESSAGE];
+		for (int i = 0; i < MESSAGE; i++)
+			text[i] = alph.charAt(rand.nextInt(mod));
+
+		System.out.println("Kernel " + Kernel.DEFAULT.name());
+	} //END setup
+
+
+	/**
+	 * Computes Ax + b for every nx1 block of the message
+	 * @return The encrypted numbers
+	 */
+	@Benchmark
+	public int[] blocks() {
+		a.multAddBlocks(msgNums, 0, msgNums.length / cipherSize, offset, encNums, 0);
+
+		return encNums;
+	} //END blocks
+
+
+	/**
+	 * Multiplies the nxn matrix by itself
+	 * @return The product
+	 * @throws MatrixException Never, the matrix is square
+	 */
+	@Benchmark
+	public IntModMatrix mult() throws MatrixException {
+		return a.multRRet(a);
+	} //END mult
+
+
+	/**
+	 * Numbers every character of the message
+	 * @return The character numbers
+	 */
+	@Benchmark
+	public int[] encode() {
+		alph.encode(text, 0, encNums, 0, msgNums.length);
+
+		return encNums;
+	} //END encode
+
+
+	/**
+	 * Writes the character of every number of the message
+	 * @return The characters
+	 */
+	@Benchmark
+	public char[] decode() {
+		alph.decode(msgNums, 0, text, 0, msgNums.length);
+
+		return text;
+	} //END decode
+
+
+
+	/**
+	 * The benchmarks with the scalar Kernel
+	 */
+	@Fork(value = 1, jvmArgsAppend = {"-Dmatrixcipher.kernel=scalar"})
+	public static class Scalar extends KernelBenchmark {
+	} //END Scalar
+
+
+
+	/**
+	 * The benchmarks with the Vector API Kernel
+	 */
+	@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Dmatrixcipher.kernel=vector"})
+	public static class Vector extends KernelBenchmark {
+	} //END Vector
+
+} //END KernelBenchmark
@@ -0,0 +1,115 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import matrix.GLn;
+import matrix.GLn_Zm;
+import matrix.Grid;
+import matrix.Matrix;
+import matrix.matrixException.MatrixException;
+import ring.modInt.ModInt_M;
+import ring.modInt.Z_M;
+
+/**
+ * Benchmarks products, elimination and key generation of nxn matrices over Z_M
+ * genDet is measured through the constructors that run it: the generic elimination of GLn and
+ * the primitive elimination GLn_Zm overrides it with.
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixBenchmark {
+
+	@Param({"10", "50", "100"})
+	public int cipherSize;
+
+	@Param({"26", "95"})
+	public int alphabetSize;
+
+	private Z_M z;
+	private Matrix<ModInt_M> x;
+	private Matrix<ModInt_M> y;
+	private Grid<ModInt_M> key;
+	private SplittableRandom rand;
+
+
+	/**
+	 * Builds two random matrices and the Grid of a random invertible key
+	 * @throws MatrixException Thrown if the key cannot be generated
+	 */
+	@Setup
+	public void setup() throws MatrixException {
+		z = new Z_M(alphabetSize);
+		rand = new SplittableRandom(Fixtures.SEED);
+		x = new Matrix<ModInt_M>(this.randomGrid());
+		y = new Matrix<ModInt_M>(this.randomGrid());
+		key = new GLn_Zm(cipherSize, z, rand).asGrid();
+	} //END setup
+
+
+	/**
+	 * Multiplies two random matrices with Matrix.multRRet
+	 * @return The product
+	 * @throws MatrixException Never, the matrices have the same size
+	 */
+	@Benchmark
+	public Matrix<ModInt_M> multRRet() throws MatrixException {
+		return x.multRRet(y);
+	} //END multRRet
+
+
+	/**
+	 * Finds the determinant and inverse of the key with the generic elimination of GLn
+	 * @return The key with its determinant and inverse
+	 * @throws MatrixException Never, the key is invertible
+	 */
+	@Benchmark
+	public GLn<ModInt_M> genDet() throws MatrixException {
+		return new GLn<ModInt_M>(key);
+	} //END genDet
+
+
+	/**
+	 * Finds the determinant and inverse of the key with the elimination of GLn_Zm
+	 * @return The key with its determinant and inverse
+	 * @throws MatrixException Never, the key is invertible
+	 */
+	@Benchmark
+	public GLn_Zm genDetZm() throws MatrixException {
+		return new GLn_Zm(key);
+	} //END genDetZm
+
+
+	/**
+	 * Generates a random key with GLn_Zm(int, Z_M, SplittableRandom)
+	 * @return The key
+	 * @throws MatrixException Never, the size is positive
+	 */
+	@Benchmark
+	public GLn_Zm keyGen() throws MatrixException {
+		return new GLn_Zm(cipherSize, z, rand);
+	} //END keyGen
+
+
+	/**
+	 * Returns an nxn Grid of random residues
+	 * @return An nxn Grid of random residues
+	 */
+	private Grid<ModInt_M> randomGrid() {
+		Grid<ModInt_M> grid = new Grid<ModInt_M>(cipherSize, cipherSize);
+
+		for (int i = 0; i < cipherSize; i++)
+			for (int j = 0; j < cipherSize; j++)
+				grid.set(i,j, ModInt_M.valueOf(rand.nextInt(alphabetSize), z));
+
+		return grid;
+	} //END randomGrid
+
+} //END MatrixBenchmark
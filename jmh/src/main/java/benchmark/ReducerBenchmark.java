@@ -0,0 +1,80 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import ring.modInt.Reducer;
+
+/**
+ * Compares reducing 64-bit products of residues with the Reducer of a modulus against the
+ * remainder operator
+ * 256 is reduced by a MaskReducer and every other modulus by a BarrettReducer.
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReducerBenchmark {
+
+	private static final int OPERANDS = 1024;
+
+	@Param({"95", "256", "65537", "1000003", "2147483647"})
+	public int modulus;
+
+	private Reducer red;
+	private long[] products;
+
+
+	/**
+	 * Builds the Reducer and the random products of residues
+	 */
+	@Setup
+	public void setup() {
+		SplittableRandom rand = new SplittableRandom(Fixtures.SEED);
+
+		red = Reducer.of(modulus);
+		products = new long[OPERANDS];
+
+		for (int i = 0; i < OPERANDS; i++)
+			products[i] = (long) rand.nextInt(modulus) * rand.nextInt(modulus);
+	} //END setup
+
+
+	/**
+	 * Reduces every product with the remainder operator
+	 * @return The sum of the residues, so they are not eliminated
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPERANDS)
+	public long remainder() {
+		long sum = 0;
+		int m = modulus;
+
+		for (long p : products)
+			sum += p % m;
+
+		return sum;
+	} //END remainder
+
+
+	/**
+	 * Reduces every product with the Reducer
+	 * @return The sum of the residues, so they are not eliminated
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPERANDS)
+	public long reducer() {
+		long sum = 0;
+
+		for (long p : products)
+			sum += red.reduce(p);
+
+		return sum;
+	} //END reducer
+
+} //END ReducerBenchmark
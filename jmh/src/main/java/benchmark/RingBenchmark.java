@@ -0,0 +1,102 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import ring.modInt.ModInt_M;
+import ring.modInt.Z_M;
+
+/**
+ * Benchmarks the arithmetic of Z_M and ModInt_M
+ * Small moduli use the tables of Z_M; 65537 is above every table.
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RingBenchmark {
+
+	private static final int OPERANDS = 1024;
+
+	@Param({"26", "95", "256", "65537"})
+	public int alphabetSize;
+
+	private Z_M z;
+	private int[] residues;
+	private ModInt_M[] x;
+	private ModInt_M[] y;
+
+
+	/**
+	 * Builds the Z_M and the random operands
+	 */
+	@Setup
+	public void setup() {
+		SplittableRandom rand = new SplittableRandom(Fixtures.SEED);
+
+		z = new Z_M(alphabetSize);
+		residues = new int[OPERANDS];
+		x = new ModInt_M[OPERANDS];
+		y = new ModInt_M[OPERANDS];
+
+		for (int i = 0; i < OPERANDS; i++) {
+			residues[i] = rand.nextInt(alphabetSize);
+			x[i] = ModInt_M.valueOf(rand.nextInt(alphabetSize), z);
+			y[i] = ModInt_M.valueOf(rand.nextInt(alphabetSize), z);
+		}
+	} //END setup
+
+
+	/**
+	 * Inverts every operand with Z_M.getMultInverse
+	 * @return The sum of the inverses, so they are not eliminated
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPERANDS)
+	public int getMultInverse() {
+		int sum = 0;
+
+		for (int r : residues)
+			sum += z.getMultInverse(r);
+
+		return sum;
+	} //END getMultInverse
+
+
+	/**
+	 * Adds every pair of operands with ModInt_M.add
+	 * @return The sum of the values of the sums, so they are not eliminated
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPERANDS)
+	public int add() {
+		int sum = 0;
+
+		for (int i = 0; i < OPERANDS; i++)
+			sum += x[i].add(y[i]).getVal();
+
+		return sum;
+	} //END add
+
+
+	/**
+	 * Multiplies every pair of operands with ModInt_M.mult
+	 * @return The sum of the values of the products, so they are not eliminated
+	 */
+	@Benchmark
+	@OperationsPerInvocation(OPERANDS)
+	public int mult() {
+		int sum = 0;
+
+		for (int i = 0; i < OPERANDS; i++)
+			sum += x[i].mult(y[i]).getVal();
+
+		return sum;
+	} //END mult
+
+} //END RingBenchmark
@@ -0,0 +1,74 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import metrics.CipherEvent;
+import metrics.SimpleMetricsRegistry;
+import metrics.Telemetry;
+
+/**
+ * Measures the cost of the CipherEvent reported by every encrypt and decrypt call
+ * With telemetry off and no JFR recording, event should match none to within noise, and running
+ * with -prof gc should show no allocation; with telemetry on it records into a
+ * SimpleMetricsRegistry.
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TelemetryBenchmark {
+
+	@Param({"off", "on"})
+	public String telemetry;
+
+	private long length;
+
+
+	/**
+	 * Installs a SimpleMetricsRegistry if telemetry is on
+	 */
+	@Setup
+	public void setup() {
+		Telemetry.setRegistry(telemetry.equals("on") ? new SimpleMetricsRegistry() : null);
+		length = 4096;
+	} //END setup
+
+
+	/**
+	 * Removes any installed registry
+	 */
+	@TearDown
+	public void tearDown() {
+		Telemetry.setRegistry(null);
+	} //END tearDown
+
+
+	/**
+	 * Does the work of a call without reporting it, the baseline
+	 * @return The length of the call, so it is not eliminated
+	 */
+	@Benchmark
+	public long none() {
+		return length;
+	} //END none
+
+
+	/**
+	 * Starts and finishes a CipherEvent as every encrypt call does
+	 * @return The length of the call, so it is not eliminated
+	 */
+	@Benchmark
+	public long event() {
+		CipherEvent event = CipherEvent.start(true);
+
+		event.finish(this, length);
+
+		return length;
+	} //END event
+
+} //END TelemetryBenchmark
@@ -0,0 +1,159 @@
+package benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import cipher.UnicodeCipher;
+import matrix.IntModMatrix;
+import matrix.LongModMatrix;
+import matrix.matrixException.MatrixException;
+import ring.modInt.Z_M;
+import ring.modInt.Z_ML;
+
+/**
+ * Measures arithmetic and encryption modulo the number of Unicode scalar values
+ * Building a Z_M of that size builds its Reducer, where a Z_ML builds nothing. The matrix
+ * kernels of IntModMatrix and LongModMatrix apply the same random key to the same random
+ * blocks, and the UnicodeCipher encrypts and decrypts random code points from every plane.
+ * @author Noah Kime
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnicodeBenchmark {
+
+	@Param({"10", "50", "99"})
+	public int cipherSize;
+
+	@Param({"65536"})
+	public int messageSize;
+
+	private IntModMatrix intKey;
+	private LongModMatrix longKey;
+	private int[] intBlocks;
+	private long[] longBlocks;
+	private int[] intOut;
+	private long[] longOut;
+
+	private UnicodeCipher cipher;
+	private String msg;
+	private String enc;
+
+
+	/**
+	 * Builds a random key over each kernel, random blocks of residues, a UnicodeCipher and a
+	 * random message of code points
+	 * @throws MatrixException Thrown if a key cannot be built
+	 */
+	@Setup
+	public void setup() throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(Fixtures.SEED);
+		int count = messageSize / cipherSize;
+
+		long[] key = new long[cipherSize * cipherSize];
+		for (int i = 0; i < key.length; i++)
+			key[i] = rand.nextInt(UnicodeCipher.SIZE);
+
+		int[] intVals = new int[key.length];
+		for (int i = 0; i < key.length; i++)
+			intVals[i] = (int) key[i];
+
+		intKey = new IntModMatrix(cipherSize, cipherSize, intVals, new Z_M(UnicodeCipher.SIZE));
+		longKey = new LongModMatrix(cipherSize, cipherSize, key, new Z_ML(UnicodeCipher.SIZE));
+
+		intBlocks = new int[count * cipherSize];
+		longBlocks = new long[count * cipherSize];
+		for (int i = 0; i < intBlocks.length; i++) {
+			intBlocks[i] = rand.nextInt(UnicodeCipher.SIZE);
+			longBlocks[i] = intBlocks[i];
+		}
+		intOut = new int[intBlocks.length];
+		longOut = new long[longBlocks.length];
+
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < messageSize; i++)
+			sb.appendCodePoint(UnicodeCipher.codePointAt(rand.nextInt(UnicodeCipher.SIZE)));
+
+		cipher = new UnicodeCipher(cipherSize);
+		msg = sb.toString();
+		enc = cipher.encrypt(msg);
+	} //END setup
+
+
+	/**
+	 * Builds a Z_M modulo the number of Unicode scalar values
+	 * @return The Z_M
+	 */
+	@Benchmark
+	public Z_M newZ_M() {
+		return new Z_M(UnicodeCipher.SIZE);
+	} //END newZ_M
+
+
+	/**
+	 * Builds a Z_ML modulo the number of Unicode scalar values
+	 * @return The Z_ML
+	 */
+	@Benchmark
+	public Z_ML newZ_ML() {
+		return new Z_ML(UnicodeCipher.SIZE);
+	} //END newZ_ML
+
+
+	/**
+	 * Applies the key to every block with the int kernel of IntModMatrix
+	 * @return The transformed blocks
+	 */
+	@Benchmark
+	public int[] multAddBlocksInt() {
+		intKey.multAddBlocks(intBlocks, 0, intBlocks.length / cipherSize, null, intOut, 0);
+		return intOut;
+	} //END multAddBlocksInt
+
+
+	/**
+	 * Applies the key to every block with the long kernel of LongModMatrix
+	 * @return The transformed blocks
+	 */
+	@Benchmark
+	public long[] multAddBlocksLong() {
+		longKey.multAddBlocks(longBlocks, 0, longBlocks.length / cipherSize, null, longOut, 0);
+		return longOut;
+	} //END multAddBlocksLong
+
+
+	/**
+	 * Generates a random UnicodeCipher, drawing and inverting its key
+	 * @return The UnicodeCipher
+	 */
+	@Benchmark
+	public UnicodeCipher keyGen() {
+		return new UnicodeCipher(cipherSize);
+	} //END keyGen
+
+
+	/**
+	 * Encrypts the message with the UnicodeCipher
+	 * @return The encrypted message
+	 */
+	@Benchmark
+	public String encrypt() {
+		return cipher.encrypt(msg);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts the message with the UnicodeCipher
+	 * @return The decrypted message
+	 */
+	@Benchmark
+	public String decrypt() {
+		return cipher.decrypt(enc);
+	} //END decrypt
+
+} //END UnicodeBenchmark
@@ -1,96 +1,326 @@
 package cipher;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.Random;
 
+import metrics.CipherEvent;
+import metrics.KeyGenerationEvent;
 import ring.modInt.*;
 
 /**
  * A class used for encrypting and decrypting messages using an Affine cipher
+ * The affine map is a fixed permutation of the Alphabet, so it is tabulated once when the
+ * parameters are set and every character is then encrypted or decrypted with one lookup.
  * @author Noah Kime
  */
 public class AffineCipher extends Cipher {
-	
-	private Z_M modA;
-	private ModInt_M a;
-	private ModInt_M b;
-	
-	
+
+	private final Z_M modA;
+	private final ModInt_M a;
+	private final ModInt_M b;
+
+	//Lookup tables indexed by character, covering every character up to the largest in the Alphabet
+	private final char[] encChars;
+	private final char[] decChars;
+
+	//The images of characters above the tables, which the Alphabet numbers as -1
+	private final char encOther;
+	private final char decOther;
+
+	//Lookup tables indexed by unsigned byte, null if the Alphabet has characters above 255
+	private final byte[] encBytes;
+	private final byte[] decBytes;
+
+
 	/**
 	 * Creates a new AffineCipher with random parameters over a given Alphabet
 	 * @param alph The given Alphabet for this AffineCipher
 	 */
 	public AffineCipher(Alphabet alph) {
-		this.alph = alph;
+		super(alph);
+
 		this.modA = new Z_M(alph.getSize());
-		
-		this.setA();
-		this.setB();
+
+		//01 DRAW THE PARAMETERS
+		KeyGenerationEvent event = KeyGenerationEvent.start();
+		this.a = this.genA();
+		this.b = this.genB();
+
+		//02 TABULATE BOTH MAPS OVER CHARACTER NUMBERS, THEN OVER CHARACTERS AND BYTES
+		char[] encNum = this.numTable(true);
+		char[] decNum = this.numTable(false);
+
+		this.encOther = encNum[encNum.length - 1];
+		this.decOther = decNum[decNum.length - 1];
+		this.encChars = this.charTable(encNum);
+		this.decChars = this.charTable(decNum);
+		this.encBytes = latin1Table(encChars, encOther);
+		this.decBytes = latin1Table(decChars, decOther);
+		event.finish(this, 1, alph.getSize(), 1);
 	} //END AffineCipher (constructor)
-	
-	
+
+
 	/**
-	 * Encrypts a given message String using this AffineCipher and returns the encoded result 
+	 * Encrypts a given message String using this AffineCipher and returns the encoded result
 	 * @param msg The given message String to be encrypted
 	 * @return The encoded version of the given message String
 	 */
 	public String encrypt(String msg) {
-		StringBuilder msgSB = new StringBuilder(msg);
-		StringBuilder encSB = new StringBuilder();
-		
-		ModInt_M temp;
-		
-		for (int i = 0; i < msgSB.length(); i++) {
-			temp = new ModInt_M(alph.getCharNum(msgSB.charAt(i)), modA);
-			temp = a.mult(temp).add(b);
-			
-			encSB.append(alph.getChar(temp.getVal()));
-		}
-		
-		return encSB.toString();
+		CipherEvent event = CipherEvent.start(true);
+		char[] chars = msg.toCharArray();
+
+		this.encrypt(chars, 0, chars, 0, chars.length);
+		event.finish(this, chars.length);
+
+		return new String(chars);
 	} //END encrypt
 
-	
+
 	/**
 	 * Decrypts a given message String using this AffineCipher and returns the decoded result
 	 * @param msg The given message String to be decoded
 	 * @return The decoded version of the given message String
 	 */
 	public String decrypt(String msg) {
-		StringBuilder msgSB = new StringBuilder(msg);
-		StringBuilder decSB = new StringBuilder();
-		
-		ModInt_M temp;
-		
-		for (int i = 0; i < msgSB.length(); i++) {	
-			temp = new ModInt_M(alph.getCharNum(msgSB.charAt(i)), modA);
-			temp = temp.add(b.getAddInverse()).mult(a.getMultInverse());
-			
-			decSB.append(alph.getChar(temp.getVal()));
-		}
-		
-		return decSB.toString();
+		CipherEvent event = CipherEvent.start(false);
+		char[] chars = msg.toCharArray();
+
+		this.decrypt(chars, 0, chars, 0, chars.length);
+		event.finish(this, chars.length);
+
+		return new String(chars);
+	} //END decrypt
+
+
+	/**
+	 * Encrypts a range of a given char array into a given destination array
+	 * The source and destination may be the same array.
+	 * @param src The given char array to be encrypted
+	 * @param srcOff The position of the first char to be encrypted
+	 * @param dst The char array the encoded chars are written to
+	 * @param dstOff The position the first encoded char is written to
+	 * @param len The number of chars to be encrypted
+	 */
+	public void encrypt(char[] src, int srcOff, char[] dst, int dstOff, int len) {
+		map(encChars, encOther, src, srcOff, dst, dstOff, len);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts a range of a given char array into a given destination array
+	 * The source and destination may be the same array.
+	 * @param src The given char array to be decoded
+	 * @param srcOff The position of the first char to be decoded
+	 * @param dst The char array the decoded chars are written to
+	 * @param dstOff The position the first decoded char is written to
+	 * @param len The number of chars to be decoded
+	 */
+	public void decrypt(char[] src, int srcOff, char[] dst, int dstOff, int len) {
+		map(decChars, decOther, src, srcOff, dst, dstOff, len);
+	} //END decrypt
+
+
+	@Override
+	protected void encryptBlocks(char[] src, int srcOff, char[] dst, int dstOff, int len) {
+		this.encrypt(src, srcOff, dst, dstOff, len);
+	} //END encryptBlocks
+
+
+	@Override
+	protected void decryptBlocks(char[] src, int srcOff, char[] dst, int dstOff, int len) {
+		this.decrypt(src, srcOff, dst, dstOff, len);
+	} //END decryptBlocks
+
+
+	@Override
+	protected void encryptBlocks(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len) {
+		map(byteTable(encBytes), src, srcOff, dst, dstOff, len);
+	} //END encryptBlocks
+
+
+	@Override
+	protected void decryptBlocks(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len) {
+		map(byteTable(decBytes), src, srcOff, dst, dstOff, len);
+	} //END decryptBlocks
+
+
+	/**
+	 * Encrypts a range of a given byte array, read as ISO-8859-1 characters, into a given
+	 * destination array
+	 * The source and destination may be the same array.
+	 * @param src The given byte array to be encrypted
+	 * @param srcOff The position of the first byte to be encrypted
+	 * @param dst The byte array the encoded bytes are written to
+	 * @param dstOff The position the first encoded byte is written to
+	 * @param len The number of bytes to be encrypted
+	 * @throws UnsupportedOperationException Thrown if the Alphabet has characters above 255
+	 */
+	public void encrypt(byte[] src, int srcOff, byte[] dst, int dstOff, int len) {
+		map(byteTable(encBytes), src, srcOff, dst, dstOff, len);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts a range of a given byte array, read as ISO-8859-1 characters, into a given
+	 * destination array
+	 * The source and destination may be the same array.
+	 * @param src The given byte array to be decoded
+	 * @param srcOff The position of the first byte to be decoded
+	 * @param dst The byte array the decoded bytes are written to
+	 * @param dstOff The position the first decoded byte is written to
+	 * @param len The number of bytes to be decoded
+	 * @throws UnsupportedOperationException Thrown if the Alphabet has characters above 255
+	 */
+	public void decrypt(byte[] src, int srcOff, byte[] dst, int dstOff, int len) {
+		map(byteTable(decBytes), src, srcOff, dst, dstOff, len);
 	} //END decrypt
 
-	
+
+	/**
+	 * Maps a range of chars through a given lookup table
+	 * @param table The given lookup table
+	 * @param other The image of chars beyond the given table
+	 * @param src The source array
+	 * @param srcOff The position of the first source char
+	 * @param dst The destination array
+	 * @param dstOff The position of the first destination char
+	 * @param len The number of chars to be mapped
+	 */
+	private static void map(char[] table, char other, char[] src, int srcOff, char[] dst, int dstOff, int len) {
+		for (int i = 0; i < len; i++) {
+			char c = src[srcOff + i];
+			dst[dstOff + i] = (c < table.length) ? table[c] : other;
+		}
+	} //END map
+
+
+	/**
+	 * Maps a range of bytes through a given lookup table of 256 entries
+	 * @param table The given lookup table
+	 * @param src The source array
+	 * @param srcOff The position of the first source byte
+	 * @param dst The destination array
+	 * @param dstOff The position of the first destination byte
+	 * @param len The number of bytes to be mapped
+	 */
+	private static void map(byte[] table, byte[] src, int srcOff, byte[] dst, int dstOff, int len) {
+		for (int i = 0; i < len; i++)
+			dst[dstOff + i] = table[src[srcOff + i] & 0xFF];
+	} //END map
+
+
+	/**
+	 * Maps a range of a ByteBuffer through a given lookup table of 256 entries, using absolute positions
+	 * @param table The given lookup table
+	 * @param src The source buffer
+	 * @param srcOff The position of the first source byte
+	 * @param dst The destination buffer
+	 * @param dstOff The position of the first destination byte
+	 * @param len The number of bytes to be mapped
+	 */
+	private static void map(byte[] table, ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len) {
+		for (int i = 0; i < len; i++)
+			dst.put(dstOff + i, table[src.get(srcOff + i) & 0xFF]);
+	} //END map
+
+
+	/**
+	 * Returns a given byte lookup table, checking that this AffineCipher has one
+	 * @param table The given byte lookup table
+	 * @return The given byte lookup table
+	 * @throws UnsupportedOperationException Thrown if the Alphabet has characters above 255
+	 */
+	private byte[] byteTable(byte[] table) {
+		if (table == null)
+			throw new UnsupportedOperationException("Alphabet has characters outside ISO-8859-1");
+
+		return table;
+	} //END byteTable
+
+
 	/**
 	 * Randomly generates the multiplicative parameter, a, using the given Alphabet size
+	 * @return The multiplicative parameter, a unit
 	 */
-	private void setA() {
+	private ModInt_M genA() {
 		Random rand = new Random();
-		ArrayList<Integer> multSet = modA.getMultSet();
-		
-		a = new ModInt_M(multSet.get(rand.nextInt(multSet.size())), modA);
-	} //END setA
-	
-	
+
+		return ModInt_M.valueOf(modA.randomUnit(rand), modA);
+	} //END genA
+
+
 	/**
 	 * Randomly generates the additive parameter, b
+	 * @return The additive parameter, nonzero
 	 */
-	private void setB() {
+	private ModInt_M genB() {
 		Random rand = new Random();
-		
-		b = new ModInt_M(rand.nextInt(alph.getSize() - 1) + 1, modA);
-	} //END setB
-	
+
+		return ModInt_M.valueOf(rand.nextInt(alph.getSize() - 1) + 1, modA);
+	} //END genB
+
+
+	/**
+	 * Tabulates the encryption map x -> ax + b or the decryption map x -> a^(-1)(x - b) over
+	 * character numbers
+	 * @param encrypt True for the encryption map and false for the decryption map
+	 * @return The image of each character number
+	 */
+	private char[] numTable(boolean encrypt) {
+		int size = alph.getSize();
+		ModInt_M aInv = a.getMultInverse();
+		ModInt_M bInv = b.getAddInverse();
+		char[] table = new char[size];
+
+		for (int i = 0; i < size; i++) {
+			ModInt_M x = ModInt_M.valueOf(i, modA);
+
+			table[i] = alph.charAt(encrypt ? a.mult(x).add(b).getVal() : x.add(bInv).mult(aInv).getVal());
+		}
+
+		return table;
+	} //END numTable
+
+
+	/**
+	 * Tabulates a map over character numbers over every character up to the largest character of
+	 * the Alphabet, numbering unknown characters as -1
+	 * @param numTable The image of each character number
+	 * @return The image of each character
+	 */
+	private char[] charTable(char[] numTable) {
+		int maxChar = 0;
+		for (int i = 0; i < numTable.length; i++)
+			maxChar = Math.max(maxChar, alph.charAt(i));
+
+		char[] table = new char[maxChar + 1];
+
+		for (int c = 0; c <= maxChar; c++) {
+			int num = alph.indexOf((char) c);
+
+			table[c] = (num == -1) ? numTable[numTable.length - 1] : numTable[num];
+		}
+
+		return table;
+	} //END charTable
+
+
+	/**
+	 * Tabulates a map over characters over every byte, if every character is in ISO-8859-1
+	 * @param charTable The image of each character up to the largest character of the Alphabet
+	 * @param other The image of characters above the given table
+	 * @return The image of each unsigned byte, or null if the Alphabet has characters above 255
+	 */
+	private static byte[] latin1Table(char[] charTable, char other) {
+		if (charTable.length > 256)
+			return null;
+
+		byte[] table = new byte[256];
+
+		for (int c = 0; c < 256; c++)
+			table[c] = (byte) ((c < charTable.length) ? charTable[c] : other);
+
+		return table;
+	} //END latin1Table
+
 } //END AffineCipher
@@ -1,113 +1,266 @@
 package cipher;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+
+import matrix.Kernel;
 
 /**
- * A class that adapts a String of characters into an indexed series of characters 
+ * A class that adapts a String of characters into an indexed series of characters
+ * Characters are kept sorted in a char[] and numbered through a dense reverse index
+ * covering every character up to the largest in this Alphabet, so both directions
+ * are a single array lookup. An Alphabet is immutable and may be shared between threads.
+ * The byte Alphabet holds the 256 characters 0 to 255, so every byte is its own number and the
+ * ciphers over it encrypt binary data directly.
  * @author Noah Kime
  */
 public class Alphabet {
 
-	private ArrayList<Character> alph;
-	
+	//The characters of this Alphabet, from least to greatest
+	private final char[] alph;
+
+	//The number of each character up to the greatest in this Alphabet, -1 if absent
+	private final int[] index;
+
+	//The characters of this Alphabet widened to ints, for the Kernel to look up
+	private final int[] codes;
+
+	//True if this Alphabet consists of exactly the characters 0 to 255
+	private final boolean bytes;
+
 	//A default String of printable ASCII Characters
-	private final String DEFAULT_PRINTABLE_CHARS =
+	private static final String DEFAULT_PRINTABLE_CHARS =
 			"\n !\"#$%&'()*+,-./0123456789:;<=>?@"
 			+ "ABCDEFGHIJKLMNOPQRSTUVWXYZ[\\]^_`"
 			+ "abcdefghijklmnopqrstuvwxyz{|}~";
-	
+
+	//The Alphabet of every byte
+	private static final Alphabet BYTES = new Alphabet(byteChars());
+
 	/**
 	 * Creates a new Alphabet with a set of default printable ASCII characters
 	 */
 	public Alphabet() {
-		this.alph = new ArrayList<Character>();
-		this.addStringChars(DEFAULT_PRINTABLE_CHARS);
-		this.sort();
+		this(DEFAULT_PRINTABLE_CHARS);
 	} //END Alphabet (constructor)
-	
-	
+
+
 	/**
 	 * Creates a new Alphabet using only characters from a given String
 	 * @param s The given String of characters for this Alphabet
 	 */
 	public Alphabet(String s) {
-		this.alph = new ArrayList<Character>();
-		this.addStringChars(s);
-		this.sort();
+		this.alph = distinctChars(s);
+		this.index = reverseIndex(alph);
+		this.codes = new int[alph.length];
+
+		for (int i = 0; i < alph.length; i++)
+			codes[i] = alph[i];
+
+		this.bytes = alph.length == 256 && alph[255] == 255;
 	} //END Alphabet (constructor)
-	
-	
+
+
+	/**
+	 * Returns the byte Alphabet, holding the 256 characters 0 to 255 in order
+	 * Every character is its own number, so a byte b is numbered b & 0xFF.
+	 * @return The byte Alphabet
+	 */
+	public static Alphabet bytes() {
+		return BYTES;
+	} //END bytes
+
+
+	/**
+	 * Returns true if this Alphabet consists of exactly the characters 0 to 255
+	 * Only ciphers over such an Alphabet encrypt binary data, as any other Alphabet misses some
+	 * byte values.
+	 * @return True if this Alphabet is the byte Alphabet, false otherwise
+	 */
+	public boolean isBytes() {
+		return bytes;
+	} //END isBytes
+
+
 	/**
 	 * Returns the ith character of this ALphabet
 	 * @param i The index of the desired character
 	 * @return The ith character of this Alphabet
 	 */
 	public Character getChar(int i) {
-		return alph.get(i);
+		return alph[i];
 	} //END getChar
-	
-	
+
+
+	/**
+	 * Returns the ith character of this Alphabet without boxing
+	 * @param i The index of the desired character
+	 * @return The ith character of this Alphabet
+	 */
+	public char charAt(int i) {
+		return alph[i];
+	} //END charAt
+
+
 	/**
 	 * Returns true if a given Character is in this Alphabet
 	 * @param c The given character
 	 * @return True if the given Character is in this Alphabet, false otherwise
 	 */
 	public boolean containsChar(Character c) {
-		return alph.contains(c);
+		return this.getCharNum(c) != -1;
 	} //END containsChar
-	
-	
+
+
 	/**
 	 * Returns the index number of a given Character and -1 if it is not present
 	 * @param c The given Character
-	 * @return
+	 * @return The index number of the given Character and -1 if it is not present
 	 */
 	public int getCharNum(Character c) {
-		return alph.indexOf(c);
+		return (c == null) ? -1 : this.indexOf(c);
 	} //END getCharNum
-	
-	
+
+
+	/**
+	 * Returns the index number of a given character without boxing and -1 if it is not present
+	 * @param c The given character
+	 * @return The index number of the given character and -1 if it is not present
+	 */
+	public int indexOf(char c) {
+		return (c < index.length) ? index[c] : -1;
+	} //END indexOf
+
+
+	/**
+	 * Writes the index number of each character of a given sequence into a given array
+	 * Characters that are not present are numbered -1.
+	 * @param s The given sequence of characters
+	 * @param nums The array the index numbers are written to, from position 0
+	 */
+	public void encode(CharSequence s, int[] nums) {
+		for (int i = 0; i < s.length(); i++)
+			nums[i] = this.indexOf(s.charAt(i));
+	} //END encode
+
+
+	/**
+	 * Writes the character numbered by each entry of a given array into a given char array
+	 * @param nums The given index numbers
+	 * @param chars The array the characters are written to, from position 0
+	 */
+	public void decode(int[] nums, char[] chars) {
+		this.decode(nums, 0, chars, 0, nums.length);
+	} //END decode
+
+
+	/**
+	 * Writes the index number of each of a range of characters into a given array
+	 * Characters that are not present are numbered -1.
+	 * @param chars The given characters
+	 * @param charsOff The position of the first character
+	 * @param nums The array the index numbers are written to
+	 * @param numsOff The position the first index number is written to
+	 * @param len The number of characters
+	 */
+	public void encode(char[] chars, int charsOff, int[] nums, int numsOff, int len) {
+		Kernel.DEFAULT.lookup(index, chars, charsOff, -1, nums, numsOff, len);
+	} //END encode
+
+
+	/**
+	 * Writes the character numbered by each of a range of index numbers into a given char array
+	 * @param nums The given index numbers, each in [0,size)
+	 * @param numsOff The position of the first index number
+	 * @param chars The array the characters are written to
+	 * @param charsOff The position the first character is written to
+	 * @param len The number of index numbers
+	 */
+	public void decode(int[] nums, int numsOff, char[] chars, int charsOff, int len) {
+		Kernel.DEFAULT.lookup(codes, nums, numsOff, chars, charsOff, len);
+	} //END decode
+
+
 	/**
 	 * Returns the number of Characters in this Alphabet
 	 * @return The number of Characters in this Alphabet
 	 */
 	public int getSize() {
-		return alph.size();
+		return alph.length;
 	} //END getSize
-	
-	
+
+
+	/**
+	 * Returns the distinct characters of a given String, from least to greatest
+	 * @param s The given String
+	 * @return The distinct characters of the given String, from least to greatest
+	 */
+	private static char[] distinctChars(String s) {
+		//01 MARK EACH CHARACTER PRESENT IN s
+		boolean[] present = new boolean[Character.MAX_VALUE + 1];
+		int size = 0;
+
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+
+			if (!present[c]) {
+				present[c] = true;
+				size++;
+			}
+		}
+
+		//02 COLLECT THE MARKED CHARACTERS IN INCREASING ORDER
+		char[] chars = new char[size];
+
+		for (int c = 0, i = 0; i < size; c++)
+			if (present[c])
+				chars[i++] = (char) c;
+
+		return chars;
+	} //END distinctChars
+
+
 	/**
-	 * Sorts this Alphabet from least ASCII value to greatest
+	 * Returns the String of the 256 characters 0 to 255
+	 * @return The String of every byte value as a character
 	 */
-	private void sort() {
-		Collections.sort(alph);
-	} //END sort
+	private static String byteChars() {
+		char[] chars = new char[256];
+
+		for (int i = 0; i < chars.length; i++)
+			chars[i] = (char) i;
+
+		return new String(chars);
+	} //END byteChars
+
 
-	
 	/**
-	 * Adds each distict Character from a given String to this Alphabet
-	 * @param s The given String
+	 * Returns the number of each character up to the greatest of given sorted characters
+	 * @param chars The given characters, from least to greatest
+	 * @return The number of each character up to the greatest, -1 for characters not given
 	 */
-	private void addStringChars(String s) {
-		for (int i = 0; i < s.length(); i++)
-			if (!alph.contains(s.charAt(i)))
-				alph.add(s.charAt(i));
-	} //END addStringChars
-	
-	
+	private static int[] reverseIndex(char[] chars) {
+		int[] index = new int[(chars.length == 0) ? 0 : chars[chars.length - 1] + 1];
+
+		Arrays.fill(index, -1);
+		for (int i = 0; i < chars.length; i++)
+			index[chars[i]] = i;
+
+		return index;
+	} //END reverseIndex
+
+
 	/**Returns the String representation of this Alphabet
 	 * @return The String representation of this Alphabet
 	 */
 	public String toString() {
 		StringBuilder sb = new StringBuilder("[");
-		
-		for (int i = 0; i < alph.size() - 1; i++)
-			sb.append("'" + alph.get(i) + "', ");
-		
-		sb.append("'" + alph.get(alph.size()-1) + "']");
-		
+
+		for (int i = 0; i < alph.length - 1; i++)
+			sb.append("'" + alph[i] + "', ");
+
+		sb.append("'" + alph[alph.length-1] + "']");
+
 		return sb.toString();
 	} //END toString
-	
+
 } //END alphabet
@@ -1,25 +1,442 @@
 package cipher;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import metrics.CipherEvent;
+
 /**
  * A class used for encrypting and decrypting messages
+ * Besides whole Strings, messages can be streamed chunk by chunk from a Reader, an
+ * InputStream or a channel, using memory bounded by CHUNK_SIZE. Ciphers working on blocks
+ * of more than one character pad the final block with spaces when encrypting; the streaming
+ * decrypt methods remove those trailing spaces.
+ * Ciphers over the byte Alphabet also encrypt binary data held in byte arrays and ByteBuffers.
+ * Binary messages are padded as in ISO/IEC 7816-4, with a 0x80 byte followed by as many 0x00
+ * bytes as fill the final block, so that padding is always added and removed exactly; ciphers
+ * on single characters add no padding.
+ * Every Cipher is thread-safe: its Alphabet and key are held in final fields assigned once by
+ * its constructor, the arrays behind them are not written afterwards, and each call works in
+ * arrays of its own, so one instance may encrypt and decrypt on any number of threads at once
+ * without locking. Final fields are safely published, so a constructed Cipher may be handed to
+ * other threads by any means.
  * @author Noah Kime
  */
 public abstract class Cipher {
 
-	protected Alphabet alph;
-	
+	//The number of characters processed at a time by the streaming methods
+	protected static final int CHUNK_SIZE = 1 << 16;
+
+	//The character used to pad the final block of a message
+	protected static final char PAD_CHAR = ' ';
+
+	//The byte starting the padding of a binary message, followed by zeros to the end of the block
+	protected static final byte PAD_MARK = (byte) 0x80;
+
+	protected final Alphabet alph;
+
+
+	/**
+	 * Creates a new Cipher over a given Alphabet
+	 * @param alph The given Alphabet for this Cipher
+	 */
+	protected Cipher(Alphabet alph) {
+		this.alph = alph;
+	} //END Cipher (constructor)
+
+
 	/**
-	 * Encrypts a given message String using this Cipher strategy and returns the encoded result 
+	 * Encrypts a given message String using this Cipher strategy and returns the encoded result
 	 * @param msg The given message String to be encrypted
 	 * @return The encoded version of the given message String
 	 */
 	public abstract String encrypt(String msg);
-	
+
 	/**
 	 * Decrypts a given message String using this Cipher strategy and returns the decoded result
 	 * @param msg The given message String to be decoded
 	 * @return The decoded version of the given message String
 	 */
 	public abstract String decrypt(String msg);
-	
-} //END Cipher
\ No newline at end of file
+
+
+	/**
+	 * Encrypts a whole number of blocks from a given char array into a given destination array
+	 * The source and destination may be the same array.
+	 * @param src The given char array to be encrypted
+	 * @param srcOff The position of the first char to be encrypted
+	 * @param dst The char array the encoded chars are written to
+	 * @param dstOff The position the first encoded char is written to
+	 * @param len The number of chars to be encrypted, a multiple of the block size
+	 */
+	protected abstract void encryptBlocks(char[] src, int srcOff, char[] dst, int dstOff, int len);
+
+
+	/**
+	 * Decrypts a whole number of blocks from a given char array into a given destination array
+	 * The source and destination may be the same array.
+	 * @param src The given char array to be decoded
+	 * @param srcOff The position of the first char to be decoded
+	 * @param dst The char array the decoded chars are written to
+	 * @param dstOff The position the first decoded char is written to
+	 * @param len The number of chars to be decoded, a multiple of the block size
+	 */
+	protected abstract void decryptBlocks(char[] src, int srcOff, char[] dst, int dstOff, int len);
+
+
+	/**
+	 * Encrypts a whole number of blocks of ISO-8859-1 characters from a given ByteBuffer into a
+	 * given destination ByteBuffer, using absolute positions
+	 * The source and destination may be the same buffer.
+	 * @param src The given ByteBuffer to be encrypted
+	 * @param srcOff The position of the first byte to be encrypted
+	 * @param dst The ByteBuffer the encoded bytes are written to
+	 * @param dstOff The position the first encoded byte is written to
+	 * @param len The number of bytes to be encrypted, a multiple of the block size
+	 */
+	protected abstract void encryptBlocks(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len);
+
+
+	/**
+	 * Decrypts a whole number of blocks of ISO-8859-1 characters from a given ByteBuffer into a
+	 * given destination ByteBuffer, using absolute positions
+	 * The source and destination may be the same buffer.
+	 * @param src The given ByteBuffer to be decoded
+	 * @param srcOff The position of the first byte to be decoded
+	 * @param dst The ByteBuffer the decoded bytes are written to
+	 * @param dstOff The position the first decoded byte is written to
+	 * @param len The number of bytes to be decoded, a multiple of the block size
+	 */
+	protected abstract void decryptBlocks(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len);
+
+
+	/**
+	 * Returns the number of characters this Cipher encrypts together
+	 * @return The number of characters this Cipher encrypts together
+	 */
+	protected int getBlockSize() {
+		return 1;
+	} //END getBlockSize
+
+
+	/**
+	 * Returns the length of the encryption of a binary message of a given length
+	 * @param len The given length in bytes
+	 * @return The length of the padded and encrypted message in bytes
+	 */
+	public int getEncryptedLength(int len) {
+		int blockSize = this.getBlockSize();
+
+		return (blockSize == 1) ? len : Math.addExact(len - len % blockSize, blockSize);
+	} //END getEncryptedLength
+
+
+	/**
+	 * Encrypts a given binary message and returns the result
+	 * @param data The given binary message
+	 * @return The padded and encrypted message
+	 * @throws UnsupportedOperationException Thrown if the Alphabet is not the byte Alphabet
+	 */
+	public byte[] encrypt(byte[] data) {
+		byte[] res = new byte[this.getEncryptedLength(data.length)];
+
+		this.encrypt(ByteBuffer.wrap(data), ByteBuffer.wrap(res));
+
+		return res;
+	} //END encrypt
+
+
+	/**
+	 * Decrypts a given binary message and returns the result without its padding
+	 * @param data The given encrypted message
+	 * @return The decrypted message
+	 * @throws UnsupportedOperationException Thrown if the Alphabet is not the byte Alphabet
+	 * @throws IllegalArgumentException Thrown if the message is not a whole number of blocks or
+	 * is not correctly padded
+	 */
+	public byte[] decrypt(byte[] data) {
+		ByteBuffer res = ByteBuffer.allocate(data.length);
+
+		this.decrypt(ByteBuffer.wrap(data), res);
+
+		return Arrays.copyOf(res.array(), res.position());
+	} //END decrypt
+
+
+	/**
+	 * Encrypts the remaining bytes of a given ByteBuffer into a given destination ByteBuffer
+	 * Both buffers are advanced past the bytes read and written, and must not overlap.
+	 * @param src The given binary message
+	 * @param dst The ByteBuffer the result is written to, with getEncryptedLength(src.remaining())
+	 * bytes remaining
+	 * @throws UnsupportedOperationException Thrown if the Alphabet is not the byte Alphabet
+	 * @throws BufferOverflowException Thrown if the destination has too few bytes remaining
+	 */
+	public void encrypt(ByteBuffer src, ByteBuffer dst) {
+		this.checkBytes();
+
+		CipherEvent event = CipherEvent.start(true);
+		int blockSize = this.getBlockSize();
+		int len = src.remaining();
+		int whole = len - len % blockSize;
+		int outLen = this.getEncryptedLength(len);
+
+		if (dst.remaining() < outLen)
+			throw new BufferOverflowException();
+
+		//01 ENCRYPT EVERY WHOLE BLOCK
+		this.encryptBlocks(src, src.position(), dst, dst.position(), whole);
+
+		//02 PAD AND ENCRYPT THE FINAL BLOCK
+		if (outLen > whole) {
+			ByteBuffer last = ByteBuffer.allocate(blockSize);
+
+			last.put(0, src, src.position() + whole, len - whole);
+			last.put(len - whole, PAD_MARK);
+			this.encryptBlocks(last, 0, dst, dst.position() + whole, blockSize);
+		}
+
+		src.position(src.position() + len);
+		dst.position(dst.position() + outLen);
+		event.finish(this, len);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts the remaining bytes of a given ByteBuffer into a given destination ByteBuffer and
+	 * removes the padding
+	 * The source is advanced past every byte read and the destination past the decrypted message
+	 * only. The buffers must not overlap.
+	 * @param src The given encrypted message
+	 * @param dst The ByteBuffer the result is written to, with at least src.remaining() bytes remaining
+	 * @throws UnsupportedOperationException Thrown if the Alphabet is not the byte Alphabet
+	 * @throws IllegalArgumentException Thrown if the message is not a whole number of blocks or
+	 * is not correctly padded
+	 * @throws BufferOverflowException Thrown if the destination has too few bytes remaining
+	 */
+	public void decrypt(ByteBuffer src, ByteBuffer dst) {
+		this.checkBytes();
+
+		CipherEvent event = CipherEvent.start(false);
+		int blockSize = this.getBlockSize();
+		int len = src.remaining();
+
+		if (len % blockSize != 0)
+			throw new IllegalArgumentException("Message is not a whole number of blocks");
+		if (dst.remaining() < len)
+			throw new BufferOverflowException();
+
+		//01 DECRYPT EVERY BLOCK
+		this.decryptBlocks(src, src.position(), dst, dst.position(), len);
+
+		//02 FIND THE PADDING, WHICH MUST BE A MARK FOLLOWED BY ZEROS IN THE FINAL BLOCK
+		int end = len;
+
+		if (blockSize > 1) {
+			int last = dst.position() + len - 1;
+			int pos = last;
+
+			while (len > 0 && pos > last - blockSize && dst.get(pos) == 0)
+				pos--;
+
+			if (len == 0 || pos == last - blockSize || dst.get(pos) != PAD_MARK)
+				throw new IllegalArgumentException("Message is not correctly padded");
+
+			end = pos - dst.position();
+		}
+
+		src.position(src.position() + len);
+		dst.position(dst.position() + end);
+		event.finish(this, len);
+	} //END decrypt
+
+
+	/**
+	 * Checks that this Cipher can encrypt binary data
+	 * @throws UnsupportedOperationException Thrown if the Alphabet is not the byte Alphabet
+	 */
+	private void checkBytes() {
+		if (!alph.isBytes())
+			throw new UnsupportedOperationException("Binary data needs the byte Alphabet");
+	} //END checkBytes
+
+
+	/**
+	 * Encrypts every character read from a given Reader and writes the result to a given Writer
+	 * Neither is closed; the Writer is flushed.
+	 * @param in The given Reader
+	 * @param out The given Writer
+	 * @throws IOException Thrown if reading or writing fails
+	 */
+	public void encrypt(Reader in, Writer out) throws IOException {
+		this.stream(in, out, true);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts every character read from a given Reader and writes the result to a given Writer
+	 * Neither is closed; the Writer is flushed.
+	 * @param in The given Reader
+	 * @param out The given Writer
+	 * @throws IOException Thrown if reading or writing fails
+	 */
+	public void decrypt(Reader in, Writer out) throws IOException {
+		this.stream(in, out, false);
+	} //END decrypt
+
+
+	/**
+	 * Encrypts the text of a given InputStream and writes it to a given OutputStream
+	 * Neither is closed; the OutputStream is flushed.
+	 * @param in The given InputStream
+	 * @param out The given OutputStream
+	 * @param cs The Charset of the text on both streams
+	 * @throws IOException Thrown if reading or writing fails
+	 */
+	public void encrypt(InputStream in, OutputStream out, Charset cs) throws IOException {
+		this.stream(new InputStreamReader(in, cs), new OutputStreamWriter(out, cs), true);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts the text of a given InputStream and writes it to a given OutputStream
+	 * Neither is closed; the OutputStream is flushed.
+	 * @param in The given InputStream
+	 * @param out The given OutputStream
+	 * @param cs The Charset of the text on both streams
+	 * @throws IOException Thrown if reading or writing fails
+	 */
+	public void decrypt(InputStream in, OutputStream out, Charset cs) throws IOException {
+		this.stream(new InputStreamReader(in, cs), new OutputStreamWriter(out, cs), false);
+	} //END decrypt
+
+
+	/**
+	 * Encrypts the text of a given ReadableByteChannel and writes it to a given WritableByteChannel
+	 * Neither is closed.
+	 * @param in The given ReadableByteChannel
+	 * @param out The given WritableByteChannel
+	 * @param cs The Charset of the text on both channels
+	 * @throws IOException Thrown if reading or writing fails
+	 */
+	public void encrypt(ReadableByteChannel in, WritableByteChannel out, Charset cs) throws IOException {
+		this.stream(Channels.newReader(in, cs.newDecoder(), -1), Channels.newWriter(out, cs.newEncoder(), -1), true);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts the text of a given ReadableByteChannel and writes it to a given WritableByteChannel
+	 * Neither is closed.
+	 * @param in The given ReadableByteChannel
+	 * @param out The given WritableByteChannel
+	 * @param cs The Charset of the text on both channels
+	 * @throws IOException Thrown if reading or writing fails
+	 */
+	public void decrypt(ReadableByteChannel in, WritableByteChannel out, Charset cs) throws IOException {
+		this.stream(Channels.newReader(in, cs.newDecoder(), -1), Channels.newWriter(out, cs.newEncoder(), -1), false);
+	} //END decrypt
+
+
+	/**
+	 * Encrypts or decrypts every character read from a given Reader chunk by chunk
+	 * A partial block at the end of a chunk is carried over to the next one.
+	 * @param in The given Reader
+	 * @param out The Writer the result is written to
+	 * @param encrypt True to encrypt and false to decrypt
+	 * @throws IOException Thrown if reading or writing fails
+	 */
+	private void stream(Reader in, Writer out, boolean encrypt) throws IOException {
+		//01 INITIALIZE BUFFERS HOLDING A WHOLE NUMBER OF BLOCKS
+		CipherEvent event = CipherEvent.start(encrypt);
+		long total = 0;
+		int blockSize = this.getBlockSize();
+		int chunk = Math.max(1, CHUNK_SIZE / blockSize) * blockSize;
+		char[] buf = new char[chunk];
+		char[] res = new char[chunk];
+		int filled = 0;
+		int read;
+
+		//pads IS THE NUMBER OF DECODED PAD CHARACTERS HELD BACK, AS THEY MAY END THE MESSAGE
+		int pads = 0;
+
+		//02 PROCESS EVERY WHOLE BLOCK READ, CARRYING ANY PARTIAL BLOCK OVER
+		while ((read = in.read(buf, filled, chunk - filled)) != -1) {
+			filled += read;
+			total += read;
+			int whole = filled - filled % blockSize;
+
+			if (whole > 0) {
+				pads = this.process(res, buf, whole, out, encrypt, pads);
+
+				System.arraycopy(buf, whole, buf, 0, filled - whole);
+				filled -= whole;
+			}
+		}
+
+		//03 PAD AND PROCESS THE FINAL PARTIAL BLOCK
+		if (filled > 0) {
+			while (filled % blockSize != 0)
+				buf[filled++] = PAD_CHAR;
+
+			this.process(res, buf, filled, out, encrypt, pads);
+		}
+
+		out.flush();
+		event.finish(this, total);
+	} //END stream
+
+
+	/**
+	 * Encrypts or decrypts a given number of buffered characters and writes them
+	 * When decrypting blocks of more than one character, a trailing run of pad characters is
+	 * held back until a later character shows it is part of the message.
+	 * @param res The buffer the result is written to before being written out
+	 * @param buf The buffer holding the characters to be processed
+	 * @param len The number of characters to be processed, a multiple of the block size
+	 * @param out The Writer the result is written to
+	 * @param encrypt True to encrypt and false to decrypt
+	 * @param pads The number of pad characters currently held back
+	 * @return The number of pad characters held back after this call
+	 * @throws IOException Thrown if writing fails
+	 */
+	private int process(char[] res, char[] buf, int len, Writer out, boolean encrypt, int pads) throws IOException {
+		if (encrypt) {
+			this.encryptBlocks(buf, 0, res, 0, len);
+			out.write(res, 0, len);
+			return 0;
+		}
+
+		this.decryptBlocks(buf, 0, res, 0, len);
+
+		if (this.getBlockSize() == 1) {
+			out.write(res, 0, len);
+			return 0;
+		}
+
+		int last = len - 1;
+		while (last >= 0 && res[last] == PAD_CHAR)
+			last--;
+
+		if (last < 0)
+			return pads + len;
+
+		for (; pads > 0; pads--)
+			out.write(PAD_CHAR);
+		out.write(res, 0, last + 1);
+
+		return len - last - 1;
+	} //END process
+
+} //END Cipher
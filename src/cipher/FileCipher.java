@@ -0,0 +1,328 @@
+package cipher;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import metrics.CipherEvent;
+
+/**
+ * A class used for encrypting and decrypting files with a given Cipher
+ * Both files are mapped into memory region by region with FileChannel.map and each region is
+ * transformed in place between the mappings, so files larger than the heap are never copied
+ * onto it. Bytes are read as ISO-8859-1 characters, so the Alphabet of the Cipher may only
+ * contain characters up to 255. As with the streaming methods of Cipher, the final block is
+ * padded with spaces when encrypting and trailing spaces are removed when decrypting. Ciphers over
+ * the byte Alphabet encrypt any binary file instead, padding it as in ISO/IEC 7816-4 like
+ * Cipher.encrypt(byte[]), so the decrypted file is identical to the original.
+ * A FileCipher may be shared between threads: each call maps its own regions and reads the
+ * region size once, so changing it only affects later calls.
+ * @author Noah Kime
+ */
+public class FileCipher {
+
+	//The default number of bytes mapped at a time
+	public static final int DEFAULT_REGION_SIZE = 1 << 26;
+
+	private final Cipher cipher;
+	private volatile int regionSize;
+
+
+	/**
+	 * Creates a new FileCipher using a given Cipher and the default region size
+	 * @param cipher The given Cipher
+	 */
+	public FileCipher(Cipher cipher) {
+		this(cipher, DEFAULT_REGION_SIZE);
+	} //END FileCipher (constructor)
+
+
+	/**
+	 * Creates a new FileCipher using a given Cipher and a given region size
+	 * @param cipher The given Cipher
+	 * @param regionSize The number of bytes mapped at a time, rounded down to a whole number of blocks
+	 * @throws IllegalArgumentException Thrown if the Alphabet of the given Cipher has characters
+	 * above 255 or the region size is not positive
+	 */
+	public FileCipher(Cipher cipher, int regionSize) {
+		Alphabet alph = cipher.alph;
+
+		if (alph.charAt(alph.getSize() - 1) > 0xFF)
+			throw new IllegalArgumentException("Alphabet has characters outside ISO-8859-1");
+
+		this.cipher = cipher;
+		this.setRegionSize(regionSize);
+	} //END FileCipher (constructor)
+
+
+	/**
+	 * Returns the number of bytes mapped at a time
+	 * @return The number of bytes mapped at a time
+	 */
+	public int getRegionSize() {
+		return regionSize;
+	} //END getRegionSize
+
+
+	/**
+	 * Sets the number of bytes mapped at a time, rounded down to a whole number of blocks
+	 * @param regionSize The given number of bytes, at least one block is always mapped
+	 * @throws IllegalArgumentException Thrown if the given region size is not positive
+	 */
+	public void setRegionSize(int regionSize) {
+		if (regionSize <= 0)
+			throw new IllegalArgumentException("Region size must be positive: " + regionSize);
+
+		int blockSize = cipher.getBlockSize();
+		this.regionSize = Math.max(1, regionSize / blockSize) * blockSize;
+	} //END setRegionSize
+
+
+	/**
+	 * Encrypts a given file into a given output file, replacing any previous contents
+	 * @param in The path of the file to be encrypted
+	 * @param out The path of the encoded file
+	 * @return The Report of this run
+	 * @throws IOException Thrown if either file cannot be mapped, read or written
+	 */
+	public Report encrypt(Path in, Path out) throws IOException {
+		return this.run(in, out, true);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts a given file into a given output file, replacing any previous contents
+	 * @param in The path of the file to be decoded
+	 * @param out The path of the decoded file
+	 * @return The Report of this run
+	 * @throws IOException Thrown if either file cannot be mapped, read or written
+	 */
+	public Report decrypt(Path in, Path out) throws IOException {
+		return this.run(in, out, false);
+	} //END decrypt
+
+
+	/**
+	 * Encrypts or decrypts a given file into a given output file region by region
+	 * @param in The path of the input file
+	 * @param out The path of the output file
+	 * @param encrypt True to encrypt and false to decrypt
+	 * @return The Report of this run
+	 * @throws IOException Thrown if either file cannot be mapped, read or written
+	 */
+	private Report run(Path in, Path out, boolean encrypt) throws IOException {
+		CipherEvent event = CipherEvent.start(encrypt);
+		long start = System.nanoTime();
+		int blockSize = cipher.getBlockSize();
+		int regionSize = this.regionSize;
+		int regions = 0;
+
+		try (FileChannel src = FileChannel.open(in, StandardOpenOption.READ);
+				FileChannel dst = FileChannel.open(out, StandardOpenOption.READ, StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long size = src.size();
+			boolean binary = cipher.alph.isBytes() && blockSize > 1;
+			long outSize = (binary && encrypt)
+					?	size - size % blockSize + blockSize
+					:	(size + blockSize - 1) / blockSize * blockSize;
+
+			if (binary && !encrypt && (size == 0 || size % blockSize != 0))
+				throw new IOException("Encrypted file is not a whole number of blocks");
+
+			//pads IS THE LENGTH OF THE RUN OF DECODED PAD BYTES ENDING THE OUTPUT SO FAR
+			long pads = 0;
+
+			//01 TRANSFORM EACH REGION BETWEEN THE MAPPED FILES
+			for (long pos = 0; pos < outSize; pos += regionSize) {
+				int len = (int) Math.min(regionSize, outSize - pos);
+				int avail = (int) Math.min(len, size - pos);
+				int whole = avail - avail % blockSize;
+
+				MappedByteBuffer srcMap = src.map(FileChannel.MapMode.READ_ONLY, pos, avail);
+				MappedByteBuffer dstMap = dst.map(FileChannel.MapMode.READ_WRITE, pos, len);
+
+				this.transform(srcMap, 0, dstMap, 0, whole, encrypt);
+
+				//02 PAD AND TRANSFORM THE FINAL PARTIAL BLOCK
+				if (whole < len) {
+					ByteBuffer last = ByteBuffer.allocate(blockSize);
+
+					for (int i = 0; i < blockSize; i++)
+						last.put(i, (whole + i < avail) ? srcMap.get(whole + i) : padByte(whole + i - avail, binary));
+
+					this.transform(last, 0, dstMap, whole, blockSize, encrypt);
+				}
+
+				if (!encrypt && binary && pos + len == outSize)
+					pads = markedPadding(dstMap, len, blockSize);
+				else if (!encrypt && blockSize > 1 && !binary)
+					pads = trailingPads(dstMap, len, pads);
+
+				regions++;
+			}
+
+			//03 DROP THE PADDING FROM THE END OF A DECODED FILE
+			if (pads > 0)
+				dst.truncate(outSize - pads);
+
+			event.finish(cipher, size);
+
+			return new Report(size, dst.size(), regions, System.nanoTime() - start);
+		}
+	} //END run
+
+
+	/**
+	 * Encrypts or decrypts a whole number of blocks between two ByteBuffers
+	 * @param src The source buffer
+	 * @param srcOff The position of the first source byte
+	 * @param dst The destination buffer
+	 * @param dstOff The position of the first destination byte
+	 * @param len The number of bytes, a multiple of the block size
+	 * @param encrypt True to encrypt and false to decrypt
+	 */
+	private void transform(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len, boolean encrypt) {
+		if (encrypt)
+			cipher.encryptBlocks(src, srcOff, dst, dstOff, len);
+		else
+			cipher.decryptBlocks(src, srcOff, dst, dstOff, len);
+	} //END transform
+
+
+	/**
+	 * Returns the ith byte of the padding of a final block
+	 * @param i The position of the byte in the padding
+	 * @param binary True for the padding of binary files, false for spaces
+	 * @return The ith byte of the padding
+	 */
+	private static byte padByte(int i, boolean binary) {
+		if (!binary)
+			return (byte) Cipher.PAD_CHAR;
+
+		return (i == 0) ? Cipher.PAD_MARK : 0;
+	} //END padByte
+
+
+	/**
+	 * Returns the length of the padding of a binary file, a mark followed by zeros in its final block
+	 * @param region The final decoded region
+	 * @param len The length of the final region
+	 * @param blockSize The block size of the Cipher
+	 * @return The number of bytes of padding
+	 * @throws IOException Thrown if the final block is not correctly padded
+	 */
+	private static long markedPadding(ByteBuffer region, int len, int blockSize) throws IOException {
+		int pos = len - 1;
+		while (pos > len - 1 - blockSize && region.get(pos) == 0)
+			pos--;
+
+		if (pos == len - 1 - blockSize || region.get(pos) != Cipher.PAD_MARK)
+			throw new IOException("Encrypted file is not correctly padded");
+
+		return len - pos;
+	} //END markedPadding
+
+
+	/**
+	 * Returns the length of the run of pad bytes ending the output after a given region
+	 * @param region The given decoded region
+	 * @param len The length of the given region
+	 * @param pads The length of the run of pad bytes ending the output before the given region
+	 * @return The length of the run of pad bytes ending the output after the given region
+	 */
+	private static long trailingPads(ByteBuffer region, int len, long pads) {
+		int last = len - 1;
+		while (last >= 0 && region.get(last) == (byte) Cipher.PAD_CHAR)
+			last--;
+
+		return (last < 0) ? pads + len : len - last - 1;
+	} //END trailingPads
+
+
+
+	/**
+	 * A class holding the sizes and timing of one run of a FileCipher
+	 * @author Noah Kime
+	 */
+	public static class Report {
+
+		private final long bytesIn;
+		private final long bytesOut;
+		private final int regions;
+		private final long nanos;
+
+
+		/**
+		 * Creates a new Report from the measurements of a run
+		 * @param bytesIn The number of bytes read
+		 * @param bytesOut The number of bytes written
+		 * @param regions The number of regions mapped
+		 * @param nanos The elapsed time in nanoseconds
+		 */
+		Report(long bytesIn, long bytesOut, int regions, long nanos) {
+			this.bytesIn = bytesIn;
+			this.bytesOut = bytesOut;
+			this.regions = regions;
+			this.nanos = nanos;
+		} //END Report (constructor)
+
+
+		/**
+		 * Returns the number of bytes read
+		 * @return The number of bytes read
+		 */
+		public long getBytesIn() {
+			return bytesIn;
+		} //END getBytesIn
+
+
+		/**
+		 * Returns the number of bytes written
+		 * @return The number of bytes written
+		 */
+		public long getBytesOut() {
+			return bytesOut;
+		} //END getBytesOut
+
+
+		/**
+		 * Returns the number of regions mapped
+		 * @return The number of regions mapped
+		 */
+		public int getRegions() {
+			return regions;
+		} //END getRegions
+
+
+		/**
+		 * Returns the elapsed time in nanoseconds
+		 * @return The elapsed time in nanoseconds
+		 */
+		public long getNanos() {
+			return nanos;
+		} //END getNanos
+
+
+		/**
+		 * Returns the throughput of the run in megabytes (10^6 bytes) read per second
+		 * @return The throughput of the run in megabytes per second
+		 */
+		public double getMegabytesPerSecond() {
+			return (nanos == 0) ? 0 : bytesIn * 1e3 / nanos;
+		} //END getMegabytesPerSecond
+
+
+		/**Returns the String representation of this Report
+		 * @return The String representation of this Report
+		 */
+		public String toString() {
+			return String.format("%d bytes in, %d bytes out, %d regions, %.1f ms, %.1f MB/s",
+					bytesIn, bytesOut, regions, nanos / 1e6, this.getMegabytesPerSecond());
+		} //END toString
+
+	} //END Report
+
+} //END FileCipher
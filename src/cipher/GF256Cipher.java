@@ -0,0 +1,267 @@
+package cipher;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import matrix.GF256Matrix;
+import matrix.GLn_GF256;
+import matrix.matrixException.*;
+import metrics.CipherEvent;
+import metrics.KeyGenerationEvent;
+
+/**
+ * A class used for encrypting and decrypting bytes using a matrix cipher over the field GF(2^8)
+ * Like a MatrixCipher over the byte Alphabet, each block x is encrypted as y = ax + b, but the
+ * arithmetic is that of GF(2^8) rather than of the integers modulo 256: sums are XORs and
+ * products are table lookups. The key a is drawn uniformly from the invertible matrices and
+ * inverted by plain elimination, and decryption is x = a^(-1)y + c, where c = a^(-1)b. Messages
+ * are bytes, or Strings of the characters up to 255, which are read as their ISO-8859-1 bytes;
+ * any other character is rejected rather than truncated to a byte.
+ * @author Noah Kime
+ */
+public class GF256Cipher extends Cipher {
+
+	protected final GLn_GF256 a;
+
+	protected final GF256Matrix aKernel;
+	protected final GF256Matrix aInvKernel;
+	protected final byte[] bKernel;
+	protected final byte[] cKernel;
+
+	protected final int cipherSize;
+	protected static final int MIN_SIZE = 10;
+	protected static final int SIZE_RNG = 90;
+
+	//The number of bytes encrypted at a time from a char array or ByteBuffer
+	protected static final int BATCH_SIZE = 1 << 16;
+
+	/**
+	 * Creates a new GF256Cipher with random parameters
+	 */
+	public GF256Cipher() {
+		this(new Random().nextInt(SIZE_RNG) + MIN_SIZE);
+	} //END GF256Cipher
+
+
+	/**
+	 * Creates a new GF256Cipher with random parameters of a given block size
+	 * @param cipherSize The number of bytes in each block
+	 * @throws IllegalArgumentException Thrown if the block size is not positive
+	 */
+	public GF256Cipher(int cipherSize) {
+		super(Alphabet.bytes());
+
+		if (cipherSize < 1)
+			throw new IllegalArgumentException("Cipher size must be positive: " + cipherSize);
+
+		this.cipherSize = cipherSize;
+
+		//01 DRAW a UNTIL IT IS INVERTIBLE, THEN b
+		KeyGenerationEvent event = KeyGenerationEvent.start();
+		SplittableRandom rand = new SplittableRandom();
+		GLn_GF256 key = null;
+		int attempts = 0;
+
+		while (key == null) {
+			key = this.genA(rand);
+			attempts++;
+		}
+
+		this.a = key;
+		this.bKernel = this.genB();
+
+		//02 PACK a AND a^(-1) INTO PRIMITIVE FORM, WITH THE DECRYPTION OFFSET c = a^(-1)b, AS -b = b
+		this.aKernel = new GF256Matrix(a);
+		this.aInvKernel = new GF256Matrix(a.getInverse());
+		this.cKernel = new byte[cipherSize];
+		aInvKernel.multAddVec(bKernel, 0, null, cKernel, 0);
+		event.finish(this, cipherSize, alph.getSize(), attempts);
+	} //END GF256Cipher
+
+
+	/**
+	 * Encrypts a given message String using this GF256Cipher and returns the encoded result
+	 * The message is padded with spaces to a whole number of blocks.
+	 * @param msg The given message String to be encrypted
+	 * @return The encoded version of the given message String
+	 * @throws IllegalArgumentException Thrown if the message has a character above 255
+	 */
+	public String encrypt(String msg) {
+		CipherEvent event = CipherEvent.start(true);
+		char[] chars = this.padToBlocks(msg);
+
+		this.encryptBlocks(chars, 0, chars, 0, chars.length);
+		event.finish(this, chars.length);
+
+		return new String(chars);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts a given message String using this GF256Cipher and returns the decoded result
+	 * Leading and trailing whitespace, including the padding added by encrypt, is removed.
+	 * @param msg The given message String to be decoded
+	 * @return The decoded version of the given message String
+	 * @throws IllegalArgumentException Thrown if the message has a character above 255
+	 */
+	public String decrypt(String msg) {
+		CipherEvent event = CipherEvent.start(false);
+		char[] chars = this.padToBlocks(msg);
+
+		this.decryptBlocks(chars, 0, chars, 0, chars.length);
+		event.finish(this, chars.length);
+
+		return new String(chars).trim();
+	} //END decrypt
+
+
+	@Override
+	protected void encryptBlocks(char[] src, int srcOff, char[] dst, int dstOff, int len) {
+		this.inBatches(src, srcOff, dst, dstOff, len, aKernel, bKernel);
+	} //END encryptBlocks
+
+
+	@Override
+	protected void decryptBlocks(char[] src, int srcOff, char[] dst, int dstOff, int len) {
+		this.inBatches(src, srcOff, dst, dstOff, len, aInvKernel, cKernel);
+	} //END decryptBlocks
+
+
+	@Override
+	protected void encryptBlocks(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len) {
+		this.inBatches(src, srcOff, dst, dstOff, len, aKernel, bKernel);
+	} //END encryptBlocks
+
+
+	@Override
+	protected void decryptBlocks(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len) {
+		this.inBatches(src, srcOff, dst, dstOff, len, aInvKernel, cKernel);
+	} //END decryptBlocks
+
+
+	/**
+	 * Applies the map y = kx + off to a whole number of blocks of a given char array, a batch of
+	 * blocks at a time
+	 * @param src The given char array
+	 * @param srcOff The position of the first char
+	 * @param dst The char array the results are written to
+	 * @param dstOff The position the first result is written to
+	 * @param len The number of chars, a multiple of the block size
+	 * @param k The matrix of the map
+	 * @param off The offset of the map
+	 * @throws IllegalArgumentException Thrown if a char is above 255
+	 */
+	private void inBatches(char[] src, int srcOff, char[] dst, int dstOff, int len, GF256Matrix k, byte[] off) {
+		int batch = this.getBatchSize(len);
+		byte[] bytes = new byte[batch];
+
+		for (int pos = 0; pos < len; pos += batch) {
+			int n = Math.min(batch, len - pos);
+
+			for (int i = 0; i < n; i++) {
+				char c = src[srcOff + pos + i];
+
+				if (c > 0xFF)
+					throw new IllegalArgumentException("Character above 255: " + Integer.toHexString(c));
+
+				bytes[i] = (byte) c;
+			}
+
+			k.multAddBlocks(bytes, 0, n / cipherSize, off, bytes, 0);
+
+			for (int i = 0; i < n; i++)
+				dst[dstOff + pos + i] = (char) (bytes[i] & 0xFF);
+		}
+	} //END inBatches
+
+
+	/**
+	 * Applies the map y = kx + off to a whole number of blocks of a given ByteBuffer, a batch of
+	 * blocks at a time
+	 * @param src The given ByteBuffer
+	 * @param srcOff The position of the first byte
+	 * @param dst The ByteBuffer the results are written to
+	 * @param dstOff The position the first result is written to
+	 * @param len The number of bytes, a multiple of the block size
+	 * @param k The matrix of the map
+	 * @param off The offset of the map
+	 */
+	private void inBatches(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len, GF256Matrix k, byte[] off) {
+		int batch = this.getBatchSize(len);
+		byte[] bytes = new byte[batch];
+
+		for (int pos = 0; pos < len; pos += batch) {
+			int n = Math.min(batch, len - pos);
+
+			src.get(srcOff + pos, bytes, 0, n);
+			k.multAddBlocks(bytes, 0, n / cipherSize, off, bytes, 0);
+			dst.put(dstOff + pos, bytes, 0, n);
+		}
+	} //END inBatches
+
+
+	/**
+	 * Returns the number of bytes to transform at a time out of a given total
+	 * @param len The given total, a multiple of the block size
+	 * @return The whole number of blocks nearest BATCH_SIZE, or the total if it is smaller
+	 */
+	private int getBatchSize(int len) {
+		return Math.min(len, Math.max(1, BATCH_SIZE / cipherSize) * cipherSize);
+	} //END getBatchSize
+
+
+	@Override
+	protected int getBlockSize() {
+		return cipherSize;
+	} //END getBlockSize
+
+
+	/**
+	 * Randomly draws a multiplicative parameter, a, from a given random number generator
+	 * Called by the constructor once cipherSize is set, until it returns a key.
+	 * @param rand The given random number generator
+	 * @return The parameter drawn, or null if it is not invertible
+	 */
+	protected GLn_GF256 genA(SplittableRandom rand) {
+		try {
+			return new GLn_GF256(cipherSize, rand);
+		}
+		catch (InvalidDetException|InvalidDimException e) {
+			return null;
+		}
+	} //END genA
+
+
+	/**
+	 * Randomly generates the additive parameter, b
+	 * @return The additive parameter, with no zero entries
+	 */
+	private byte[] genB() {
+		Random rand = new Random();
+		byte[] b = new byte[cipherSize];
+
+		for (int i = 0; i < cipherSize; i++)
+			b[i] = (byte) (rand.nextInt(alph.getSize() - 1) + 1);
+
+		return b;
+	} //END genB
+
+
+	/**
+	 * Returns the characters of a given String padded with spaces to a whole number of blocks
+	 * @param msg The given String
+	 * @return The padded characters of the given String
+	 */
+	private char[] padToBlocks(String msg) {
+		int blocks = (msg.length() + cipherSize - 1) / cipherSize;
+		char[] chars = new char[blocks * cipherSize];
+
+		msg.getChars(0, msg.length(), chars, 0);
+		for (int i = msg.length(); i < chars.length; i++)
+			chars[i] = PAD_CHAR;
+
+		return chars;
+	} //END padToBlocks
+
+} //END GF256Cipher
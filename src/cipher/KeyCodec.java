@@ -0,0 +1,326 @@
+package cipher;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import matrix.IntModMatrix;
+import matrix.matrixException.InvalidDimException;
+import ring.modInt.Z_M;
+
+/**
+ * A class that saves and loads the keys of VigenereCiphers and MatrixCiphers in a compact,
+ * versioned binary format
+ * A key is stored big-endian as:
+ * <pre>
+ *   int    magic 'VKEY'
+ *   short  version
+ *   byte   kind, 0 for a VigenereCipher and 1 for a MatrixCipher
+ *   byte   width of each residue in bytes: 1, 2 or 4
+ *   int    number of characters in the Alphabet, then each character as a char
+ *   int    cipherSize n
+ *   int    determinant of a
+ *   n*n    residues of a, row by row
+ *   n*n    residues of the inverse of a, row by row
+ *   n      residues of b
+ *   int    CRC32 of every preceding byte of the key
+ * </pre>
+ * Keys may be concatenated in one file. Loading checks the framing and checksum only: the stored
+ * inverse and determinant are trusted, so no key is eliminated or inverted and loading a large
+ * file of keys is bound by reading it. Consecutive keys over the same Alphabet share one Alphabet
+ * and Z_M.
+ * @author Noah Kime
+ */
+public class KeyCodec {
+
+	public static final int MAGIC = 0x564B4559;
+	public static final short VERSION = 1;
+
+	private static final byte VIGENERE = 0;
+	private static final byte MATRIX = 1;
+
+
+	/**
+	 * Prevents instantiation of KeyCodec
+	 */
+	private KeyCodec() {
+	} //END KeyCodec (constructor)
+
+
+	/**
+	 * Returns the number of bytes the key of a given VigenereCipher takes
+	 * @param cipher The given VigenereCipher
+	 * @return The number of bytes the key of the given VigenereCipher takes
+	 */
+	public static int size(VigenereCipher cipher) {
+		int n = cipher.cipherSize;
+
+		return 4 + 2 + 1 + 1 + 4 + 2 * cipher.alph.getSize() + 4 + 4
+				+ width(cipher.modA.getM()) * (2*n*n + n) + 4;
+	} //END size
+
+
+	/**
+	 * Writes the key of a given VigenereCipher at the position of a given ByteBuffer
+	 * @param cipher The given VigenereCipher
+	 * @param dst The ByteBuffer the key is written to, with at least size(cipher) bytes remaining
+	 */
+	public static void write(VigenereCipher cipher, ByteBuffer dst) {
+		ByteBuffer buf = dst.duplicate().order(ByteOrder.BIG_ENDIAN);
+		int start = buf.position();
+		int width = width(cipher.modA.getM());
+		Alphabet alph = cipher.alph;
+
+		//01 WRITE THE HEADER AND ALPHABET
+		buf.putInt(MAGIC);
+		buf.putShort(VERSION);
+		buf.put((cipher instanceof MatrixCipher) ? MATRIX : VIGENERE);
+		buf.put((byte) width);
+
+		buf.putInt(alph.getSize());
+		for (int i = 0; i < alph.getSize(); i++)
+			buf.putChar(alph.charAt(i));
+
+		//02 WRITE THE PARAMETERS
+		buf.putInt(cipher.cipherSize);
+		buf.putInt(cipher.a.getDet().getVal());
+		putResidues(buf, cipher.aKernel.toArray(), width);
+		putResidues(buf, cipher.aInvKernel.toArray(), width);
+		putResidues(buf, cipher.bKernel, width);
+
+		//03 WRITE THE CHECKSUM
+		buf.putInt(checksum(buf, start, buf.position()));
+
+		dst.position(buf.position());
+	} //END write
+
+
+	/**
+	 * Writes the key of a given VigenereCipher to a given OutputStream
+	 * The OutputStream is not closed.
+	 * @param cipher The given VigenereCipher
+	 * @param out The given OutputStream
+	 * @throws IOException Thrown if writing fails
+	 */
+	public static void write(VigenereCipher cipher, OutputStream out) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(size(cipher));
+
+		write(cipher, buf);
+		out.write(buf.array());
+	} //END write
+
+
+	/**
+	 * Reads the key at the position of a given ByteBuffer and returns the cipher it belongs to
+	 * @param src The given ByteBuffer, positioned after the key once read
+	 * @return The VigenereCipher or MatrixCipher of the key
+	 * @throws IOException Thrown if the key is malformed, of an unknown version, or fails its checksum
+	 */
+	public static VigenereCipher read(ByteBuffer src) throws IOException {
+		return read(src, null);
+	} //END read
+
+
+	/**
+	 * Reads every key from the position of a given ByteBuffer to its limit
+	 * @param src The given ByteBuffer
+	 * @return The ciphers of the keys, in order
+	 * @throws IOException Thrown if a key is malformed, of an unknown version, or fails its checksum
+	 */
+	public static List<VigenereCipher> readAll(ByteBuffer src) throws IOException {
+		List<VigenereCipher> ciphers = new ArrayList<VigenereCipher>();
+		VigenereCipher last = null;
+
+		while (src.hasRemaining()) {
+			last = read(src, last);
+			ciphers.add(last);
+		}
+
+		return ciphers;
+	} //END readAll
+
+
+	/**
+	 * Maps a given file and reads every key in it
+	 * @param file The path of the given file
+	 * @return The ciphers of the keys, in order
+	 * @throws IOException Thrown if the file cannot be mapped, or a key is malformed, of an
+	 * unknown version, or fails its checksum
+	 */
+	public static List<VigenereCipher> readAll(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return readAll(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	} //END readAll
+
+
+	/**
+	 * Reads the key at the position of a given ByteBuffer, reusing the Alphabet and Z_M of a
+	 * previous cipher when the key has the same Alphabet
+	 * @param src The given ByteBuffer, positioned after the key once read
+	 * @param prev The previous cipher read, or null
+	 * @return The VigenereCipher or MatrixCipher of the key
+	 * @throws IOException Thrown if the key is malformed, of an unknown version, or fails its checksum
+	 */
+	private static VigenereCipher read(ByteBuffer src, VigenereCipher prev) throws IOException {
+		ByteBuffer buf = src.duplicate().order(ByteOrder.BIG_ENDIAN);
+		int start = buf.position();
+
+		try {
+			//01 READ AND CHECK THE HEADER
+			if (buf.getInt() != MAGIC)
+				throw new IOException("Not a key: bad magic number");
+			if (buf.getShort() != VERSION)
+				throw new IOException("Unsupported key version");
+
+			byte kind = buf.get();
+			int width = buf.get();
+
+			if ((kind != VIGENERE && kind != MATRIX) || (width != 1 && width != 2 && width != 4))
+				throw new IOException("Malformed key header");
+
+			//02 READ THE ALPHABET, REUSING THE PREVIOUS ONE IF IT IS THE SAME
+			int size = buf.getInt();
+			if (size < 1 || size > buf.remaining() / 2)
+				throw new IOException("Malformed key: bad Alphabet size");
+
+			char[] chars = new char[size];
+			for (int i = 0; i < chars.length; i++)
+				chars[i] = buf.getChar();
+
+			Alphabet alph;
+			Z_M z;
+
+			if (prev != null && sameChars(prev.alph, chars)) {
+				alph = prev.alph;
+				z = prev.modA;
+			}
+			else {
+				alph = new Alphabet(new String(chars));
+				z = new Z_M(alph.getSize());
+			}
+
+			//03 READ THE PARAMETERS
+			int n = buf.getInt();
+			int det = buf.getInt();
+
+			if (n < 1 || (long) width * (2L*n*n + n) > buf.remaining())
+				throw new IOException("Malformed key: bad cipher size");
+
+			int[] a = getResidues(buf, n*n, width);
+			int[] aInv = getResidues(buf, n*n, width);
+			int[] b = getResidues(buf, n, width);
+
+			//04 CHECK THE CHECKSUM
+			if (checksum(buf, start, buf.position()) != buf.getInt())
+				throw new IOException("Key checksum mismatch");
+
+			src.position(buf.position());
+
+			IntModMatrix aKernel = new IntModMatrix(n, n, a, z);
+			IntModMatrix aInvKernel = new IntModMatrix(n, n, aInv, z);
+
+			return (kind == MATRIX)
+					?	new MatrixCipher(alph, z, aKernel, aInvKernel, b, det)
+					:	new VigenereCipher(alph, z, aKernel, aInvKernel, b, det);
+		}
+		catch (RuntimeException|InvalidDimException e) {
+			throw new IOException("Malformed key", e);
+		}
+	} //END read
+
+
+	/**
+	 * Returns the number of bytes needed to store a residue modulo a given modulus
+	 * @param mod The given modulus
+	 * @return 1, 2 or 4
+	 */
+	private static int width(int mod) {
+		return (mod <= 1 << 8) ? 1 : (mod <= 1 << 16) ? 2 : 4;
+	} //END width
+
+
+	/**
+	 * Writes given residues to a given ByteBuffer with a given width
+	 * @param buf The given ByteBuffer
+	 * @param vals The given residues
+	 * @param width The number of bytes per residue
+	 */
+	private static void putResidues(ByteBuffer buf, int[] vals, int width) {
+		for (int v : vals) {
+			if (width == 1)
+				buf.put((byte) v);
+			else if (width == 2)
+				buf.putShort((short) v);
+			else
+				buf.putInt(v);
+		}
+	} //END putResidues
+
+
+	/**
+	 * Reads a given number of residues of a given width from a given ByteBuffer
+	 * @param buf The given ByteBuffer
+	 * @param count The number of residues
+	 * @param width The number of bytes per residue
+	 * @return The residues read
+	 */
+	private static int[] getResidues(ByteBuffer buf, int count, int width) {
+		int[] vals = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			if (width == 1)
+				vals[i] = buf.get() & 0xFF;
+			else if (width == 2)
+				vals[i] = buf.getShort() & 0xFFFF;
+			else
+				vals[i] = buf.getInt();
+		}
+
+		return vals;
+	} //END getResidues
+
+
+	/**
+	 * Returns the CRC32 of a range of a given ByteBuffer
+	 * @param buf The given ByteBuffer
+	 * @param from The position of the first byte
+	 * @param to The position after the last byte
+	 * @return The CRC32 of the range
+	 */
+	private static int checksum(ByteBuffer buf, int from, int to) {
+		ByteBuffer range = buf.duplicate();
+		range.limit(to).position(from);
+
+		CRC32 crc = new CRC32();
+		crc.update(range);
+
+		return (int) crc.getValue();
+	} //END checksum
+
+
+	/**
+	 * Returns true if a given Alphabet consists of exactly the given characters, in order
+	 * @param alph The given Alphabet
+	 * @param chars The given characters
+	 * @return True if the given Alphabet consists of the given characters, false otherwise
+	 */
+	private static boolean sameChars(Alphabet alph, char[] chars) {
+		if (alph.getSize() != chars.length)
+			return false;
+
+		for (int i = 0; i < chars.length; i++)
+			if (alph.charAt(i) != chars[i])
+				return false;
+
+		return true;
+	} //END sameChars
+
+} //END KeyCodec
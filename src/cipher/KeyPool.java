@@ -0,0 +1,364 @@
+package cipher;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A class that keeps a pool of pre-generated Ciphers, refilled on background threads
+ * Constructing a VigenereCipher or MatrixCipher draws a random key and inverts it; a KeyPool
+ * moves that work off the caller's path so take() only removes a ready Cipher from a queue.
+ * Once the pool falls to its low watermark its workers refill it up to its high watermark. A
+ * take() from an empty pool is a miss and constructs a Cipher on the calling thread. Each Cipher
+ * is handed out once. Workers are created by a given ThreadFactory, so they may be virtual threads
+ * where available; generation is CPU-bound, so more workers than cores gains nothing.
+ * A worker whose factory throws backs off, doubling its wait up to MAX_BACKOFF_MILLIS. After
+ * MAX_FAILURES consecutive failures the workers stop, and once the pool is drained take()
+ * throws the last failure rather than retrying it on every call.
+ * @author Noah Kime
+ * @param <C> The type of Cipher in this KeyPool
+ */
+public class KeyPool<C extends Cipher> implements AutoCloseable {
+
+	//The number of consecutive failures after which the workers stop
+	public static final int MAX_FAILURES = 16;
+
+	//The longest a worker waits after a failure
+	public static final long MAX_BACKOFF_MILLIS = 1000;
+
+	private final Supplier<? extends C> factory;
+	private final ArrayBlockingQueue<C> pool;
+	private final int lowWatermark;
+	private final int highWatermark;
+	private final Thread[] workers;
+
+	//Guards refilling, closed and error, and is notified when any changes
+	private final Object lock = new Object();
+	private boolean refilling = true;
+	private volatile boolean closed = false;
+
+	//The failure that stopped the workers, null while they run
+	private volatile RuntimeException error = null;
+	private int consecutiveFailures = 0;
+
+	private final long created = System.nanoTime();
+	private final AtomicLong generated = new AtomicLong();
+	private final AtomicLong generationNanos = new AtomicLong();
+	private final AtomicLong taken = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+
+
+	/**
+	 * Creates a new KeyPool of Ciphers from a given factory with one daemon worker
+	 * @param factory The given factory constructing a new Cipher with a random key
+	 * @param lowWatermark The depth at or below which the pool is refilled
+	 * @param highWatermark The depth the pool is refilled to
+	 */
+	public KeyPool(Supplier<? extends C> factory, int lowWatermark, int highWatermark) {
+		this(factory, lowWatermark, highWatermark, 1, r -> {
+			Thread t = new Thread(r, "KeyPool-worker");
+			t.setDaemon(true);
+			return t;
+		});
+	} //END KeyPool (constructor)
+
+
+	/**
+	 * Creates a new KeyPool of Ciphers from a given factory and starts filling it
+	 * @param factory The given factory constructing a new Cipher with a random key
+	 * @param lowWatermark The depth at or below which the pool is refilled
+	 * @param highWatermark The depth the pool is refilled to
+	 * @param workers The number of background threads generating Ciphers
+	 * @param threads The ThreadFactory creating the background threads
+	 * @throws IllegalArgumentException Thrown if the watermarks are not 0 <= low < high or there
+	 * are no workers
+	 */
+	public KeyPool(Supplier<? extends C> factory, int lowWatermark, int highWatermark, int workers, ThreadFactory threads) {
+		if (lowWatermark < 0 || highWatermark <= lowWatermark || workers < 1)
+			throw new IllegalArgumentException("Requires 0 <= low < high and at least one worker");
+
+		this.factory = factory;
+		this.pool = new ArrayBlockingQueue<C>(highWatermark);
+		this.lowWatermark = lowWatermark;
+		this.highWatermark = highWatermark;
+		this.workers = new Thread[workers];
+
+		for (int i = 0; i < workers; i++) {
+			this.workers[i] = threads.newThread(this::refill);
+			this.workers[i].start();
+		}
+	} //END KeyPool (constructor)
+
+
+	/**
+	 * Removes and returns a Cipher from this KeyPool, constructing one on the calling thread if
+	 * this KeyPool is empty
+	 * @return A Cipher no other caller has been given
+	 * @throws IllegalStateException Thrown if this KeyPool is closed, or is empty and its workers
+	 * stopped after MAX_FAILURES consecutive failures
+	 */
+	public C take() {
+		if (closed)
+			throw new IllegalStateException("KeyPool is closed");
+
+		C cipher = pool.poll();
+		taken.incrementAndGet();
+
+		if (pool.size() <= lowWatermark) {
+			synchronized (lock) {
+				if (!refilling) {
+					refilling = true;
+					lock.notifyAll();
+				}
+			}
+		}
+
+		if (cipher == null) {
+			RuntimeException e = error;
+
+			if (e != null)
+				throw new IllegalStateException("KeyPool workers stopped after " + MAX_FAILURES + " consecutive failures", e);
+
+			misses.incrementAndGet();
+			cipher = factory.get();
+		}
+
+		return cipher;
+	} //END take
+
+
+	/**
+	 * Returns a snapshot of the metrics of this KeyPool
+	 * @return A snapshot of the metrics of this KeyPool
+	 */
+	public Metrics getMetrics() {
+		return new Metrics(pool.size(), generated.get(), generationNanos.get(), taken.get(),
+				misses.get(), failures.get(), dropped.get(), System.nanoTime() - created);
+	} //END getMetrics
+
+
+	/**
+	 * Stops the workers of this KeyPool and discards the Ciphers it holds
+	 */
+	@Override
+	public void close() {
+		synchronized (lock) {
+			closed = true;
+			lock.notifyAll();
+		}
+
+		for (Thread worker : workers)
+			worker.interrupt();
+
+		pool.clear();
+	} //END close
+
+
+	/**
+	 * Generates Ciphers into this KeyPool whenever it is refilling, until it is closed or its
+	 * factory fails MAX_FAILURES times in a row
+	 * Run by each worker.
+	 */
+	private void refill() {
+		long backoff = 1;
+
+		while (true) {
+			//01 WAIT UNTIL THE POOL NEEDS REFILLING
+			synchronized (lock) {
+				while (!closed && error == null && !refilling) {
+					try {
+						lock.wait();
+					}
+					catch (InterruptedException e) {
+						// closed is checked again
+					}
+				}
+
+				if (closed || error != null)
+					return;
+			}
+
+			//02 GENERATE ONE CIPHER, BACKING OFF AFTER A FAILURE
+			long start = System.nanoTime();
+			C cipher;
+
+			try {
+				cipher = factory.get();
+			}
+			catch (RuntimeException e) {
+				failures.incrementAndGet();
+
+				synchronized (lock) {
+					if (++consecutiveFailures >= MAX_FAILURES) {
+						error = e;
+						lock.notifyAll();
+						return;
+					}
+				}
+
+				try {
+					Thread.sleep(backoff);
+				}
+				catch (InterruptedException ie) {
+					// closed is checked again
+				}
+
+				backoff = Math.min(2 * backoff, MAX_BACKOFF_MILLIS);
+				continue;
+			}
+
+			generationNanos.addAndGet(System.nanoTime() - start);
+			generated.incrementAndGet();
+			backoff = 1;
+
+			//03 STOP REFILLING ONCE THE HIGH WATERMARK IS REACHED
+			synchronized (lock) {
+				consecutiveFailures = 0;
+
+				if (!pool.offer(cipher))
+					dropped.incrementAndGet();
+
+				if (pool.size() >= highWatermark)
+					refilling = false;
+			}
+		}
+	} //END refill
+
+
+
+	/**
+	 * A class holding a snapshot of the metrics of a KeyPool
+	 * @author Noah Kime
+	 */
+	public static class Metrics {
+
+		private final int depth;
+		private final long generated;
+		private final long generationNanos;
+		private final long taken;
+		private final long misses;
+		private final long failures;
+		private final long dropped;
+		private final long uptimeNanos;
+
+
+		/**
+		 * Creates a new snapshot of the metrics of a KeyPool
+		 * @param depth The number of Ciphers in the pool
+		 * @param generated The number of Ciphers generated by the workers
+		 * @param generationNanos The time spent by the workers generating Ciphers
+		 * @param taken The number of Ciphers taken
+		 * @param misses The number of Ciphers taken from an empty pool
+		 * @param failures The number of times a worker's factory threw an exception
+		 * @param dropped The number of generated Ciphers discarded because the pool was full
+		 * @param uptimeNanos The time since the pool was created
+		 */
+		Metrics(int depth, long generated, long generationNanos, long taken, long misses, long failures, long dropped, long uptimeNanos) {
+			this.depth = depth;
+			this.generated = generated;
+			this.generationNanos = generationNanos;
+			this.taken = taken;
+			this.misses = misses;
+			this.failures = failures;
+			this.dropped = dropped;
+			this.uptimeNanos = uptimeNanos;
+		} //END Metrics (constructor)
+
+
+		/**
+		 * Returns the number of Ciphers in the pool
+		 * @return The number of Ciphers in the pool
+		 */
+		public int getDepth() {
+			return depth;
+		} //END getDepth
+
+
+		/**
+		 * Returns the number of Ciphers generated by the workers
+		 * @return The number of Ciphers generated by the workers
+		 */
+		public long getGenerated() {
+			return generated;
+		} //END getGenerated
+
+
+		/**
+		 * Returns the number of Ciphers taken
+		 * @return The number of Ciphers taken
+		 */
+		public long getTaken() {
+			return taken;
+		} //END getTaken
+
+
+		/**
+		 * Returns the number of Ciphers taken from an empty pool
+		 * @return The number of Ciphers taken from an empty pool
+		 */
+		public long getMisses() {
+			return misses;
+		} //END getMisses
+
+
+		/**
+		 * Returns the number of times a worker's factory threw an exception
+		 * @return The number of times a worker's factory threw an exception
+		 */
+		public long getFailures() {
+			return failures;
+		} //END getFailures
+
+
+		/**
+		 * Returns the number of generated Ciphers discarded because the pool was full
+		 * Several workers may finish a Cipher as the pool reaches its high watermark; these are
+		 * counted in getGenerated() as well.
+		 * @return The number of generated Ciphers discarded because the pool was full
+		 */
+		public long getDropped() {
+			return dropped;
+		} //END getDropped
+
+
+		/**
+		 * Returns the fraction of Ciphers taken from an empty pool
+		 * @return The fraction of Ciphers taken from an empty pool, 0 if none were taken
+		 */
+		public double getMissRate() {
+			return (taken == 0) ? 0 : (double) misses / taken;
+		} //END getMissRate
+
+
+		/**
+		 * Returns the number of Ciphers a worker generates per second while refilling
+		 * @return The number of Ciphers a worker generates per second while refilling
+		 */
+		public double getRefillRate() {
+			return (generationNanos == 0) ? 0 : generated * 1e9 / generationNanos;
+		} //END getRefillRate
+
+
+		/**
+		 * Returns the number of Ciphers taken per second since the pool was created
+		 * @return The number of Ciphers taken per second since the pool was created
+		 */
+		public double getTakeRate() {
+			return (uptimeNanos == 0) ? 0 : taken * 1e9 / uptimeNanos;
+		} //END getTakeRate
+
+
+		/**Returns the String representation of these Metrics
+		 * @return The String representation of these Metrics
+		 */
+		public String toString() {
+			return String.format("depth %d, generated %d, taken %d, misses %d (%.1f%%), failures %d, dropped %d, refill %.1f/s, take %.1f/s",
+					depth, generated, taken, misses, 100 * this.getMissRate(), failures, dropped, this.getRefillRate(), this.getTakeRate());
+		} //END toString
+
+	} //END Metrics
+
+} //END KeyPool
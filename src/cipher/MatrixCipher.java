@@ -1,7 +1,9 @@
 package cipher;
 
 import matrix.GLn_Zm;
+import matrix.IntModMatrix;
 import matrix.matrixException.*;
+import ring.modInt.Z_M;
 
 /**
  * A class used for encrypting and decrypting messages using a custom matrix cipher
@@ -19,15 +21,45 @@ public class MatrixCipher extends VigenereCipher {
 	
 	
 	/**
-	 * Randomly generates the multiplicative parameter, a, using the given Alphabet size
+	 * Creates a new MatrixCipher with random parameters of a given block size over a given Alphabet
+	 * @param alph The given Alphabet for this MatrixCipher
+	 * @param cipherSize The number of characters in each block
+	 * @throws IllegalArgumentException Thrown if the block size is not positive
 	 */
-	protected void setA() {
+	public MatrixCipher(Alphabet alph, int cipherSize) {
+		super(alph, cipherSize);
+	} //END MatrixCipher
+	
+	
+	/**
+	 * Creates a new MatrixCipher from known parameters, without generating or inverting a key
+	 * Nothing is checked: the caller guarantees that the parameters belong together.
+	 * @param alph The given Alphabet for this MatrixCipher
+	 * @param modA The Z_M of the size of the given Alphabet
+	 * @param aKernel The multiplicative parameter a
+	 * @param aInvKernel The inverse of a
+	 * @param bKernel The additive parameter b, reduced modulo the size of the given Alphabet
+	 * @param det The determinant of a
+	 * @throws InvalidDimException Thrown if b does not match the size of a
+	 */
+	protected MatrixCipher(Alphabet alph, Z_M modA, IntModMatrix aKernel, IntModMatrix aInvKernel, int[] bKernel, int det) throws InvalidDimException {
+		super(alph, modA, aKernel, aInvKernel, bKernel, det);
+	} //END MatrixCipher
+	
+	
+	/**
+	 * Randomly draws a multiplicative parameter, a, using the given Alphabet size
+	 * The key is invertible by construction, so a single draw is needed.
+	 * @return The parameter drawn, never null
+	 * @throws IllegalStateException Thrown if the key cannot be built, which is a bug
+	 */
+	protected GLn_Zm genA() {
 		try { 
-			this.a = new GLn_Zm(cipherSize,modA);
+			return new GLn_Zm(cipherSize,modA);
 		}
 		catch (InvalidDimException|InvalidDetException|OutOfBoundsException e) {
-			e.printStackTrace();
+			throw new IllegalStateException("A PLU key is invertible by construction", e);
 		}
-	} //END setA
+	} //END genA
 
 } //END MatrixCipher
@@ -0,0 +1,234 @@
+package cipher;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import matrix.GLn_ZmL;
+import matrix.LongModMatrix;
+import matrix.matrixException.*;
+import metrics.CipherEvent;
+import metrics.KeyGenerationEvent;
+import ring.modInt.Z_ML;
+
+/**
+ * A class used for encrypting and decrypting text over every Unicode code point using a matrix
+ * cipher
+ * Each block of code points x is encrypted as y = ax + b and decrypted as x = a^(-1)y + c, where
+ * c = -a^(-1)b, as by a MatrixCipher, but over the integers modulo SIZE, the number of Unicode
+ * scalar values. A code point is numbered by closing the gap left by the surrogates, so numbers
+ * and code points are converted by a comparison rather than an Alphabet table, and the key is a
+ * GLn_ZmL, so no unit of the modulus is ever enumerated. Every encrypted code point is a scalar
+ * value, so encrypted Strings are well-formed UTF-16 and survive any Unicode encoding.
+ * A UnicodeCipher is not a Cipher, since its blocks are code points rather than chars: a
+ * supplementary character takes two chars, so a whole number of blocks of chars need not be a
+ * whole number of blocks of code points. Like a Cipher, it holds its key in final fields and is
+ * thread-safe once constructed.
+ * @author Noah Kime
+ */
+public class UnicodeCipher {
+
+	//The number of surrogate code points skipped when numbering code points
+	private static final int SURROGATES = Character.MAX_SURROGATE - Character.MIN_SURROGATE + 1;
+
+	//The number of Unicode scalar values, that is of code points other than surrogates
+	public static final int SIZE = Character.MAX_CODE_POINT + 1 - SURROGATES;
+
+	//The code point used to pad the final block of a message
+	protected static final int PAD_CHAR = ' ';
+
+	protected final Z_ML modA;
+	protected final GLn_ZmL a;
+
+	protected final LongModMatrix aKernel;
+	protected final LongModMatrix aInvKernel;
+	protected final long[] bKernel;
+	protected final long[] cKernel;
+
+	protected final int cipherSize;
+	protected static final int MIN_SIZE = 10;
+	protected static final int SIZE_RNG = 90;
+
+	/**
+	 * Creates a new UnicodeCipher with random parameters
+	 */
+	public UnicodeCipher() {
+		this(new Random().nextInt(SIZE_RNG) + MIN_SIZE);
+	} //END UnicodeCipher
+
+
+	/**
+	 * Creates a new UnicodeCipher with random parameters of a given block size
+	 * @param cipherSize The number of code points in each block
+	 * @throws IllegalArgumentException Thrown if the block size is not positive
+	 */
+	public UnicodeCipher(int cipherSize) {
+		if (cipherSize < 1)
+			throw new IllegalArgumentException("Cipher size must be positive: " + cipherSize);
+
+		this.modA = new Z_ML(SIZE);
+		this.cipherSize = cipherSize;
+
+		//01 DRAW THE PARAMETERS
+		KeyGenerationEvent event = KeyGenerationEvent.start();
+		SplittableRandom rand = new SplittableRandom();
+		this.a = this.genA(rand);
+		this.bKernel = this.genB(rand);
+
+		//02 PACK a AND a^(-1) INTO PRIMITIVE FORM, WITH THE DECRYPTION OFFSET c = -a^(-1)b
+		this.aKernel = new LongModMatrix(a);
+		this.aInvKernel = new LongModMatrix(a.getInverse());
+		this.cKernel = new long[cipherSize];
+
+		long[] negB = new long[cipherSize];
+		for (int i = 0; i < cipherSize; i++)
+			negB[i] = modA.getAddInverse(bKernel[i]);
+
+		aInvKernel.multAddVec(negB, 0, null, cKernel, 0);
+		event.finish(this, cipherSize, SIZE, 1);
+	} //END UnicodeCipher
+
+
+	/**
+	 * Encrypts a given message String using this UnicodeCipher and returns the encoded result
+	 * The message is padded with spaces to a whole number of blocks of code points.
+	 * @param msg The given message String to be encrypted
+	 * @return The encoded version of the given message String
+	 * @throws IllegalArgumentException Thrown if the message has an unpaired surrogate
+	 */
+	public String encrypt(String msg) {
+		CipherEvent event = CipherEvent.start(true);
+		long[] nums = this.toBlocks(msg);
+
+		aKernel.multAddBlocks(nums, 0, nums.length / cipherSize, bKernel, nums, 0);
+		event.finish(this, nums.length);
+
+		return fromBlocks(nums);
+	} //END encrypt
+
+
+	/**
+	 * Decrypts a given message String using this UnicodeCipher and returns the decoded result
+	 * Leading and trailing whitespace, including the padding added by encrypt, is removed.
+	 * @param msg The given message String to be decoded
+	 * @return The decoded version of the given message String
+	 * @throws IllegalArgumentException Thrown if the message has an unpaired surrogate
+	 */
+	public String decrypt(String msg) {
+		CipherEvent event = CipherEvent.start(false);
+		long[] nums = this.toBlocks(msg);
+
+		aInvKernel.multAddBlocks(nums, 0, nums.length / cipherSize, cKernel, nums, 0);
+		event.finish(this, nums.length);
+
+		return fromBlocks(nums).trim();
+	} //END decrypt
+
+
+	/**
+	 * Returns the number of code points this UnicodeCipher encrypts together
+	 * @return The number of code points this UnicodeCipher encrypts together
+	 */
+	public int getBlockSize() {
+		return cipherSize;
+	} //END getBlockSize
+
+
+	/**
+	 * Returns the number of a given code point, its position among the Unicode scalar values
+	 * @param codePoint The given code point, not a surrogate
+	 * @return The number of the given code point, in [0,SIZE)
+	 * @throws IllegalArgumentException Thrown if the code point is a surrogate
+	 */
+	public static int indexOf(int codePoint) {
+		if (codePoint < Character.MIN_SURROGATE)
+			return codePoint;
+		if (codePoint <= Character.MAX_SURROGATE)
+			throw new IllegalArgumentException("Unpaired surrogate: " + Integer.toHexString(codePoint));
+
+		return codePoint - SURROGATES;
+	} //END indexOf
+
+
+	/**
+	 * Returns the code point with a given number, the inverse of indexOf
+	 * @param index The given number, in [0,SIZE)
+	 * @return The Unicode scalar value with the given number
+	 */
+	public static int codePointAt(int index) {
+		return (index < Character.MIN_SURROGATE) ? index : index + SURROGATES;
+	} //END codePointAt
+
+
+	/**
+	 * Randomly generates the multiplicative parameter, a, from a given random number generator
+	 * The key is invertible by construction, so a single draw is needed.
+	 * @param rand The given random number generator
+	 * @return The multiplicative parameter
+	 * @throws IllegalStateException Thrown if the key cannot be built, which is a bug
+	 */
+	protected GLn_ZmL genA(SplittableRandom rand) {
+		try {
+			return new GLn_ZmL(cipherSize, modA, rand);
+		}
+		catch (InvalidDimException|InvalidDetException e) {
+			throw new IllegalStateException("A PLU key is invertible by construction", e);
+		}
+	} //END genA
+
+
+	/**
+	 * Randomly generates the additive parameter, b, from a given random number generator
+	 * @param rand The given random number generator
+	 * @return The additive parameter, with no zero entries
+	 */
+	private long[] genB(SplittableRandom rand) {
+		long[] b = new long[cipherSize];
+
+		for (int i = 0; i < cipherSize; i++)
+			b[i] = rand.nextLong(SIZE - 1) + 1;
+
+		return b;
+	} //END genB
+
+
+	/**
+	 * Returns the numbers of the code points of a given String, padded with spaces to a whole
+	 * number of blocks
+	 * @param msg The given String
+	 * @return The numbers of the padded code points of the given String
+	 * @throws IllegalArgumentException Thrown if the String has an unpaired surrogate
+	 */
+	private long[] toBlocks(String msg) {
+		int count = msg.codePointCount(0, msg.length());
+		int blocks = (count + cipherSize - 1) / cipherSize;
+		long[] nums = new long[blocks * cipherSize];
+
+		for (int i = 0, pos = 0; i < count; i++) {
+			int cp = msg.codePointAt(pos);
+
+			nums[i] = indexOf(cp);
+			pos += Character.charCount(cp);
+		}
+
+		for (int i = count; i < nums.length; i++)
+			nums[i] = indexOf(PAD_CHAR);
+
+		return nums;
+	} //END toBlocks
+
+
+	/**
+	 * Returns the String of the code points with given numbers
+	 * @param nums The given numbers, each in [0,SIZE)
+	 * @return The String of the code points with the given numbers
+	 */
+	private static String fromBlocks(long[] nums) {
+		StringBuilder sb = new StringBuilder(nums.length);
+
+		for (long num : nums)
+			sb.appendCodePoint(codePointAt((int) num));
+
+		return sb.toString();
+	} //END fromBlocks
+
+} //END UnicodeCipher
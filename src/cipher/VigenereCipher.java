@@ -1,174 +1,461 @@
 package cipher;
 
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 import matrix.*;
 import matrix.matrixException.*;
+import metrics.CipherEvent;
+import metrics.KeyGenerationEvent;
 import ring.modInt.ModInt_M;
 import ring.modInt.Z_M;
 
 /**
  * A class used for encrypting and decrypting messages using a Vigenere cipher
+ * Each block x is encrypted as y = ax + b and decrypted with the compiled map x = a^(-1)y + c,
+ * where c = -a^(-1)b.
  * @author Noah Kime
  */
 public class VigenereCipher extends Cipher {
 
-	protected Z_M modA;
-	protected GLn_Zm a;
-	protected Matrix<ModInt_M> b;
+	protected final Z_M modA;
+	protected final GLn_Zm a;
+	protected final Matrix<ModInt_M> b;
 	
-	protected int cipherSize;
-	protected final int MIN_SIZE = 10;
-	protected final int SIZE_RNG = 90;
+	protected final IntModMatrix aKernel;
+	protected final IntModMatrix aInvKernel;
+	protected final int[] bKernel;
+	protected final int[] cKernel;
 	
-	private final String EXCEPTION_MESSAGE = "MESSAGE FAILED TO BE PROCESSED: ";
+	protected final int cipherSize;
+	protected static final int MIN_SIZE = 10;
+	protected static final int SIZE_RNG = 90;
+	
+	//The number of characters encrypted by each task of the parallel methods
+	protected static final int SEGMENT_SIZE = 1 << 16;
 	
 	/**
 	 * Creates a new VigenereCipher with random parameters over a given Alphabet
 	 * @param alph
 	 */
 	public VigenereCipher(Alphabet alph) {
-		this.alph = alph;
+		this(alph, new Random().nextInt(SIZE_RNG) + MIN_SIZE);
+	} //END VigenereCipher
+	
+	
+	/**
+	 * Creates a new VigenereCipher with random parameters of a given block size over a given Alphabet
+	 * @param alph The given Alphabet for this VigenereCipher
+	 * @param cipherSize The number of characters in each block
+	 * @throws IllegalArgumentException Thrown if the block size is not positive
+	 */
+	public VigenereCipher(Alphabet alph, int cipherSize) {
+		super(alph);
+		
+		if (cipherSize < 1)
+			throw new IllegalArgumentException("Cipher size must be positive: " + cipherSize);
+		
 		this.modA = new Z_M(alph.getSize());
+		this.cipherSize = cipherSize;
 		
-		Random rand = new Random();
-		this.cipherSize = rand.nextInt(SIZE_RNG) + MIN_SIZE;
+		//01 DRAW a UNTIL IT IS INVERTIBLE, THEN b
+		KeyGenerationEvent event = KeyGenerationEvent.start();
+		GLn_Zm key = null;
+		int attempts = 0;
+		
+		while (key == null) {
+			key = this.genA();
+			attempts++;
+		}
+		
+		this.a = key;
+		this.b = this.genB();
+		
+		//02 PACK THE PARAMETERS INTO THE PRIMITIVE FORM USED BY ENCRYPT AND DECRYPT
+		this.aKernel = new IntModMatrix(a);
+		this.aInvKernel = new IntModMatrix(a.getInverse());
+		this.bKernel = new IntModMatrix(b).toArray();
+		this.cKernel = this.compileOffset();
+		event.finish(this, cipherSize, alph.getSize(), attempts);
+	} //END VigenereCipher
+	
+	
+	/**
+	 * Creates a new VigenereCipher from known parameters, without generating or inverting a key
+	 * Nothing is checked: the caller guarantees that the parameters belong together.
+	 * @param alph The given Alphabet for this VigenereCipher
+	 * @param modA The Z_M of the size of the given Alphabet
+	 * @param aKernel The multiplicative parameter a
+	 * @param aInvKernel The inverse of a
+	 * @param bKernel The additive parameter b, reduced modulo the size of the given Alphabet
+	 * @param det The determinant of a
+	 * @throws InvalidDimException Thrown if b does not match the size of a
+	 */
+	protected VigenereCipher(Alphabet alph, Z_M modA, IntModMatrix aKernel, IntModMatrix aInvKernel, int[] bKernel, int det) throws InvalidDimException {
+		super(alph);
+		
+		this.modA = modA;
+		this.cipherSize = aKernel.getN();
+		
+		this.aKernel = aKernel;
+		this.aInvKernel = aInvKernel;
+		this.bKernel = bKernel;
 		
-		this.setA();
-		this.setB();
+		this.a = new GLn_Zm(aKernel, aInvKernel, det);
+		this.b = new IntModMatrix(cipherSize, 1, bKernel, modA).toMatrix();
+		this.cKernel = this.compileOffset();
 	} //END VigenereCipher
 	
 	
 	/**
 	 * Encrypts a given message String using this VigenereCipher and returns the encoded result 
+	 * The message is padded with spaces to a whole number of blocks.
 	 * @param msg The given message String to be encrypted
 	 * @return The encoded version of the given message String
 	 */
 	public String encrypt(String msg) {
-		StringBuilder msgSB = new StringBuilder(msg);
-		StringBuilder encSB = new StringBuilder();
+		CipherEvent event = CipherEvent.start(true);
+		char[] chars = this.padToBlocks(msg);
 		
-		try {
-			Matrix<ModInt_M> charsVector;
-		
-			while (msgSB.length() > 0) {
-				charsVector = this.fillVector(msgSB);
-				charsVector = a.multRRet(charsVector).addRet(b);
-				
-				for (int i = 0; i < cipherSize; i++)
-					encSB.append(alph.getChar(charsVector.get(i,0).getVal()));
-				
-				msgSB = (msgSB.length() >= cipherSize) 
-						?	new StringBuilder(msgSB.substring(cipherSize))
-						:	new StringBuilder(msgSB.substring(msgSB.length()));
-			}
-			
-			return encSB.toString();
-		} //END try
-		catch (OutOfBoundsException e) {
-			return EXCEPTION_MESSAGE + "OutOfBoundsException";
-		}
-		catch (InvalidDimException e) {
-			return EXCEPTION_MESSAGE + "InvalidDimException";
-		}
+		this.encryptBlocks(chars, 0, chars, 0, chars.length);
+		event.finish(this, chars.length);
+		
+		return new String(chars);
 	} //END encrypt
 
 	
 	/**
 	 * Decrypts a given message String using this VigenereCipher and returns the decoded result
+	 * Leading and trailing whitespace, including the padding added by encrypt, is removed.
 	 * @param msg The given message String to be decoded
 	 * @return The decoded version of the given message String
 	 */
 	public String decrypt(String msg) {
-		StringBuilder msgSB = new StringBuilder(msg);
-		StringBuilder decSB = new StringBuilder();
+		CipherEvent event = CipherEvent.start(false);
+		char[] chars = this.padToBlocks(msg);
 		
-		try {
-			Matrix<ModInt_M> charsVector;
-			 
-			while (msgSB.length() > 0) {
-				charsVector = fillVector(msgSB);		
-				charsVector = a.getInverse().multRRet(charsVector.addRet(b.multRet(new ModInt_M(-1, modA))));
+		this.decryptBlocks(chars, 0, chars, 0, chars.length);
+		event.finish(this, chars.length);
 
-				for (int i = 0; i < cipherSize; i++) {
-					decSB.append(alph.getChar(charsVector.get(i,0).getVal()));	
-				}
-				
-				msgSB = (msgSB.length() >= cipherSize) 
-						?	new StringBuilder(msgSB.substring(cipherSize))
-						:	new StringBuilder(msgSB.substring(msgSB.length()));
-			}
+		return new String(chars).trim();
+	} //END decrypt
+	
+	
+	/**
+	 * Encrypts a given message String on the common ForkJoinPool and returns the encoded result
+	 * The result is identical to that of encrypt(String).
+	 * @param msg The given message String to be encrypted
+	 * @return The encoded version of the given message String
+	 */
+	public String encryptParallel(String msg) {
+		return this.encryptParallel(msg, ForkJoinPool.commonPool());
+	} //END encryptParallel
+	
+	
+	/**
+	 * Encrypts a given message String on a given Executor and returns the encoded result
+	 * The result is identical to that of encrypt(String).
+	 * @param msg The given message String to be encrypted
+	 * @param exec The Executor running the encryption of each segment
+	 * @return The encoded version of the given message String
+	 */
+	public String encryptParallel(String msg, Executor exec) {
+		CipherEvent event = CipherEvent.start(true);
+		char[] chars = this.padToBlocks(msg);
+		
+		this.inSegments(chars, true, exec);
+		event.finish(this, chars.length);
+		
+		return new String(chars);
+	} //END encryptParallel
+	
+	
+	/**
+	 * Decrypts a given message String on the common ForkJoinPool and returns the decoded result
+	 * The result is identical to that of decrypt(String).
+	 * @param msg The given message String to be decoded
+	 * @return The decoded version of the given message String
+	 */
+	public String decryptParallel(String msg) {
+		return this.decryptParallel(msg, ForkJoinPool.commonPool());
+	} //END decryptParallel
+	
+	
+	/**
+	 * Decrypts a given message String on a given Executor and returns the decoded result
+	 * The result is identical to that of decrypt(String).
+	 * @param msg The given message String to be decoded
+	 * @param exec The Executor running the decryption of each segment
+	 * @return The decoded version of the given message String
+	 */
+	public String decryptParallel(String msg, Executor exec) {
+		CipherEvent event = CipherEvent.start(false);
+		char[] chars = this.padToBlocks(msg);
+		
+		this.inSegments(chars, false, exec);
+		event.finish(this, chars.length);
+		
+		return new String(chars).trim();
+	} //END decryptParallel
+	
+	
+	@Override
+	protected void encryptBlocks(char[] src, int srcOff, char[] dst, int dstOff, int len) {
+		int[] msgNums = this.fillVector(src, srcOff, len);
+		int[] encNums = new int[len];
+		
+		aKernel.multAddBlocks(msgNums, 0, len / cipherSize, bKernel, encNums, 0);
+		
+		this.toText(encNums, dst, dstOff);
+	} //END encryptBlocks
+	
+	
+	@Override
+	protected void decryptBlocks(char[] src, int srcOff, char[] dst, int dstOff, int len) {
+		int[] msgNums = this.fillVector(src, srcOff, len);
+		int[] decNums = new int[len];
+		
+		aInvKernel.multAddBlocks(msgNums, 0, len / cipherSize, cKernel, decNums, 0);
 
-			return decSB.toString().trim();
+		this.toText(decNums, dst, dstOff);
+	} //END decryptBlocks
+	
+	
+	@Override
+	protected void encryptBlocks(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len) {
+		int batch = Math.min(len, Math.max(1, SEGMENT_SIZE / cipherSize) * cipherSize);
+		int[] msgNums = new int[batch];
+		int[] encNums = new int[batch];
+		
+		for (int off = 0; off < len; off += batch) {
+			int n = Math.min(batch, len - off);
+			
+			this.fillVector(src, srcOff + off, msgNums, n);
+			aKernel.multAddBlocks(msgNums, 0, n / cipherSize, bKernel, encNums, 0);
+			this.toBytes(encNums, dst, dstOff + off, n);
 		}
-		catch (OutOfBoundsException e) {
-			return EXCEPTION_MESSAGE + "OutOfBoundsException";
+	} //END encryptBlocks
+	
+	
+	@Override
+	protected void decryptBlocks(ByteBuffer src, int srcOff, ByteBuffer dst, int dstOff, int len) {
+		int batch = Math.min(len, Math.max(1, SEGMENT_SIZE / cipherSize) * cipherSize);
+		int[] msgNums = new int[batch];
+		int[] decNums = new int[batch];
+		
+		for (int off = 0; off < len; off += batch) {
+			int n = Math.min(batch, len - off);
+			
+			this.fillVector(src, srcOff + off, msgNums, n);
+			aInvKernel.multAddBlocks(msgNums, 0, n / cipherSize, cKernel, decNums, 0);
+			this.toBytes(decNums, dst, dstOff + off, n);
 		}
-		catch (InvalidDimException e) {
-			return EXCEPTION_MESSAGE + "InvalidDimException";
+	} //END decryptBlocks
+	
+	
+	/**
+	 * Encrypts or decrypts a given char array in place as independent block-aligned segments,
+	 * each run as a task on a given Executor, and waits for every segment to finish
+	 * A message of a single segment is run on the calling thread.
+	 * @param chars The given char array, a whole number of blocks long
+	 * @param encrypt True to encrypt and false to decrypt
+	 * @param exec The Executor running each segment
+	 */
+	private void inSegments(char[] chars, boolean encrypt, Executor exec) {
+		int segment = Math.max(1, SEGMENT_SIZE / cipherSize) * cipherSize;
+		
+		if (chars.length <= segment) {
+			this.inSegment(chars, 0, chars.length, encrypt);
+			return;
 		}
-	} //END decrypt
+		
+		CompletableFuture<?>[] tasks = new CompletableFuture<?>[(chars.length + segment - 1) / segment];
+		
+		for (int t = 0; t < tasks.length; t++) {
+			int off = t * segment;
+			int len = Math.min(segment, chars.length - off);
+			
+			tasks[t] = CompletableFuture.runAsync(() -> this.inSegment(chars, off, len, encrypt), exec);
+		}
+		
+		CompletableFuture.allOf(tasks).join();
+	} //END inSegments
+	
+	
+	/**
+	 * Encrypts or decrypts one segment of a given char array in place
+	 * @param chars The given char array
+	 * @param off The position of the segment
+	 * @param len The length of the segment, a multiple of the block size
+	 * @param encrypt True to encrypt and false to decrypt
+	 */
+	private void inSegment(char[] chars, int off, int len, boolean encrypt) {
+		if (encrypt)
+			this.encryptBlocks(chars, off, chars, off, len);
+		else
+			this.decryptBlocks(chars, off, chars, off, len);
+	} //END inSegment
+	
+	
+	@Override
+	protected int getBlockSize() {
+		return cipherSize;
+	} //END getBlockSize
 
 	
 	/**
-	 * Randomly generates the multiplicative parameter, a, using the given Alphabet size
+	 * Randomly draws a multiplicative parameter, a, using the given Alphabet size
+	 * Called by the constructor once modA and cipherSize are set, until it returns a key.
+	 * @return The parameter drawn, or null if it is not invertible
 	 */
-	protected void setA() {
+	protected GLn_Zm genA() {
+		Random rand = new Random();
+		
 		try {
-			Random rand = new Random();
-			ArrayList<Integer> multSet = modA.getMultSet();
-			
 			Grid<ModInt_M> aGrid = new Grid<ModInt_M>(cipherSize,cipherSize);
 			
 			for (int i = 0; i < cipherSize; i++) {
 				for (int j = 0; j < cipherSize; j++) {
 					if (i == j)
-						aGrid.set(i,j, new ModInt_M(multSet.get(rand.nextInt(multSet.size())), modA));
+						aGrid.set(i,j, ModInt_M.valueOf(modA.randomUnit(rand), modA));
 					else
-						aGrid.set(i,j, new ModInt_M(modA.getAddIdentity(), modA));
+						aGrid.set(i,j, ModInt_M.valueOf(modA.getAddIdentity(), modA));
 				}
 			}
 			
-			this.a = new GLn_Zm(aGrid);
+			return new GLn_Zm(aGrid);
 		}
 		catch (InvalidDetException|InvalidDimException e) {
-			this.setA();
+			return null;
 		}
-	} //END setA
+	} //END genA
 	
 	
 	/**
 	 * Randomly generates the additive parameter, b
+	 * @return The additive parameter, with no zero entries
 	 */
-	private void setB() {
+	private Matrix<ModInt_M> genB() {
 		Random rand = new Random();
 		
 		Grid<ModInt_M> bGrid = new Grid<ModInt_M>(cipherSize,1);
 		
 		for (int i = 0; i < cipherSize; i++)
-			bGrid.set(i,0, new ModInt_M(rand.nextInt(alph.getSize() - 1) + 1, modA));
+			bGrid.set(i,0, ModInt_M.valueOf(rand.nextInt(alph.getSize() - 1) + 1, modA));
 		
-		this.b = new Matrix<ModInt_M>(bGrid);
-	} //END setB
+		return new Matrix<ModInt_M>(bGrid);
+	} //END genB
 	
 	
 	/**
-	 * Fills and returns the text vector with characters from a given StringBuilder 
-	 * @param msgSB The given StringBuilder
-	 * @return Returns the text vector with characters from the given StringBuilder
+	 * Returns the offset c = -a^(-1)b of the decryption map x = a^(-1)y + c
+	 * @return The residues of the decryption offset c
 	 */
-	private Matrix<ModInt_M> fillVector(StringBuilder msgSB) {
-		Grid<ModInt_M> tempGrid = new Grid<ModInt_M>(cipherSize, 1);
-
-		for (int i = 0; i < cipherSize; i++) {
-			if (i < msgSB.length())
-				tempGrid.set(i,0, new ModInt_M(alph.getCharNum(msgSB.charAt(i)), modA));
-			else
-				tempGrid.set(i,0, new ModInt_M(alph.getCharNum(' '), modA));
+	private int[] compileOffset() {
+		int mod = modA.getM();
+		int[] negB = new int[cipherSize];
+		int[] c = new int[cipherSize];
+		
+		for (int i = 0; i < cipherSize; i++)
+			negB[i] = (bKernel[i] == 0) ? 0 : mod - bKernel[i];
+		
+		aInvKernel.multAddVec(negB, 0, null, c, 0);
+		
+		return c;
+	} //END compileOffset
+	
+	
+	/**
+	 * Returns the characters of a given String padded with spaces to a whole number of blocks
+	 * @param msg The given String
+	 * @return The padded characters of the given String
+	 */
+	private char[] padToBlocks(String msg) {
+		int blocks = (msg.length() + cipherSize - 1) / cipherSize;
+		char[] chars = new char[blocks * cipherSize];
+		
+		msg.getChars(0, msg.length(), chars, 0);
+		for (int i = msg.length(); i < chars.length; i++)
+			chars[i] = PAD_CHAR;
+		
+		return chars;
+	} //END padToBlocks
+	
+	
+	/**
+	 * Fills and returns the text vector with the character numbers of a range of a given char array
+	 * @param src The given char array
+	 * @param off The position of the first character
+	 * @param len The number of characters, a multiple of the block size
+	 * @return The text vector holding one residue per character of the given range
+	 */
+	private int[] fillVector(char[] src, int off, int len) {
+		int[] nums = new int[len];
+		int mod = modA.getM();
+		
+		alph.encode(src, off, nums, 0, len);
+		for (int i = 0; i < len; i++)
+			nums[i] += (nums[i] >> 31) & mod;
+		
+		return nums;
+	} //END fillVector
+	
+	
+	/**
+	 * Fills a given text vector with the numbers of the ISO-8859-1 characters of a given ByteBuffer
+	 * Over the byte Alphabet every byte is its own number.
+	 * @param src The given ByteBuffer
+	 * @param off The position of the first byte
+	 * @param nums The text vector to be filled
+	 * @param len The number of bytes, a multiple of the block size
+	 */
+	private void fillVector(ByteBuffer src, int off, int[] nums, int len) {
+		int mod = modA.getM();
+		
+		if (alph.isBytes()) {
+			for (int i = 0; i < len; i++)
+				nums[i] = src.get(off + i) & 0xFF;
+			return;
 		}
 		
-		return new Matrix<ModInt_M>(tempGrid);
+		for (int i = 0; i < len; i++) {
+			nums[i] = alph.indexOf((char) (src.get(off + i) & 0xFF));
+			if (nums[i] < 0)
+				nums[i] += mod;
+		}
 	} //END fillVector
 	
+	
+	/**
+	 * Writes the characters numbered by a given text vector into a given ByteBuffer as ISO-8859-1
+	 * @param nums The given text vector
+	 * @param dst The ByteBuffer the characters are written to
+	 * @param dstOff The position the first character is written to
+	 * @param len The number of characters
+	 */
+	private void toBytes(int[] nums, ByteBuffer dst, int dstOff, int len) {
+		if (alph.isBytes()) {
+			for (int i = 0; i < len; i++)
+				dst.put(dstOff + i, (byte) nums[i]);
+			return;
+		}
+		
+		for (int i = 0; i < len; i++)
+			dst.put(dstOff + i, (byte) alph.charAt(nums[i]));
+	} //END toBytes
+	
+	
+	/**
+	 * Writes the characters numbered by a given text vector into a given char array
+	 * @param nums The given text vector
+	 * @param dst The char array the characters are written to
+	 * @param dstOff The position the first character is written to
+	 */
+	private void toText(int[] nums, char[] dst, int dstOff) {
+		alph.decode(nums, 0, dst, dstOff, nums.length);
+	} //END toText
+	
 } //END VigenereCipher
@@ -0,0 +1,323 @@
+package cipher.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import cipher.AffineCipher;
+import cipher.Alphabet;
+import cipher.Cipher;
+import cipher.MatrixCipher;
+import cipher.VigenereCipher;
+
+/**
+ * A class that serves encryption and decryption over HTTP with keys held by the server
+ * Built on the JDK's HttpServer, each request is handled on a virtual thread of its own. A
+ * client creates a key and then encrypts or decrypts UTF-8 request bodies with it; the key
+ * itself never leaves the server. Ciphers are thread-safe, so every request for a key shares
+ * one Cipher.
+ * <pre>
+ *   POST   /keys?type=affine|vigenere|matrix   creates a key and returns its id
+ *   POST   /encrypt/{id}                       returns the encryption of the body
+ *   POST   /decrypt/{id}                       returns the decryption of the body
+ *   DELETE /keys/{id}                          discards a key
+ * </pre>
+ * Unknown keys are answered with 404, malformed requests with 400, wrong methods with 405 and
+ * bodies longer than the server's maximum, DEFAULT_MAX_BODY unless given, with 413.
+ * Responses are small, so latency improves when the JDK's HttpServer disables Nagle's algorithm.
+ * main() does so; an application embedding a CipherServer should launch with
+ * -Dsun.net.httpserver.nodelay=true, since the property is read once per JVM.
+ * @author Noah Kime
+ */
+public class CipherServer implements AutoCloseable {
+
+	//The default maximum length of a request body, in bytes
+	public static final int DEFAULT_MAX_BODY = 1 << 20;
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+	private final Alphabet alph;
+	private final int maxBody;
+	private final Map<String, Cipher> keys = new ConcurrentHashMap<String, Cipher>();
+
+
+	/**
+	 * Creates a new CipherServer bound to a given address over the default Alphabet
+	 * The server does not accept requests until it is started.
+	 * @param addr The given address, with port 0 for any free port
+	 * @throws IOException Thrown if the address cannot be bound
+	 */
+	public CipherServer(InetSocketAddress addr) throws IOException {
+		this(addr, new Alphabet());
+	} //END CipherServer (constructor)
+
+
+	/**
+	 * Creates a new CipherServer bound to a given address whose keys use a given Alphabet
+	 * The server does not accept requests until it is started.
+	 * @param addr The given address, with port 0 for any free port
+	 * @param alph The given Alphabet of every key
+	 * @throws IOException Thrown if the address cannot be bound
+	 */
+	public CipherServer(InetSocketAddress addr, Alphabet alph) throws IOException {
+		this(addr, alph, DEFAULT_MAX_BODY);
+	} //END CipherServer (constructor)
+
+
+	/**
+	 * Creates a new CipherServer bound to a given address whose keys use a given Alphabet and
+	 * which accepts request bodies up to a given length
+	 * The server does not accept requests until it is started.
+	 * @param addr The given address, with port 0 for any free port
+	 * @param alph The given Alphabet of every key
+	 * @param maxBody The given maximum length of a request body, in bytes
+	 * @throws IOException Thrown if the address cannot be bound
+	 * @throws IllegalArgumentException Thrown if the maximum is negative
+	 */
+	public CipherServer(InetSocketAddress addr, Alphabet alph, int maxBody) throws IOException {
+		if (maxBody < 0 || maxBody == Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Maximum body length must be in [0, Integer.MAX_VALUE)");
+
+		this.alph = alph;
+		this.maxBody = maxBody;
+		this.executor = Executors.newVirtualThreadPerTaskExecutor();
+		this.server = HttpServer.create(addr, 0);
+
+		server.setExecutor(executor);
+		server.createContext("/keys", this::handleKeys);
+		server.createContext("/encrypt/", exchange -> this.handleCipher(exchange, true));
+		server.createContext("/decrypt/", exchange -> this.handleCipher(exchange, false));
+	} //END CipherServer (constructor)
+
+
+	/**
+	 * Starts accepting requests
+	 */
+	public void start() {
+		server.start();
+	} //END start
+
+
+	/**
+	 * Returns the port this CipherServer is bound to
+	 * @return The port this CipherServer is bound to
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	} //END getPort
+
+
+	/**
+	 * Creates a new key of a given type and returns its id
+	 * @param type The given type: affine, vigenere or matrix
+	 * @return The id of the new key
+	 * @throws IllegalArgumentException Thrown if the type is unknown
+	 */
+	public String newKey(String type) {
+		return this.addKey(newCipher(type, alph));
+	} //END newKey
+
+
+	/**
+	 * Holds a given Cipher as a new key and returns its id
+	 * @param cipher The given Cipher
+	 * @return The id of the new key
+	 */
+	public String addKey(Cipher cipher) {
+		String id = UUID.randomUUID().toString();
+
+		keys.put(id, cipher);
+
+		return id;
+	} //END addKey
+
+
+	/**
+	 * Stops accepting requests, waits up to a second for requests in progress, and discards
+	 * every key
+	 */
+	@Override
+	public void close() {
+		server.stop(1);
+		executor.shutdown();
+		keys.clear();
+	} //END close
+
+
+	/**
+	 * Handles creating and discarding keys
+	 * @param exchange The given request and response
+	 * @throws IOException Thrown if the response cannot be written
+	 */
+	private void handleKeys(HttpExchange exchange) throws IOException {
+		String method = exchange.getRequestMethod();
+		String id = exchange.getRequestURI().getPath().substring("/keys".length());
+
+		try (exchange) {
+			drain(exchange.getRequestBody());
+
+			//01 CREATE A KEY OF THE REQUESTED TYPE
+			if (method.equals("POST") && id.isEmpty()) {
+				String query = exchange.getRequestURI().getQuery();
+				String type = (query != null && query.startsWith("type=")) ? query.substring(5) : "";
+
+				try {
+					respond(exchange, 201, this.newKey(type));
+				}
+				catch (IllegalArgumentException e) {
+					respond(exchange, 400, e.getMessage());
+				}
+			}
+			//02 DISCARD A KEY
+			else if (method.equals("DELETE") && id.startsWith("/")) {
+				if (keys.remove(id.substring(1)) == null)
+					respond(exchange, 404, "Unknown key");
+				else
+					respond(exchange, 204, null);
+			}
+			else
+				respond(exchange, 405, "Use POST /keys?type= or DELETE /keys/{id}");
+		}
+	} //END handleKeys
+
+
+	/**
+	 * Handles encrypting or decrypting a request body with a key
+	 * @param exchange The given request and response
+	 * @param encrypt True to encrypt and false to decrypt
+	 * @throws IOException Thrown if the request cannot be read or the response written
+	 */
+	private void handleCipher(HttpExchange exchange, boolean encrypt) throws IOException {
+		try (exchange) {
+			String path = exchange.getRequestURI().getPath();
+			Cipher cipher = keys.get(path.substring(path.indexOf('/', 1) + 1));
+
+			if (!exchange.getRequestMethod().equals("POST")) {
+				drain(exchange.getRequestBody());
+				respond(exchange, 405, "Use POST");
+			}
+			else if (cipher == null) {
+				drain(exchange.getRequestBody());
+				respond(exchange, 404, "Unknown key");
+			}
+			else {
+				byte[] body = this.readBody(exchange);
+
+				if (body == null) {
+					exchange.getResponseHeaders().set("Connection", "close");
+					respond(exchange, 413, "Request body exceeds " + maxBody + " bytes");
+				}
+				else {
+					String msg = new String(body, StandardCharsets.UTF_8);
+
+					respond(exchange, 200, encrypt ? cipher.encrypt(msg) : cipher.decrypt(msg));
+				}
+			}
+		}
+	} //END handleCipher
+
+
+	/**
+	 * Reads a request body of at most maxBody bytes
+	 * A declared Content-Length over the maximum is refused before anything is read, and a body
+	 * without one, such as a chunked body, is read only up to one byte past the maximum.
+	 * @param exchange The given request and response
+	 * @return The request body, or null if it is longer than maxBody
+	 * @throws IOException Thrown if the request body cannot be read
+	 */
+	private byte[] readBody(HttpExchange exchange) throws IOException {
+		String length = exchange.getRequestHeaders().getFirst("Content-Length");
+
+		try {
+			if (length != null && Long.parseLong(length.trim()) > maxBody)
+				return null;
+		}
+		catch (NumberFormatException e) {
+			// the bounded read below decides
+		}
+
+		byte[] body = exchange.getRequestBody().readNBytes(maxBody + 1);
+
+		return (body.length > maxBody) ? null : body;
+	} //END readBody
+
+
+	/**
+	 * Constructs a new Cipher of a given type with a random key over a given Alphabet
+	 * @param type The given type: affine, vigenere or matrix
+	 * @param alph The given Alphabet
+	 * @return The new Cipher
+	 * @throws IllegalArgumentException Thrown if the type is unknown
+	 */
+	private static Cipher newCipher(String type, Alphabet alph) {
+		switch (type) {
+			case "affine":
+				return new AffineCipher(alph);
+			case "vigenere":
+				return new VigenereCipher(alph);
+			case "matrix":
+				return new MatrixCipher(alph);
+			default:
+				throw new IllegalArgumentException("Unknown key type, use affine, vigenere or matrix");
+		}
+	} //END newCipher
+
+
+	/**
+	 * Sends a response with a given status and an optional UTF-8 text body
+	 * @param exchange The given request and response
+	 * @param status The given HTTP status
+	 * @param body The given body, or null for none
+	 * @throws IOException Thrown if the response cannot be written
+	 */
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = (body == null) ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+
+		exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+		exchange.sendResponseHeaders(status, (bytes.length == 0) ? -1 : bytes.length);
+
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	} //END respond
+
+
+	/**
+	 * Reads and discards the rest of a given request body, so the connection can be reused
+	 * @param in The given request body
+	 * @throws IOException Thrown if the request body cannot be read
+	 */
+	private static void drain(InputStream in) throws IOException {
+		in.transferTo(OutputStream.nullOutputStream());
+	} //END drain
+
+
+	/**
+	 * Runs a CipherServer until the process is stopped, with Nagle's algorithm disabled unless
+	 * sun.net.httpserver.nodelay is given on the command line
+	 * @param args The port to listen on, 8080 by default
+	 * @throws IOException Thrown if the port cannot be bound
+	 */
+	public static void main(String[] args) throws IOException {
+		int port = (args.length > 0) ? Integer.parseInt(args[0]) : 8080;
+
+		if (System.getProperty("sun.net.httpserver.nodelay") == null)
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+
+		CipherServer server = new CipherServer(new InetSocketAddress(port));
+
+		server.start();
+		System.out.println("CipherServer listening on port " + server.getPort());
+	} //END main
+
+} //END CipherServer
@@ -0,0 +1,517 @@
+package matrix;
+
+import java.util.Arrays;
+
+import matrix.matrixException.*;
+import ring.gf.GF256;
+
+/**
+ * A Class that defines matrices over the field GF(2^8) using primitive storage
+ * Entries are kept as bytes in a single row-major byte[] and every operation works directly on
+ * primitives, without creating GF256 Objects. Sums are XORs, products of single entries are
+ * lookups in a 64 KiB table indexed by both factors, and products with blocks of vectors are
+ * built from doublings. As every nonzero pivot is invertible, elimination never needs more than
+ * a row swap. Instances are immutable.
+ * @author Noah Kime
+ */
+public class GF256Matrix {
+
+	private final int m;
+	private final int n;
+
+	private final byte[] vals;
+
+	//PRODUCTS[(a << 8) | x] is the product of a and x
+	private static final byte[] PRODUCTS = productTable();
+
+	//The number of bytes of nibble products multAddBlocks keeps in cache at once
+	private static final int TILE_BYTES = 1 << 19;
+
+	//The number of nibble products of each row of X
+	private static final int NIBBLE_PRODUCTS = Kernel.NIBBLE_PRODUCTS;
+
+	//The inner loops of products with blocks of vectors
+	private static final Kernel KERNEL = Kernel.DEFAULT;
+
+
+	/**
+	 * Constructs a new GF256Matrix with the entries of a given Matrix of GF256
+	 * @param x The given Matrix of GF256
+	 */
+	public GF256Matrix(Matrix<GF256> x) {
+		this(new byte[x.m * x.n], x.m, x.n);
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				vals[i*n + j] = (byte) x.nums.get(i,j).getVal();
+	} //END GF256Matrix (constructor)
+
+
+	/**
+	 * Constructs a new mxn GF256Matrix from given row-major entries
+	 * @param m The given number of rows
+	 * @param n The given number of columns
+	 * @param vals The given row-major entries, which are copied
+	 * @throws InvalidDimException Thrown if the number of entries does not match the dimensions
+	 */
+	public GF256Matrix(int m, int n, byte[] vals) throws InvalidDimException {
+		this(vals.clone(), m, n);
+
+		if (vals.length != m * n)
+			throw new InvalidDimException();
+	} //END GF256Matrix (constructor)
+
+
+	/**
+	 * Constructs a new GF256Matrix around given row-major entries
+	 * @param vals The given row-major entries, which are not copied
+	 * @param m The given number of rows
+	 * @param n The given number of columns
+	 */
+	private GF256Matrix(byte[] vals, int m, int n) {
+		this.m = m;
+		this.n = n;
+		this.vals = vals;
+	} //END GF256Matrix (constructor)
+
+
+	/**
+	 * Returns the nxn identity GF256Matrix
+	 * @param n The given size
+	 * @return The nxn identity GF256Matrix
+	 */
+	public static GF256Matrix identity(int n) {
+		byte[] temp = new byte[n * n];
+
+		for (int i = 0; i < n; i++)
+			temp[i*n + i] = 1;
+
+		return new GF256Matrix(temp, n, n);
+	} //END identity
+
+
+	/**
+	 * Returns the entry in the ith row and the jth column of this GF256Matrix
+	 * @param i The index of the ith row
+	 * @param j The index of the jth column
+	 * @return The entry at position (i,j) of this GF256Matrix, in [0,256)
+	 * @throws OutOfBoundsException If i or j is an invalid index number
+	 */
+	public int get(int i, int j) throws OutOfBoundsException {
+		if (i < m && i >= 0 && j < n && j >= 0)
+			return vals[i*n + j] & 0xFF;
+		else
+			throw new OutOfBoundsException();
+	} //END get
+
+
+	/**
+	 * Returns the number of rows in this GF256Matrix
+	 * @return The number of rows in this GF256Matrix
+	 */
+	public int getM() {
+		return m;
+	} //END getM
+
+
+	/**
+	 * Returns the number of columns in this GF256Matrix
+	 * @return The number of columns in this GF256Matrix
+	 */
+	public int getN() {
+		return n;
+	} //END getN
+
+
+	/**
+	 * Returns a copy of the entries of this GF256Matrix in row-major order
+	 * @return A copy of the entries of this GF256Matrix in row-major order
+	 */
+	public byte[] toArray() {
+		return vals.clone();
+	} //END toArray
+
+
+	/**
+	 * Adds a given GF256Matrix to this GF256Matrix and returns the sum
+	 * @param x The given GF256Matrix to be added
+	 * @return The sum of this GF256Matrix and the given GF256Matrix
+	 * @throws InvalidDimException Thrown if given GF256Matrix does not have the same dimensions
+	 */
+	public GF256Matrix addRet(GF256Matrix x) throws InvalidDimException {
+		if (x.m != m || x.n != n)
+			throw new InvalidDimException();
+
+		byte[] temp = new byte[vals.length];
+
+		for (int i = 0; i < vals.length; i++)
+			temp[i] = (byte) (vals[i] ^ x.vals[i]);
+
+		return new GF256Matrix(temp, m, n);
+	} //END addRet
+
+
+	/**
+	 * Multiplies the given GF256Matrix on the right of this GF256Matrix and returns the result
+	 * @param x The given GF256Matrix to be multiplied on the right of this GF256Matrix
+	 * @return The product of this GF256Matrix with the given GF256Matrix multiplied on the right
+	 * @throws InvalidDimException Thrown if given GF256Matrix does not have corresponding dimensions
+	 */
+	public GF256Matrix multRRet(GF256Matrix x) throws InvalidDimException {
+		return mult(this, x);
+	} //END multRRet
+
+
+	/**
+	 * Multiplies the given GF256Matrix on the left of this GF256Matrix and returns the result
+	 * @param x The given GF256Matrix to be multiplied on the left of this GF256Matrix
+	 * @return The product of this GF256Matrix with the given GF256Matrix multiplied on the left
+	 * @throws InvalidDimException Thrown if given GF256Matrix does not have corresponding dimensions
+	 */
+	public GF256Matrix multLRet(GF256Matrix x) throws InvalidDimException {
+		return mult(x, this);
+	} //END multLRet
+
+
+	/**
+	 * Multiplies two GF256Matrices x and y
+	 * Each row of the product is the XOR of the rows of y scaled by the entries of the matching
+	 * row of x, walking both operands row by row.
+	 * @param x Given GF256Matrix x to be multiplied on the left
+	 * @param y Given GF256Matrix y to be multiplied on the right
+	 * @return The product of the GF256Matrices
+	 * @throws InvalidDimException Thrown if GF256Matrices do not have corresponding dimensions
+	 */
+	private static GF256Matrix mult(GF256Matrix x, GF256Matrix y) throws InvalidDimException {
+		if (x.n != y.m)
+			throw new InvalidDimException();
+
+		byte[] temp = new byte[x.m * y.n];
+
+		for (int i = 0; i < x.m; i++)
+			for (int k = 0; k < x.n; k++)
+				addRowMultiple(temp, i*y.n, y.vals, k*y.n, x.vals[i*x.n + k], y.n);
+
+		return new GF256Matrix(temp, x.m, y.n);
+	} //END mult
+
+
+	/**
+	 * Multiplies this GF256Matrix by a column vector stored in a given array, adds an optional
+	 * offset vector, and writes the result into a given array
+	 * Computes y = Ax + b, where the sums are XORs.
+	 * @param x The array holding the n entries of the column vector
+	 * @param xOff The position of the first entry of the column vector in x
+	 * @param b The m entries of the offset vector, or null for no offset
+	 * @param y The array the m entries of the result are written to
+	 * @param yOff The position of the first entry of the result in y
+	 */
+	public void multAddVec(byte[] x, int xOff, byte[] b, byte[] y, int yOff) {
+		this.multAddBlocks(x, xOff, 1, b, y, yOff);
+	} //END multAddVec
+
+
+	/**
+	 * Multiplies this GF256Matrix by a number of column vectors stored one after another in a
+	 * given array, adds an optional offset vector to each, and writes the results one after
+	 * another into a given array
+	 * The vectors are the columns of one nxcount matrix X and this computes Y = AX + b a tile of
+	 * columns at a time. Multiplying by a constant is linear over GF(2), so a*x is the XOR of the
+	 * products of x with the low and the high nibble of a. For each row of the tile the products
+	 * of the row with all 16 low and all 16 high nibbles are built once, from doublings and XORs,
+	 * and each entry of A then adds two of them to a row of accumulators. Both steps are run by
+	 * the Kernel as XORs of vectors of bytes, with no lookups. The source and destination may be
+	 * the same array when A is square.
+	 * @param x The array holding the n entries of each column vector
+	 * @param xOff The position of the first entry of the first column vector in x
+	 * @param count The number of column vectors
+	 * @param b The m entries of the offset vector, or null for no offset
+	 * @param y The array the m entries of each result are written to
+	 * @param yOff The position of the first entry of the first result in y
+	 */
+	public void multAddBlocks(byte[] x, int xOff, int count, byte[] b, byte[] y, int yOff) {
+		int tile = Math.max(1, Math.min(count, TILE_BYTES / (NIBBLE_PRODUCTS * n)));
+		tile = (tile >= 64) ? tile & ~63 : tile;
+		byte[] products = new byte[n * NIBBLE_PRODUCTS * tile];
+		byte[] acc = new byte[m * tile];
+
+		for (int t = 0; t < count; t += tile) {
+			int w = Math.min(tile, count - t);
+
+			//01 BUILD THE PRODUCTS OF EACH ROW OF THE TILE WITH EVERY NIBBLE
+			for (int k = 0; k < n; k++) {
+				int base = k * NIBBLE_PRODUCTS * tile;
+
+				for (int j = 0; j < w; j++)
+					products[base + tile + j] = x[xOff + (t + j)*n + k];
+
+				KERNEL.nibbleProducts(products, base, tile, w);
+			}
+
+			//02 ACCUMULATE THE TILE OF THE PRODUCT, STARTING FROM THE OFFSET
+			for (int i = 0; i < m; i++)
+				KERNEL.multRow(vals, i*n, n, products, tile, w, (b == null) ? 0 : b[i], acc, i*tile);
+
+			//03 WRITE EACH COLUMN OUT
+			for (int j = 0; j < w; j++) {
+				int col = yOff + (t + j) * m;
+
+				for (int i = 0; i < m; i++)
+					y[col + i] = acc[i*tile + j];
+			}
+		}
+	} //END multAddBlocks
+
+
+	/**
+	 * Returns this GF256Matrix with its rows permuted, row i becoming row perm[i]
+	 * This is the product PA where P is the permutation matrix sending e_i to e_perm[i].
+	 * @param perm The given permutation of the rows
+	 * @return This GF256Matrix with its rows permuted
+	 */
+	public GF256Matrix permuteRows(int[] perm) {
+		byte[] temp = new byte[vals.length];
+
+		for (int i = 0; i < m; i++)
+			System.arraycopy(vals, i*n, temp, perm[i]*n, n);
+
+		return new GF256Matrix(temp, m, n);
+	} //END permuteRows
+
+
+	/**
+	 * Returns the transpose of this GF256Matrix
+	 * @return The transpose of this GF256Matrix
+	 */
+	public GF256Matrix transpose() {
+		byte[] temp = new byte[vals.length];
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				temp[j*m + i] = vals[i*n + j];
+
+		return new GF256Matrix(temp, n, m);
+	} //END transpose
+
+
+	/**
+	 * Calculates and returns the determinant of this GF256Matrix
+	 * @return The determinant of this GF256Matrix, in [0,256)
+	 * @throws InvalidDimException Thrown if this GF256Matrix is not square
+	 */
+	public int getDet() throws InvalidDimException {
+		if (m != n)
+			throw new InvalidDimException();
+
+		return eliminate(vals.clone(), null);
+	} //END getDet
+
+
+	/**
+	 * Calculates and returns the multiplicative inverse of this GF256Matrix
+	 * @return The multiplicative inverse of this GF256Matrix
+	 * @throws InvalidDimException Thrown if this GF256Matrix is not square
+	 * @throws InvalidDetException Thrown if this GF256Matrix is not invertible
+	 */
+	public GF256Matrix getInverse() throws InvalidDimException, InvalidDetException {
+		if (m != n)
+			throw new InvalidDimException();
+
+		byte[] inv = identity(n).vals;
+
+		if (eliminate(vals.clone(), inv) == 0)
+			throw new InvalidDetException();
+
+		return new GF256Matrix(inv, n, n);
+	} //END getInverse
+
+
+	/**
+	 * Reduces a given nxn array by Gauss-Jordan elimination, applying the same row operations to
+	 * an optional second array, and returns the determinant of the given array
+	 * Any nonzero entry is a pivot, so each column needs at most one row swap, and as -1 = 1 in
+	 * GF(2^8) a swap leaves the determinant unchanged. Without a second array only the entries
+	 * below each pivot are cleared, which is enough for the determinant. Entries left of the pivot
+	 * are already 0 in the pivot row, so row operations on the given array start at the pivot.
+	 * @param a The given row-major array, reduced in place
+	 * @param inv The row-major array the row operations are applied to, or null
+	 * @return The determinant of the given array, 0 if it is singular
+	 */
+	private int eliminate(byte[] a, byte[] inv) {
+		int det = 1;
+
+		for (int i = 0; i < n; i++) {
+			//01 FIND A NONZERO PIVOT IN THE iTH COLUMN AND SWAP IT INTO ROW i
+			int p = i;
+			while (p < n && a[p*n + i] == 0)
+				p++;
+
+			if (p == n)
+				return 0;
+
+			if (p != i) {
+				swapRows(a, i, p);
+				if (inv != null)
+					swapRows(inv, i, p);
+			}
+
+			//02 REDUCE THE iTH ROW TO HAVE LEADING 1
+			int pivot = a[i*n + i] & 0xFF;
+			byte pivotInv = (byte) GF256.inverse(pivot);
+			det = GF256.mult(det, pivot);
+
+			scaleRow(a, i*n + i, pivotInv, n - i);
+			if (inv != null)
+				scaleRow(inv, i*n, pivotInv, n);
+
+			//03 CLEAR THE iTH COLUMN BELOW, AND WHEN INVERTING ABOVE, THE PIVOT
+			for (int k = (inv == null) ? i+1 : 0; k < n; k++) {
+				byte f = a[k*n + i];
+
+				if (k != i && f != 0) {
+					addRowMultiple(a, k*n + i, a, i*n + i, f, n - i);
+					if (inv != null)
+						addRowMultiple(inv, k*n, inv, i*n, f, n);
+				}
+			}
+		}
+
+		return det;
+	} //END eliminate
+
+
+	/**
+	 * Adds a given multiple of one row to another, the rows being given by their positions
+	 * @param dst The array holding the row to be added to
+	 * @param dstOff The position of the row to be added to
+	 * @param src The array holding the row whose multiple is added
+	 * @param srcOff The position of the row whose multiple is added
+	 * @param k The given multiple
+	 * @param len The length of the rows
+	 */
+	private static void addRowMultiple(byte[] dst, int dstOff, byte[] src, int srcOff, byte k, int len) {
+		int row = (k & 0xFF) << 8;
+
+		for (int j = 0; j < len; j++)
+			dst[dstOff + j] ^= PRODUCTS[row | (src[srcOff + j] & 0xFF)];
+	} //END addRowMultiple
+
+
+	/**
+	 * Multiplies one row of a given array by a given scalar in place
+	 * @param a The given array
+	 * @param off The position of the row
+	 * @param k The given scalar
+	 * @param len The length of the row
+	 */
+	private static void scaleRow(byte[] a, int off, byte k, int len) {
+		int row = (k & 0xFF) << 8;
+
+		for (int j = 0; j < len; j++)
+			a[off + j] = PRODUCTS[row | (a[off + j] & 0xFF)];
+	} //END scaleRow
+
+
+	/**
+	 * Swaps two rows of a given nxn array
+	 * @param a The given row-major array
+	 * @param i A given row
+	 * @param k A given row
+	 */
+	private void swapRows(byte[] a, int i, int k) {
+		for (int j = 0; j < n; j++) {
+			byte temp = a[i*n + j];
+			a[i*n + j] = a[k*n + j];
+			a[k*n + j] = temp;
+		}
+	} //END swapRows
+
+
+	/**
+	 * Returns this GF256Matrix as a Grid of GF256
+	 * @return This GF256Matrix as a Grid of GF256
+	 */
+	public Grid<GF256> asGrid() {
+		Grid<GF256> temp = new Grid<GF256>(m, n);
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				temp.set(i,j, GF256.valueOf(vals[i*n + j]));
+
+		return temp;
+	} //END asGrid
+
+
+	/**
+	 * Returns this GF256Matrix as a Matrix of GF256
+	 * @return This GF256Matrix as a Matrix of GF256
+	 */
+	public Matrix<GF256> toMatrix() {
+		return new Matrix<GF256>(this.asGrid());
+	} //END toMatrix
+
+
+	/**
+	 * Determines if this GF256Matrix and a given Object are logically equivalent
+	 * @param o The given object to be compared to this GF256Matrix
+	 * @return True if the given object and this GF256Matrix are equivalent
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+
+		if (!(o instanceof GF256Matrix))
+			return false;
+
+		GF256Matrix obj = (GF256Matrix) o;
+
+		return this.m == obj.m && this.n == obj.n && Arrays.equals(this.vals, obj.vals);
+	} //END equals
+
+
+	/**
+	 * Returns a hash code consistent with equals
+	 * @return A hash code for this GF256Matrix
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * (31 * m + n) + Arrays.hashCode(vals);
+	} //END hashCode
+
+
+	/**
+	 * Returns the String representation of this GF256Matrix
+	 * @return The String representation of this GF256Matrix
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < m; i++) {
+			sb.append("[");
+			for (int j = 0; j < n-1; j++) {
+				sb.append((vals[i*n + j] & 0xFF) + ", ");
+			}
+			sb.append((vals[i*n + n-1] & 0xFF) + "]\n");
+		}
+
+		return sb.toString();
+	} //END toString
+
+
+	/**
+	 * Returns the table of every product of two elements of GF(2^8)
+	 * @return The table, indexed by the first factor shifted left 8 bits or'ed with the second
+	 */
+	private static byte[] productTable() {
+		byte[] table = new byte[GF256.ORDER * GF256.ORDER];
+
+		for (int a = 0; a < GF256.ORDER; a++)
+			for (int x = 0; x < GF256.ORDER; x++)
+				table[(a << 8) | x] = (byte) GF256.mult(a, x);
+
+		return table;
+	} //END productTable
+
+} //END GF256Matrix
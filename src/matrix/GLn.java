@@ -1,11 +1,21 @@
 package matrix;
 
+import metrics.InversionEvent;
 import ring.Ring;
 
 import matrix.matrixException.*;
 
 /**
  * A Class that defines nxn matrices with multiplicative inverses and entries of type T
+ * A GLn is effectively immutable, since changing an entry would invalidate its determinant and
+ * inverse: the methods inherited from Matrix that modify a Matrix in place throw an
+ * UnsupportedOperationException, and the Grid a GLn is constructed from is copied. Its fields
+ * are not final, though, because a GLn and its inverse refer to each other and are linked once
+ * both exist, and subclasses fill in random keys after the constructor of Matrix has run.
+ * Provided its entries are immutable, a GLn may therefore be shared by any number of threads
+ * only once it is safely published: through a final field, as every Cipher holds its key, a
+ * volatile field, a concurrent collection or the start of a thread. Subclasses assign det and
+ * inv only while constructing a GLn.
  * @author Noah Kime
  * @param <T>
  */
@@ -24,7 +34,7 @@ public class GLn<T extends Ring<T>> extends Matrix<T> {
 	 *  Matrix
 	 */
 	public GLn(Grid<T> nums) throws InvalidDimException, InvalidDetException {
-		super(nums);
+		super(nums.copy());
 		
 		if (m != n)
 			throw new InvalidDimException();
@@ -60,15 +70,120 @@ public class GLn<T extends Ring<T>> extends Matrix<T> {
 	
 	/**
 	 * Returns the transpose of this GLn
+	 * The determinant is unchanged and the inverse is the transpose of the inverse, so no
+	 * elimination is needed.
 	 * @return The transpose of this GLn
 	 * @throws InvalidDimException Thrown if this GLn has invalid dimensions
 	 * @throws InvalidDetException Thrown if this GLn has an invalid determinant 
 	 */
 	public GLn<T> getTranspose() throws InvalidDimException, InvalidDetException {
-		return(new GLn<T>(this.nums.transpose()));
+		GLn<T> tran = this.derive(this.nums.transpose(), det, null);
+		tran.inv = this.derive(inv.nums.transpose(), inv.det, tran);
+		
+		return tran;
 	} //END getTranspose
 	
 	
+	/**
+	 * Multiplies the given GLn on the right of this GLn and returns the result
+	 * The determinant of the product is the product of the determinants and its inverse is the
+	 * product of the inverses in reverse order, so no elimination is needed.
+	 * @param x The given GLn to be multiplied on the right of this GLn
+	 * @return The product of this GLn with the given GLn multiplied on the right
+	 * @throws InvalidDimException Thrown if given GLn does not have the same size as this GLn
+	 * @throws OutOfBoundsException Thrown if multiplication fails due to invalid dimensions and indices
+	 */
+	public GLn<T> multRRet(GLn<T> x) throws InvalidDimException, OutOfBoundsException {
+		GLn<T> prod = this.derive(this.mult(this, x), det.mult(x.det), null);
+		prod.inv = this.derive(this.mult(x.inv, this.inv), x.inv.det.mult(inv.det), prod);
+		
+		return prod;
+	} //END multRRet
+	
+	
+	/**
+	 * Multiplies the given GLn on the left of this GLn and returns the result
+	 * @param x The given GLn to be multiplied on the left of this GLn
+	 * @return The product of this GLn with the given GLn multiplied on the left
+	 * @throws InvalidDimException Thrown if given GLn does not have the same size as this GLn
+	 * @throws OutOfBoundsException Thrown if multiplication fails due to invalid dimensions and indices
+	 */
+	public GLn<T> multLRet(GLn<T> x) throws InvalidDimException, OutOfBoundsException {
+		return x.multRRet(this);
+	} //END multLRet
+	
+	
+	/**
+	 * Always throws, since a GLn is immutable
+	 * @param i The index of the ith row
+	 * @param j The index of the jth column
+	 * @param k The value for entry (i,j) to be set to
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public void set(int i, int j, T k) {
+		throw new UnsupportedOperationException("GLn is immutable");
+	} //END set
+	
+	
+	/**
+	 * Always throws, since a GLn is immutable; use addRet instead
+	 * @param x The given Matrix to be added
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public void add(Matrix<T> x) {
+		throw new UnsupportedOperationException("GLn is immutable");
+	} //END add
+	
+	
+	/**
+	 * Always throws, since a GLn is immutable; use multLRet instead
+	 * @param x The given Matrix to be multiplied on the left of this GLn
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public void multL(Matrix<T> x) {
+		throw new UnsupportedOperationException("GLn is immutable");
+	} //END multL
+	
+	
+	/**
+	 * Always throws, since a GLn is immutable; use multRRet instead
+	 * @param x The given Matrix to be multiplied on the right of this GLn
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public void multR(Matrix<T> x) {
+		throw new UnsupportedOperationException("GLn is immutable");
+	} //END multR
+	
+	
+	/**
+	 * Always throws, since a GLn is immutable; use multRet instead
+	 * @param scalar The given scalar to multiply this GLn by
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public void mult(T scalar) {
+		throw new UnsupportedOperationException("GLn is immutable");
+	} //END mult
+	
+	
+	/**
+	 * Constructs a new GLn of the same class as this GLn using a given Grid, a known determinant,
+	 * and inverse
+	 * Subclasses override this so that matrices derived from them keep their class.
+	 * @param nums The given Grid for the new GLn
+	 * @param det The known determinant of the new GLn
+	 * @param inv The inverse of the new GLn, or null if it is set afterwards
+	 * @return The new GLn
+	 */
+	protected GLn<T> derive(Grid<T> nums, T det, GLn<T> inv) {
+		return new GLn<T>(nums, det, inv);
+	} //END derive
+	
+	
 	/**
 	 * Returns the determinant of this GLn
 	 * @return The determinant of this GLn
@@ -88,18 +203,14 @@ public class GLn<T extends Ring<T>> extends Matrix<T> {
 
 	
 	/**
-	 * Returns an nxn identity matrix
+	 * Returns an nxn identity matrix, which is its own inverse
 	 * @return An nxn identity matrix
 	 */
 	public GLn<T> getIdentity() {
-		Grid<T> temp = this.getIdentityGrid();
+		GLn<T> id = this.derive(this.getIdentityGrid(), this.nums.get(0,0).getMultIdentity(), null);
+		id.inv = id;
 		
-		try {
-			return new GLn<T>(temp);
-		}
-		catch (Exception e){
-			return null;
-		}
+		return id;
 	} //END getIdentity
 	
 	
@@ -123,15 +234,39 @@ public class GLn<T extends Ring<T>> extends Matrix<T> {
 	
 	
 	/**
-	 * Calculates the determinate and inverse of this GLn simultaneously
+	 * Calculates the determinate and inverse of this GLn simultaneously, reporting the
+	 * elimination as an InversionEvent
 	 * @throws InvalidDetException Thrown if this GLn is not invertible
 	 */
 	protected void genDet() throws InvalidDetException {
+		InversionEvent event = InversionEvent.start();
+		boolean invertible = false;
+		
+		try {
+			this.eliminate(event);
+			invertible = true;
+		}
+		finally {
+			event.finish(nums.get(0,0), n, invertible);
+		}
+	} //END genDet
+	
+	
+	/**
+	 * Calculates the determinate and inverse of this GLn simultaneously by Gauss-Jordan
+	 * elimination, counting row swaps and combinations of rows tried in a given InversionEvent
+	 * @param event The given InversionEvent
+	 * @throws InvalidDetException Thrown if this GLn is not invertible
+	 */
+	private void eliminate(InversionEvent event) throws InvalidDetException {
 		//01 INITIALIZE TEMPORARY MEMORY
 		Grid<T> tempNums = this.copyGrid();
 		Grid<T> tempGrid = this.getIdentityGrid();
 		T tempNum;
 		
+		//detNum IS THE PRODUCT OF THE PIVOTS SO FAR, NEGATED FOR EACH ROW SWAP
+		T detNum = tempNums.get(0,0).getMultIdentity();
+		
 		//02 REDUCE TO ECHELON FORM
 		for (int i = 0; i < n-1; i++) {
 			tempNum = tempNums.get(i,i);
@@ -158,6 +293,9 @@ public class GLn<T extends Ring<T>> extends Matrix<T> {
 						tempGrid.set(i,j, tempGrid.get(k,j));
 						tempGrid.set(k,j, tempSwap);
 					}
+					
+					detNum = detNum.getAddInverse();
+					event.countSwap();
 				}
 				
 				//02.1.2 IF ROW IS NOT FOUND, TRY SUMS OF COMBINATIONS OF ROWS TO MAKE INVERTIBLE ENTRY IN iTH COLUMN
@@ -188,6 +326,8 @@ public class GLn<T extends Ring<T>> extends Matrix<T> {
 						}
 						//OTHERWISE, SEE IF THE SUM OF THE COMBINATION OF ROWS' ith ENTRIES IS INVERTIBLE 
 						else {
+							event.countCombination();
+							
 							for (int l = 0; l < q; l++)
 								tempNum = tempNum.add(tempNums.get(i+comb[l],i));
 							
@@ -210,6 +350,7 @@ public class GLn<T extends Ring<T>> extends Matrix<T> {
 			} //END if ( tempNum.equals(nums.get(0,0).getAddIdentity()) )
 			
 			//02.2 REDUCE iTH ROW TO HAVE LEADING 1
+			detNum = detNum.mult(tempNums.get(i,i));
 			tempNum = tempNums.get(i,i).getMultInverse();	
 	
 			for (int j = 0; j < n; j++) {
@@ -232,7 +373,7 @@ public class GLn<T extends Ring<T>> extends Matrix<T> {
 
 		//03 SET DETERMINATE
 		//	Reduce last row
-		this.det = tempNums.get(n-1,n-1).copy();
+		this.det = detNum.mult(tempNums.get(n-1,n-1));
 		
 		tempNum = tempNums.get(n-1,n-1).getMultInverse();
 		tempNums.set(n-1,n-1, tempNums.get(n-1,n-1).mult(tempNum));
@@ -259,7 +400,7 @@ public class GLn<T extends Ring<T>> extends Matrix<T> {
 		
 		//05 SET INVERSE
 		this.inv = new GLn<T>(tempGrid, this.det.getMultInverse(), this);
-	} //END getDet
+	} //END eliminate
 	
 	
 	/**
@@ -0,0 +1,187 @@
+package matrix;
+
+import metrics.InversionEvent;
+import ring.gf.GF256;
+
+import java.util.SplittableRandom;
+
+import matrix.matrixException.*;
+
+/**
+ * A Class that performs arithmetic with invertible matrices over the field GF(2^8)
+ * Every nonzero pivot is invertible, so the determinant and inverse are found by the plain
+ * Gauss-Jordan elimination of GF256Matrix, which never searches for combinations of rows.
+ * @author Noah Kime
+ */
+public class GLn_GF256 extends GLn<GF256> {
+
+
+	/**
+	 * Constructs a new GLn_GF256 matrix using a given Grid
+	 * @param nums The given Grid for this GLn_GF256
+	 * @throws InvalidDimException Thrown if given grid nums does not have equivalent
+	 * 	columns and rows
+	 * @throws InvalidDetException Thrown if given grid corresponds to a Singular (noninvertible)
+	 *  Matrix
+	 */
+	public GLn_GF256(Grid<GF256> nums) throws InvalidDimException, InvalidDetException {
+		super(nums);
+	} //END GLn_GF256 (constructor)
+
+
+	/**
+	 * Draws a uniformly random nxn matrix over GF(2^8) and inverts it
+	 * A draw is singular with probability just under 1/255 for any n, in which case this throws
+	 * and the caller draws again, so the keys accepted are uniform over GLn(GF(2^8)).
+	 * @param n The given size for this random GLn_GF256
+	 * @param rand The random number generator drawing the entries
+	 * @throws InvalidDimException Thrown if this GLn_GF256 has invalid dimensions
+	 * @throws InvalidDetException Thrown if the matrix drawn is singular
+	 */
+	public GLn_GF256(int n, SplittableRandom rand) throws InvalidDimException, InvalidDetException {
+		super();
+
+		if (n < 1)
+			throw new InvalidDimException();
+
+		byte[] vals = new byte[n * n];
+		rand.nextBytes(vals);
+
+		this.n = n;
+		this.m = n;
+		this.nums = new GF256Matrix(n, n, vals).asGrid();
+		this.genDet();
+	} //END GLn_GF256 (constructor)
+
+
+	/**
+	 * Constructs a new GLn_GF256 from a given GF256Matrix, its inverse and its determinant,
+	 * without eliminating
+	 * Nothing is checked: the caller guarantees that the inverse and determinant belong to the
+	 * given GF256Matrix.
+	 * @param a The given square GF256Matrix
+	 * @param aInv The inverse of the given GF256Matrix
+	 * @param det The determinant of the given GF256Matrix, nonzero
+	 */
+	public GLn_GF256(GF256Matrix a, GF256Matrix aInv, int det) {
+		super(a.asGrid(), GF256.valueOf(det), null);
+
+		this.inv = new GLn_GF256(aInv.asGrid(), this.det.getMultInverse(), this);
+	} //END GLn_GF256 (constructor)
+
+
+	/**
+	 * Constructs a new GLn_GF256 matrix using a given Grid, a known determinate, and inverse
+	 * @param nums The given Grid for this GLn_GF256
+	 * @param det The known determinate of this GLn_GF256
+	 * @param inv The inverse of this GLn_GF256
+	 */
+	private GLn_GF256(Grid<GF256> nums, GF256 det, GLn<GF256> inv) {
+		super(nums, det, inv);
+	} //END GLn_GF256 (constructor)
+
+
+	/**
+	 * Returns the transpose of this GLn_GF256
+	 * @return The Transpose of this GLn_GF256
+	 * @throws InvalidDimException Thrown if this GLn_GF256 has invalid dimensions
+	 * @throws InvalidDetException Thrown if this GLn_GF256 has an invalid determinant
+	 */
+	public GLn_GF256 getTranspose() throws InvalidDimException, InvalidDetException {
+		return (GLn_GF256) super.getTranspose();
+	} //END getTranspose
+
+
+	/**
+	 * Multiplies the given GLn_GF256 on the right of this GLn_GF256 and returns the result
+	 * @param x The given GLn_GF256 to be multiplied on the right of this GLn_GF256
+	 * @return The product of this GLn_GF256 with the given GLn_GF256 multiplied on the right
+	 * @throws InvalidDimException Thrown if given GLn_GF256 does not have the same size as this GLn_GF256
+	 * @throws OutOfBoundsException Thrown if multiplication fails due to invalid dimensions and indices
+	 */
+	public GLn_GF256 multRRet(GLn_GF256 x) throws InvalidDimException, OutOfBoundsException {
+		return (GLn_GF256) super.multRRet(x);
+	} //END multRRet
+
+
+	/**
+	 * Multiplies the given GLn_GF256 on the left of this GLn_GF256 and returns the result
+	 * @param x The given GLn_GF256 to be multiplied on the left of this GLn_GF256
+	 * @return The product of this GLn_GF256 with the given GLn_GF256 multiplied on the left
+	 * @throws InvalidDimException Thrown if given GLn_GF256 does not have the same size as this GLn_GF256
+	 * @throws OutOfBoundsException Thrown if multiplication fails due to invalid dimensions and indices
+	 */
+	public GLn_GF256 multLRet(GLn_GF256 x) throws InvalidDimException, OutOfBoundsException {
+		return x.multRRet(this);
+	} //END multLRet
+
+
+	/**
+	 * Multiplies two matrices of GF256 x and y with the primitive kernel of GF256Matrix
+	 * @param x Given Matrix x to be multiplied on the left
+	 * @param y Given Matrix y to be multiplied on the right
+	 * @return The Grid representation of the resulting Matrix
+	 * @throws InvalidDimException Thrown Matrices do not have corresponding dimensions
+	 */
+	@Override
+	protected Grid<GF256> mult(Matrix<GF256> x, Matrix<GF256> y) throws InvalidDimException {
+		return new GF256Matrix(x).multRRet(new GF256Matrix(y)).asGrid();
+	} //END mult
+
+
+	@Override
+	protected GLn_GF256 derive(Grid<GF256> nums, GF256 det, GLn<GF256> inv) {
+		return new GLn_GF256(nums, det, inv);
+	} //END derive
+
+
+	/**
+	 * Calculates the determinant and inverse of this GLn_GF256 with the elimination of
+	 * GF256Matrix
+	 * @throws InvalidDetException Thrown if this GLn_GF256 is not invertible
+	 */
+	@Override
+	protected void genDet() throws InvalidDetException {
+		InversionEvent event = InversionEvent.start();
+		boolean invertible = false;
+
+		try {
+			GF256Matrix x = new GF256Matrix(this);
+			int d = x.getDet();
+
+			if (d == 0)
+				throw new InvalidDetException();
+
+			this.det = GF256.valueOf(d);
+			this.inv = new GLn_GF256(x.getInverse().asGrid(), det.getMultInverse(), this);
+			invertible = true;
+		}
+		catch (InvalidDimException e) {
+			throw new InvalidDetException();
+		}
+		finally {
+			event.finish(nums.get(0,0), n, invertible);
+		}
+	} //END genDet
+
+
+	/**
+	 * Returns the multiplicative inverse of this GLn_GF256
+	 * @return The multiplicative inverse of this GLn_GF256
+	 */
+	@Override
+	public GLn_GF256 getInverse() {
+		return (GLn_GF256) inv;
+	} //END getInverse
+
+
+	/**
+	 * Returns an nxn identity matrix over GF(2^8)
+	 * @return An nxn identity matrix over GF(2^8)
+	 */
+	@Override
+	public GLn_GF256 getIdentity() {
+		return (GLn_GF256) super.getIdentity();
+	} //END getIdentity
+
+} //END GLn_GF256
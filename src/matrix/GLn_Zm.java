@@ -1,9 +1,10 @@
 package matrix;
 
+import metrics.InversionEvent;
 import ring.modInt.ModInt_M;
 import ring.modInt.Z_M;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 import matrix.matrixException.*;
 
@@ -13,8 +14,6 @@ import matrix.matrixException.*;
  */
 public class GLn_Zm extends GLn<ModInt_M> {
 	
-	protected GLn_Zm inverse;
-	
 	
 	/**
 	 * Constructs a new GLn_Zm matrix using a given Grid
@@ -26,8 +25,6 @@ public class GLn_Zm extends GLn<ModInt_M> {
 	 */
 	public GLn_Zm(Grid<ModInt_M> nums) throws InvalidDimException, InvalidDetException {
 		super(nums);
-		
-		inverse = new GLn_Zm(inv.copyGrid(), det.getMultInverse(), this);
 	} //END GLn_Zm (constructor)
 	
 	
@@ -40,14 +37,71 @@ public class GLn_Zm extends GLn<ModInt_M> {
 	 * @throws OutOfBoundsException Thrown if randomization includes invalid matrix multiplication
 	 */
 	public GLn_Zm(int n, Z_M z) throws InvalidDimException, InvalidDetException, OutOfBoundsException {
+		this(n, z, new SplittableRandom());
+	} //END GLn_Zm (constructor)
+	
+	
+	/**
+	 * Generates a random GLn_Zm with given size n over the ring Z_M as a product PLU of a random
+	 * permutation matrix, a random unit lower triangular matrix and a random upper triangular
+	 * matrix with units on its diagonal
+	 * The determinant is known by construction and the inverse is U^(-1)L^(-1)P^T, so the key is
+	 * never eliminated. L and U are inverted by IntModMatrix.getInverse, which recognizes
+	 * triangular matrices and inverts them by substitution rather than elimination, and cannot
+	 * fail since their diagonals are units. The keys are not uniform over GLn(Z_M): over a
+	 * composite m not every invertible matrix has such a factorization. Given the same seed the
+	 * same key is generated, however the products are scheduled.
+	 * @param n The given size for this random GLn_Zm
+	 * @param z The given Z_M to randomize this GLn_Zm over
+	 * @param rand The random number generator drawing the factors
+	 * @throws InvalidDimException Thrown if this GLn_Zm has invalid dimensions
+	 * @throws InvalidDetException Thrown if this GLn_Zm has an invalid determinant
+	 */
+	public GLn_Zm(int n, Z_M z, SplittableRandom rand) throws InvalidDimException, InvalidDetException {
 		super();
 		
+		if (n < 1)
+			throw new InvalidDimException();
+		
 		this.n = n;
 		this.m = n;
 		
-		this.nums = genRandGrid(n,z);
-		genDet();
-	}
+		//01 DRAW THE FACTORS
+		IntModMatrix lower = randTriangular(n, z, rand, true);
+		IntModMatrix upper = randTriangular(n, z, rand, false);
+		int[] perm = randPermutation(n, rand);
+		
+		//02 MULTIPLY THE FACTORS AND, IN REVERSE ORDER, THEIR INVERSES
+		IntModMatrix a = lower.multRRet(upper).permuteRows(perm);
+		IntModMatrix aInv = upper.getInverse().multRRet(lower.getInverse()).permuteColumns(perm);
+		
+		//03 THE DETERMINANT IS THE SIGN OF P TIMES THE DIAGONAL OF U
+		ModInt_M d = ModInt_M.valueOf(isOdd(perm) ? z.getM() - 1 : 1, z);
+		int[] u = upper.toArray();
+		
+		for (int i = 0; i < n; i++)
+			d = d.mult(ModInt_M.valueOf(u[i*n + i], z));
+		
+		this.nums = a.asGrid();
+		this.det = d;
+		this.inv = new GLn_Zm(aInv.asGrid(), d.getMultInverse(), this);
+	} //END GLn_Zm (constructor)
+	
+	
+	/**
+	 * Constructs a new GLn_Zm from a given IntModMatrix, its inverse and its determinant, without
+	 * eliminating
+	 * Nothing is checked: the caller guarantees that the inverse and determinant belong to the
+	 * given IntModMatrix, as they do for a key saved from an existing GLn_Zm.
+	 * @param a The given square IntModMatrix
+	 * @param aInv The inverse of the given IntModMatrix
+	 * @param det The determinant of the given IntModMatrix, a unit
+	 */
+	public GLn_Zm(IntModMatrix a, IntModMatrix aInv, int det) {
+		super(a.asGrid(), ModInt_M.valueOf(det, a.getZ()), null);
+		
+		this.inv = new GLn_Zm(aInv.asGrid(), this.det.getMultInverse(), this);
+	} //END GLn_Zm (constructor)
 	
 	
 	/**
@@ -56,7 +110,7 @@ public class GLn_Zm extends GLn<ModInt_M> {
 	 * @param det The known determinate of this GLn_Zm
 	 * @param inv The inverse of this GLn_Zm
 	 */
-	private GLn_Zm(Grid<ModInt_M> nums, ModInt_M det, GLn_Zm inv) {
+	private GLn_Zm(Grid<ModInt_M> nums, ModInt_M det, GLn<ModInt_M> inv) {
 		super(nums, det, inv);
 	} //END GLn_Zm (constructor)
 	
@@ -68,17 +122,91 @@ public class GLn_Zm extends GLn<ModInt_M> {
 	 * @throws InvalidDetException Thrown if this GLn_Zm has an invalid determinant
 	 */
 	public GLn_Zm getTranspose() throws InvalidDimException, InvalidDetException {
-		return(new GLn_Zm(this.nums.transpose()));
+		return (GLn_Zm) super.getTranspose();
 	} //END getTranspose
 	
 	
+	/**
+	 * Multiplies the given GLn_Zm on the right of this GLn_Zm and returns the result
+	 * @param x The given GLn_Zm to be multiplied on the right of this GLn_Zm
+	 * @return The product of this GLn_Zm with the given GLn_Zm multiplied on the right
+	 * @throws InvalidDimException Thrown if given GLn_Zm does not have the same size as this GLn_Zm
+	 * @throws OutOfBoundsException Thrown if multiplication fails due to invalid dimensions and indices
+	 */
+	public GLn_Zm multRRet(GLn_Zm x) throws InvalidDimException, OutOfBoundsException {
+		return (GLn_Zm) super.multRRet(x);
+	} //END multRRet
+	
+	
+	/**
+	 * Multiplies the given GLn_Zm on the left of this GLn_Zm and returns the result
+	 * @param x The given GLn_Zm to be multiplied on the left of this GLn_Zm
+	 * @return The product of this GLn_Zm with the given GLn_Zm multiplied on the left
+	 * @throws InvalidDimException Thrown if given GLn_Zm does not have the same size as this GLn_Zm
+	 * @throws OutOfBoundsException Thrown if multiplication fails due to invalid dimensions and indices
+	 */
+	public GLn_Zm multLRet(GLn_Zm x) throws InvalidDimException, OutOfBoundsException {
+		return x.multRRet(this);
+	} //END multLRet
+	
+	
+	/**
+	 * Multiplies two matrices of ModInt_M x and y with the primitive kernel of IntModMatrix
+	 * @param x Given Matrix x to be multiplied on the left
+	 * @param y Given Matrix y to be multiplied on the right
+	 * @return The Grid representation of the resulting Matrix
+	 * @throws InvalidDimException Thrown Matrices do not have corresponding dimensions
+	 */
+	@Override
+	protected Grid<ModInt_M> mult(Matrix<ModInt_M> x, Matrix<ModInt_M> y) throws InvalidDimException {
+		return new IntModMatrix(x).multRRet(new IntModMatrix(y)).asGrid();
+	} //END mult
+	
+	
+	@Override
+	protected GLn_Zm derive(Grid<ModInt_M> nums, ModInt_M det, GLn<ModInt_M> inv) {
+		return new GLn_Zm(nums, det, inv);
+	} //END derive
+	
+	
+	/**
+	 * Calculates the determinant and inverse of this GLn_Zm with the elimination of IntModMatrix,
+	 * which takes polynomial time for any modulus and never retries a pivot
+	 * @throws InvalidDetException Thrown if this GLn_Zm is not invertible
+	 */
+	@Override
+	protected void genDet() throws InvalidDetException {
+		InversionEvent event = InversionEvent.start();
+		boolean invertible = false;
+		
+		try {
+			IntModMatrix x = new IntModMatrix(this);
+			Z_M z = x.getZ();
+			int d = x.getDet();
+
+			if (!z.isUnit(d))
+				throw new InvalidDetException();
+
+			this.det = ModInt_M.valueOf(d, z);
+			this.inv = new GLn_Zm(x.getInverse().asGrid(), det.getMultInverse(), this);
+			invertible = true;
+		}
+		catch (InvalidDimException e) {
+			throw new InvalidDetException();
+		}
+		finally {
+			event.finish(nums.get(0,0), n, invertible);
+		}
+	} //END genDet
+	
+	
 	/**
 	 * Returns the multiplicative inverse of this GLn_Zm
 	 * @return The multiplicative inverse of this GLn_Zm
 	 */
 	@Override
 	public GLn_Zm getInverse() {
-		return inverse;
+		return (GLn_Zm) inv;
 	} //END getInverse
 
 	
@@ -88,14 +216,7 @@ public class GLn_Zm extends GLn<ModInt_M> {
 	 */
 	@Override
 	public GLn_Zm getIdentity() {
-		Grid<ModInt_M> temp = this.getIdentityGrid();
-		
-		try {
-			return new GLn_Zm(temp);
-		}
-		catch (Exception e){
-			return null;
-		}
+		return (GLn_Zm) super.getIdentity();
 	} //END getIdentity
 	
 	
@@ -110,8 +231,8 @@ public class GLn_Zm extends GLn<ModInt_M> {
 		for (int i = 0; i < n; i++) {
 			for (int j = 0; j < n; j++) {
 				temp.set(i,j, 
-				(i == j) ? 	new ModInt_M(this.nums.get(0,0).getMultIdentity().getVal(), this.nums.get(0,0).getM()): 
-							new ModInt_M(this.nums.get(0,0).getAddIdentity().getVal(), this.nums.get(0,0).getM()));
+				(i == j) ? 	this.nums.get(0,0).getMultIdentity(): 
+							this.nums.get(0,0).getAddIdentity());
 			}
 		}
 		
@@ -120,149 +241,78 @@ public class GLn_Zm extends GLn<ModInt_M> {
 	
 	
 	/**
-	 * Generates a random invertible Grid of ModInt_M with given size n
-	 * @param n The given size for the random Grid
-	 * @param z The given Z_M to 
-	 * @return A random invertible Grid of ModInt_M with size n
-	 * @throws InvalidDimException Thrown if random Grid has invalid dimensions
-	 * @throws InvalidDetException Thrown if random Grid has an invalid determinant
-	 * @throws OutOfBoundsException Thrown if multiplication of triangular matrices is invalid
+	 * Draws a random nxn triangular IntModMatrix with uniform entries on one side of the diagonal
+	 * A lower triangular matrix has 1 on its diagonal, an upper one a random unit.
+	 * @param n The given size
+	 * @param z The given Z_M to randomize over
+	 * @param rand The random number generator
+	 * @param lower True for a lower triangular matrix, false for an upper one
+	 * @return The random triangular IntModMatrix
+	 * @throws InvalidDimException Thrown if the entries do not match the given size
 	 */
-	private Grid<ModInt_M> genRandGrid(int n, Z_M z) throws InvalidDimException, InvalidDetException, OutOfBoundsException {
-		GLn_Zm upper  = new GLn_Zm(getNonSingular(n,z));
-		GLn_Zm lower  = new GLn_Zm(getNonSingular(n,z)).getTranspose();
+	private static IntModMatrix randTriangular(int n, Z_M z, SplittableRandom rand, boolean lower) throws InvalidDimException {
+		int[] vals = new int[n * n];
+		int mod = z.getM();
+		
+		for (int i = 0; i < n; i++) {
+			int from = lower ? 0 : i+1;
+			int to = lower ? i : n;
+			
+			for (int j = from; j < to; j++)
+				vals[i*n + j] = rand.nextInt(mod);
+			
+			vals[i*n + i] = lower ? 1 : z.randomUnit(rand);
+		}
 		
-		return(lower.multRRet(upper).asGrid());
-	} //END genRandGrid
+		return new IntModMatrix(n, n, vals, z);
+	} //END randTriangular
 	
 	
 	/**
-	 * Generates a random nonsingular matrix uniformly using a modified algorithm
-	 * Algorithm credit: Dana Randall, Efficient Generation of Nonsingular Matrices,
-	 * http://www.eecs.berkeley.edu/Pubs/TechRpts/1991/CSD-91-658.pdf
-	 * @return A random nonsingular matrix of ModInt_M
+	 * Draws a uniformly random permutation of 0 through n-1 by a Fisher-Yates shuffle
+	 * @param n The given number of elements
+	 * @param rand The random number generator
+	 * @return The random permutation
 	 */
-	private Grid<ModInt_M> getNonSingular(int n, Z_M z) {
-		//00 INITIALIZE MATRIX GRIDS
-		Grid<ModInt_M> mtxA = new Grid<ModInt_M>(n, n);
-		Grid<ModInt_M> mtxT = new Grid<ModInt_M>(n, n);
-		Random rand = new Random();
+	private static int[] randPermutation(int n, SplittableRandom rand) {
+		int[] perm = new int[n];
 		
-		//01 GENERATE NONSINGULAR ENTRIES
-		genNonSingular(mtxA, mtxT, n, n, z, rand);
-		
-		//02.1 INITIALIZE TEMPORARY GRID
-		Grid<ModInt_M> temp = new Grid<ModInt_M>(n, n);
-		initializeGrid(temp, new ModInt_M(z.getAddIdentity(),z));
-
-		//02.2 MULTIPLY mtxA*mtxT
 		for (int i = 0; i < n; i++)
-			for (int j = 0; j < n; j++)
-				for (int k = 0; k < n; k++)
-					temp.set( i, j, temp.get(i, j).add(mtxA.get(i,k).mult(mtxT.get(k,j))) );
+			perm[i] = i;
 		
-		//03 RETURN NONSINGULAR MATRIX, THE PRODUCT A*T
-		return temp;
-	} //END getNonSingular
+		for (int i = n-1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			int temp = perm[i];
+			perm[i] = perm[j];
+			perm[j] = temp;
+		}
+		
+		return perm;
+	} //END randPermutation
 	
 	
 	/**
-	 * Recursively generates a random nonsingular matrix uniformly using a modified algorithm
-	 * Algorithm credit: Dana Randall, Efficient Generation of Nonsingular Matrices,
-	 * http://www.eecs.berkeley.edu/Pubs/TechRpts/1991/CSD-91-658.pdf
-	 * @param mtxA Matrix A
-	 * @param mtxT Matrix T
-	 * @param n	The size of this matrix minor
-	 * @param rand A random number generator
+	 * Returns true if a given permutation is odd, counting the even-length cycles
+	 * @param perm The given permutation
+	 * @return True if the given permutation is odd, false otherwise
 	 */
-	private void genNonSingular(Grid<ModInt_M> mtxA, Grid<ModInt_M> mtxT, int N, int n, Z_M z, Random rand) {
-		if (n == 1) {
-			int r = -1;
-			
-			//00.1 SET FINAL ENTRY OF mtxA TO THE MULTIPLICITIVE IDENTITY
-			//	SET r AS COLUMN COORDINATE OF FINAL ENTRY OF mtxA
-			for (int i = 0; i < N; i++) {
-				if (mtxA.get(N-n, i) == null) {
-					mtxA.set(N-n, i, new ModInt_M(z.getMultIdentity(), z));
-					r = i;
-				}
-			}
-			
-			//00.2 SET FINAL ENTRY OF mtxT, IN THE rTH COLUMN, TO A RANDOM INVERTIBLE VALUE
-			for (int i = 0; i < N; i++) {
-				if (mtxT.get(i, r) == null) {
-					mtxT.set(i, r, new ModInt_M(z.getMultSet().get(rand.nextInt(z.getMultSet().size())), z));
-				}
-			}		
-		} //END if (n == 1)
-
-		else {
-			int temp;
-			int r = -1;
-			ModInt_M[] v = new ModInt_M[n];
-			
-			//01.1	RANDOMIZE VECTOR v
-			//	GET r, THE FIRST INVERTIBLE ENTRY'S COORDINATE
-			//	IF NO INVERTIBLE ENTRY, TRY AGAIN
-			while (r == -1) {
-				for (int i = 0; i < n; i++) {
-					temp = rand.nextInt(z.getM());
-					r = (r == -1 && z.getMultSet().contains(temp)) ? i : r;
-					v[i] = new ModInt_M(temp, z);
-				}
-			}
-
-			//01.2 FIND CORRESPONDING COORDINATE FOR r, realR, WHICH INDICATES
-			//	THE TRUE COLUMN COORDINATE AND NOT THE MINOR'S COORDINATE 
-			int realR = r;
-			int skip = 0;
-			for (int i = 0; i < N; i++) {
-				if ( (i-skip <= r) && mtxA.get(N-n, i) != null) {
-					realR++;
-					skip++;
-				}
-			}
-
-			//02.1 FILL THE FIRST EMPTRY ROW OF mtxA WITH e_r, THAT IS, SET ALL ENTRIES TO ZERO EXCEPT THE rTH
-			skip = 0;
-			for (int i = 0; i < n; i++) {
-				while ( mtxA.get(N - n, i+skip) != null ) {
-					skip++;
-				}
-				
-				if (i == r)
-					mtxA.set(N - n, i+skip, new ModInt_M(z.getMultIdentity(), z));
-				else
-					mtxA.set(N - n, i+skip, new ModInt_M(z.getAddIdentity(), z));
-			}
+	private static boolean isOdd(int[] perm) {
+		boolean[] seen = new boolean[perm.length];
+		boolean odd = false;
+		
+		for (int i = 0; i < perm.length; i++) {
+			int len = 0;
 			
-			//02.2 FILL THE realRTH COLUMN OF mtxA WITH ZERO
-			for (int i = 1; i < n; i++) {
-				mtxA.set(i+N-n, realR, new ModInt_M(z.getAddIdentity(), z));
-			}
-
-			//03.1 FILL THE realRTH ROW OF mtxT WITH v
-			skip = 0;
-			for (int i = 0; i < n; i++) {
-				while ( mtxT.get(realR, i+skip) != null ) {
-					skip++;
-				}
-				
-				mtxT.set(realR, i+skip, v[i]);
+			for (int j = i; !seen[j]; j = perm[j]) {
+				seen[j] = true;
+				len++;
 			}
 			
-			//03.2 FILL THE realRTH COLUMN of mtxT WITH THE ADDITIVE IDDENTITY
-			skip = 0;
-			for (int i = 0; i < n-1; i++) {
-				while ( mtxT.get(i+skip, realR) != null ) {
-					skip++;
-				}
-				mtxT.set(i+skip, realR, new ModInt_M(z.getAddIdentity(), z));
-			}
-
-			//04 RECURSE OVER NEXT MINOR
-			genNonSingular(mtxA, mtxT, N, n-1, z, rand);
-		} //END else (n == 1)
-	} //END genNonSingular
+			if (len % 2 == 0 && len > 0)
+				odd = !odd;
+		}
+		
+		return odd;
+	} //END isOdd
 	
 } //END GLn_Zm
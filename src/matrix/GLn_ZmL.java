@@ -0,0 +1,300 @@
+package matrix;
+
+import metrics.InversionEvent;
+import ring.modInt.ModLong_M;
+import ring.modInt.Z_ML;
+
+import java.util.SplittableRandom;
+
+import matrix.matrixException.*;
+
+/**
+ * A Class that performs modular arithmetic with invertible matrices over the integers modulo an m
+ * that may not fit in an int
+ * Random keys are drawn as in GLn_Zm, as a product PLU whose inverse is known by construction,
+ * with the units on the diagonal of U drawn by Z_ML.randomUnit rather than from a table of
+ * every unit. Determinants and inverses of given matrices are found by the elimination of
+ * LongModMatrix.
+ * @author Noah Kime
+ */
+public class GLn_ZmL extends GLn<ModLong_M> {
+
+
+	/**
+	 * Constructs a new GLn_ZmL matrix using a given Grid
+	 * @param nums The given Grid for this GLn_ZmL
+	 * @throws InvalidDimException Thrown if given grid nums does not have equivalent
+	 * 	columns and rows
+	 * @throws InvalidDetException Thrown if given grid corresponds to a Singular (noninvertible)
+	 *  Matrix
+	 */
+	public GLn_ZmL(Grid<ModLong_M> nums) throws InvalidDimException, InvalidDetException {
+		super(nums);
+	} //END GLn_ZmL (constructor)
+
+
+	/**
+	 * Generates a random GLn_ZmL with given size n over the ring Z_ML
+	 * @param n The given size for this random GLn_ZmL
+	 * @param z The given Z_ML to randomize this GLn_ZmL over
+	 * @throws InvalidDimException Thrown if this GLn_ZmL has invalid dimensions
+	 * @throws InvalidDetException Thrown if this GLn_ZmL has an invalid determinant
+	 */
+	public GLn_ZmL(int n, Z_ML z) throws InvalidDimException, InvalidDetException {
+		this(n, z, new SplittableRandom());
+	} //END GLn_ZmL (constructor)
+
+
+	/**
+	 * Generates a random GLn_ZmL with given size n over the ring Z_ML as a product PLU of a
+	 * random permutation matrix, a random unit lower triangular matrix and a random upper
+	 * triangular matrix with units on its diagonal
+	 * The determinant is known by construction and the inverse is U^(-1)L^(-1)P^T, so the key is
+	 * never eliminated. L and U are inverted by LongModMatrix.getInverse, which recognizes
+	 * triangular matrices and inverts them by substitution rather than elimination. As with
+	 * GLn_Zm, the keys are not uniform over GLn(Z_ML) for a composite m.
+	 * @param n The given size for this random GLn_ZmL
+	 * @param z The given Z_ML to randomize this GLn_ZmL over
+	 * @param rand The random number generator drawing the factors
+	 * @throws InvalidDimException Thrown if this GLn_ZmL has invalid dimensions
+	 * @throws InvalidDetException Thrown if this GLn_ZmL has an invalid determinant
+	 */
+	public GLn_ZmL(int n, Z_ML z, SplittableRandom rand) throws InvalidDimException, InvalidDetException {
+		super();
+
+		if (n < 1)
+			throw new InvalidDimException();
+
+		this.n = n;
+		this.m = n;
+
+		//01 DRAW THE FACTORS
+		LongModMatrix lower = randTriangular(n, z, rand, true);
+		LongModMatrix upper = randTriangular(n, z, rand, false);
+		int[] perm = randPermutation(n, rand);
+
+		//02 MULTIPLY THE FACTORS AND, IN REVERSE ORDER, THEIR INVERSES
+		LongModMatrix a = lower.multRRet(upper).permuteRows(perm);
+		LongModMatrix aInv = upper.getInverse().multRRet(lower.getInverse()).permuteColumns(perm);
+
+		//03 THE DETERMINANT IS THE SIGN OF P TIMES THE DIAGONAL OF U
+		long d = isOdd(perm) ? z.getAddInverse(z.getMultIdentity()) : z.getMultIdentity();
+		long[] u = upper.toArray();
+
+		for (int i = 0; i < n; i++)
+			d = z.mult(d, u[i*n + i]);
+
+		this.nums = a.asGrid();
+		this.det = ModLong_M.valueOf(d, z);
+		this.inv = new GLn_ZmL(aInv.asGrid(), det.getMultInverse(), this);
+	} //END GLn_ZmL (constructor)
+
+
+	/**
+	 * Constructs a new GLn_ZmL from a given LongModMatrix, its inverse and its determinant,
+	 * without eliminating
+	 * Nothing is checked: the caller guarantees that the inverse and determinant belong to the
+	 * given LongModMatrix.
+	 * @param a The given square LongModMatrix
+	 * @param aInv The inverse of the given LongModMatrix
+	 * @param det The determinant of the given LongModMatrix, a unit
+	 */
+	public GLn_ZmL(LongModMatrix a, LongModMatrix aInv, long det) {
+		super(a.asGrid(), ModLong_M.valueOf(det, a.getZ()), null);
+
+		this.inv = new GLn_ZmL(aInv.asGrid(), this.det.getMultInverse(), this);
+	} //END GLn_ZmL (constructor)
+
+
+	/**
+	 * Constructs a new GLn_ZmL matrix using a given Grid, a known determinate, and inverse
+	 * @param nums The given Grid for this GLn_ZmL
+	 * @param det The known determinate of this GLn_ZmL
+	 * @param inv The inverse of this GLn_ZmL
+	 */
+	private GLn_ZmL(Grid<ModLong_M> nums, ModLong_M det, GLn<ModLong_M> inv) {
+		super(nums, det, inv);
+	} //END GLn_ZmL (constructor)
+
+
+	/**
+	 * Returns the transpose of this GLn_ZmL
+	 * @return The Transpose of this GLn_ZmL
+	 * @throws InvalidDimException Thrown if this GLn_ZmL has invalid dimensions
+	 * @throws InvalidDetException Thrown if this GLn_ZmL has an invalid determinant
+	 */
+	public GLn_ZmL getTranspose() throws InvalidDimException, InvalidDetException {
+		return (GLn_ZmL) super.getTranspose();
+	} //END getTranspose
+
+
+	/**
+	 * Multiplies the given GLn_ZmL on the right of this GLn_ZmL and returns the result
+	 * @param x The given GLn_ZmL to be multiplied on the right of this GLn_ZmL
+	 * @return The product of this GLn_ZmL with the given GLn_ZmL multiplied on the right
+	 * @throws InvalidDimException Thrown if given GLn_ZmL does not have the same size as this GLn_ZmL
+	 * @throws OutOfBoundsException Thrown if multiplication fails due to invalid dimensions and indices
+	 */
+	public GLn_ZmL multRRet(GLn_ZmL x) throws InvalidDimException, OutOfBoundsException {
+		return (GLn_ZmL) super.multRRet(x);
+	} //END multRRet
+
+
+	/**
+	 * Multiplies the given GLn_ZmL on the left of this GLn_ZmL and returns the result
+	 * @param x The given GLn_ZmL to be multiplied on the left of this GLn_ZmL
+	 * @return The product of this GLn_ZmL with the given GLn_ZmL multiplied on the left
+	 * @throws InvalidDimException Thrown if given GLn_ZmL does not have the same size as this GLn_ZmL
+	 * @throws OutOfBoundsException Thrown if multiplication fails due to invalid dimensions and indices
+	 */
+	public GLn_ZmL multLRet(GLn_ZmL x) throws InvalidDimException, OutOfBoundsException {
+		return x.multRRet(this);
+	} //END multLRet
+
+
+	/**
+	 * Multiplies two matrices of ModLong_M x and y with the primitive kernel of LongModMatrix
+	 * @param x Given Matrix x to be multiplied on the left
+	 * @param y Given Matrix y to be multiplied on the right
+	 * @return The Grid representation of the resulting Matrix
+	 * @throws InvalidDimException Thrown Matrices do not have corresponding dimensions
+	 */
+	@Override
+	protected Grid<ModLong_M> mult(Matrix<ModLong_M> x, Matrix<ModLong_M> y) throws InvalidDimException {
+		return new LongModMatrix(x).multRRet(new LongModMatrix(y)).asGrid();
+	} //END mult
+
+
+	@Override
+	protected GLn_ZmL derive(Grid<ModLong_M> nums, ModLong_M det, GLn<ModLong_M> inv) {
+		return new GLn_ZmL(nums, det, inv);
+	} //END derive
+
+
+	/**
+	 * Calculates the determinant and inverse of this GLn_ZmL with the elimination of
+	 * LongModMatrix
+	 * @throws InvalidDetException Thrown if this GLn_ZmL is not invertible
+	 */
+	@Override
+	protected void genDet() throws InvalidDetException {
+		InversionEvent event = InversionEvent.start();
+		boolean invertible = false;
+
+		try {
+			LongModMatrix x = new LongModMatrix(this);
+			Z_ML z = x.getZ();
+			long d = x.getDet();
+
+			if (!z.isUnit(d))
+				throw new InvalidDetException();
+
+			this.det = ModLong_M.valueOf(d, z);
+			this.inv = new GLn_ZmL(x.getInverse().asGrid(), det.getMultInverse(), this);
+			invertible = true;
+		}
+		catch (InvalidDimException e) {
+			throw new InvalidDetException();
+		}
+		finally {
+			event.finish(nums.get(0,0), n, invertible);
+		}
+	} //END genDet
+
+
+	/**
+	 * Returns the multiplicative inverse of this GLn_ZmL
+	 * @return The multiplicative inverse of this GLn_ZmL
+	 */
+	@Override
+	public GLn_ZmL getInverse() {
+		return (GLn_ZmL) inv;
+	} //END getInverse
+
+
+	/**
+	 * Returns an nxn identity matrix of ModLong_M integers
+	 * @return An nxn identity matrix of ModLong_M integers
+	 */
+	@Override
+	public GLn_ZmL getIdentity() {
+		return (GLn_ZmL) super.getIdentity();
+	} //END getIdentity
+
+
+	/**
+	 * Draws a random nxn triangular LongModMatrix with uniform entries on one side of the diagonal
+	 * A lower triangular matrix has 1 on its diagonal, an upper one a random unit.
+	 * @param n The given size
+	 * @param z The given Z_ML to randomize over
+	 * @param rand The random number generator
+	 * @param lower True for a lower triangular matrix, false for an upper one
+	 * @return The random triangular LongModMatrix
+	 * @throws InvalidDimException Thrown if the entries do not match the given size
+	 */
+	private static LongModMatrix randTriangular(int n, Z_ML z, SplittableRandom rand, boolean lower) throws InvalidDimException {
+		long[] vals = new long[n * n];
+		long mod = z.getM();
+
+		for (int i = 0; i < n; i++) {
+			int from = lower ? 0 : i+1;
+			int to = lower ? i : n;
+
+			for (int j = from; j < to; j++)
+				vals[i*n + j] = rand.nextLong(mod);
+
+			vals[i*n + i] = lower ? z.getMultIdentity() : z.randomUnit(rand);
+		}
+
+		return new LongModMatrix(n, n, vals, z);
+	} //END randTriangular
+
+
+	/**
+	 * Draws a uniformly random permutation of 0 through n-1 by a Fisher-Yates shuffle
+	 * @param n The given number of elements
+	 * @param rand The random number generator
+	 * @return The random permutation
+	 */
+	private static int[] randPermutation(int n, SplittableRandom rand) {
+		int[] perm = new int[n];
+
+		for (int i = 0; i < n; i++)
+			perm[i] = i;
+
+		for (int i = n-1; i > 0; i--) {
+			int j = rand.nextInt(i + 1);
+			int temp = perm[i];
+			perm[i] = perm[j];
+			perm[j] = temp;
+		}
+
+		return perm;
+	} //END randPermutation
+
+
+	/**
+	 * Returns true if a given permutation is odd, counting the even-length cycles
+	 * @param perm The given permutation
+	 * @return True if the given permutation is odd, false otherwise
+	 */
+	private static boolean isOdd(int[] perm) {
+		boolean[] seen = new boolean[perm.length];
+		boolean odd = false;
+
+		for (int i = 0; i < perm.length; i++) {
+			int len = 0;
+
+			for (int j = i; !seen[j]; j = perm[j]) {
+				seen[j] = true;
+				len++;
+			}
+
+			if (len % 2 == 0 && len > 0)
+				odd = !odd;
+		}
+
+		return odd;
+	} //END isOdd
+
+} //END GLn_ZmL
@@ -0,0 +1,68 @@
+package matrix;
+
+import ring.Ring;
+import ring.modInt.ModInt_M;
+
+/**
+ * A flat, row-major block of entries that backs a Grid
+ * @author Noah Kime
+ * @param <T> The type of Object stored in this GridStorage
+ */
+abstract class GridStorage<T extends Ring<T>> {
+
+	/**
+	 * Returns the entry at a given row-major position, or null if it was never set
+	 * @param index The given row-major position
+	 * @return The entry at the given position
+	 */
+	abstract T get(int index);
+
+
+	/**
+	 * Sets the entry at a given row-major position to a given value
+	 * @param index The given row-major position
+	 * @param val The given value
+	 * @return True if the value was stored, false if this storage cannot represent it
+	 */
+	abstract boolean set(int index, T val);
+
+
+	/**
+	 * Returns an independent copy of this GridStorage
+	 * @return An independent copy of this GridStorage
+	 */
+	abstract GridStorage<T> copy();
+
+
+	/**
+	 * Returns the transpose of this GridStorage read as a matrix of given dimensions
+	 * @param rows The number of rows this GridStorage represents
+	 * @param cols The number of columns this GridStorage represents
+	 * @return A cols x rows GridStorage holding the transposed entries
+	 */
+	abstract GridStorage<T> transpose(int rows, int cols);
+
+
+	/**
+	 * Returns a general purpose GridStorage holding the same entries as this GridStorage
+	 * @return A general purpose GridStorage holding the same entries
+	 */
+	abstract ObjectStorage<T> toObjectStorage();
+
+
+	/**
+	 * Chooses the most compact GridStorage able to hold a given first value
+	 * ModInt_M entries are packed into an int[], all other Ring Objects into an Object[].
+	 * @param val The first value to be stored
+	 * @param size The number of entries to be stored
+	 * @return A new empty GridStorage of the given size
+	 */
+	@SuppressWarnings("unchecked")
+	static <T extends Ring<T>> GridStorage<T> forValue(T val, int size) {
+		if (val instanceof ModInt_M && ModIntStorage.supports(((ModInt_M) val).getM()))
+			return (GridStorage<T>) new ModIntStorage(((ModInt_M) val).getM(), size);
+
+		return new ObjectStorage<T>(size);
+	} //END forValue
+
+} //END GridStorage
@@ -0,0 +1,811 @@
+package matrix;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import matrix.matrixException.*;
+import ring.modInt.ModInt_M;
+import ring.modInt.Reducer;
+import ring.modInt.Z_M;
+
+/**
+ * A Class that defines matrices over the integers modulo m using primitive storage
+ * Entries are kept as canonical residues in a single row-major int[] and every
+ * operation works directly on primitives, without creating ModInt_M Objects.
+ * Dot products are accumulated in a long and reduced once, by the Reducer of the Z_M rather than
+ * by division. Instances are immutable.
+ * @author Noah Kime
+ */
+public class IntModMatrix {
+
+	private final int m;
+	private final int n;
+
+	private final Z_M z;
+	private final int mod;
+	private final Reducer red;
+	private final int[] vals;
+
+	//The number of products that can be accumulated in a long before it must be reduced
+	private final int maxTerms;
+
+	//The number of entries of packed input and accumulators multAddBlocks keeps in cache at once
+	private static final int TILE_ENTRIES = 1 << 14;
+
+	//The number of multiply-adds above which a product computes its rows in parallel
+	private static final long PARALLEL_WORK = 1L << 24;
+
+	//The inner loops of products accumulated in ints
+	private static final Kernel KERNEL = Kernel.DEFAULT;
+
+
+	/**
+	 * Constructs a new IntModMatrix with the entries of a given Matrix of ModInt_M
+	 * @param x The given Matrix of ModInt_M
+	 */
+	public IntModMatrix(Matrix<ModInt_M> x) {
+		this(x.m, x.n, x.nums.get(0,0).getM(), new int[x.m * x.n]);
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				vals[i*n + j] = red.floorMod(x.nums.get(i,j).getVal());
+	} //END IntModMatrix (constructor)
+
+
+	/**
+	 * Constructs a new mxn IntModMatrix from given row-major values reduced modulo m
+	 * @param m The given number of rows
+	 * @param n The given number of columns
+	 * @param vals The given row-major values, which are copied
+	 * @param z The given Z_M to perform modular arithmetic with
+	 * @throws InvalidDimException Thrown if the number of values does not match the dimensions
+	 */
+	public IntModMatrix(int m, int n, int[] vals, Z_M z) throws InvalidDimException {
+		this(m, n, z, new int[m * n]);
+
+		if (vals.length != m * n)
+			throw new InvalidDimException();
+
+		for (int i = 0; i < vals.length; i++) {
+			int v = vals[i];
+			this.vals[i] = (v >= 0 && v < mod) ? v : red.floorMod(v);
+		}
+	} //END IntModMatrix (constructor)
+
+
+	/**
+	 * Constructs a new IntModMatrix around given row-major values already reduced modulo m
+	 * @param m The given number of rows
+	 * @param n The given number of columns
+	 * @param z The given Z_M to perform modular arithmetic with
+	 * @param vals The given row-major values, which are not copied
+	 */
+	private IntModMatrix(int m, int n, Z_M z, int[] vals) {
+		this.m = m;
+		this.n = n;
+		this.z = z;
+		this.mod = z.getM();
+		this.red = z.getReducer();
+		this.vals = vals;
+
+		long maxProduct = (long) (mod - 1) * (mod - 1);
+		this.maxTerms = (maxProduct == 0)
+				?	Integer.MAX_VALUE
+				:	(int) Math.min(Integer.MAX_VALUE, (Long.MAX_VALUE - mod) / maxProduct);
+	} //END IntModMatrix (constructor)
+
+
+	/**
+	 * Returns the nxn identity IntModMatrix over a given Z_M
+	 * @param n The given size
+	 * @param z The given Z_M
+	 * @return The nxn identity IntModMatrix
+	 */
+	public static IntModMatrix identity(int n, Z_M z) {
+		int[] temp = new int[n * n];
+
+		for (int i = 0; i < n; i++)
+			temp[i*n + i] = 1 % z.getM();
+
+		return new IntModMatrix(n, n, z, temp);
+	} //END identity
+
+
+	/**
+	 * Returns the entry in the ith row and the jth column of this IntModMatrix
+	 * @param i The index of the ith row
+	 * @param j The index of the jth column
+	 * @return The entry at position (i,j) of this IntModMatrix
+	 * @throws OutOfBoundsException If i or j is an invalid index number
+	 */
+	public int get(int i, int j) throws OutOfBoundsException {
+		if (i < m && i >= 0 && j < n && j >= 0)
+			return vals[i*n + j];
+		else
+			throw new OutOfBoundsException();
+	} //END get
+
+
+	/**
+	 * Returns the number of rows in this IntModMatrix
+	 * @return The number of rows in this IntModMatrix
+	 */
+	public int getM() {
+		return m;
+	} //END getM
+
+
+	/**
+	 * Returns the number of columns in this IntModMatrix
+	 * @return The number of columns in this IntModMatrix
+	 */
+	public int getN() {
+		return n;
+	} //END getN
+
+
+	/**
+	 * Returns a copy of the entries of this IntModMatrix in row-major order
+	 * @return A copy of the entries of this IntModMatrix in row-major order
+	 */
+	public int[] toArray() {
+		return vals.clone();
+	} //END toArray
+
+
+	/**
+	 * Returns the Z_M this IntModMatrix performs modular arithmetic with
+	 * @return The Z_M of this IntModMatrix
+	 */
+	public Z_M getZ() {
+		return z;
+	} //END getZ
+
+
+	/**
+	 * Adds a given IntModMatrix to this IntModMatrix and returns the sum
+	 * @param x The given IntModMatrix to be added
+	 * @return The sum of this IntModMatrix and the given IntModMatrix
+	 * @throws InvalidDimException Thrown if given IntModMatrix does not have the same dimensions
+	 */
+	public IntModMatrix addRet(IntModMatrix x) throws InvalidDimException {
+		if (x.m != m || x.n != n || x.mod != mod)
+			throw new InvalidDimException();
+
+		int[] temp = new int[vals.length];
+
+		for (int i = 0; i < vals.length; i++) {
+			int sum = vals[i] + x.vals[i];
+			temp[i] = (sum >= mod || sum < 0) ? sum - mod : sum;
+		}
+
+		return new IntModMatrix(m, n, z, temp);
+	} //END addRet
+
+
+	/**
+	 * Multiplies the given IntModMatrix on the right of this IntModMatrix and returns the result
+	 * @param x The given IntModMatrix to be multiplied on the right of this IntModMatrix
+	 * @return The product of this IntModMatrix with the given IntModMatrix multiplied on the right
+	 * @throws InvalidDimException Thrown if given IntModMatrix does not have corresponding dimensions
+	 */
+	public IntModMatrix multRRet(IntModMatrix x) throws InvalidDimException {
+		return mult(this, x);
+	} //END multRRet
+
+
+	/**
+	 * Multiplies the given IntModMatrix on the left of this IntModMatrix and returns the result
+	 * @param x The given IntModMatrix to be multiplied on the left of this IntModMatrix
+	 * @return The product of this IntModMatrix with the given IntModMatrix multiplied on the left
+	 * @throws InvalidDimException Thrown if given IntModMatrix does not have corresponding dimensions
+	 */
+	public IntModMatrix multLRet(IntModMatrix x) throws InvalidDimException {
+		return mult(x, this);
+	} //END multLRet
+
+
+	/**
+	 * Multiplies two IntModMatrices x and y
+	 * Rows of the product are accumulated in longs, walking both operands row by row. Large
+	 * products compute their rows in parallel on the common ForkJoinPool.
+	 * @param x Given IntModMatrix x to be multiplied on the left
+	 * @param y Given IntModMatrix y to be multiplied on the right
+	 * @return The product of the IntModMatrices
+	 * @throws InvalidDimException Thrown if IntModMatrices do not have corresponding dimensions
+	 */
+	private static IntModMatrix mult(IntModMatrix x, IntModMatrix y) throws InvalidDimException {
+		if (x.n != y.m || x.mod != y.mod)
+			throw new InvalidDimException();
+
+		int[] temp = new int[x.m * y.n];
+		boolean fitsInt = (long) (x.mod - 1) * (x.mod - 1) <= (Integer.MAX_VALUE - 1) / x.n;
+
+		if ((long) x.m * x.n * y.n >= PARALLEL_WORK)
+			IntStream.range(0, x.m).parallel().forEach(i -> {
+				if (fitsInt)
+					multRow(x, y, i, temp, new int[y.n]);
+				else
+					multRow(x, y, i, temp, new long[y.n]);
+			});
+		else if (fitsInt) {
+			int[] acc = new int[y.n];
+
+			for (int i = 0; i < x.m; i++)
+				multRow(x, y, i, temp, acc);
+		}
+		else {
+			long[] acc = new long[y.n];
+
+			for (int i = 0; i < x.m; i++)
+				multRow(x, y, i, temp, acc);
+		}
+
+		return new IntModMatrix(x.m, y.n, x.z, temp);
+	} //END mult
+
+
+	/**
+	 * Computes one row of the product of two IntModMatrices x and y accumulating in ints
+	 * Only used when a whole dot product cannot overflow an int. The row is computed by the Kernel.
+	 * @param x Given IntModMatrix x to be multiplied on the left
+	 * @param y Given IntModMatrix y to be multiplied on the right
+	 * @param i The row of the product to be computed
+	 * @param temp The row-major entries of the product
+	 * @param acc Scratch accumulators with one entry per column of y
+	 */
+	private static void multRow(IntModMatrix x, IntModMatrix y, int i, int[] temp, int[] acc) {
+		KERNEL.multRow(x.vals, i*x.n, x.n, y.vals, 0, y.n, y.n, 0, acc, 0);
+
+		for (int j = 0; j < y.n; j++)
+			temp[i*y.n + j] = x.red.reduce(acc[j]);
+	} //END multRow
+
+
+	/**
+	 * Computes one row of the product of two IntModMatrices x and y accumulating in longs
+	 * @param x Given IntModMatrix x to be multiplied on the left
+	 * @param y Given IntModMatrix y to be multiplied on the right
+	 * @param i The row of the product to be computed
+	 * @param temp The row-major entries of the product
+	 * @param acc Scratch accumulators with one entry per column of y
+	 */
+	private static void multRow(IntModMatrix x, IntModMatrix y, int i, int[] temp, long[] acc) {
+		Arrays.fill(acc, 0);
+		int pending = 0;
+
+		for (int k = 0; k < x.n; k++) {
+			long xik = x.vals[i*x.n + k];
+			int row = k * y.n;
+
+			if (xik != 0)
+				for (int j = 0; j < y.n; j++)
+					acc[j] += xik * y.vals[row + j];
+
+			if (++pending == x.maxTerms) {
+				for (int j = 0; j < y.n; j++)
+					acc[j] = x.red.reduce(acc[j]);
+				pending = 0;
+			}
+		}
+
+		for (int j = 0; j < y.n; j++)
+			temp[i*y.n + j] = x.red.reduce(acc[j]);
+	} //END multRow
+
+
+	/**
+	 * Multiplies this IntModMatrix by a given scalar and returns the result
+	 * @param scalar The given scalar to multiply this IntModMatrix by
+	 * @return Returns the product of this IntModMatrix and the given scalar
+	 */
+	public IntModMatrix multRet(int scalar) {
+		long s = red.floorMod(scalar);
+		int[] temp = new int[vals.length];
+
+		for (int i = 0; i < vals.length; i++)
+			temp[i] = red.reduce(s * vals[i]);
+
+		return new IntModMatrix(m, n, z, temp);
+	} //END multRet
+
+
+	/**
+	 * Multiplies this IntModMatrix by a column vector stored in a given array, adds an optional
+	 * offset vector, and writes the result into a given array
+	 * Computes y = Ax + b without allocating. Entries of x must be residues in [0,m).
+	 * @param x The array holding the n entries of the column vector
+	 * @param xOff The position of the first entry of the column vector in x
+	 * @param b The m entries of the offset vector, or null for no offset
+	 * @param y The array the m entries of the result are written to
+	 * @param yOff The position of the first entry of the result in y
+	 */
+	public void multAddVec(int[] x, int xOff, int[] b, int[] y, int yOff) {
+		for (int i = 0; i < m; i++) {
+			long acc = (b == null) ? 0 : b[i];
+			int row = i * n;
+			int pending = 0;
+
+			for (int k = 0; k < n; k++) {
+				acc += (long) vals[row + k] * x[xOff + k];
+
+				if (++pending == maxTerms) {
+					acc = red.reduce(acc);
+					pending = 0;
+				}
+			}
+
+			y[yOff + i] = red.reduce(acc);
+		}
+	} //END multAddVec
+
+
+	/**
+	 * Multiplies this IntModMatrix by a number of column vectors stored one after another in a
+	 * given array, adds an optional offset vector to each, and writes the results one after
+	 * another into a given array
+	 * The vectors are the columns of one nxcount matrix X and this computes Y = AX + b as a single
+	 * matrix product: X is packed tile by tile into a k-major block that stays in cache, and each
+	 * entry of A is broadcast along a whole row of the tile. Tiles are a multiple of 16 columns wide
+	 * where possible, so they split evenly into vectors. Entries of x must be residues in [0,m).
+	 * @param x The array holding the n entries of each column vector
+	 * @param xOff The position of the first entry of the first column vector in x
+	 * @param count The number of column vectors
+	 * @param b The m entries of the offset vector, or null for no offset
+	 * @param y The array the m entries of each result are written to
+	 * @param yOff The position of the first entry of the first result in y
+	 */
+	public void multAddBlocks(int[] x, int xOff, int count, int[] b, int[] y, int yOff) {
+		int tile = Math.max(8, Math.min(count, TILE_ENTRIES / (n + 2*m)));
+		tile = (tile >= 16) ? tile & ~15 : tile;
+		int[] packed = new int[n * tile];
+		boolean fitsInt = (long) (mod - 1) * (mod - 1) <= (Integer.MAX_VALUE - mod) / n;
+		int[] intAcc = fitsInt ? new int[m * tile] : null;
+		long[] acc = fitsInt ? null : new long[m * tile];
+
+		for (int t = 0; t < count; t += tile) {
+			int w = Math.min(tile, count - t);
+
+			//01 PACK THE COLUMNS OF THE TILE SO EACH ROW OF X IS CONTIGUOUS
+			for (int j = 0; j < w; j++) {
+				int col = xOff + (t + j) * n;
+
+				for (int k = 0; k < n; k++)
+					packed[k*tile + j] = x[col + k];
+			}
+
+			//02 ACCUMULATE THE TILE OF THE PRODUCT, STARTING FROM THE OFFSET
+			if (fitsInt)
+				this.accumulate(packed, tile, w, b, intAcc);
+			else
+				this.accumulate(packed, tile, w, b, acc);
+
+			//03 REDUCE THE TILE AND WRITE EACH COLUMN OUT
+			for (int j = 0; j < w; j++) {
+				int col = yOff + (t + j) * m;
+
+				for (int i = 0; i < m; i++)
+					y[col + i] = fitsInt
+							?	red.reduce(intAcc[i*tile + j])
+							:	red.reduce(acc[i*tile + j]);
+			}
+		}
+	} //END multAddBlocks
+
+
+	/**
+	 * Accumulates this IntModMatrix times a packed tile of columns plus an optional offset in ints
+	 * Only used when a whole dot product plus an offset cannot overflow an int. Each row of the
+	 * tile is computed by the Kernel.
+	 * @param packed The tile of columns, stored row by row of X with a given row stride
+	 * @param tile The row stride of the packed tile and accumulators
+	 * @param w The number of columns in the tile
+	 * @param b The offset vector, or null for no offset
+	 * @param acc The accumulators the unreduced tile of the product is written to
+	 */
+	private void accumulate(int[] packed, int tile, int w, int[] b, int[] acc) {
+		for (int i = 0; i < m; i++)
+			KERNEL.multRow(vals, i*n, n, packed, 0, tile, w, (b == null) ? 0 : b[i], acc, i*tile);
+	} //END accumulate
+
+
+	/**
+	 * Accumulates this IntModMatrix times a packed tile of columns plus an optional offset in longs
+	 * The accumulators are reduced every maxTerms products.
+	 * @param packed The tile of columns, stored row by row of X with a given row stride
+	 * @param tile The row stride of the packed tile and accumulators
+	 * @param w The number of columns in the tile
+	 * @param b The offset vector, or null for no offset
+	 * @param acc The accumulators the unreduced tile of the product is written to
+	 */
+	private void accumulate(int[] packed, int tile, int w, int[] b, long[] acc) {
+		for (int i = 0; i < m; i++) {
+			int row = i * n;
+			int accRow = i * tile;
+			int pending = 0;
+
+			Arrays.fill(acc, accRow, accRow + w, (b == null) ? 0 : b[i]);
+
+			for (int k = 0; k < n; k++) {
+				long aik = vals[row + k];
+				int p = k * tile;
+
+				if (aik != 0)
+					for (int j = 0; j < w; j++)
+						acc[accRow + j] += aik * packed[p + j];
+
+				if (++pending == maxTerms) {
+					for (int j = 0; j < w; j++)
+						acc[accRow + j] = red.reduce(acc[accRow + j]);
+					pending = 0;
+				}
+			}
+		}
+	} //END accumulate
+
+
+	/**
+	 * Returns this IntModMatrix with its rows permuted, row i becoming row perm[i]
+	 * This is the product PA where P is the permutation matrix sending e_i to e_perm[i].
+	 * @param perm The given permutation of the rows
+	 * @return This IntModMatrix with its rows permuted
+	 */
+	public IntModMatrix permuteRows(int[] perm) {
+		int[] temp = new int[vals.length];
+
+		for (int i = 0; i < m; i++)
+			System.arraycopy(vals, i*n, temp, perm[i]*n, n);
+
+		return new IntModMatrix(m, n, z, temp);
+	} //END permuteRows
+
+
+	/**
+	 * Returns this IntModMatrix with its columns permuted, column j becoming column perm[j]
+	 * This is the product AP^T where P is the permutation matrix sending e_j to e_perm[j].
+	 * @param perm The given permutation of the columns
+	 * @return This IntModMatrix with its columns permuted
+	 */
+	public IntModMatrix permuteColumns(int[] perm) {
+		int[] temp = new int[vals.length];
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				temp[i*n + perm[j]] = vals[i*n + j];
+
+		return new IntModMatrix(m, n, z, temp);
+	} //END permuteColumns
+
+
+	/**
+	 * Returns the transpose of this IntModMatrix
+	 * @return The transpose of this IntModMatrix
+	 */
+	public IntModMatrix transpose() {
+		int[] temp = new int[vals.length];
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				temp[j*m + i] = vals[i*n + j];
+
+		return new IntModMatrix(n, m, z, temp);
+	} //END transpose
+
+
+	/**
+	 * Calculates and returns the determinant of this IntModMatrix
+	 * @return The determinant of this IntModMatrix, a residue in [0,m)
+	 * @throws InvalidDimException Thrown if this IntModMatrix is not square
+	 */
+	public int getDet() throws InvalidDimException {
+		if (m != n)
+			throw new InvalidDimException();
+
+		return triangularize(vals.clone(), null);
+	} //END getDet
+
+
+	/**
+	 * Calculates and returns the multiplicative inverse of this IntModMatrix
+	 * @return The multiplicative inverse of this IntModMatrix
+	 * @throws InvalidDimException Thrown if this IntModMatrix is not square
+	 * @throws InvalidDetException Thrown if this IntModMatrix is not invertible
+	 */
+	public IntModMatrix getInverse() throws InvalidDimException, InvalidDetException {
+		if (m != n)
+			throw new InvalidDimException();
+
+		//01 INVERT TRIANGULAR MATRICES BY SUBSTITUTION
+		if (this.isLowerTriangular())
+			return new IntModMatrix(n, n, z, invertLower(vals));
+		if (this.transpose().isLowerTriangular())
+			return new IntModMatrix(n, n, z, invertLower(this.transpose().vals)).transpose();
+
+		//02 OTHERWISE ELIMINATE
+		int[] temp = vals.clone();
+		int[] inv = identity(n, z).vals;
+
+		invert(temp, inv);
+
+		return new IntModMatrix(n, n, z, inv);
+	} //END getInverse
+
+
+	/**
+	 * Returns true if every entry of this IntModMatrix above the diagonal is 0
+	 * @return True if this IntModMatrix is lower triangular, false otherwise
+	 */
+	private boolean isLowerTriangular() {
+		for (int i = 0; i < m; i++)
+			for (int j = i+1; j < n; j++)
+				if (vals[i*n + j] != 0)
+					return false;
+
+		return true;
+	} //END isLowerTriangular
+
+
+	/**
+	 * Inverts a given nxn lower triangular array by forward substitution
+	 * Row i of the inverse X is -d_i^(-1) times the sum of L[i][k]X[k] over k < i, plus d_i^(-1)
+	 * on the diagonal, so it only depends on the rows above it.
+	 * @param a The given row-major lower triangular array
+	 * @return The row-major inverse of the given array
+	 * @throws InvalidDetException Thrown if an entry on the diagonal is not a unit
+	 */
+	private int[] invertLower(int[] a) throws InvalidDetException {
+		int[] inv = new int[n * n];
+		long[] acc = new long[n];
+
+		for (int i = 0; i < n; i++) {
+			long dInv = z.getMultInverse(a[i*n + i]);
+
+			if (dInv == -1)
+				throw new InvalidDetException();
+
+			//01 ACCUMULATE THE SUM OF L[i][k]X[k] OVER THE ROWS ABOVE
+			Arrays.fill(acc, 0, i, 0);
+			int pending = 0;
+
+			for (int k = 0; k < i; k++) {
+				long lik = a[i*n + k];
+
+				if (lik != 0)
+					for (int j = 0; j <= k; j++)
+						acc[j] += lik * inv[k*n + j];
+
+				if (++pending == maxTerms) {
+					for (int j = 0; j < i; j++)
+						acc[j] = red.reduce(acc[j]);
+					pending = 0;
+				}
+			}
+
+			//02 SCALE BY -d_i^(-1) AND SET THE DIAGONAL
+			for (int j = 0; j < i; j++)
+				inv[i*n + j] = red.reduce((mod - red.reduce(acc[j])) * dInv);
+			inv[i*n + i] = (int) dInv;
+		}
+
+		return inv;
+	} //END invertLower
+
+
+	/**
+	 * Reduces a given nxn array to the identity by Gauss-Jordan elimination, applying the
+	 * same row operations to a second array
+	 * The array is first made upper triangular by triangularize; it is invertible exactly when
+	 * the product of the pivots is a unit, in which case every pivot is a unit.
+	 * @param a The given row-major array, destroyed by the elimination
+	 * @param inv The row-major array the row operations are applied to
+	 * @throws InvalidDetException Thrown if the given array is not invertible
+	 */
+	private void invert(int[] a, int[] inv) throws InvalidDetException {
+		//01 REDUCE TO UPPER TRIANGULAR FORM
+		if (!z.isUnit(triangularize(a, inv)))
+			throw new InvalidDetException();
+
+		//02 WORKING UPWARDS, REDUCE EACH ROW TO HAVE LEADING 1 AND CLEAR ITS COLUMN ABOVE
+		for (int i = n-1; i >= 0; i--) {
+			long pivotInv = z.getMultInverse(a[i*n + i]);
+
+			for (int j = i; j < n; j++)
+				a[i*n + j] = red.reduce(pivotInv * a[i*n + j]);
+			for (int j = 0; j < n; j++)
+				inv[i*n + j] = red.reduce(pivotInv * inv[i*n + j]);
+
+			for (int k = 0; k < i; k++) {
+				if (a[k*n + i] != 0) {
+					long f = mod - a[k*n + i];
+					addRowMultiple(a, k, i, f);
+					addRowMultiple(inv, k, i, f);
+				}
+			}
+		}
+	} //END invert
+
+
+	/**
+	 * Reduces a given nxn array to upper triangular form using only row operations of
+	 * determinant 1, applying the same operations to an optional second array, and returns the
+	 * determinant of the given array
+	 * A unit pivot clears the entries below it directly. Otherwise the pivot row is combined with
+	 * each row below by the unimodular transformation given by the extended Euclidean algorithm,
+	 * which leaves the gcd of the two entries in the pivot row and 0 below, until the pivot
+	 * becomes a unit or the column is cleared. This takes O(n^3 log m) operations for any m,
+	 * and the determinant is the product of the pivots.
+	 * @param a The given row-major array, reduced in place
+	 * @param inv The row-major array the row operations are applied to, or null
+	 * @return The determinant of the given array, a residue in [0,m)
+	 */
+	private int triangularize(int[] a, int[] inv) {
+		long det = 1 % mod;
+		long[] bezout = new long[3];
+
+		for (int i = 0; i < n; i++) {
+			for (int k = i+1; k < n; k++) {
+				if (a[k*n + i] == 0)
+					continue;
+
+				//01 IF THE PIVOT IS A UNIT, CLEAR ENTRY k,i WITH IT
+				if (z.isUnit(a[i*n + i])) {
+					long f = mod - red.reduce((long) a[k*n + i] * z.getMultInverse(a[i*n + i]));
+					addRowMultiple(a, k, i, f);
+					if (inv != null)
+						addRowMultiple(inv, k, i, f);
+				}
+				//02 OTHERWISE MOVE THE GCD OF ENTRIES i,i AND k,i INTO ROW i AND CLEAR ENTRY k,i
+				else {
+					long x = a[i*n + i];
+					long y = a[k*n + i];
+
+					extendedGcd(x, y, bezout);
+					long g = bezout[0];
+
+					combineRows(a, i, k, bezout[1], bezout[2], mod - y / g, x / g);
+					if (inv != null)
+						combineRows(inv, i, k, bezout[1], bezout[2], mod - y / g, x / g);
+				}
+			}
+
+			det = red.reduce(det * a[i*n + i]);
+		}
+
+		return (int) det;
+	} //END triangularize
+
+
+	/**
+	 * Replaces two rows r and s of a given nxn array by (p*r + q*s) and (u*r + v*s)
+	 * @param a The given row-major array
+	 * @param r The first row
+	 * @param s The second row
+	 * @param p The coefficient of the first row in the new first row
+	 * @param q The coefficient of the second row in the new first row
+	 * @param u The coefficient of the first row in the new second row
+	 * @param v The coefficient of the second row in the new second row
+	 */
+	private void combineRows(int[] a, int r, int s, long p, long q, long u, long v) {
+		p = red.floorMod(p);
+		q = red.floorMod(q);
+		u = red.floorMod(u);
+		v = red.floorMod(v);
+
+		for (int j = 0; j < n; j++) {
+			long x = a[r*n + j];
+			long y = a[s*n + j];
+
+			a[r*n + j] = red.reduce(p * x + q * y);
+			a[s*n + j] = red.reduce(u * x + v * y);
+		}
+	} //END combineRows
+
+
+	/**
+	 * Calculates the gcd g of two non-negative integers x and y, not both 0, along with s and t
+	 * such that sx + ty = g
+	 * @param x The given integer x
+	 * @param y The given integer y
+	 * @param res The array g, s and t are written to, in that order
+	 */
+	private static void extendedGcd(long x, long y, long[] res) {
+		long r0 = x, r1 = y;
+		long s0 = 1, s1 = 0;
+		long t0 = 0, t1 = 1;
+
+		while (r1 != 0) {
+			long q = r0 / r1;
+			long temp;
+
+			temp = r0 - q * r1;  r0 = r1;  r1 = temp;
+			temp = s0 - q * s1;  s0 = s1;  s1 = temp;
+			temp = t0 - q * t1;  t0 = t1;  t1 = temp;
+		}
+
+		res[0] = r0;
+		res[1] = s0;
+		res[2] = t0;
+	} //END extendedGcd
+
+
+	/**
+	 * Adds a given multiple of one row of a given nxn array to another row
+	 * @param a The given row-major array
+	 * @param dst The row to be added to
+	 * @param src The row whose multiple is added
+	 * @param k The given multiple, a residue in [0,m)
+	 */
+	private void addRowMultiple(int[] a, int dst, int src, long k) {
+		for (int j = 0; j < n; j++)
+			a[dst*n + j] = red.reduce(a[dst*n + j] + k * a[src*n + j]);
+	} //END addRowMultiple
+
+
+	/**
+	 * Returns this IntModMatrix as a Grid of ModInt_M
+	 * @return This IntModMatrix as a Grid of ModInt_M
+	 */
+	public Grid<ModInt_M> asGrid() {
+		return Grid.ofResidues(m, n, z, vals);
+	} //END asGrid
+
+
+	/**
+	 * Returns this IntModMatrix as a Matrix of ModInt_M
+	 * @return This IntModMatrix as a Matrix of ModInt_M
+	 */
+	public Matrix<ModInt_M> toMatrix() {
+		return new Matrix<ModInt_M>(this.asGrid());
+	} //END toMatrix
+
+
+	/**
+	 * Determines if this IntModMatrix and a given Object are logically equivalent
+	 * @param o The given object to be compared to this IntModMatrix
+	 * @return True if the given object and this IntModMatrix are equivalent
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+
+		if (!(o instanceof IntModMatrix))
+			return false;
+
+		IntModMatrix obj = (IntModMatrix) o;
+
+		return this.m == obj.m && this.n == obj.n && this.mod == obj.mod
+				&& Arrays.equals(this.vals, obj.vals);
+	} //END equals
+
+
+	/**
+	 * Returns a hash code consistent with equals
+	 * @return A hash code for this IntModMatrix
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * (31 * (31 * m + n) + mod) + Arrays.hashCode(vals);
+	} //END hashCode
+
+
+	/**
+	 * Returns the String representation of this IntModMatrix
+	 * @return The String representation of this IntModMatrix
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < m; i++) {
+			sb.append("[");
+			for (int j = 0; j < n-1; j++) {
+				sb.append(vals[i*n + j] + ", ");
+			}
+			sb.append(vals[i*n + n-1] + "]\n");
+		}
+
+		return sb.toString();
+	} //END toString
+
+} //END IntModMatrix
@@ -0,0 +1,161 @@
+package matrix;
+
+/**
+ * An interface for the inner loops of modular matrix products, matrix products over GF(2^8) and
+ * alphabet lookups
+ * A Kernel works on unreduced int or long accumulators, leaving reduction to its caller, so
+ * callers only use it when a whole sum cannot overflow. Over GF(2^8) sums are XORs of bytes and
+ * products are built from nibble products, so nothing is ever reduced. Two Kernels exist: a
+ * scalar one, and one built on the incubating Vector API that is chosen at runtime when the
+ * jdk.incubator.vector module is present and the CPU has vectors of at least 256 bits. Setting
+ * the system property matrixcipher.kernel to scalar or vector forces either one.
+ * @author Noah Kime
+ */
+public interface Kernel {
+
+	/**
+	 * The Kernel chosen for this JVM
+	 */
+	Kernel DEFAULT = select(System.getProperty("matrixcipher.kernel", "auto"));
+
+	/**
+	 * The number of nibble products of each row of a matrix over GF(2^8), 16 low and 16 high
+	 */
+	int NIBBLE_PRODUCTS = 32;
+
+	/**
+	 * The low 8 bits of x^8 + x^4 + x^3 + x + 1, added when doubling in GF(2^8) overflows
+	 */
+	int GF256_REDUCTION = 0x1B;
+
+
+	/**
+	 * Returns the name of this Kernel
+	 * @return The name of this Kernel
+	 */
+	String name();
+
+
+	/**
+	 * Multiplies a row vector by a matrix stored row by row with a given stride, adding a given
+	 * initial value to each entry of the result
+	 * Computes acc[accOff + j] = init + sum over k of a[aOff + k] * x[xOff + k*stride + j] for
+	 * every j in [0,w), without reducing.
+	 * @param a The array holding the n entries of the row vector
+	 * @param aOff The position of the first entry of the row vector in a
+	 * @param n The number of entries of the row vector and rows of the matrix
+	 * @param x The array holding the rows of the matrix
+	 * @param xOff The position of the first entry of the first row in x
+	 * @param stride The distance between the starts of consecutive rows in x
+	 * @param w The number of columns of the matrix
+	 * @param init The initial value of every entry of the result
+	 * @param acc The array the w entries of the result are written to
+	 * @param accOff The position of the first entry of the result in acc
+	 */
+	void multRow(int[] a, int aOff, int n, int[] x, int xOff, int stride, int w, int init, int[] acc, int accOff);
+
+
+	/**
+	 * Multiplies a row vector of longs by a matrix stored row by row with a given stride, adding
+	 * a given initial value to each entry of the result
+	 * Computes acc[accOff + j] = init + sum over k of a[aOff + k] * x[xOff + k*stride + j] for
+	 * every j in [0,w), without reducing. Sums wrap around as unsigned 64-bit integers.
+	 * @param a The array holding the n entries of the row vector
+	 * @param aOff The position of the first entry of the row vector in a
+	 * @param n The number of entries of the row vector and rows of the matrix
+	 * @param x The array holding the rows of the matrix
+	 * @param xOff The position of the first entry of the first row in x
+	 * @param stride The distance between the starts of consecutive rows in x
+	 * @param w The number of columns of the matrix
+	 * @param init The initial value of every entry of the result
+	 * @param acc The array the w entries of the result are written to
+	 * @param accOff The position of the first entry of the result in acc
+	 */
+	void multRow(long[] a, int aOff, int n, long[] x, int xOff, int stride, int w, long init, long[] acc, int accOff);
+
+
+	/**
+	 * Fills the products of a row of bytes with every nibble in GF(2^8), given the row itself
+	 * The products are rows of a given stride: the product with nibble c is c rows past a given
+	 * base and the product with c*16 is 16 + c rows past it. The product with 1 must already be
+	 * in place, and the product with 0 is left alone.
+	 * @param products The array holding the products
+	 * @param base The position of the product with 0
+	 * @param stride The distance between the starts of consecutive products
+	 * @param w The length of the row
+	 */
+	void nibbleProducts(byte[] products, int base, int stride, int w);
+
+
+	/**
+	 * Multiplies a row vector over GF(2^8) by a matrix whose rows have been expanded into their
+	 * nibble products, adding a given initial value to each entry of the result
+	 * The nibble products of row k of the matrix start at products[NIBBLE_PRODUCTS * k * stride],
+	 * laid out as by nibbleProducts. Computes acc[accOff + j] = init + sum over k of
+	 * a[aOff + k] * x[k][j] for every j in [0,w), where sums are XORs.
+	 * @param a The array holding the n entries of the row vector
+	 * @param aOff The position of the first entry of the row vector in a
+	 * @param n The number of entries of the row vector and rows of the matrix
+	 * @param products The nibble products of the rows of the matrix
+	 * @param stride The distance between the starts of consecutive products
+	 * @param w The number of columns of the matrix
+	 * @param init The initial value of every entry of the result
+	 * @param acc The array the w entries of the result are written to
+	 * @param accOff The position of the first entry of the result in acc
+	 */
+	void multRow(byte[] a, int aOff, int n, byte[] products, int stride, int w, byte init, byte[] acc, int accOff);
+
+
+	/**
+	 * Looks up the entry of a given table at each of a number of given characters
+	 * Computes dst[dstOff + i] = table[src[srcOff + i]], or missing where the character is not
+	 * below the length of the table.
+	 * @param table The given table
+	 * @param src The array holding the characters
+	 * @param srcOff The position of the first character in src
+	 * @param missing The value given to characters beyond the table
+	 * @param dst The array the entries are written to
+	 * @param dstOff The position the first entry is written to
+	 * @param len The number of characters
+	 */
+	void lookup(int[] table, char[] src, int srcOff, int missing, int[] dst, int dstOff, int len);
+
+
+	/**
+	 * Looks up the character of a given table at each of a number of given indices
+	 * Computes dst[dstOff + i] = (char) table[src[srcOff + i]]. Every index must be in range.
+	 * @param table The given table of characters, one per int
+	 * @param src The array holding the indices
+	 * @param srcOff The position of the first index in src
+	 * @param dst The array the characters are written to
+	 * @param dstOff The position the first character is written to
+	 * @param len The number of indices
+	 */
+	void lookup(int[] table, int[] src, int srcOff, char[] dst, int dstOff, int len);
+
+
+	/**
+	 * Returns the Kernel named by a given choice
+	 * The vector Kernel is loaded reflectively, so a JVM without jdk.incubator.vector never links
+	 * it. Choosing vector where it cannot run falls back to the scalar Kernel.
+	 * @param choice scalar, vector or auto
+	 * @return The chosen Kernel
+	 */
+	private static Kernel select(String choice) {
+		if (choice.equals("scalar") || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+			return new ScalarKernel();
+
+		try {
+			Kernel vector = (Kernel) Class.forName("matrix.VectorKernel").getDeclaredConstructor().newInstance();
+
+			if (choice.equals("vector") || ((VectorKernel) vector).isProfitable())
+				return vector;
+		}
+		catch (ReflectiveOperationException|LinkageError e) {
+			//The Vector API is not usable on this JVM
+		}
+
+		return new ScalarKernel();
+	} //END select
+
+} //END Kernel
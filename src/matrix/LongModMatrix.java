@@ -0,0 +1,700 @@
+package matrix;
+
+import java.util.Arrays;
+
+import matrix.matrixException.*;
+import ring.modInt.ModLong_M;
+import ring.modInt.Z_ML;
+
+/**
+ * A Class that defines matrices over the integers modulo an m of up to 63 bits using primitive
+ * storage
+ * Entries are kept as canonical residues in a single row-major long[], as IntModMatrix keeps
+ * them in an int[]. While a product of two residues fits in 64 bits, that is while m is at most
+ * Z_ML.MAX_NARROW, dot products are accumulated by the Kernel as unsigned longs and reduced every
+ * maxTerms products; for m around a million that is once per several million products. Above
+ * that each product is computed in 128 bits and reduced on its own. Elimination works on residues
+ * through the Z_ML. Instances are immutable.
+ * @author Noah Kime
+ */
+public class LongModMatrix {
+
+	private final int m;
+	private final int n;
+
+	private final Z_ML z;
+	private final long mod;
+	private final long[] vals;
+
+	//True if products of residues need 128 bits and are reduced one at a time
+	private final boolean wide;
+
+	//The number of products that can be accumulated in an unsigned long before it must be reduced
+	private final int maxTerms;
+
+	//The number of entries of packed input and accumulators multAddBlocks keeps in cache at once
+	private static final int TILE_ENTRIES = 1 << 13;
+
+	//The inner loops of products accumulated in longs
+	private static final Kernel KERNEL = Kernel.DEFAULT;
+
+
+	/**
+	 * Constructs a new LongModMatrix with the entries of a given Matrix of ModLong_M
+	 * @param x The given Matrix of ModLong_M
+	 */
+	public LongModMatrix(Matrix<ModLong_M> x) {
+		this(x.m, x.n, x.nums.get(0,0).getM(), new long[x.m * x.n]);
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				vals[i*n + j] = z.floorMod(x.nums.get(i,j).getVal());
+	} //END LongModMatrix (constructor)
+
+
+	/**
+	 * Constructs a new mxn LongModMatrix from given row-major values reduced modulo m
+	 * @param m The given number of rows
+	 * @param n The given number of columns
+	 * @param vals The given row-major values, which are copied
+	 * @param z The given Z_ML to perform modular arithmetic with
+	 * @throws InvalidDimException Thrown if the number of values does not match the dimensions
+	 */
+	public LongModMatrix(int m, int n, long[] vals, Z_ML z) throws InvalidDimException {
+		this(m, n, z, new long[m * n]);
+
+		if (vals.length != m * n)
+			throw new InvalidDimException();
+
+		for (int i = 0; i < vals.length; i++) {
+			long v = vals[i];
+			this.vals[i] = (v >= 0 && v < mod) ? v : z.floorMod(v);
+		}
+	} //END LongModMatrix (constructor)
+
+
+	/**
+	 * Constructs a new LongModMatrix around given row-major values already reduced modulo m
+	 * @param m The given number of rows
+	 * @param n The given number of columns
+	 * @param z The given Z_ML to perform modular arithmetic with
+	 * @param vals The given row-major values, which are not copied
+	 */
+	private LongModMatrix(int m, int n, Z_ML z, long[] vals) {
+		this.m = m;
+		this.n = n;
+		this.z = z;
+		this.mod = z.getM();
+		this.vals = vals;
+		this.wide = z.isWide();
+
+		long maxProduct = (mod - 1) * (mod - 1);
+		long terms = (wide || maxProduct == 0) ? -1L : Long.divideUnsigned(-1L - (mod - 1), maxProduct);
+		this.maxTerms = (Long.compareUnsigned(terms, Integer.MAX_VALUE) > 0) ? Integer.MAX_VALUE : (int) terms;
+	} //END LongModMatrix (constructor)
+
+
+	/**
+	 * Returns the nxn identity LongModMatrix over a given Z_ML
+	 * @param n The given size
+	 * @param z The given Z_ML
+	 * @return The nxn identity LongModMatrix
+	 */
+	public static LongModMatrix identity(int n, Z_ML z) {
+		long[] temp = new long[n * n];
+
+		for (int i = 0; i < n; i++)
+			temp[i*n + i] = z.getMultIdentity();
+
+		return new LongModMatrix(n, n, z, temp);
+	} //END identity
+
+
+	/**
+	 * Returns the entry in the ith row and the jth column of this LongModMatrix
+	 * @param i The index of the ith row
+	 * @param j The index of the jth column
+	 * @return The entry at position (i,j) of this LongModMatrix
+	 * @throws OutOfBoundsException If i or j is an invalid index number
+	 */
+	public long get(int i, int j) throws OutOfBoundsException {
+		if (i < m && i >= 0 && j < n && j >= 0)
+			return vals[i*n + j];
+		else
+			throw new OutOfBoundsException();
+	} //END get
+
+
+	/**
+	 * Returns the number of rows in this LongModMatrix
+	 * @return The number of rows in this LongModMatrix
+	 */
+	public int getM() {
+		return m;
+	} //END getM
+
+
+	/**
+	 * Returns the number of columns in this LongModMatrix
+	 * @return The number of columns in this LongModMatrix
+	 */
+	public int getN() {
+		return n;
+	} //END getN
+
+
+	/**
+	 * Returns a copy of the entries of this LongModMatrix in row-major order
+	 * @return A copy of the entries of this LongModMatrix in row-major order
+	 */
+	public long[] toArray() {
+		return vals.clone();
+	} //END toArray
+
+
+	/**
+	 * Returns the Z_ML this LongModMatrix performs modular arithmetic with
+	 * @return The Z_ML of this LongModMatrix
+	 */
+	public Z_ML getZ() {
+		return z;
+	} //END getZ
+
+
+	/**
+	 * Adds a given LongModMatrix to this LongModMatrix and returns the sum
+	 * @param x The given LongModMatrix to be added
+	 * @return The sum of this LongModMatrix and the given LongModMatrix
+	 * @throws InvalidDimException Thrown if given LongModMatrix does not have the same dimensions
+	 */
+	public LongModMatrix addRet(LongModMatrix x) throws InvalidDimException {
+		if (x.m != m || x.n != n || x.mod != mod)
+			throw new InvalidDimException();
+
+		long[] temp = new long[vals.length];
+
+		for (int i = 0; i < vals.length; i++)
+			temp[i] = z.add(vals[i], x.vals[i]);
+
+		return new LongModMatrix(m, n, z, temp);
+	} //END addRet
+
+
+	/**
+	 * Multiplies the given LongModMatrix on the right of this LongModMatrix and returns the result
+	 * @param x The given LongModMatrix to be multiplied on the right of this LongModMatrix
+	 * @return The product of this LongModMatrix with the given LongModMatrix multiplied on the right
+	 * @throws InvalidDimException Thrown if given LongModMatrix does not have corresponding dimensions
+	 */
+	public LongModMatrix multRRet(LongModMatrix x) throws InvalidDimException {
+		return mult(this, x);
+	} //END multRRet
+
+
+	/**
+	 * Multiplies the given LongModMatrix on the left of this LongModMatrix and returns the result
+	 * @param x The given LongModMatrix to be multiplied on the left of this LongModMatrix
+	 * @return The product of this LongModMatrix with the given LongModMatrix multiplied on the left
+	 * @throws InvalidDimException Thrown if given LongModMatrix does not have corresponding dimensions
+	 */
+	public LongModMatrix multLRet(LongModMatrix x) throws InvalidDimException {
+		return mult(x, this);
+	} //END multLRet
+
+
+	/**
+	 * Multiplies two LongModMatrices x and y, one row of the product at a time
+	 * @param x Given LongModMatrix x to be multiplied on the left
+	 * @param y Given LongModMatrix y to be multiplied on the right
+	 * @return The product of the LongModMatrices
+	 * @throws InvalidDimException Thrown if LongModMatrices do not have corresponding dimensions
+	 */
+	private static LongModMatrix mult(LongModMatrix x, LongModMatrix y) throws InvalidDimException {
+		if (x.n != y.m || x.mod != y.mod)
+			throw new InvalidDimException();
+
+		long[] temp = new long[x.m * y.n];
+
+		for (int i = 0; i < x.m; i++)
+			x.multRow(x.vals, i*x.n, x.n, y.vals, 0, y.n, y.n, 0, temp, i*y.n);
+
+		return new LongModMatrix(x.m, y.n, x.z, temp);
+	} //END mult
+
+
+	/**
+	 * Multiplies a row vector of residues by a matrix of residues stored row by row with a given
+	 * stride, adding a given residue to each entry of the result, and reduces the result
+	 * Computes acc[accOff + j] = init + sum over k of a[aOff + k] * x[xOff + k*stride + j] modulo
+	 * m for every j in [0,w). Unless products need 128 bits, the sum is accumulated by the Kernel
+	 * maxTerms products at a time.
+	 * @param a The array holding the len entries of the row vector
+	 * @param aOff The position of the first entry of the row vector in a
+	 * @param len The number of entries of the row vector and rows of the matrix
+	 * @param x The array holding the rows of the matrix
+	 * @param xOff The position of the first entry of the first row in x
+	 * @param stride The distance between the starts of consecutive rows in x
+	 * @param w The number of columns of the matrix
+	 * @param init The residue added to every entry of the result
+	 * @param acc The array the w reduced entries of the result are written to
+	 * @param accOff The position of the first entry of the result in acc
+	 */
+	private void multRow(long[] a, int aOff, int len, long[] x, int xOff, int stride, int w, long init, long[] acc, int accOff) {
+		//01 PRODUCTS NEEDING 128 BITS ARE REDUCED ONE AT A TIME
+		if (wide) {
+			Arrays.fill(acc, accOff, accOff + w, init);
+
+			for (int k = 0; k < len; k++) {
+				long ak = a[aOff + k];
+				int row = xOff + k*stride;
+
+				if (ak != 0)
+					for (int j = 0; j < w; j++)
+						acc[accOff + j] = z.add(acc[accOff + j], z.mult(ak, x[row + j]));
+			}
+
+			return;
+		}
+
+		//02 OTHERWISE ACCUMULATE THE FIRST maxTerms PRODUCTS WITH THE KERNEL AND REDUCE
+		int terms = Math.min(len, maxTerms);
+
+		KERNEL.multRow(a, aOff, terms, x, xOff, stride, w, init, acc, accOff);
+		for (int j = 0; j < w; j++)
+			acc[accOff + j] = z.reduce(acc[accOff + j]);
+
+		//03 ADD ANY FURTHER PRODUCTS maxTerms AT A TIME
+		if (terms < len) {
+			long[] part = new long[w];
+
+			for (int k = terms; k < len; k += maxTerms) {
+				int count = Math.min(maxTerms, len - k);
+
+				KERNEL.multRow(a, aOff + k, count, x, xOff + k*stride, stride, w, 0, part, 0);
+				for (int j = 0; j < w; j++)
+					acc[accOff + j] = z.reduce(acc[accOff + j] + part[j]);
+			}
+		}
+	} //END multRow
+
+
+	/**
+	 * Multiplies this LongModMatrix by a column vector stored in a given array, adds an optional
+	 * offset vector, and writes the result into a given array
+	 * Computes y = Ax + b without allocating. Entries of x must be residues in [0,m).
+	 * @param x The array holding the n entries of the column vector
+	 * @param xOff The position of the first entry of the column vector in x
+	 * @param b The m entries of the offset vector, or null for no offset
+	 * @param y The array the m entries of the result are written to
+	 * @param yOff The position of the first entry of the result in y
+	 */
+	public void multAddVec(long[] x, int xOff, long[] b, long[] y, int yOff) {
+		for (int i = 0; i < m; i++)
+			this.multRow(vals, i*n, n, x, xOff, 1, 1, (b == null) ? 0 : b[i], y, yOff + i);
+	} //END multAddVec
+
+
+	/**
+	 * Multiplies this LongModMatrix by a number of column vectors stored one after another in a
+	 * given array, adds an optional offset vector to each, and writes the results one after
+	 * another into a given array
+	 * As in IntModMatrix, the vectors are the columns of one nxcount matrix X and Y = AX + b is
+	 * computed tile by tile: X is packed into a k-major block that stays in cache and each row of
+	 * the tile of the product is computed by multRow. Entries of x must be residues in [0,m).
+	 * @param x The array holding the n entries of each column vector
+	 * @param xOff The position of the first entry of the first column vector in x
+	 * @param count The number of column vectors
+	 * @param b The m entries of the offset vector, or null for no offset
+	 * @param y The array the m entries of each result are written to
+	 * @param yOff The position of the first entry of the first result in y
+	 */
+	public void multAddBlocks(long[] x, int xOff, int count, long[] b, long[] y, int yOff) {
+		int tile = Math.max(8, Math.min(count, TILE_ENTRIES / (n + m)));
+		tile &= ~7;
+		long[] packed = new long[n * tile];
+		long[] acc = new long[m * tile];
+
+		for (int t = 0; t < count; t += tile) {
+			int w = Math.min(tile, count - t);
+
+			//01 PACK THE COLUMNS OF THE TILE SO EACH ROW OF X IS CONTIGUOUS
+			for (int j = 0; j < w; j++) {
+				int col = xOff + (t + j) * n;
+
+				for (int k = 0; k < n; k++)
+					packed[k*tile + j] = x[col + k];
+			}
+
+			//02 COMPUTE THE TILE OF THE PRODUCT ROW BY ROW, STARTING FROM THE OFFSET
+			for (int i = 0; i < m; i++)
+				this.multRow(vals, i*n, n, packed, 0, tile, w, (b == null) ? 0 : b[i], acc, i*tile);
+
+			//03 WRITE EACH COLUMN OUT
+			for (int j = 0; j < w; j++) {
+				int col = yOff + (t + j) * m;
+
+				for (int i = 0; i < m; i++)
+					y[col + i] = acc[i*tile + j];
+			}
+		}
+	} //END multAddBlocks
+
+
+	/**
+	 * Returns this LongModMatrix with its rows permuted, row i becoming row perm[i]
+	 * This is the product PA where P is the permutation matrix sending e_i to e_perm[i].
+	 * @param perm The given permutation of the rows
+	 * @return This LongModMatrix with its rows permuted
+	 */
+	public LongModMatrix permuteRows(int[] perm) {
+		long[] temp = new long[vals.length];
+
+		for (int i = 0; i < m; i++)
+			System.arraycopy(vals, i*n, temp, perm[i]*n, n);
+
+		return new LongModMatrix(m, n, z, temp);
+	} //END permuteRows
+
+
+	/**
+	 * Returns this LongModMatrix with its columns permuted, column j becoming column perm[j]
+	 * This is the product AP^T where P is the permutation matrix sending e_j to e_perm[j].
+	 * @param perm The given permutation of the columns
+	 * @return This LongModMatrix with its columns permuted
+	 */
+	public LongModMatrix permuteColumns(int[] perm) {
+		long[] temp = new long[vals.length];
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				temp[i*n + perm[j]] = vals[i*n + j];
+
+		return new LongModMatrix(m, n, z, temp);
+	} //END permuteColumns
+
+
+	/**
+	 * Returns the transpose of this LongModMatrix
+	 * @return The transpose of this LongModMatrix
+	 */
+	public LongModMatrix transpose() {
+		long[] temp = new long[vals.length];
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				temp[j*m + i] = vals[i*n + j];
+
+		return new LongModMatrix(n, m, z, temp);
+	} //END transpose
+
+
+	/**
+	 * Calculates and returns the determinant of this LongModMatrix
+	 * @return The determinant of this LongModMatrix, a residue in [0,m)
+	 * @throws InvalidDimException Thrown if this LongModMatrix is not square
+	 */
+	public long getDet() throws InvalidDimException {
+		if (m != n)
+			throw new InvalidDimException();
+
+		return triangularize(vals.clone(), null);
+	} //END getDet
+
+
+	/**
+	 * Calculates and returns the multiplicative inverse of this LongModMatrix
+	 * @return The multiplicative inverse of this LongModMatrix
+	 * @throws InvalidDimException Thrown if this LongModMatrix is not square
+	 * @throws InvalidDetException Thrown if this LongModMatrix is not invertible
+	 */
+	public LongModMatrix getInverse() throws InvalidDimException, InvalidDetException {
+		if (m != n)
+			throw new InvalidDimException();
+
+		//01 INVERT TRIANGULAR MATRICES BY SUBSTITUTION
+		if (this.isLowerTriangular())
+			return new LongModMatrix(n, n, z, invertLower(vals));
+		if (this.transpose().isLowerTriangular())
+			return new LongModMatrix(n, n, z, invertLower(this.transpose().vals)).transpose();
+
+		//02 OTHERWISE ELIMINATE
+		long[] temp = vals.clone();
+		long[] inv = identity(n, z).vals;
+
+		invert(temp, inv);
+
+		return new LongModMatrix(n, n, z, inv);
+	} //END getInverse
+
+
+	/**
+	 * Returns true if every entry of this LongModMatrix above the diagonal is 0
+	 * @return True if this LongModMatrix is lower triangular, false otherwise
+	 */
+	private boolean isLowerTriangular() {
+		for (int i = 0; i < m; i++)
+			for (int j = i+1; j < n; j++)
+				if (vals[i*n + j] != 0)
+					return false;
+
+		return true;
+	} //END isLowerTriangular
+
+
+	/**
+	 * Inverts a given nxn lower triangular array by forward substitution
+	 * Row i of the inverse X is -d_i^(-1) times the sum of L[i][k]X[k] over k < i, plus d_i^(-1)
+	 * on the diagonal, so it only depends on the rows above it.
+	 * @param a The given row-major lower triangular array
+	 * @return The row-major inverse of the given array
+	 * @throws InvalidDetException Thrown if an entry on the diagonal is not a unit
+	 */
+	private long[] invertLower(long[] a) throws InvalidDetException {
+		long[] inv = new long[n * n];
+		long[] acc = new long[n];
+
+		for (int i = 0; i < n; i++) {
+			long dInv = z.getMultInverse(a[i*n + i]);
+
+			if (dInv == -1)
+				throw new InvalidDetException();
+
+			//01 SUM L[i][k]X[k] OVER THE ROWS ABOVE
+			this.multRow(a, i*n, i, inv, 0, n, i, 0, acc, 0);
+
+			//02 SCALE BY -d_i^(-1) AND SET THE DIAGONAL
+			for (int j = 0; j < i; j++)
+				inv[i*n + j] = z.mult(z.getAddInverse(acc[j]), dInv);
+			inv[i*n + i] = dInv;
+		}
+
+		return inv;
+	} //END invertLower
+
+
+	/**
+	 * Reduces a given nxn array to the identity by Gauss-Jordan elimination, applying the
+	 * same row operations to a second array
+	 * The array is first made upper triangular by triangularize; it is invertible exactly when
+	 * the product of the pivots is a unit, in which case every pivot is a unit.
+	 * @param a The given row-major array, destroyed by the elimination
+	 * @param inv The row-major array the row operations are applied to
+	 * @throws InvalidDetException Thrown if the given array is not invertible
+	 */
+	private void invert(long[] a, long[] inv) throws InvalidDetException {
+		//01 REDUCE TO UPPER TRIANGULAR FORM
+		if (!z.isUnit(triangularize(a, inv)))
+			throw new InvalidDetException();
+
+		//02 WORKING UPWARDS, REDUCE EACH ROW TO HAVE LEADING 1 AND CLEAR ITS COLUMN ABOVE
+		for (int i = n-1; i >= 0; i--) {
+			long pivotInv = z.getMultInverse(a[i*n + i]);
+
+			for (int j = i; j < n; j++)
+				a[i*n + j] = z.mult(pivotInv, a[i*n + j]);
+			for (int j = 0; j < n; j++)
+				inv[i*n + j] = z.mult(pivotInv, inv[i*n + j]);
+
+			for (int k = 0; k < i; k++) {
+				if (a[k*n + i] != 0) {
+					long f = z.getAddInverse(a[k*n + i]);
+					addRowMultiple(a, k, i, f);
+					addRowMultiple(inv, k, i, f);
+				}
+			}
+		}
+	} //END invert
+
+
+	/**
+	 * Reduces a given nxn array to upper triangular form using only row operations of
+	 * determinant 1, applying the same operations to an optional second array, and returns the
+	 * determinant of the given array
+	 * The elimination is that of IntModMatrix: a unit pivot clears the entries below it directly,
+	 * and otherwise the pivot row is combined with each row below by the unimodular
+	 * transformation given by the extended Euclidean algorithm.
+	 * @param a The given row-major array, reduced in place
+	 * @param inv The row-major array the row operations are applied to, or null
+	 * @return The determinant of the given array, a residue in [0,m)
+	 */
+	private long triangularize(long[] a, long[] inv) {
+		long det = z.getMultIdentity();
+		long[] bezout = new long[3];
+
+		for (int i = 0; i < n; i++) {
+			long pivotInv = z.getMultInverse(a[i*n + i]);
+
+			for (int k = i+1; k < n; k++) {
+				if (a[k*n + i] == 0)
+					continue;
+
+				//01 IF THE PIVOT IS A UNIT, CLEAR ENTRY k,i WITH IT
+				if (pivotInv != -1) {
+					long f = z.getAddInverse(z.mult(a[k*n + i], pivotInv));
+					addRowMultiple(a, k, i, f);
+					if (inv != null)
+						addRowMultiple(inv, k, i, f);
+				}
+				//02 OTHERWISE MOVE THE GCD OF ENTRIES i,i AND k,i INTO ROW i AND CLEAR ENTRY k,i
+				else {
+					long x = a[i*n + i];
+					long y = a[k*n + i];
+
+					extendedGcd(x, y, bezout);
+					long g = bezout[0];
+
+					combineRows(a, i, k, bezout[1], bezout[2], -(y / g), x / g);
+					if (inv != null)
+						combineRows(inv, i, k, bezout[1], bezout[2], -(y / g), x / g);
+
+					pivotInv = z.getMultInverse(a[i*n + i]);
+				}
+			}
+
+			det = z.mult(det, a[i*n + i]);
+		}
+
+		return det;
+	} //END triangularize
+
+
+	/**
+	 * Replaces two rows r and s of a given nxn array by (p*r + q*s) and (u*r + v*s)
+	 * @param a The given row-major array
+	 * @param r The first row
+	 * @param s The second row
+	 * @param p The coefficient of the first row in the new first row
+	 * @param q The coefficient of the second row in the new first row
+	 * @param u The coefficient of the first row in the new second row
+	 * @param v The coefficient of the second row in the new second row
+	 */
+	private void combineRows(long[] a, int r, int s, long p, long q, long u, long v) {
+		p = z.floorMod(p);
+		q = z.floorMod(q);
+		u = z.floorMod(u);
+		v = z.floorMod(v);
+
+		for (int j = 0; j < n; j++) {
+			long x = a[r*n + j];
+			long y = a[s*n + j];
+
+			a[r*n + j] = z.add(z.mult(p, x), z.mult(q, y));
+			a[s*n + j] = z.add(z.mult(u, x), z.mult(v, y));
+		}
+	} //END combineRows
+
+
+	/**
+	 * Calculates the gcd g of two non-negative longs x and y, not both 0, along with s and t
+	 * such that sx + ty = g
+	 * @param x The given long x
+	 * @param y The given long y
+	 * @param res The array g, s and t are written to, in that order
+	 */
+	private static void extendedGcd(long x, long y, long[] res) {
+		long r0 = x, r1 = y;
+		long s0 = 1, s1 = 0;
+		long t0 = 0, t1 = 1;
+
+		while (r1 != 0) {
+			long q = r0 / r1;
+			long temp;
+
+			temp = r0 - q * r1;  r0 = r1;  r1 = temp;
+			temp = s0 - q * s1;  s0 = s1;  s1 = temp;
+			temp = t0 - q * t1;  t0 = t1;  t1 = temp;
+		}
+
+		res[0] = r0;
+		res[1] = s0;
+		res[2] = t0;
+	} //END extendedGcd
+
+
+	/**
+	 * Adds a given multiple of one row of a given nxn array to another row
+	 * @param a The given row-major array
+	 * @param dst The row to be added to
+	 * @param src The row whose multiple is added
+	 * @param k The given multiple, a residue in [0,m)
+	 */
+	private void addRowMultiple(long[] a, int dst, int src, long k) {
+		for (int j = 0; j < n; j++)
+			a[dst*n + j] = z.add(a[dst*n + j], z.mult(k, a[src*n + j]));
+	} //END addRowMultiple
+
+
+	/**
+	 * Returns this LongModMatrix as a Grid of ModLong_M
+	 * @return This LongModMatrix as a Grid of ModLong_M
+	 */
+	public Grid<ModLong_M> asGrid() {
+		Grid<ModLong_M> temp = new Grid<ModLong_M>(m, n);
+
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < n; j++)
+				temp.set(i,j, ModLong_M.valueOf(vals[i*n + j], z));
+
+		return temp;
+	} //END asGrid
+
+
+	/**
+	 * Returns this LongModMatrix as a Matrix of ModLong_M
+	 * @return This LongModMatrix as a Matrix of ModLong_M
+	 */
+	public Matrix<ModLong_M> toMatrix() {
+		return new Matrix<ModLong_M>(this.asGrid());
+	} //END toMatrix
+
+
+	/**
+	 * Determines if this LongModMatrix and a given Object are logically equivalent
+	 * @param o The given object to be compared to this LongModMatrix
+	 * @return True if the given object and this LongModMatrix are equivalent
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+
+		if (!(o instanceof LongModMatrix))
+			return false;
+
+		LongModMatrix obj = (LongModMatrix) o;
+
+		return this.m == obj.m && this.n == obj.n && this.mod == obj.mod
+				&& Arrays.equals(this.vals, obj.vals);
+	} //END equals
+
+
+	/**
+	 * Returns a hash code consistent with equals
+	 * @return A hash code for this LongModMatrix
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * (31 * (31 * m + n) + Long.hashCode(mod)) + Arrays.hashCode(vals);
+	} //END hashCode
+
+
+	/**
+	 * Returns the String representation of this LongModMatrix
+	 * @return The String representation of this LongModMatrix
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < m; i++) {
+			sb.append("[");
+			for (int j = 0; j < n-1; j++) {
+				sb.append(vals[i*n + j] + ", ");
+			}
+			sb.append(vals[i*n + n-1] + "]\n");
+		}
+
+		return sb.toString();
+	} //END toString
+
+} //END LongModMatrix
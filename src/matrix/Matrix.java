@@ -7,6 +7,13 @@ import ring.Ring;
 /**
  * A Class that defines the basic operation and characteristics of matrices
  * Entries in this matrix are of type T which must implement a Ring
+ * A Matrix is mutable and not thread-safe: set, add, multL, multR and mult(T) modify it in
+ * place. IntModMatrix is immutable and may be shared between threads; its subclass GLn is
+ * effectively immutable and may be shared once safely published.
+ * Since a GLn became immutable these five methods throw an UnsupportedOperationException when
+ * called on a GLn, including through a Matrix reference. Code that modified a GLn in place must
+ * first take a mutable copy with copy(), or use the methods returning a new Matrix, such as
+ * addRet and multRRet.
  * @author Noah Kime
  * @param <T> The type of Ring Object that are this matrix's elements
  */
@@ -79,6 +86,7 @@ public class Matrix<T extends Ring<T>> {
 	 * @param j The index of the jth column
 	 * @param k The value for entry (i,j) to be set to
 	 * @throws OutOfBoundsException If i or j is an invalid index number 
+	 * @throws UnsupportedOperationException Thrown if this Matrix is a GLn
 	 */
 	public void set(int i, int j, T k) throws OutOfBoundsException {
 		if (i < n && i >= 0 && j < m && j >= 0)
@@ -102,12 +110,7 @@ public class Matrix<T extends Ring<T>> {
 	 * @return A copy of the nums Grid
 	 */
 	protected Grid<T> copyGrid() {
-		Grid<T> tempGrid = new Grid<T>(n,n);
-		for (int i = 0; i < n; i++)	
-			for (int j = 0; j < n; j++)
-				tempGrid.set(i,j, nums.get(i, j).copy());
-		
-		return tempGrid;
+		return nums.copy();
 	} //END copyGrid
 	
 	
@@ -128,6 +131,7 @@ public class Matrix<T extends Ring<T>> {
 	 * @param x The given Matrix to be added
 	 * @throws InvalidDimException Thrown if given Matrix does not have same dimensions as this Matrix
 	 * @throws OutOfBoundsException Thrown if add function fails due to invalid dimensions and indices
+	 * @throws UnsupportedOperationException Thrown if this Matrix is a GLn
 	 */
 	public void add(Matrix<T> x) throws InvalidDimException, OutOfBoundsException {
 		this.nums = add(x, this);
@@ -150,7 +154,7 @@ public class Matrix<T extends Ring<T>> {
 		
 		for (int i = 0; i < x.m; i++) {
 			for (int j = 0; j < x.n; j++) {
-				temp.set(i,j, (T) x.get(i,j).add(y.get(i,j)));
+				temp.set(i,j, x.nums.get(i,j).add(y.nums.get(i,j)));
 			}
 		}
 		
@@ -175,6 +179,7 @@ public class Matrix<T extends Ring<T>> {
 	 * @param x The given Matrix to be multiplied on the left of this Matrix
 	 * @throws InvalidDimException Thrown if given Matrix does not have corresponding dimensions as this Matrix
 	 * @throws OutOfBoundsException Thrown if add function fails due to invalid dimensions and indices
+	 * @throws UnsupportedOperationException Thrown if this Matrix is a GLn
 	 */
 	public void multL(Matrix<T> x) throws InvalidDimException, OutOfBoundsException {
 		Grid<T> temp = mult(x, this);
@@ -202,6 +207,7 @@ public class Matrix<T extends Ring<T>> {
 	 * @param x The given Matrix to be multiplied on the right of this Matrix
 	 * @throws InvalidDimException Thrown if given Matrix does not have corresponding dimensions as this Matrix
 	 * @throws OutOfBoundsException Thrown if add function fails due to invalid dimensions and indices
+	 * @throws UnsupportedOperationException Thrown if this Matrix is a GLn
 	 */
 	public void multR(Matrix<T> x) throws InvalidDimException, OutOfBoundsException {
 		Grid<T> temp = mult(this, x);
@@ -234,17 +240,22 @@ public class Matrix<T extends Ring<T>> {
 	 * @throws InvalidDimException Thrown Matrices do not have corresponding dimensions
 	 * @throws OutOfBoundsException Thrown if add function fails due to invalid dimensions and indices
 	 */
-	private Grid<T> mult(Matrix<T> x, Matrix<T> y) throws InvalidDimException, OutOfBoundsException {
+	protected Grid<T> mult(Matrix<T> x, Matrix<T> y) throws InvalidDimException, OutOfBoundsException {
 		if (x.n != y.m)
 			throw new InvalidDimException();
 		
 		Grid<T> temp = new Grid<T>(x.m, y.n);
-		this.initializeGrid(temp,nums.get(0,0));
+		T sum;
 		
+		//ACCUMULATE EACH DOT PRODUCT LOCALLY AND STORE IT ONCE
 		for (int i = 0; i < x.m; i++) {
 			for (int j = 0; j < y.n; j++) {
+				sum = nums.get(0,0).getAddIdentity();
+				
 				for (int k = 0; k < x.n; k++)
-					temp.set( i, j, temp.get(i, j).add(x.get(i,k).mult(y.get(k,j))) );
+					sum = sum.add(x.nums.get(i,k).mult(y.nums.get(k,j)));
+				
+				temp.set(i, j, sum);
 			}
 		}
 		
@@ -255,6 +266,7 @@ public class Matrix<T extends Ring<T>> {
 	/**
 	 * Multiplies this Matrix by a given scalar
 	 * @param scalar The given scalar to multiply this Matrix by
+	 * @throws UnsupportedOperationException Thrown if this Matrix is a GLn
 	 */
 	public void mult(T scalar) {
 		for (int i = 0; i < m; i++) {
@@ -0,0 +1,121 @@
+package matrix;
+
+import java.util.Arrays;
+
+import ring.modInt.ModInt_M;
+import ring.modInt.Z_M;
+
+/**
+ * A GridStorage that packs ModInt_M entries of a single Z_M into an int[]
+ * Entries are read back as the shared canonical instances from ModInt_M.valueOf.
+ * @author Noah Kime
+ */
+class ModIntStorage extends GridStorage<ModInt_M> {
+
+	//Marks a position that has not been set
+	private static final int EMPTY = -1;
+
+	private Z_M z;
+	private int[] vals;
+
+
+	/**
+	 * Constructs an empty ModIntStorage of a given size over a given Z_M
+	 * @param z The given Z_M shared by every entry
+	 * @param size The given number of entries
+	 */
+	ModIntStorage(Z_M z, int size) {
+		this.z = z;
+		this.vals = new int[size];
+
+		Arrays.fill(vals, EMPTY);
+	} //END ModIntStorage (constructor)
+
+
+	/**
+	 * Constructs a ModIntStorage from existing packed values
+	 * @param z The given Z_M shared by every entry
+	 * @param vals The given packed values
+	 */
+	private ModIntStorage(Z_M z, int[] vals) {
+		this.z = z;
+		this.vals = vals;
+	} //END ModIntStorage (constructor)
+
+
+	/**
+	 * Returns a ModIntStorage holding a copy of given residues, which are not checked
+	 * @param z The given Z_M shared by every entry
+	 * @param residues The given row-major residues, each in [0, m)
+	 * @return A ModIntStorage holding a copy of the given residues
+	 */
+	static ModIntStorage ofResidues(Z_M z, int[] residues) {
+		return new ModIntStorage(z, residues.clone());
+	} //END ofResidues
+
+
+	/**
+	 * Determines whether entries of a given Z_M can be packed by a ModIntStorage
+	 * @param z The given Z_M
+	 * @return True if entries of the given Z_M can be packed and false otherwise
+	 */
+	static boolean supports(Z_M z) {
+		return z.getM() > 0 && z.getM() <= Z_M.MAX_INVERSE_TABLE;
+	} //END supports
+
+
+	@Override
+	ModInt_M get(int index) {
+		int v = vals[index];
+
+		return (v == EMPTY) ? null : ModInt_M.valueOf(v, z);
+	} //END get
+
+
+	@Override
+	boolean set(int index, ModInt_M val) {
+		if (val == null) {
+			vals[index] = EMPTY;
+			return true;
+		}
+
+		int v = val.getVal();
+
+		//ONLY CANONICAL RESIDUES OF THIS STORAGE'S Z_M CAN BE PACKED
+		if (v < 0 || v >= z.getM() || !z.equals(val.getM()))
+			return false;
+
+		vals[index] = v;
+		return true;
+	} //END set
+
+
+	@Override
+	ModIntStorage copy() {
+		return new ModIntStorage(z, vals.clone());
+	} //END copy
+
+
+	@Override
+	ModIntStorage transpose(int rows, int cols) {
+		int[] tran = new int[vals.length];
+
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < cols; j++)
+				tran[j*rows + i] = vals[i*cols + j];
+
+		return new ModIntStorage(z, tran);
+	} //END transpose
+
+
+	@Override
+	ObjectStorage<ModInt_M> toObjectStorage() {
+		ObjectStorage<ModInt_M> temp = new ObjectStorage<ModInt_M>(vals.length);
+
+		for (int i = 0; i < vals.length; i++)
+			temp.set(i, this.get(i));
+
+		return temp;
+	} //END toObjectStorage
+
+} //END ModIntStorage
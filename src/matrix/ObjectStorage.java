@@ -0,0 +1,68 @@
+package matrix;
+
+import ring.Ring;
+
+/**
+ * A GridStorage that keeps its entries as references in a single Object[]
+ * @author Noah Kime
+ * @param <T> The type of Object stored in this ObjectStorage
+ */
+class ObjectStorage<T extends Ring<T>> extends GridStorage<T> {
+
+	private Object[] data;
+
+
+	/**
+	 * Constructs an empty ObjectStorage of a given size
+	 * @param size The given number of entries
+	 */
+	ObjectStorage(int size) {
+		this.data = new Object[size];
+	} //END ObjectStorage (constructor)
+
+
+	@Override
+	@SuppressWarnings("unchecked")
+	T get(int index) {
+		return (T) data[index];
+	} //END get
+
+
+	@Override
+	boolean set(int index, T val) {
+		data[index] = val;
+		return true;
+	} //END set
+
+
+	@Override
+	ObjectStorage<T> copy() {
+		ObjectStorage<T> temp = new ObjectStorage<T>(data.length);
+
+		for (int i = 0; i < data.length; i++)
+			if (data[i] != null)
+				temp.data[i] = this.get(i).copy();
+
+		return temp;
+	} //END copy
+
+
+	@Override
+	ObjectStorage<T> transpose(int rows, int cols) {
+		ObjectStorage<T> tran = new ObjectStorage<T>(data.length);
+
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < cols; j++)
+				if (data[i*cols + j] != null)
+					tran.data[j*rows + i] = this.get(i*cols + j).copy();
+
+		return tran;
+	} //END transpose
+
+
+	@Override
+	ObjectStorage<T> toObjectStorage() {
+		return this;
+	} //END toObjectStorage
+
+} //END ObjectStorage
@@ -0,0 +1,123 @@
+package matrix;
+
+import java.util.Arrays;
+
+/**
+ * A Kernel written as plain loops, used wherever the Vector API is unavailable
+ * The row products walk the matrix row by row, adding a multiple of each row to the
+ * accumulators, which the JIT compiler may vectorize on its own.
+ * @author Noah Kime
+ */
+final class ScalarKernel implements Kernel {
+
+	@Override
+	public String name() {
+		return "scalar";
+	} //END name
+
+
+	@Override
+	public void multRow(int[] a, int aOff, int n, int[] x, int xOff, int stride, int w, int init, int[] acc, int accOff) {
+		Arrays.fill(acc, accOff, accOff + w, init);
+
+		for (int k = 0; k < n; k++) {
+			int ak = a[aOff + k];
+			int row = xOff + k*stride;
+
+			if (ak != 0)
+				for (int j = 0; j < w; j++)
+					acc[accOff + j] += ak * x[row + j];
+		}
+	} //END multRow
+
+
+	@Override
+	public void multRow(long[] a, int aOff, int n, long[] x, int xOff, int stride, int w, long init, long[] acc, int accOff) {
+		Arrays.fill(acc, accOff, accOff + w, init);
+
+		for (int k = 0; k < n; k++) {
+			long ak = a[aOff + k];
+			int row = xOff + k*stride;
+
+			if (ak != 0)
+				for (int j = 0; j < w; j++)
+					acc[accOff + j] += ak * x[row + j];
+		}
+	} //END multRow
+
+
+	@Override
+	public void nibbleProducts(byte[] products, int base, int stride, int w) {
+		//01 DOUBLE THE ROW SEVEN TIMES FOR THE POWERS OF 2 FROM 2 TO 128
+		for (int p = 1; p < 8; p++) {
+			int src = base + nibbleRow(1 << (p - 1)) * stride;
+			int dst = base + nibbleRow(1 << p) * stride;
+
+			for (int j = 0; j < w; j++) {
+				byte v = products[src + j];
+				products[dst + j] = (byte) ((v << 1) ^ ((v >> 7) & GF256_REDUCTION));
+			}
+		}
+
+		//02 COMBINE THE POWERS OF 2 INTO THE OTHER NIBBLES
+		for (int c = 3; c < 16; c++) {
+			int high = Integer.highestOneBit(c);
+
+			if (high == c)
+				continue;
+
+			for (int half = 0; half < 32; half += 16) {
+				int dst = base + (half + c) * stride;
+				int src1 = base + (half + high) * stride;
+				int src2 = base + (half + c - high) * stride;
+
+				for (int j = 0; j < w; j++)
+					products[dst + j] = (byte) (products[src1 + j] ^ products[src2 + j]);
+			}
+		}
+	} //END nibbleProducts
+
+
+	@Override
+	public void multRow(byte[] a, int aOff, int n, byte[] products, int stride, int w, byte init, byte[] acc, int accOff) {
+		Arrays.fill(acc, accOff, accOff + w, init);
+
+		for (int k = 0; k < n; k++) {
+			int ak = a[aOff + k] & 0xFF;
+			int lo = (NIBBLE_PRODUCTS*k + (ak & 15)) * stride;
+			int hi = (NIBBLE_PRODUCTS*k + 16 + (ak >>> 4)) * stride;
+
+			if (ak != 0)
+				for (int j = 0; j < w; j++)
+					acc[accOff + j] = (byte) (acc[accOff + j] ^ products[lo + j] ^ products[hi + j]);
+		}
+	} //END multRow
+
+
+	@Override
+	public void lookup(int[] table, char[] src, int srcOff, int missing, int[] dst, int dstOff, int len) {
+		for (int i = 0; i < len; i++) {
+			char c = src[srcOff + i];
+
+			dst[dstOff + i] = (c < table.length) ? table[c] : missing;
+		}
+	} //END lookup
+
+
+	@Override
+	public void lookup(int[] table, int[] src, int srcOff, char[] dst, int dstOff, int len) {
+		for (int i = 0; i < len; i++)
+			dst[dstOff + i] = (char) table[src[srcOff + i]];
+	} //END lookup
+
+
+	/**
+	 * Returns the row of the nibble products holding the product with a given power of 2
+	 * @param power The given power of 2, at most 128
+	 * @return The row of the product, counted from the product with 0
+	 */
+	static int nibbleRow(int power) {
+		return (power < 16) ? power : 16 + (power >>> 4);
+	} //END nibbleRow
+
+} //END ScalarKernel
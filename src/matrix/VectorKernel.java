@@ -0,0 +1,315 @@
+package matrix;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * A Kernel built on the incubating Vector API, using the widest vectors of the CPU
+ * The row product keeps a block of accumulators in vector registers across the whole row
+ * vector, broadcasting each entry of it against a row of the matrix, and stores each block once;
+ * columns left over after the last full vector are accumulated without vectors, as masked loads
+ * are easily compiled into slow code. The row product of longs is the same with half as many
+ * lanes. The row product over GF(2^8) does the same with vectors of bytes, XORing two nibble
+ * products per entry of the row vector.
+ * Lookups widen the characters to ints and gather the table entries. Only loaded by
+ * Kernel.DEFAULT once jdk.incubator.vector is known to be present.
+ * @author Noah Kime
+ */
+final class VectorKernel implements Kernel {
+
+	private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Short> SHORTS = VectorSpecies.of(short.class, VectorShape.forBitSize(INTS.vectorBitSize() / 2));
+
+	//The number of vectors of accumulators the row product keeps in registers at once
+	private static final int UNROLL = 4;
+
+
+	/**
+	 * Returns true if the vectors of this CPU are wide enough for this Kernel to beat the
+	 * scalar one, that is at least 256 bits as with AVX2
+	 * @return True if this Kernel should be used by default, false otherwise
+	 */
+	boolean isProfitable() {
+		return INTS.vectorBitSize() >= 256;
+	} //END isProfitable
+
+
+	@Override
+	public String name() {
+		return "vector" + INTS.vectorBitSize();
+	} //END name
+
+
+	@Override
+	public void multRow(int[] a, int aOff, int n, int[] x, int xOff, int stride, int w, int init, int[] acc, int accOff) {
+		int lanes = INTS.length();
+		int block = UNROLL * lanes;
+		int j = 0;
+
+		//01 ACCUMULATE FULL BLOCKS OF COLUMNS IN REGISTERS
+		for (; j + block <= w; j += block) {
+			IntVector s0 = IntVector.broadcast(INTS, init);
+			IntVector s1 = s0, s2 = s0, s3 = s0;
+
+			for (int k = 0, row = xOff + j; k < n; k++, row += stride) {
+				IntVector ak = IntVector.broadcast(INTS, a[aOff + k]);
+
+				s0 = s0.add(ak.mul(IntVector.fromArray(INTS, x, row)));
+				s1 = s1.add(ak.mul(IntVector.fromArray(INTS, x, row + lanes)));
+				s2 = s2.add(ak.mul(IntVector.fromArray(INTS, x, row + 2*lanes)));
+				s3 = s3.add(ak.mul(IntVector.fromArray(INTS, x, row + 3*lanes)));
+			}
+
+			s0.intoArray(acc, accOff + j);
+			s1.intoArray(acc, accOff + j + lanes);
+			s2.intoArray(acc, accOff + j + 2*lanes);
+			s3.intoArray(acc, accOff + j + 3*lanes);
+		}
+
+		//02 ACCUMULATE THE REMAINING FULL VECTORS OF COLUMNS
+		for (; j + lanes <= w; j += lanes) {
+			IntVector s = IntVector.broadcast(INTS, init);
+
+			for (int k = 0, row = xOff + j; k < n; k++, row += stride)
+				s = s.add(IntVector.fromArray(INTS, x, row).mul(a[aOff + k]));
+
+			s.intoArray(acc, accOff + j);
+		}
+
+		//03 ACCUMULATE THE LAST FEW COLUMNS WITHOUT VECTORS
+		if (j < w) {
+			Arrays.fill(acc, accOff + j, accOff + w, init);
+
+			for (int k = 0, row = xOff; k < n; k++, row += stride) {
+				int ak = a[aOff + k];
+
+				for (int c = j; c < w; c++)
+					acc[accOff + c] += ak * x[row + c];
+			}
+		}
+	} //END multRow
+
+
+	@Override
+	public void multRow(long[] a, int aOff, int n, long[] x, int xOff, int stride, int w, long init, long[] acc, int accOff) {
+		int lanes = LONGS.length();
+		int block = UNROLL * lanes;
+		int j = 0;
+
+		//01 ACCUMULATE FULL BLOCKS OF COLUMNS IN REGISTERS
+		for (; j + block <= w; j += block) {
+			LongVector s0 = LongVector.broadcast(LONGS, init);
+			LongVector s1 = s0, s2 = s0, s3 = s0;
+
+			for (int k = 0, row = xOff + j; k < n; k++, row += stride) {
+				LongVector ak = LongVector.broadcast(LONGS, a[aOff + k]);
+
+				s0 = s0.add(ak.mul(LongVector.fromArray(LONGS, x, row)));
+				s1 = s1.add(ak.mul(LongVector.fromArray(LONGS, x, row + lanes)));
+				s2 = s2.add(ak.mul(LongVector.fromArray(LONGS, x, row + 2*lanes)));
+				s3 = s3.add(ak.mul(LongVector.fromArray(LONGS, x, row + 3*lanes)));
+			}
+
+			s0.intoArray(acc, accOff + j);
+			s1.intoArray(acc, accOff + j + lanes);
+			s2.intoArray(acc, accOff + j + 2*lanes);
+			s3.intoArray(acc, accOff + j + 3*lanes);
+		}
+
+		//02 ACCUMULATE THE REMAINING FULL VECTORS OF COLUMNS
+		for (; j + lanes <= w; j += lanes) {
+			LongVector s = LongVector.broadcast(LONGS, init);
+
+			for (int k = 0, row = xOff + j; k < n; k++, row += stride)
+				s = s.add(LongVector.fromArray(LONGS, x, row).mul(a[aOff + k]));
+
+			s.intoArray(acc, accOff + j);
+		}
+
+		//03 ACCUMULATE THE LAST FEW COLUMNS WITHOUT VECTORS
+		if (j < w) {
+			Arrays.fill(acc, accOff + j, accOff + w, init);
+
+			for (int k = 0, row = xOff; k < n; k++, row += stride) {
+				long ak = a[aOff + k];
+
+				for (int c = j; c < w; c++)
+					acc[accOff + c] += ak * x[row + c];
+			}
+		}
+	} //END multRow
+
+
+	@Override
+	public void nibbleProducts(byte[] products, int base, int stride, int w) {
+		int lanes = BYTES.length();
+		int bound = w - w % lanes;
+
+		//01 DOUBLE THE ROW SEVEN TIMES FOR THE POWERS OF 2 FROM 2 TO 128
+		for (int p = 1; p < 8; p++) {
+			int src = base + ScalarKernel.nibbleRow(1 << (p - 1)) * stride;
+			int dst = base + ScalarKernel.nibbleRow(1 << p) * stride;
+			int j = 0;
+
+			for (; j < bound; j += lanes) {
+				ByteVector v = ByteVector.fromArray(BYTES, products, src + j);
+
+				v.add(v)
+						.lanewise(VectorOperators.XOR, (byte) GF256_REDUCTION, v.compare(VectorOperators.LT, (byte) 0))
+						.intoArray(products, dst + j);
+			}
+
+			for (; j < w; j++) {
+				byte v = products[src + j];
+				products[dst + j] = (byte) ((v << 1) ^ ((v >> 7) & GF256_REDUCTION));
+			}
+		}
+
+		//02 COMBINE THE POWERS OF 2 INTO THE OTHER NIBBLES
+		for (int c = 3; c < 16; c++) {
+			int high = Integer.highestOneBit(c);
+
+			if (high == c)
+				continue;
+
+			for (int half = 0; half < 32; half += 16) {
+				int dst = base + (half + c) * stride;
+				int src1 = base + (half + high) * stride;
+				int src2 = base + (half + c - high) * stride;
+				int j = 0;
+
+				for (; j < bound; j += lanes)
+					ByteVector.fromArray(BYTES, products, src1 + j)
+							.lanewise(VectorOperators.XOR, ByteVector.fromArray(BYTES, products, src2 + j))
+							.intoArray(products, dst + j);
+
+				for (; j < w; j++)
+					products[dst + j] = (byte) (products[src1 + j] ^ products[src2 + j]);
+			}
+		}
+	} //END nibbleProducts
+
+
+	@Override
+	public void multRow(byte[] a, int aOff, int n, byte[] products, int stride, int w, byte init, byte[] acc, int accOff) {
+		int lanes = BYTES.length();
+		int block = UNROLL * lanes;
+		int j = 0;
+
+		//01 ACCUMULATE FULL BLOCKS OF COLUMNS IN REGISTERS
+		for (; j + block <= w; j += block) {
+			ByteVector s0 = ByteVector.broadcast(BYTES, init);
+			ByteVector s1 = s0, s2 = s0, s3 = s0;
+
+			for (int k = 0; k < n; k++) {
+				int ak = a[aOff + k] & 0xFF;
+				int lo = (NIBBLE_PRODUCTS*k + (ak & 15)) * stride + j;
+				int hi = (NIBBLE_PRODUCTS*k + 16 + (ak >>> 4)) * stride + j;
+
+				s0 = s0.lanewise(VectorOperators.XOR, xorOf(products, lo, hi));
+				s1 = s1.lanewise(VectorOperators.XOR, xorOf(products, lo + lanes, hi + lanes));
+				s2 = s2.lanewise(VectorOperators.XOR, xorOf(products, lo + 2*lanes, hi + 2*lanes));
+				s3 = s3.lanewise(VectorOperators.XOR, xorOf(products, lo + 3*lanes, hi + 3*lanes));
+			}
+
+			s0.intoArray(acc, accOff + j);
+			s1.intoArray(acc, accOff + j + lanes);
+			s2.intoArray(acc, accOff + j + 2*lanes);
+			s3.intoArray(acc, accOff + j + 3*lanes);
+		}
+
+		//02 ACCUMULATE THE REMAINING FULL VECTORS OF COLUMNS
+		for (; j + lanes <= w; j += lanes) {
+			ByteVector s = ByteVector.broadcast(BYTES, init);
+
+			for (int k = 0; k < n; k++) {
+				int ak = a[aOff + k] & 0xFF;
+				int lo = (NIBBLE_PRODUCTS*k + (ak & 15)) * stride + j;
+				int hi = (NIBBLE_PRODUCTS*k + 16 + (ak >>> 4)) * stride + j;
+
+				s = s.lanewise(VectorOperators.XOR, xorOf(products, lo, hi));
+			}
+
+			s.intoArray(acc, accOff + j);
+		}
+
+		//03 ACCUMULATE THE LAST FEW COLUMNS WITHOUT VECTORS
+		if (j < w) {
+			Arrays.fill(acc, accOff + j, accOff + w, init);
+
+			for (int k = 0; k < n; k++) {
+				int ak = a[aOff + k] & 0xFF;
+				int lo = (NIBBLE_PRODUCTS*k + (ak & 15)) * stride;
+				int hi = (NIBBLE_PRODUCTS*k + 16 + (ak >>> 4)) * stride;
+
+				for (int c = j; c < w; c++)
+					acc[accOff + c] = (byte) (acc[accOff + c] ^ products[lo + c] ^ products[hi + c]);
+			}
+		}
+	} //END multRow
+
+
+	/**
+	 * Returns the XOR of the vectors of bytes at two given positions of a given array
+	 * @param a The given array
+	 * @param i The position of the first vector
+	 * @param k The position of the second vector
+	 * @return The XOR of the two vectors
+	 */
+	private static ByteVector xorOf(byte[] a, int i, int k) {
+		return ByteVector.fromArray(BYTES, a, i).lanewise(VectorOperators.XOR, ByteVector.fromArray(BYTES, a, k));
+	} //END xorOf
+
+
+	@Override
+	public void lookup(int[] table, char[] src, int srcOff, int missing, int[] dst, int dstOff, int len) {
+		int i = 0;
+
+		if (table.length > 0) {
+			for (int bound = INTS.loopBound(len); i < bound; i += INTS.length()) {
+				//01 WIDEN THE CHARACTERS TO INTS AND WRITE THEM OUT AS GATHER INDICES
+				IntVector c = (IntVector) ShortVector.fromCharArray(SHORTS, src, srcOff + i)
+						.convertShape(VectorOperators.ZERO_EXTEND_S2I, INTS, 0);
+				VectorMask<Integer> beyond = c.compare(VectorOperators.GE, table.length);
+
+				c.min(table.length - 1).intoArray(dst, dstOff + i);
+
+				//02 GATHER THE TABLE ENTRIES, REPLACING THOSE OF CHARACTERS BEYOND THE TABLE
+				IntVector.fromArray(INTS, table, 0, dst, dstOff + i)
+						.blend(missing, beyond)
+						.intoArray(dst, dstOff + i);
+			}
+		}
+
+		for (; i < len; i++) {
+			char c = src[srcOff + i];
+
+			dst[dstOff + i] = (c < table.length) ? table[c] : missing;
+		}
+	} //END lookup
+
+
+	@Override
+	public void lookup(int[] table, int[] src, int srcOff, char[] dst, int dstOff, int len) {
+		int i = 0;
+
+		for (int bound = INTS.loopBound(len); i < bound; i += INTS.length())
+			((ShortVector) IntVector.fromArray(INTS, table, 0, src, srcOff + i)
+					.convertShape(VectorOperators.I2S, SHORTS, 0))
+					.intoCharArray(dst, dstOff + i);
+
+		for (; i < len; i++)
+			dst[dstOff + i] = (char) table[src[srcOff + i]];
+	} //END lookup
+
+} //END VectorKernel
@@ -0,0 +1,76 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event for one call encrypting or decrypting a message, a stream or a file
+ * Finishing the event also records the call in the cipher.encrypt or cipher.decrypt Timer of
+ * Telemetry. While neither JFR nor Telemetry is enabled, finishing returns at once: the Timer
+ * names are constants, and the event does not escape the call, so escape analysis removes it.
+ * @author Noah Kime
+ */
+@Name("matrixcipher.Cipher")
+@Label("Cipher Operation")
+@Category("Matrix Cipher")
+@Description("A call encrypting or decrypting a message, a stream or a file")
+public class CipherEvent extends Event {
+
+	@Label("Cipher")
+	String cipher;
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Length")
+	@Description("The number of characters, or bytes for a file, processed")
+	long length;
+
+	private static final String ENCRYPT_TIMER = "cipher.encrypt";
+	private static final String DECRYPT_TIMER = "cipher.decrypt";
+
+	private transient long start;
+	private transient String timer;
+
+
+	/**
+	 * Starts a new CipherEvent for a call
+	 * @param encrypt True for an encryption and false for a decryption
+	 * @return The started CipherEvent
+	 */
+	public static CipherEvent start(boolean encrypt) {
+		CipherEvent event = new CipherEvent();
+
+		event.operation = encrypt ? "encrypt" : "decrypt";
+		event.timer = encrypt ? ENCRYPT_TIMER : DECRYPT_TIMER;
+		event.start = Telemetry.startTimer();
+		event.begin();
+
+		return event;
+	} //END start
+
+
+	/**
+	 * Ends this CipherEvent, committing it to JFR and recording it in Telemetry
+	 * @param cipher The Cipher that made the call
+	 * @param length The number of characters or bytes processed
+	 */
+	public void finish(Object cipher, long length) {
+		this.end();
+
+		if (start == Telemetry.NOT_TIMED && !this.shouldCommit())
+			return;
+
+		if (this.shouldCommit()) {
+			this.cipher = cipher.getClass().getSimpleName();
+			this.length = length;
+			this.commit();
+		}
+
+		Telemetry.stopTimer(timer, start, length);
+	} //END finish
+
+} //END CipherEvent
@@ -0,0 +1,96 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event for the elimination finding the determinant and inverse of a matrix
+ * The row swaps and the combinations of rows tried for a pivot are counted while eliminating.
+ * Finishing the event also records it in the matrix.inversion Timer of Telemetry and adds the
+ * combinations tried to the matrix.inversion.combinations Counter, and singular matrices to the
+ * matrix.inversion.singular Counter.
+ * @author Noah Kime
+ */
+@Name("matrixcipher.Inversion")
+@Label("Matrix Inversion")
+@Category("Matrix Cipher")
+@Description("The elimination finding the determinant and inverse of a matrix")
+public class InversionEvent extends Event {
+
+	@Label("Entry Type")
+	String ring;
+
+	@Label("Size")
+	int size;
+
+	@Label("Row Swaps")
+	int swaps;
+
+	@Label("Combinations")
+	@Description("The number of combinations of rows tried to find an invertible pivot")
+	int combinations;
+
+	@Label("Invertible")
+	boolean invertible;
+
+	private transient long start;
+
+
+	/**
+	 * Starts a new InversionEvent
+	 * @return The started InversionEvent
+	 */
+	public static InversionEvent start() {
+		InversionEvent event = new InversionEvent();
+
+		event.start = Telemetry.startTimer();
+		event.begin();
+
+		return event;
+	} //END start
+
+
+	/**
+	 * Counts one row swap
+	 */
+	public void countSwap() {
+		swaps++;
+	} //END countSwap
+
+
+	/**
+	 * Counts one combination of rows tried for a pivot
+	 */
+	public void countCombination() {
+		combinations++;
+	} //END countCombination
+
+
+	/**
+	 * Ends this InversionEvent, committing it to JFR and recording it in Telemetry
+	 * @param entry An entry of the matrix, naming its type
+	 * @param size The number of rows of the matrix
+	 * @param invertible True if the matrix was found to be invertible
+	 */
+	public void finish(Object entry, int size, boolean invertible) {
+		this.end();
+
+		if (this.shouldCommit()) {
+			this.ring = entry.getClass().getSimpleName();
+			this.size = size;
+			this.invertible = invertible;
+			this.commit();
+		}
+
+		if (start != Telemetry.NOT_TIMED) {
+			Telemetry.stopTimer("matrix.inversion", start, 1);
+			Telemetry.count("matrix.inversion.combinations", combinations);
+			if (!invertible)
+				Telemetry.count("matrix.inversion.singular", 1);
+		}
+	} //END finish
+
+} //END InversionEvent
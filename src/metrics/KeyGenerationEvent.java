@@ -0,0 +1,76 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JFR event for the generation of a random key
+ * Finishing the event also records it in the cipher.keygen Timer of Telemetry and adds the draws
+ * rejected as singular to the cipher.keygen.retries Counter.
+ * @author Noah Kime
+ */
+@Name("matrixcipher.KeyGeneration")
+@Label("Key Generation")
+@Category("Matrix Cipher")
+@Description("The generation of a random key, including every draw rejected as singular")
+public class KeyGenerationEvent extends Event {
+
+	@Label("Cipher")
+	String cipher;
+
+	@Label("Cipher Size")
+	@Description("The number of characters in each block")
+	int cipherSize;
+
+	@Label("Alphabet Size")
+	int alphabetSize;
+
+	@Label("Attempts")
+	@Description("The number of keys drawn until an invertible one was found")
+	int attempts;
+
+	private transient long start;
+
+
+	/**
+	 * Starts a new KeyGenerationEvent
+	 * @return The started KeyGenerationEvent
+	 */
+	public static KeyGenerationEvent start() {
+		KeyGenerationEvent event = new KeyGenerationEvent();
+
+		event.start = Telemetry.startTimer();
+		event.begin();
+
+		return event;
+	} //END start
+
+
+	/**
+	 * Ends this KeyGenerationEvent, committing it to JFR and recording it in Telemetry
+	 * @param cipher The Cipher whose key was generated
+	 * @param cipherSize The number of characters in each block
+	 * @param alphabetSize The number of characters in the Alphabet
+	 * @param attempts The number of keys drawn until an invertible one was found
+	 */
+	public void finish(Object cipher, int cipherSize, int alphabetSize, int attempts) {
+		this.end();
+
+		if (this.shouldCommit()) {
+			this.cipher = cipher.getClass().getSimpleName();
+			this.cipherSize = cipherSize;
+			this.alphabetSize = alphabetSize;
+			this.attempts = attempts;
+			this.commit();
+		}
+
+		if (start != Telemetry.NOT_TIMED) {
+			Telemetry.stopTimer("cipher.keygen", start, 1);
+			Telemetry.count("cipher.keygen.retries", attempts - 1);
+		}
+	} //END finish
+
+} //END KeyGenerationEvent
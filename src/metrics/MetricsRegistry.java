@@ -0,0 +1,51 @@
+package metrics;
+
+/**
+ * An interface for the registries that Telemetry reports counters and timings to
+ * Implementations must be thread-safe, as every thread reports to the same registry.
+ * @author Noah Kime
+ */
+public interface MetricsRegistry {
+
+	/**Returns the Counter of a given name, creating it if needed
+	 * @param name The given name
+	 * @return The Counter of the given name
+	 */
+	public Counter counter(String name);
+
+	/**Returns the Timer of a given name, creating it if needed
+	 * @param name The given name
+	 * @return The Timer of the given name
+	 */
+	public Timer timer(String name);
+
+
+
+	/**
+	 * An interface for a count of events
+	 */
+	public interface Counter {
+
+		/**Adds a given amount to this Counter
+		 * @param n The given amount
+		 */
+		public void add(long n);
+
+	} //END Counter
+
+
+
+	/**
+	 * An interface for the durations of an operation and the amount of work each processed
+	 */
+	public interface Timer {
+
+		/**Records one operation of a given duration that processed a given number of units
+		 * @param nanos The duration of the operation in nanoseconds
+		 * @param units The number of characters, bytes or items the operation processed
+		 */
+		public void record(long nanos, long units);
+
+	} //END Timer
+
+} //END MetricsRegistry
@@ -0,0 +1,211 @@
+package metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A MetricsRegistry that keeps counters and timers in memory
+ * Counters are striped LongAdders. Each timer also counts the units processed, giving a
+ * throughput, and sorts durations into a histogram of power-of-two buckets, giving latency
+ * percentiles within a factor of two at a fixed cost per recording.
+ * @author Noah Kime
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+
+	private final Map<String, SimpleCounter> counters = new ConcurrentHashMap<String, SimpleCounter>();
+	private final Map<String, SimpleTimer> timers = new ConcurrentHashMap<String, SimpleTimer>();
+
+
+	@Override
+	public SimpleCounter counter(String name) {
+		SimpleCounter c = counters.get(name);
+
+		return (c != null) ? c : counters.computeIfAbsent(name, k -> new SimpleCounter());
+	} //END counter
+
+
+	@Override
+	public SimpleTimer timer(String name) {
+		SimpleTimer t = timers.get(name);
+
+		return (t != null) ? t : timers.computeIfAbsent(name, k -> new SimpleTimer());
+	} //END timer
+
+
+	/**
+	 * Returns the counters of this SimpleMetricsRegistry by name
+	 * @return A sorted copy of the counters of this SimpleMetricsRegistry
+	 */
+	public Map<String, SimpleCounter> getCounters() {
+		return new TreeMap<String, SimpleCounter>(counters);
+	} //END getCounters
+
+
+	/**
+	 * Returns the timers of this SimpleMetricsRegistry by name
+	 * @return A sorted copy of the timers of this SimpleMetricsRegistry
+	 */
+	public Map<String, SimpleTimer> getTimers() {
+		return new TreeMap<String, SimpleTimer>(timers);
+	} //END getTimers
+
+
+	/**Returns the String representation of this SimpleMetricsRegistry, one metric per line
+	 * @return The String representation of this SimpleMetricsRegistry
+	 */
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+
+		for (Map.Entry<String, SimpleCounter> e : this.getCounters().entrySet())
+			sb.append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+
+		for (Map.Entry<String, SimpleTimer> e : this.getTimers().entrySet())
+			sb.append(e.getKey()).append(": ").append(e.getValue()).append('\n');
+
+		return sb.toString();
+	} //END toString
+
+
+
+	/**
+	 * A Counter kept in a LongAdder
+	 */
+	public static class SimpleCounter implements MetricsRegistry.Counter {
+
+		private final LongAdder count = new LongAdder();
+
+
+		@Override
+		public void add(long n) {
+			count.add(n);
+		} //END add
+
+
+		/**
+		 * Returns the count of this SimpleCounter
+		 * @return The count of this SimpleCounter
+		 */
+		public long getCount() {
+			return count.sum();
+		} //END getCount
+
+
+		/**Returns the String representation of this SimpleCounter
+		 * @return The String representation of this SimpleCounter
+		 */
+		@Override
+		public String toString() {
+			return Long.toString(this.getCount());
+		} //END toString
+
+	} //END SimpleCounter
+
+
+
+	/**
+	 * A Timer keeping totals and a histogram of durations in power-of-two buckets
+	 * Bucket i holds the durations d with 2^(i-1) <= d < 2^i nanoseconds.
+	 */
+	public static class SimpleTimer implements MetricsRegistry.Timer {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder units = new LongAdder();
+		private final AtomicLongArray buckets = new AtomicLongArray(64);
+
+
+		@Override
+		public void record(long nanos, long units) {
+			nanos = Math.max(0, nanos);
+
+			this.count.increment();
+			this.nanos.add(nanos);
+			this.units.add(units);
+			buckets.incrementAndGet(Math.min(63, 64 - Long.numberOfLeadingZeros(nanos)));
+		} //END record
+
+
+		/**
+		 * Returns the number of operations recorded
+		 * @return The number of operations recorded
+		 */
+		public long getCount() {
+			return count.sum();
+		} //END getCount
+
+
+		/**
+		 * Returns the total number of units processed by the operations recorded
+		 * @return The total number of units processed
+		 */
+		public long getUnits() {
+			return units.sum();
+		} //END getUnits
+
+
+		/**
+		 * Returns the mean duration of the operations recorded
+		 * @return The mean duration in nanoseconds, 0 if none were recorded
+		 */
+		public double getMeanNanos() {
+			long c = count.sum();
+
+			return (c == 0) ? 0 : (double) nanos.sum() / c;
+		} //END getMeanNanos
+
+
+		/**
+		 * Returns the number of units processed per second spent in the operations recorded
+		 * @return The throughput in units per second, 0 if no time was recorded
+		 */
+		public double getThroughput() {
+			long n = nanos.sum();
+
+			return (n == 0) ? 0 : units.sum() * 1e9 / n;
+		} //END getThroughput
+
+
+		/**
+		 * Returns an upper bound of a given percentile of the durations recorded
+		 * The bound is the top of the bucket holding the percentile, at most twice the duration.
+		 * @param p The given percentile, in (0,1]
+		 * @return An upper bound of the percentile in nanoseconds, 0 if none were recorded
+		 */
+		public long getPercentileNanos(double p) {
+			long[] snapshot = new long[buckets.length()];
+			long total = 0;
+
+			for (int i = 0; i < snapshot.length; i++)
+				total += snapshot[i] = buckets.get(i);
+
+			long rank = (long) Math.ceil(p * total);
+			long seen = 0;
+
+			for (int i = 0; i < snapshot.length; i++) {
+				seen += snapshot[i];
+
+				if (seen >= rank && seen > 0)
+					return (i == 63) ? Long.MAX_VALUE : (1L << i) - 1;
+			}
+
+			return 0;
+		} //END getPercentileNanos
+
+
+		/**Returns the String representation of this SimpleTimer
+		 * @return The String representation of this SimpleTimer
+		 */
+		@Override
+		public String toString() {
+			return String.format("count %d, units %d, mean %.1f us, p50 < %.1f us, p99 < %.1f us, %.1f units/s",
+					this.getCount(), this.getUnits(), this.getMeanNanos() / 1e3, this.getPercentileNanos(0.50) / 1e3,
+					this.getPercentileNanos(0.99) / 1e3, this.getThroughput());
+		} //END toString
+
+	} //END SimpleTimer
+
+} //END SimpleMetricsRegistry
@@ -0,0 +1,97 @@
+package metrics;
+
+/**
+ * A class holding the MetricsRegistry that cipher and matrix operations report to
+ * By default no registry is installed and every report is a call to an empty method, which the
+ * JIT compiler removes; the clock is not even read. Installing a registry, such as a
+ * SimpleMetricsRegistry, turns reporting on for every thread. The JFR events of this package are
+ * recorded independently whenever a JFR recording enables them.
+ * @author Noah Kime
+ */
+public final class Telemetry {
+
+	//Returned by startTimer while no registry is installed
+	public static final long NOT_TIMED = Long.MIN_VALUE;
+
+	private static final MetricsRegistry.Counter NO_COUNTER = n -> { };
+	private static final MetricsRegistry.Timer NO_TIMER = (nanos, units) -> { };
+
+	private static final MetricsRegistry DISABLED = new MetricsRegistry() {
+		public MetricsRegistry.Counter counter(String name) {
+			return NO_COUNTER;
+		}
+
+		public MetricsRegistry.Timer timer(String name) {
+			return NO_TIMER;
+		}
+	};
+
+	private static volatile MetricsRegistry registry = DISABLED;
+
+
+	/**
+	 * Prevents instantiation of Telemetry
+	 */
+	private Telemetry() {
+	} //END Telemetry (constructor)
+
+
+	/**
+	 * Installs a given MetricsRegistry, or turns reporting off if it is null
+	 * @param r The given MetricsRegistry, or null
+	 */
+	public static void setRegistry(MetricsRegistry r) {
+		registry = (r == null) ? DISABLED : r;
+	} //END setRegistry
+
+
+	/**
+	 * Returns the installed MetricsRegistry, which discards every report if none was installed
+	 * @return The installed MetricsRegistry
+	 */
+	public static MetricsRegistry getRegistry() {
+		return registry;
+	} //END getRegistry
+
+
+	/**
+	 * Returns true if a MetricsRegistry is installed
+	 * @return True if a MetricsRegistry is installed, false otherwise
+	 */
+	public static boolean isEnabled() {
+		return registry != DISABLED;
+	} //END isEnabled
+
+
+	/**
+	 * Returns the start time of an operation, or NOT_TIMED if no MetricsRegistry is installed
+	 * @return The current value of System.nanoTime, or NOT_TIMED
+	 */
+	public static long startTimer() {
+		return (registry == DISABLED) ? NOT_TIMED : System.nanoTime();
+	} //END startTimer
+
+
+	/**
+	 * Records an operation started at a given time in the Timer of a given name
+	 * Does nothing if the operation was not timed.
+	 * @param name The name of the Timer
+	 * @param start The start time returned by startTimer
+	 * @param units The number of characters, bytes or items the operation processed
+	 */
+	public static void stopTimer(String name, long start, long units) {
+		if (start != NOT_TIMED)
+			registry.timer(name).record(System.nanoTime() - start, units);
+	} //END stopTimer
+
+
+	/**
+	 * Adds a given amount to the Counter of a given name
+	 * @param name The name of the Counter
+	 * @param n The given amount
+	 */
+	public static void count(String name, long n) {
+		registry.counter(name).add(n);
+	} //END count
+
+} //END Telemetry
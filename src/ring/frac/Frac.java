@@ -3,12 +3,15 @@ package ring.frac;
 import ring.Ring;
 
 /**
+ * A Class that implements a Ring over the rational numbers as a fraction of two longs
+ * Frac is immutable: every Frac is kept in lowest terms with a positive denominator, and
+ * arithmetic returns a new Frac, so instances may be shared freely between threads.
  * @author Noah Kime
  */
 public class Frac implements Ring<Frac>, Comparable<Frac> {
 	
-	private long p;
-	private long q;
+	private final long p;
+	private final long q;
 	
 	
 	/**
@@ -17,138 +20,140 @@ public class Frac implements Ring<Frac>, Comparable<Frac> {
 	 * @param q The given denominator for this Frac
 	 */
 	public Frac(int p, int q) {
-		this.p = p;
-		this.q = q;
+		this((long) p, (long) q);
 	} //END Frac (constructor)
 	
 	
 	/**
-	 * @param p
-	 * @param q
+	 * Constructs a new Frac with numerator p and denominator q, reduced to lowest terms
+	 * @param p The given numerator for this Frac
+	 * @param q The given denominator for this Frac
 	 */
 	public Frac(long p, long q) {
-		this.p = p;
-		this.q = q;
+		long k = gcd(Math.abs(p), Math.abs(q));
+		
+		if (k == 0)
+			k = 1;
+		if (q < 0)
+			k = -k;
+		
+		this.p = p / k;
+		this.q = q / k;
 	} //END Frac (constructor)
 	
 	
 	/**
-	 * @param p
-	 * @param q
+	 * Constructs a new Frac with numerator p and denominator q
+	 * @param p The given numerator for this Frac
+	 * @param q The given denominator for this Frac
 	 */
 	public Frac(int p, long q) {
-		this.p = (long) p;
-		this.q = q;
+		this((long) p, q);
 	} //END Frac (constructor)
 	
 	
 	/**
-	 * @param p
-	 * @param q
+	 * Constructs a new Frac with numerator p and denominator q
+	 * @param p The given numerator for this Frac
+	 * @param q The given denominator for this Frac
 	 */
 	public Frac(long p, int q) {
-		this.p = p;
-		this.q = (long) q;
+		this(p, (long) q);
 	} //END Frac (constructor)
 	
 	
 	/**
-	 * @param r
+	 * Constructs a new Frac equal to the decimal representation of a given double
+	 * @param r The given double
 	 */
 	public Frac(double r) {
-		String s = String.valueOf(r);
-	    int digitsDec = s.length() - 1 - s.indexOf('.');        
-	    
-	    q = 1;
-	    
-	    for(int i = 0; i < digitsDec; i++){
-	        r *= 10;
-	        q *= 10;
-	    }
-	   
-	    p = (long) Math.round(r);
-	    this.simplify();
+		this(Math.round(r * scale(r)), scale(r));
 	} //END Frac (constructor)
 	
 	
 	/**
-	 * @param r
+	 * Returns the sum of this Frac and a given Frac
+	 * @param r The given Frac
+	 * @return The sum of this Frac and the given Frac
 	 */
 	public Frac add(Frac r) {
-		this.p += (r.p * this.q);
-		this.q *= r.q;
-		this.simplify();
-		
-		return this;
+		return new Frac(this.p * r.q + r.p * this.q, this.q * r.q);
 	} //END add
 	
 	
 	/**
-	 * @param r
+	 * Returns the sum of this Frac and a given double
+	 * @param r The given double
+	 * @return The sum of this Frac and the given double
 	 */
-	public void add(double r) {
-		this.add(new Frac(r));
+	public Frac add(double r) {
+		return this.add(new Frac(r));
 	} //END add
 	
 	
 	/**
-	 * @param r
+	 * Returns the difference of this Frac and a given Frac
+	 * @param r The given Frac
+	 * @return This Frac minus the given Frac
 	 */
-	public void sub(Frac r) {
-		this.p -= (r.p * this.q);
-		this.q *= r.q;
-		this.simplify();
+	public Frac sub(Frac r) {
+		return new Frac(this.p * r.q - r.p * this.q, this.q * r.q);
 	} //END sub
 	
 	
 	/**
-	 * @param r
+	 * Returns the difference of this Frac and a given double
+	 * @param r The given double
+	 * @return This Frac minus the given double
 	 */
-	public void sub(double r) {
-		this.sub(new Frac(r));
+	public Frac sub(double r) {
+		return this.sub(new Frac(r));
 	} //END sub
 	
 	
 	/**
-	 * @param r
+	 * Returns the product of this Frac and a given Frac
+	 * @param r The given Frac
+	 * @return The product of this Frac and the given Frac
 	 */
 	public Frac mult(Frac r) {
-		this.p *= r.p;
-		this.p *= r.q;
-		this.simplify();
-		
-		return this;
+		return new Frac(this.p * r.p, this.q * r.q);
 	} //END mult
 	
 	
 	/**
-	 * @param r
+	 * Returns the product of this Frac and a given double
+	 * @param r The given double
+	 * @return The product of this Frac and the given double
 	 */
-	public void mult(double r) {
-		this.mult(new Frac(r));
+	public Frac mult(double r) {
+		return this.mult(new Frac(r));
 	} //END mult
 	
 	
 	/**
-	 * @param r
+	 * Returns the quotient of this Frac and a given Frac
+	 * @param r The given Frac
+	 * @return This Frac divided by the given Frac
 	 */
-	public void div(Frac r) {
-		this.p *= r.q;
-		this.q *= r.p;
-		this.simplify();
+	public Frac div(Frac r) {
+		return new Frac(this.p * r.q, this.q * r.p);
 	} //END div
 	
 	
 	/**
-	 * @param r
+	 * Returns the quotient of this Frac and a given double
+	 * @param r The given double
+	 * @return This Frac divided by the given double
 	 */
-	public void div(double r) {
-		this.div(new Frac(r));
+	public Frac div(double r) {
+		return this.div(new Frac(r));
 	} //END div
 	
 	
 	/**
-	 * @return
+	 * Returns the additive inverse of this Frac
+	 * @return The additive inverse of this Frac
 	 */
 	public Frac getAddInverse() {
 		return new Frac(-p, q);
@@ -156,7 +161,8 @@ public class Frac implements Ring<Frac>, Comparable<Frac> {
 	
 	
 	/**
-	 *
+	 * Returns the additive identity, zero
+	 * @return The additive identity, zero
 	 */
 	public Frac getAddIdentity() {
 		return new Frac(0, 1);
@@ -164,8 +170,8 @@ public class Frac implements Ring<Frac>, Comparable<Frac> {
 	
 	
 	/**
-	 * @return
-	 * @throws NoInverseException 
+	 * Returns the multiplicative inverse of this Frac and null if this Frac is zero
+	 * @return The multiplicative inverse of this Frac and null if this Frac is zero
 	 */
 	public Frac getMultInverse() {
 		if (p == 0)
@@ -176,40 +182,46 @@ public class Frac implements Ring<Frac>, Comparable<Frac> {
 	
 	
 	/**
-	 *
+	 * Returns the multiplicative identity, one
+	 * @return The multiplicative identity, one
 	 */
 	public Frac getMultIdentity() {
 		return new Frac(1, 1);
 	} //END getMultIdentity
 	
 	
-	/**Returns a copy of this Frac
-	 * @return A copy of this Frac
+	/**Returns this Frac, which being immutable is its own copy
+	 * @return This Frac
 	 */
 	public Frac copy() {
-		return new Frac(new Long(p), new Long(q));
+		return this;
 	} //END copy
 	
+	
 	/**
-	 * 
+	 * Returns the power of ten that makes the decimal representation of a given double whole
+	 * @param r The given double
+	 * @return The power of ten that makes the given double whole
 	 */
-	private void simplify() {
-		long k = gcd(p,q);
-		while (k != 1) {
-			this.p /= k;
-			this.q /= k;
+	private static long scale(double r) {
+		String s = String.valueOf(r);
+		int digitsDec = s.length() - 1 - s.indexOf('.');
+		long q = 1;
 		
-			k = gcd(p,q);
-		}
-	} //END simplify
+		for (int i = 0; i < digitsDec; i++)
+			q *= 10;
+		
+		return q;
+	} //END scale
 	
 	
 	/**
-	 * @param a
-	 * @param b
-	 * @return
+	 * Returns the greatest common divisor of two given non-negative longs
+	 * @param a A given long
+	 * @param b A given long
+	 * @return The greatest common divisor of the given longs
 	 */
-	private long gcd(long a, long b) {
+	private static long gcd(long a, long b) {
 	    return (b == 0) ? a : gcd(b, a % b);
 	} //END gcd
 	
@@ -242,6 +254,14 @@ public class Frac implements Ring<Frac>, Comparable<Frac> {
 	} //END equals
 	
 	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	public int hashCode() {
+		return Long.hashCode(p) * 31 + Long.hashCode(q);
+	} //END hashCode
+	
+	
 	/* (non-Javadoc)
 	 * @see java.lang.Object#toString()
 	 */
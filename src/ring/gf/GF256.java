@@ -0,0 +1,242 @@
+package ring.gf;
+
+import ring.Ring;
+
+/**
+ * A Class that implements a Ring and performs arithmetic in the finite field GF(2^8)
+ * Elements are the polynomials of degree below 8 over GF(2), stored as the bits of a byte, and
+ * arithmetic is modulo x^8 + x^4 + x^3 + x + 1, the polynomial of AES. Addition is XOR and every
+ * nonzero element is a power of the generator x + 1, so products and inverses are lookups in
+ * tables of logarithms and powers computed once. Unlike Z_M, every nonzero element is a unit.
+ * GF256 is immutable and its 256 instances are shared.
+ * @author Noah Kime
+ */
+public final class GF256 implements Ring<GF256> {
+
+	//The number of elements in the field
+	public static final int ORDER = 256;
+
+	//x^8 + x^4 + x^3 + x + 1
+	private static final int POLY = 0x11B;
+
+	//EXP[i] is the generator to the power i, repeated once so a sum of two logarithms needs no reduction
+	private static final int[] EXP = expTable();
+
+	//LOG[x] is the power of the generator equal to a nonzero x
+	private static final int[] LOG = logTable(EXP);
+
+	private static final GF256[] VALUES = values();
+
+	private final int val;
+
+
+	/**
+	 * Constructs an element of GF(2^8)
+	 * @param val The bits of the given element, in [0,256)
+	 */
+	private GF256(int val) {
+		this.val = val;
+	} //END GF256 (constructor)
+
+
+	/**
+	 * Returns the shared element of GF(2^8) with the low 8 bits of a given value
+	 * @param val The given value
+	 * @return The element whose bits are the low 8 bits of the given value
+	 */
+	public static GF256 valueOf(int val) {
+		return VALUES[val & 0xFF];
+	} //END valueOf
+
+
+	/**
+	 * Returns the sum of two given elements, their XOR
+	 * @param x A given element, in [0,256)
+	 * @param y A given element, in [0,256)
+	 * @return The sum of the given elements
+	 */
+	public static int add(int x, int y) {
+		return x ^ y;
+	} //END add
+
+
+	/**
+	 * Returns the product of two given elements, looked up from their logarithms
+	 * @param x A given element, in [0,256)
+	 * @param y A given element, in [0,256)
+	 * @return The product of the given elements
+	 */
+	public static int mult(int x, int y) {
+		if (x == 0 || y == 0)
+			return 0;
+
+		return EXP[LOG[x] + LOG[y]];
+	} //END mult
+
+
+	/**
+	 * Returns the multiplicative inverse of a given element and -1 if it is 0
+	 * @param x The given element, in [0,256)
+	 * @return The inverse of the given element, or -1 if it is 0
+	 */
+	public static int inverse(int x) {
+		return (x == 0) ? -1 : EXP[255 - LOG[x]];
+	} //END inverse
+
+
+	/**
+	 * Returns the sum of this element and a given element
+	 * @param o The given element to be added with this element
+	 * @return The sum of this element and the given element
+	 */
+	public GF256 add(GF256 o) {
+		return VALUES[this.val ^ o.val];
+	} //END add
+
+
+	/**
+	 * Returns the additive inverse of this element, which in characteristic 2 is itself
+	 * @return This element
+	 */
+	public GF256 getAddInverse() {
+		return this;
+	} //END getAddInverse
+
+
+	/**
+	 * Returns the additive identity of GF(2^8)
+	 * @return The additive identity of GF(2^8)
+	 */
+	public GF256 getAddIdentity() {
+		return VALUES[0];
+	} //END getAddIdentity
+
+
+	/**
+	 * Returns the product of this element and a given element
+	 * @param o The given element to be multiplied with this element
+	 * @return The product of this element and the given element
+	 */
+	public GF256 mult(GF256 o) {
+		return VALUES[mult(this.val, o.val)];
+	} //END mult
+
+
+	/**
+	 * Returns the multiplicative inverse of this element and null if it is 0
+	 * @return The multiplicative inverse of this element and null if it is 0
+	 */
+	public GF256 getMultInverse() {
+		return (val == 0) ? null : VALUES[inverse(val)];
+	} //END getMultInverse
+
+
+	/**
+	 * Returns the multiplicative identity of GF(2^8)
+	 * @return The multiplicative identity of GF(2^8)
+	 */
+	public GF256 getMultIdentity() {
+		return VALUES[1];
+	} //END getMultIdentity
+
+
+	/**
+	 * Returns the bits of this element as an integer
+	 * @return The bits of this element, in [0,256)
+	 */
+	public int getVal() {
+		return val;
+	} //END getVal
+
+
+	/**
+	 * Returns this element, since GF256 is immutable
+	 * @return This element
+	 */
+	public GF256 copy() {
+		return this;
+	} //END copy
+
+
+	/**
+	 * Determines whether this GF256 and a given object are equivalent
+	 * @param o The given object to be compared with this
+	 * @return True if the given object is a GF256 with the same bits and false otherwise
+	 */
+	@Override
+	public boolean equals(Object o) {
+		return (o instanceof GF256) && ((GF256) o).val == this.val;
+	} //END equals
+
+
+	/**
+	 * Returns the hash code of this GF256, consistent with equals
+	 * @return The hash code of this GF256
+	 */
+	@Override
+	public int hashCode() {
+		return val;
+	} //END hashCode
+
+
+	/**
+	 * Returns the value of this GF256 represented as a String
+	 * @return The value of this GF256 represented as a String
+	 */
+	@Override
+	public String toString() {
+		return Integer.toString(val);
+	} //END toString
+
+
+	/**
+	 * Returns the powers of the generator x + 1, twice over
+	 * Multiplying by x + 1 is a shift, a reduction by the polynomial when the shift overflows
+	 * 8 bits, and an XOR.
+	 * @return The table of powers
+	 */
+	private static int[] expTable() {
+		int[] exp = new int[2 * 255];
+		int x = 1;
+
+		for (int i = 0; i < 255; i++) {
+			exp[i] = x;
+			exp[i + 255] = x;
+
+			int shifted = x << 1;
+			x ^= (shifted & 0x100) != 0 ? shifted ^ POLY : shifted;
+		}
+
+		return exp;
+	} //END expTable
+
+
+	/**
+	 * Returns the logarithms of the nonzero elements from a given table of powers
+	 * @param exp The given table of powers
+	 * @return The table of logarithms, 0 for the element 0
+	 */
+	private static int[] logTable(int[] exp) {
+		int[] log = new int[ORDER];
+
+		for (int i = 0; i < 255; i++)
+			log[exp[i]] = i;
+
+		return log;
+	} //END logTable
+
+
+	/**
+	 * Returns the shared instances of every element
+	 * @return The shared instances, indexed by their bits
+	 */
+	private static GF256[] values() {
+		GF256[] vals = new GF256[ORDER];
+
+		for (int i = 0; i < ORDER; i++)
+			vals[i] = new GF256(i);
+
+		return vals;
+	} //END values
+
+} //END GF256
@@ -0,0 +1,53 @@
+package ring.modInt;
+
+/**
+ * A Reducer using Barrett reduction for any m that is not a power of two
+ * The quotient of x by m is estimated as the high half of x times a precomputed floor(2^k/m),
+ * with k = 32 for ints and k = 64 for longs, which is never more than one too small. One multiply
+ * and one conditional subtraction then replace the division.
+ * @author Noah Kime
+ */
+final class BarrettReducer implements Reducer {
+
+	private final int m;
+
+	//floor(2^32 / m), at most 2^31 since m is at least 3
+	private final long r32;
+
+	//floor(2^64 / m) as an unsigned long
+	private final long r64;
+
+
+	/**
+	 * Constructs a BarrettReducer for a given modulus
+	 * @param m The given modulus, at least 3 and not a power of two
+	 */
+	BarrettReducer(int m) {
+		this.m = m;
+		this.r32 = (1L << 32) / m;
+		this.r64 = Long.divideUnsigned(-1L, m);
+	} //END BarrettReducer (constructor)
+
+
+	@Override
+	public int getM() {
+		return m;
+	} //END getM
+
+
+	@Override
+	public int reduce(int x) {
+		int t = x - (int) ((x * r32) >>> 32) * m;
+
+		return (t >= m) ? t - m : t;
+	} //END reduce
+
+
+	@Override
+	public int reduce(long x) {
+		long t = x - Math.unsignedMultiplyHigh(x, r64) * m;
+
+		return (int) ((t >= m) ? t - m : t);
+	} //END reduce
+
+} //END BarrettReducer
@@ -0,0 +1,51 @@
+package ring.modInt;
+
+/**
+ * A Reducer for a power of two m, keeping the low bits of its input
+ * @author Noah Kime
+ */
+final class MaskReducer implements Reducer {
+
+	private final int m;
+	private final int mask;
+
+
+	/**
+	 * Constructs a MaskReducer for a given power of two
+	 * @param m The given power of two
+	 */
+	MaskReducer(int m) {
+		this.m = m;
+		this.mask = m - 1;
+	} //END MaskReducer (constructor)
+
+
+	@Override
+	public int getM() {
+		return m;
+	} //END getM
+
+
+	@Override
+	public int reduce(int x) {
+		return x & mask;
+	} //END reduce
+
+
+	@Override
+	public int reduce(long x) {
+		return (int) x & mask;
+	} //END reduce
+
+
+	/**
+	 * Returns a given long of either sign modulo m, which for a power of two is its low bits
+	 * @param x The given long
+	 * @return The residue of the given long, in [0,m)
+	 */
+	@Override
+	public int floorMod(long x) {
+		return (int) x & mask;
+	} //END floorMod
+
+} //END MaskReducer
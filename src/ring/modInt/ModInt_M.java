@@ -5,12 +5,21 @@ import ring.Ring;
 /**
  * A Class that implements a Ring and performs modular arithmetic
  * over the integers modulo m
+ * ModInt_M is immutable. Results of arithmetic are the shared canonical instances
+ * returned by valueOf, and the multiplicative inverse is only computed when requested.
+ * Instances may be shared between threads: two threads racing to cache the inverse both
+ * store the same value.
  * @author Noah Kime
  */
 public class ModInt_M implements Ring<ModInt_M> {
 	
-	private Z_M m;
-	private int val;
+	//Marks an inverse that has not been computed yet
+	private static final int UNKNOWN = -2;
+	
+	private final Z_M m;
+	private final int val;
+	
+	//The cached inverse, UNKNOWN until first requested
 	private int inv;
 
 	
@@ -22,8 +31,7 @@ public class ModInt_M implements Ring<ModInt_M> {
 	public ModInt_M(int val, Z_M m) {
 		this.m = m;
 		this.val = val;
-		
-		this.inv = m.getMultInverse(this.val);
+		this.inv = UNKNOWN;
 	} //END ModInt_M (constructor)
 	
 	
@@ -40,13 +48,25 @@ public class ModInt_M implements Ring<ModInt_M> {
 	} //END ModInt_M (constructor)
 	
 	
+	/**
+	 * Returns the canonical integer mod m congruent to a given value
+	 * Instances are shared for every m up to Z_M.MAX_INVERSE_TABLE.
+	 * @param val The given value
+	 * @param m The given Z_M class with which to perform modular arithmetic 
+	 * @return The canonical integer mod m congruent to the given value
+	 */
+	public static ModInt_M valueOf(int val, Z_M m) {
+		return m.valueOf(val);
+	} //END valueOf
+	
+	
 	/**
 	 * Returns the sum of this integer and a given integer modulo m
 	 * @param The given integer to be added with this integer
 	 * @return The sum of this integer and the given integer modulo m
 	 */
 	public ModInt_M add(ModInt_M o) {
-		return new ModInt_M(m.add(this.val, o.val), this.m);
+		return m.valueOf(m.add(this.val, o.val));
 	} //END getAdd
 	
 	
@@ -55,7 +75,7 @@ public class ModInt_M implements Ring<ModInt_M> {
 	 * @return the additive inverse of this integer modulo m
 	 */
 	public ModInt_M getAddInverse() {
-		return new ModInt_M(m.getAddInverse(val), m);
+		return m.valueOf(m.getAddInverse(val));
 	} //END getAddInverse
 	
 	
@@ -64,7 +84,7 @@ public class ModInt_M implements Ring<ModInt_M> {
 	 * @return The additive inverse of the integers modulo m
 	 */
 	public ModInt_M getAddIdentity() {
-		return new ModInt_M(0, m);
+		return m.valueOf(m.getAddIdentity());
 	} //END getAddIdentity
 	
 	
@@ -74,7 +94,7 @@ public class ModInt_M implements Ring<ModInt_M> {
 	 * @return The product of this integer and the given integer modulo m
 	 */
 	public ModInt_M mult(ModInt_M o) {
-		return new ModInt_M(m.mult(this.val, o.val), this.m);
+		return m.valueOf(m.mult(this.val, o.val));
 	} //END mult
 	
 	
@@ -83,10 +103,13 @@ public class ModInt_M implements Ring<ModInt_M> {
 	 * @return The multiplicative inverse of this integer modulo m and null if no inverse exists
 	 */
 	public ModInt_M getMultInverse() {
+		if (inv == UNKNOWN)
+			inv = m.getMultInverse(val);
+		
 		if (inv == -1)
 			return null;
 		else
-			return new ModInt_M(inv, val, m);
+			return m.valueOf(inv);
 	} //END getMultInverse
 	
 
@@ -95,7 +118,7 @@ public class ModInt_M implements Ring<ModInt_M> {
 	 * @return The multiplicative inverse of the integers modulo m
 	 */
 	public ModInt_M getMultIdentity() {
-		return new ModInt_M(1, 1, m);
+		return m.valueOf(m.getMultIdentity());
 	} //END getMultIdentity
 	
 	
@@ -104,7 +127,7 @@ public class ModInt_M implements Ring<ModInt_M> {
 	 * @return The integer value of this ModInt_M
 	 */
 	public int getVal() {
-		return new Integer(val);
+		return val;
 	} //END getVal
 	
 	
@@ -122,7 +145,7 @@ public class ModInt_M implements Ring<ModInt_M> {
 	 * @return A copy of this ModInt_M
 	 */
 	public ModInt_M copy() {
-		return new ModInt_M(new Integer(val), new Integer(inv), m);
+		return new ModInt_M(val, inv, m);
 	} //END copy
 	
 	
@@ -147,6 +170,16 @@ public class ModInt_M implements Ring<ModInt_M> {
 	} //END equals
 	
 	
+	/**
+	 * Returns the hash code of this ModInt_M, consistent with equals
+	 * @return The hash code of this ModInt_M
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * m.hashCode() + val;
+	} //END hashCode
+	
+	
 	/**
 	 * Returns the value of this ModInt_M represented as a String
 	 * @return The value of this ModInt_M represented as a String
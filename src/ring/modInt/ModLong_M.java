@@ -0,0 +1,191 @@
+package ring.modInt;
+
+import ring.Ring;
+
+/**
+ * A Class that implements a Ring and performs modular arithmetic over the integers modulo an m
+ * that may not fit in an int
+ * ModLong_M is to Z_ML what ModInt_M is to Z_M, except that instances are never shared: a
+ * table of every residue is exactly what Z_ML avoids. ModLong_M is immutable, and the
+ * multiplicative inverse is only computed when requested. Instances may be shared between
+ * threads: two threads racing to cache the inverse both store the same value.
+ * @author Noah Kime
+ */
+public class ModLong_M implements Ring<ModLong_M> {
+
+	//Marks an inverse that has not been computed yet
+	private static final long UNKNOWN = -2;
+
+	private final Z_ML m;
+	private final long val;
+
+	//The cached inverse, UNKNOWN until first requested
+	private long inv;
+
+
+	/**
+	 * Constructs an integer mod m
+	 * @param val The given value for this integer, in [0,m)
+	 * @param m The given Z_ML class with which to perform modular arithmetic
+	 */
+	public ModLong_M(long val, Z_ML m) {
+		this.m = m;
+		this.val = val;
+		this.inv = UNKNOWN;
+	} //END ModLong_M (constructor)
+
+
+	/**
+	 * Constructs an integer mod m with a known inverse
+	 * @param val The given value for this integer
+	 * @param inv The known inverse for this integer
+	 * @param m The given Z_ML class with which to perform modular arithmetic
+	 */
+	private ModLong_M(long val, long inv, Z_ML m) {
+		this.m = m;
+		this.val = val;
+		this.inv = inv;
+	} //END ModLong_M (constructor)
+
+
+	/**
+	 * Returns the integer mod m congruent to a given value
+	 * @param val The given value
+	 * @param m The given Z_ML class with which to perform modular arithmetic
+	 * @return The integer mod m congruent to the given value
+	 */
+	public static ModLong_M valueOf(long val, Z_ML m) {
+		return m.valueOf(val);
+	} //END valueOf
+
+
+	/**
+	 * Returns the sum of this integer and a given integer modulo m
+	 * @param o The given integer to be added with this integer
+	 * @return The sum of this integer and the given integer modulo m
+	 */
+	public ModLong_M add(ModLong_M o) {
+		return new ModLong_M(m.add(this.val, o.val), m);
+	} //END add
+
+
+	/**
+	 * Returns the additive inverse of this integer modulo m
+	 * @return The additive inverse of this integer modulo m
+	 */
+	public ModLong_M getAddInverse() {
+		return new ModLong_M(m.getAddInverse(val), m);
+	} //END getAddInverse
+
+
+	/**
+	 * Returns the additive identity of the integers modulo m
+	 * @return The additive identity of the integers modulo m
+	 */
+	public ModLong_M getAddIdentity() {
+		return new ModLong_M(m.getAddIdentity(), m);
+	} //END getAddIdentity
+
+
+	/**
+	 * Returns the product of this integer and a given integer modulo m
+	 * @param o The given integer to be multiplied with this integer
+	 * @return The product of this integer and the given integer modulo m
+	 */
+	public ModLong_M mult(ModLong_M o) {
+		return new ModLong_M(m.mult(this.val, o.val), m);
+	} //END mult
+
+
+	/**
+	 * Returns the multiplicative inverse of this integer modulo m and null if no inverse exists
+	 * @return The multiplicative inverse of this integer modulo m and null if no inverse exists
+	 */
+	public ModLong_M getMultInverse() {
+		if (inv == UNKNOWN)
+			inv = m.getMultInverse(val);
+
+		if (inv == -1)
+			return null;
+		else
+			return new ModLong_M(inv, val, m);
+	} //END getMultInverse
+
+
+	/**
+	 * Returns the multiplicative identity of the integers modulo m
+	 * @return The multiplicative identity of the integers modulo m
+	 */
+	public ModLong_M getMultIdentity() {
+		return new ModLong_M(m.getMultIdentity(), m);
+	} //END getMultIdentity
+
+
+	/**
+	 * Returns the long value of this ModLong_M
+	 * @return The long value of this ModLong_M
+	 */
+	public long getVal() {
+		return val;
+	} //END getVal
+
+
+	/**
+	 * Returns this ModLong_M's Z_ML helper class
+	 * @return This ModLong_M's Z_ML helper class
+	 */
+	public Z_ML getM() {
+		return m;
+	} //END getM
+
+
+	/**
+	 * Returns a copy of this ModLong_M
+	 * @return A copy of this ModLong_M
+	 */
+	public ModLong_M copy() {
+		return new ModLong_M(val, inv, m);
+	} //END copy
+
+
+	/**
+	 * Determines whether this ModLong_M and a given object are equivalent
+	 * @param o The given object to be compared with this
+	 * @return True if this ModLong_M and the given object are equivalent and false otherwise
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+
+		if (o instanceof ModLong_M) {
+			ModLong_M x = (ModLong_M) o;
+
+			if ( (this.m.equals(x.m)) && (this.val == x.val) )
+				return true;
+		}
+
+		return false;
+	} //END equals
+
+
+	/**
+	 * Returns the hash code of this ModLong_M, consistent with equals
+	 * @return The hash code of this ModLong_M
+	 */
+	@Override
+	public int hashCode() {
+		return 31 * m.hashCode() + Long.hashCode(val);
+	} //END hashCode
+
+
+	/**
+	 * Returns the value of this ModLong_M represented as a String
+	 * @return The value of this ModLong_M represented as a String
+	 */
+	@Override
+	public String toString() {
+		return Long.toString(val);
+	} //END toString
+
+} //END ModLong_M
@@ -0,0 +1,75 @@
+package ring.modInt;
+
+/**
+ * An interface for reducing integers modulo a fixed m without hardware division
+ * A Reducer is chosen per modulus: a bit mask when m is a power of two and Barrett reduction,
+ * with constants computed once, otherwise. Both take 64-bit inputs, so a product of two residues
+ * or a partial dot product never has to fit in an int. Reducers are immutable and may be shared
+ * between threads.
+ * @author Noah Kime
+ */
+public interface Reducer {
+
+	/**
+	 * Returns the Reducer for a given modulus
+	 * @param m The given modulus
+	 * @return A MaskReducer if m is a power of two and a BarrettReducer otherwise
+	 * @throws IllegalArgumentException Thrown if m is not positive
+	 */
+	static Reducer of(int m) {
+		if (m < 1)
+			throw new IllegalArgumentException("Modulus must be positive: " + m);
+
+		return ((m & (m - 1)) == 0) ? new MaskReducer(m) : new BarrettReducer(m);
+	} //END of
+
+
+	/**
+	 * Returns m, the integer this Reducer reduces by
+	 * @return m, the integer this Reducer reduces by
+	 */
+	int getM();
+
+
+	/**
+	 * Returns a given non-negative int modulo m
+	 * @param x The given int, at least 0
+	 * @return The residue of the given int, in [0,m)
+	 */
+	int reduce(int x);
+
+
+	/**
+	 * Returns a given long, read as unsigned, modulo m
+	 * @param x The given long, read as an unsigned 64-bit integer
+	 * @return The residue of the given long, in [0,m)
+	 */
+	int reduce(long x);
+
+
+	/**
+	 * Returns a given long of either sign modulo m, as Math.floorMod would
+	 * @param x The given long
+	 * @return The residue of the given long, in [0,m)
+	 */
+	default int floorMod(long x) {
+		if (x >= 0)
+			return this.reduce(x);
+
+		int r = this.reduce(-x);
+
+		return (r == 0) ? 0 : this.getM() - r;
+	} //END floorMod
+
+
+	/**
+	 * Returns the product of two given residues modulo m, computed in 64 bits
+	 * @param x A given residue, in [0,m)
+	 * @param y A given residue, in [0,m)
+	 * @return The product of the given residues modulo m
+	 */
+	default int mult(int x, int y) {
+		return this.reduce((long) x * y);
+	} //END mult
+
+} //END Reducer
@@ -1,15 +1,38 @@
 package ring.modInt;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
 
 /**
  * A helper Class used to assist in mathematics modulo m for given value of m
+ * Inverses are read from a table built at construction when m is at most
+ * MAX_INVERSE_TABLE and found by the extended Euclidean algorithm otherwise.
+ * Products are read from a full multiplication table when m is at most MAX_MULT_TABLE and
+ * otherwise computed in 64 bits and reduced by the Reducer of m, without dividing.
+ * The units are never enumerated unless the multiplicative set is requested: random units are
+ * drawn by rejection with randomUnit, so a Z_M costs no memory proportional to m above
+ * MAX_INVERSE_TABLE.
+ * Z_M is immutable: every table is built at construction, apart from the multiplicative set,
+ * which is built on first request, and none is modified or exposed, so a single Z_M may be
+ * shared by any number of threads.
  * @author Noah Kime
  */
 public class Z_M {
 	
-	private int m;
-	private ArrayList<Integer> multSet;
+	//The largest m for which a table of inverses is built
+	public static final int MAX_INVERSE_TABLE = 1 << 16;
+	
+	//The largest m for which a table of products is built
+	public static final int MAX_MULT_TABLE = 256;
+	
+	private final int m;
+	private final Reducer reducer;
+	private final int[] inverse;
+	private final char[] product;
+	private final ModInt_M[] instances;
+	
+	//The units modulo m in increasing order, built on first request
+	private volatile int[] multSet;
 	
 	
 	/**
@@ -18,7 +41,10 @@ public class Z_M {
 	 */
 	public Z_M(int m) {
 		this.m = m;
-		this.multSet = this.genMultSet();
+		this.reducer = Reducer.of(m);
+		this.inverse = (m <= MAX_INVERSE_TABLE) ? this.genInverseTable() : null;
+		this.product = (m <= MAX_MULT_TABLE) ? this.genProductTable() : null;
+		this.instances = (m <= MAX_INVERSE_TABLE) ? this.genInstances() : null;
 	} //END Z_M (constructor)
 	
 	
@@ -29,7 +55,7 @@ public class Z_M {
 	 * @return The sum of two given integers
 	 */
 	public int add(int x, int y) {
-		return modM(x + y);
+		return reducer.floorMod((long) x + y);
 	} //END add
 	
 	
@@ -39,7 +65,7 @@ public class Z_M {
 	 * @return The additive inverse of the given integer
 	 */
 	public int getAddInverse(int x) {
-		return modM(m - x);
+		return reducer.floorMod((long) m - x);
 	} //END getAddInverse
 	
 	
@@ -59,7 +85,10 @@ public class Z_M {
 	 * @return The product of the given integers modulo m
 	 */
 	public int mult(int x, int y) {
-		return modM(x * y);
+		if (x >= 0 && x < m && y >= 0 && y < m)
+			return (product != null) ? product[x*m + y] : reducer.mult(x, y);
+		
+		return reducer.floorMod((long) x * y);
 	} //END mult
 	
 	
@@ -69,17 +98,58 @@ public class Z_M {
 	 * @return The multiplicative inverse of a given integer modulo m or -1 if no inverse exists
 	 */
 	public int getMultInverse(int x) {
-		if (this.multSet.contains(x)) {
-			for (int i = 0; i < this.multSet.size(); i++) {
-				if (mult(x, this.multSet.get(i)) == 1)
-					return this.multSet.get(i);
-			}
-		}
-			
-		return -1;
+		x = modM(x);
+		
+		if (inverse != null)
+			return inverse[x];
+		
+		return modInverse(x);
 	} //END getMultInverse
 	
 	
+	/**
+	 * Determines whether a given integer has a multiplicative inverse modulo m
+	 * @param x The given integer
+	 * @return True if the given integer has a multiplicative inverse modulo m and false otherwise
+	 */
+	public boolean isUnit(int x) {
+		return getMultInverse(x) != -1;
+	} //END isUnit
+	
+	
+	/**
+	 * Draws a uniformly random unit modulo m
+	 * Residues are drawn until one is a unit, which takes m / phi(m) draws on average, fewer
+	 * than 7 for any int m.
+	 * @param rand The random number generator
+	 * @return A uniformly random unit, in [0,m)
+	 */
+	public int randomUnit(RandomGenerator rand) {
+		int x;
+		
+		do {
+			x = rand.nextInt(m);
+		} while (!this.isUnit(x));
+		
+		return x;
+	} //END randomUnit
+	
+	
+	/**
+	 * Returns the canonical ModInt_M congruent to a given integer
+	 * Residues are shared from a table built at construction, which is safe because
+	 * ModInt_M is immutable. Above MAX_INVERSE_TABLE a new ModInt_M is returned.
+	 * @param x The given integer
+	 * @return The canonical ModInt_M congruent to the given integer
+	 */
+	ModInt_M valueOf(int x) {
+		if (x < 0 || x >= m)
+			x = modM(x);
+		
+		return (instances != null) ? instances[x] : new ModInt_M(x, this);
+	} //END valueOf
+	
+	
 	/**
 	 * Returns the multiplicative identity, 1
 	 * @return The multiplicative identity, 1
@@ -89,6 +159,15 @@ public class Z_M {
 	} //END getMultIdentity
 	
 	
+	/**
+	 * Returns the Reducer this Z_M reduces modulo m with
+	 * @return The Reducer of m
+	 */
+	public Reducer getReducer() {
+		return reducer;
+	} //END getReducer
+	
+	
 	/**
 	 * Returns m, the integer this Z_M mods by
 	 * @return m, the integer this Z_M mods by
@@ -125,13 +204,23 @@ public class Z_M {
 	} //END equals
 	
 	
+	/**
+	 * Returns the hash code of this Z_M, consistent with equals
+	 * @return The hash code of this Z_M
+	 */
+	@Override
+	public int hashCode() {
+		return m;
+	} //END hashCode
+	
+	
 	/**
 	 * Returns the smallest positive value of a given integer modulo m
 	 * @param x The given integer
 	 * @return The smallest positive value of a given integer modulo m
 	 */
 	private int modM(int x) {
-		return (x % m + m) % m;
+		return reducer.floorMod(x);
 	} //END modM
 	
 	
@@ -147,30 +236,133 @@ public class Z_M {
 	} //END gcd
 	
 	
+	/**
+	 * Solves for the inverse of a given residue modulo m using the extended Euclidean algorithm
+	 * @param x The given residue, in [0,m)
+	 * @return The inverse of the given residue modulo m or -1 if no inverse exists
+	 */
+	private int modInverse(int x) {
+		long r0 = m, r1 = x;
+		long t0 = 0, t1 = 1;
+		long temp;
+		
+		while (r1 != 0) {
+			long q = r0 / r1;
+			
+			temp = r0 - q * r1;
+			r0 = r1;
+			r1 = temp;
+			
+			temp = t0 - q * t1;
+			t0 = t1;
+			t1 = temp;
+		}
+		
+		return (r0 == 1) ? reducer.floorMod(t0) : -1;
+	} //END modInverse
+	
+	
 	/**
 	 * Returns the set of integers that form a Group under multiplication modulo m
-	 * @return The set of integers that form a Group under multiplication modulo m
+	 * The set is enumerated on first request, scanning every residue, so for a large m
+	 * randomUnit and isUnit should be preferred.
+	 * @return A copy of the set of integers that form a Group under multiplication modulo m
 	 */
-	public ArrayList<Integer> getMultSet() {
-		return multSet;
-		//TODO make copy
+	public int[] getMultSet() {
+		return this.multSet().clone();
 	} //END getMultSet
 	
 	
+	/**
+	 * Returns the number of integers that form a Group under multiplication modulo m
+	 * The set is enumerated on first request.
+	 * @return The number of integers that form a Group under multiplication modulo m
+	 */
+	public int getMultSetSize() {
+		return this.multSet().length;
+	} //END getMultSetSize
+	
+	
+	/**
+	 * Returns the ith integer of the Group under multiplication modulo m, in increasing order
+	 * The set is enumerated on first request.
+	 * @param i The index of the desired integer
+	 * @return The ith integer of the Group under multiplication modulo m
+	 */
+	public int getMultSetElement(int i) {
+		return this.multSet()[i];
+	} //END getMultSetElement
+	
+	
+	/**
+	 * Returns the set of integers that form a Group under multiplication modulo m, generating it
+	 * on first request
+	 * Threads racing on the first request each generate the same set, and one is kept.
+	 * @return The set of integers that form a Group under multiplication modulo m
+	 */
+	private int[] multSet() {
+		int[] set = multSet;
+		
+		if (set == null)
+			multSet = set = this.genMultSet();
+		
+		return set;
+	} //END multSet
+	
+	
 	/**
 	 * Generates the set of integers that form a Group under multiplication modulo m
 	 */
-	private ArrayList<Integer> genMultSet() {
-		ArrayList<Integer> multSet = new ArrayList<Integer>();
-		int temp;
+	private int[] genMultSet() {
+		int[] temp = new int[m];
+		int size = 0;
 		
 		for (int i = 1; i < m; i++) {
-			temp = gcd(i, m);
-			if (temp == 1)
-				multSet.add(i);
+			if ( (inverse != null) ? (inverse[i] != -1) : (gcd(i, m) == 1) )
+				temp[size++] = i;
 		}
 		
-		return multSet;
-	} //END getMultSet
+		return Arrays.copyOf(temp, size);
+	} //END genMultSet
+	
+	
+	/**
+	 * Generates the table of inverses of every residue modulo m, -1 marking non-units
+	 */
+	private int[] genInverseTable() {
+		int[] temp = new int[m];
+		
+		for (int i = 0; i < m; i++)
+			temp[i] = modInverse(i);
+		
+		return temp;
+	} //END genInverseTable
+	
+	
+	/**
+	 * Generates the table of canonical ModInt_M, one for every residue modulo m
+	 */
+	private ModInt_M[] genInstances() {
+		ModInt_M[] temp = new ModInt_M[m];
+		
+		for (int i = 0; i < m; i++)
+			temp[i] = new ModInt_M(i, this);
+		
+		return temp;
+	} //END genInstances
+	
+	
+	/**
+	 * Generates the table of products of every pair of residues modulo m
+	 */
+	private char[] genProductTable() {
+		char[] temp = new char[m * m];
+		
+		for (int i = 0; i < m; i++)
+			for (int j = 0; j < m; j++)
+				temp[i*m + j] = (char) ((i * j) % m);
+		
+		return temp;
+	} //END genProductTable
 	
 } //END Z_M
@@ -0,0 +1,313 @@
+package ring.modInt;
+
+import java.util.SplittableRandom;
+
+/**
+ * A helper Class used to assist in mathematics modulo m for a given value of m up to
+ * Long.MAX_VALUE
+ * Unlike Z_M, Z_ML builds no tables and never enumerates the units: whether a residue is a unit
+ * is decided by its gcd with m, inverses are found by the extended Euclidean algorithm, and
+ * random units are drawn by rejection. Products of residues are reduced by Barrett reduction
+ * while they fit in 64 bits, that is while m is at most 2^32, and are otherwise computed as
+ * 128-bit products and reduced by dividing by m in 32-bit digits.
+ * Z_ML is immutable and may be shared by any number of threads.
+ * @author Noah Kime
+ */
+public class Z_ML {
+
+	//The largest m for which a product of two residues fits in an unsigned long
+	public static final long MAX_NARROW = 1L << 32;
+
+	private static final long DIGIT = 1L << 32;
+	private static final long DIGIT_MASK = DIGIT - 1;
+
+	private final long m;
+
+	//floor((2^64 - 1) / m) as an unsigned long
+	private final long r64;
+
+	//True if products of residues need 128 bits
+	private final boolean wide;
+
+
+	/**
+	 * Constructs a Z_ML to perform mathematics modulo a given long
+	 * @param m The given long
+	 * @throws IllegalArgumentException Thrown if m is not positive
+	 */
+	public Z_ML(long m) {
+		if (m < 1)
+			throw new IllegalArgumentException("Modulus must be positive: " + m);
+
+		this.m = m;
+		this.r64 = Long.divideUnsigned(-1L, m);
+		this.wide = m > MAX_NARROW;
+	} //END Z_ML (constructor)
+
+
+	/**
+	 * Returns the sum of two given residues modulo m
+	 * @param x A given residue, in [0,m)
+	 * @param y A given residue, in [0,m)
+	 * @return The sum of the given residues modulo m
+	 */
+	public long add(long x, long y) {
+		long sum = x + y;
+
+		return (sum >= m || sum < 0) ? sum - m : sum;
+	} //END add
+
+
+	/**
+	 * Returns the additive inverse of a given residue
+	 * @param x The given residue, in [0,m)
+	 * @return The additive inverse of the given residue
+	 */
+	public long getAddInverse(long x) {
+		return (x == 0) ? 0 : m - x;
+	} //END getAddInverse
+
+
+	/**
+	 * Returns the additive identity, zero
+	 * @return The additive identity, zero
+	 */
+	public long getAddIdentity() {
+		return 0;
+	} //END getAddIdentity
+
+
+	/**
+	 * Returns the product of two given residues modulo m
+	 * @param x A given residue, in [0,m)
+	 * @param y A given residue, in [0,m)
+	 * @return The product of the given residues modulo m
+	 */
+	public long mult(long x, long y) {
+		if (!wide)
+			return this.reduce(x * y);
+
+		return this.reduce(Math.unsignedMultiplyHigh(x, y), x * y);
+	} //END mult
+
+
+	/**
+	 * Returns the multiplicative inverse of a given long modulo m or -1 if no inverse exists
+	 * @param x The given long
+	 * @return The multiplicative inverse of the given long modulo m or -1 if no inverse exists
+	 */
+	public long getMultInverse(long x) {
+		long r0 = m, r1 = this.floorMod(x);
+		long t0 = 0, t1 = 1;
+		long temp;
+
+		while (r1 != 0) {
+			long q = r0 / r1;
+
+			temp = r0 - q * r1;
+			r0 = r1;
+			r1 = temp;
+
+			temp = t0 - q * t1;
+			t0 = t1;
+			t1 = temp;
+		}
+
+		return (r0 == 1) ? this.floorMod(t0) : -1;
+	} //END getMultInverse
+
+
+	/**
+	 * Determines whether a given long has a multiplicative inverse modulo m, that is whether it
+	 * is coprime to m
+	 * @param x The given long
+	 * @return True if the given long has a multiplicative inverse modulo m and false otherwise
+	 */
+	public boolean isUnit(long x) {
+		return gcd(this.floorMod(x), m) == 1;
+	} //END isUnit
+
+
+	/**
+	 * Draws a uniformly random unit modulo m
+	 * Residues are drawn until one is coprime to m, which takes m / phi(m) draws on average, at
+	 * most a few dozen for any m below 2^63.
+	 * @param rand The random number generator
+	 * @return A uniformly random unit, in [0,m)
+	 */
+	public long randomUnit(SplittableRandom rand) {
+		long x;
+
+		do {
+			x = rand.nextLong(m);
+		} while (!this.isUnit(x));
+
+		return x;
+	} //END randomUnit
+
+
+	/**
+	 * Returns the ModLong_M congruent to a given long
+	 * @param x The given long
+	 * @return The ModLong_M congruent to the given long
+	 */
+	ModLong_M valueOf(long x) {
+		if (x < 0 || x >= m)
+			x = this.floorMod(x);
+
+		return new ModLong_M(x, this);
+	} //END valueOf
+
+
+	/**
+	 * Returns the multiplicative identity, 1
+	 * @return The multiplicative identity, 1
+	 */
+	public long getMultIdentity() {
+		return 1 % m;
+	} //END getMultIdentity
+
+
+	/**
+	 * Returns m, the long this Z_ML mods by
+	 * @return m, the long this Z_ML mods by
+	 */
+	public long getM() {
+		return m;
+	} //END getM
+
+
+	/**
+	 * Returns true if products of residues modulo m need 128 bits, that is if m is above
+	 * MAX_NARROW
+	 * @return True if products of residues overflow an unsigned long, false otherwise
+	 */
+	public boolean isWide() {
+		return wide;
+	} //END isWide
+
+
+	/**
+	 * Returns the smallest positive value of a given long modulo m
+	 * @param x The given long
+	 * @return The smallest positive value of the given long modulo m
+	 */
+	public long floorMod(long x) {
+		if (x >= 0)
+			return this.reduce(x);
+
+		long r = this.reduce(-x);
+
+		return (r == 0) ? 0 : m - r;
+	} //END floorMod
+
+
+	/**
+	 * Returns a given long, read as unsigned, modulo m
+	 * The quotient is estimated as the high half of x times floor((2^64 - 1) / m), which is never
+	 * more than one too small.
+	 * @param x The given long, read as an unsigned 64-bit integer
+	 * @return The residue of the given long, in [0,m)
+	 */
+	public long reduce(long x) {
+		long t = x - Math.unsignedMultiplyHigh(x, r64) * m;
+
+		return (Long.compareUnsigned(t, m) >= 0) ? t - m : t;
+	} //END reduce
+
+
+	/**
+	 * Returns a given unsigned 128-bit integer modulo m, where its high half is below m
+	 * The integer and m are shifted until the top bit of m is set and the remainder is found by
+	 * dividing by m in two 32-bit digits, as in Knuth's Algorithm D, each digit of the quotient
+	 * estimated from the top digit of m and corrected at most twice.
+	 * @param hi The high 64 bits of the given integer, below m
+	 * @param lo The low 64 bits of the given integer
+	 * @return The residue of the given integer, in [0,m)
+	 */
+	public long reduce(long hi, long lo) {
+		//01 NORMALIZE SO THE TOP BIT OF THE DIVISOR IS SET
+		int s = Long.numberOfLeadingZeros(m);
+		long v = m << s;
+		long vHi = v >>> 32;
+		long vLo = v & DIGIT_MASK;
+		long u = (s == 0) ? hi : (hi << s) | (lo >>> (64 - s));
+		long uLo = lo << s;
+
+		//02 DIVIDE BY ONE DIGIT AT A TIME, KEEPING ONLY THE REMAINDER
+		u = divideStep(u, uLo >>> 32, v, vHi, vLo);
+		u = divideStep(u, uLo & DIGIT_MASK, v, vHi, vLo);
+
+		return u >>> s;
+	} //END reduce
+
+
+	/**
+	 * Determines whether this Z_ML and a given Object are logically equivalent
+	 * @return True if this and the given Object are equivalent and false otherwise
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+
+		return (o instanceof Z_ML) && ((Z_ML) o).m == this.m;
+	} //END equals
+
+
+	/**
+	 * Returns the hash code of this Z_ML, consistent with equals
+	 * @return The hash code of this Z_ML
+	 */
+	@Override
+	public int hashCode() {
+		return Long.hashCode(m);
+	} //END hashCode
+
+
+	/**
+	 * Solves for the greatest common divisor of two given non-negative longs
+	 * Uses the Euclidean algorithm
+	 * @param a A given long
+	 * @param b A given long
+	 * @return The greatest common divisor of the given longs
+	 */
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			long temp = a % b;
+			a = b;
+			b = temp;
+		}
+
+		return a;
+	} //END gcd
+
+
+	/**
+	 * Divides a given remainder, shifted up by one digit with a given digit brought down, by a
+	 * normalized divisor and returns the new remainder
+	 * @param u The given remainder, below the divisor
+	 * @param digit The given 32-bit digit
+	 * @param v The normalized divisor, with its top bit set
+	 * @param vHi The top 32 bits of the divisor
+	 * @param vLo The low 32 bits of the divisor
+	 * @return The remainder of (u * 2^32 + digit) divided by v
+	 */
+	private static long divideStep(long u, long digit, long v, long vHi, long vLo) {
+		//01 ESTIMATE THE QUOTIENT DIGIT FROM THE TOP DIGIT OF THE DIVISOR
+		long q = Long.divideUnsigned(u, vHi);
+		long rHat = u - q * vHi;
+
+		//02 CORRECT IT, AT MOST TWICE
+		while (q >= DIGIT || Long.compareUnsigned(q * vLo, (rHat << 32) | digit) > 0) {
+			q--;
+			rHat += vHi;
+
+			if (rHat >= DIGIT)
+				break;
+		}
+
+		return (u << 32) + digit - q * v;
+	} //END divideStep
+
+} //END Z_ML
@@ -0,0 +1,173 @@
+package cipher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests that every Cipher decrypts what it encrypts, over Alphabets whose sizes are primes,
+ * prime powers and composites, and over binary messages with the byte Alphabet
+ * @author Noah Kime
+ */
+class CipherTest {
+
+	/**
+	 * Checks round trips of the affine, Vigenere and matrix ciphers over an Alphabet of a given
+	 * size, for messages that fill a whole number of blocks and messages that do not
+	 * @param size The size of the Alphabet
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349})
+	void modularCiphersRoundTrip(int size) {
+		SplittableRandom rand = new SplittableRandom(size);
+		Alphabet alph = alphabet(size);
+		Cipher[] ciphers = {
+				new AffineCipher(alph),
+				new VigenereCipher(alph, 7),
+				new MatrixCipher(alph, 1),
+				new MatrixCipher(alph, 7),
+				new MatrixCipher(alph, 24),
+		};
+
+		for (Cipher c : ciphers) {
+			for (int len : new int[] {1, 6, 7, 8, 168, 1001}) {
+				String msg = message(rand, alph, len);
+
+				assertEquals(msg, c.decrypt(c.encrypt(msg)), () -> c.getClass().getSimpleName() + " over " + size);
+			}
+		}
+	} //END modularCiphersRoundTrip
+
+
+	/**
+	 * Checks exact round trips of binary messages, padding included, over the byte Alphabet
+	 */
+	@Test
+	void binaryMessagesRoundTrip() {
+		SplittableRandom rand = new SplittableRandom(256);
+		Alphabet alph = Alphabet.bytes();
+		Cipher[] ciphers = {
+				new AffineCipher(alph),
+				new VigenereCipher(alph, 16),
+				new MatrixCipher(alph, 16),
+				new MatrixCipher(alph, 5),
+		};
+
+		for (Cipher c : ciphers) {
+			for (int len : new int[] {0, 1, 5, 15, 16, 17, 80, 4099}) {
+				byte[] data = new byte[len];
+				rand.nextBytes(data);
+
+				byte[] enc = c.encrypt(data);
+
+				assertEquals(c.getEncryptedLength(len), enc.length);
+				assertArrayEquals(data, c.decrypt(enc));
+			}
+		}
+	} //END binaryMessagesRoundTrip
+
+
+	/**
+	 * Checks round trips of GF256Cipher for Strings of bytes and for binary messages, with block
+	 * sizes on both sides of the widths of the vector Kernel
+	 */
+	@Test
+	void gf256CipherRoundTrips() {
+		SplittableRandom rand = new SplittableRandom(8);
+		Alphabet alph = Alphabet.bytes();
+
+		for (int size : new int[] {1, 7, 16, 33, 100}) {
+			GF256Cipher c = new GF256Cipher(size);
+
+			for (int len : new int[] {1, size, size + 1, 5000}) {
+				String msg = message(rand, alph, len);
+				byte[] data = new byte[len];
+				rand.nextBytes(data);
+
+				assertEquals(msg, c.decrypt(c.encrypt(msg)));
+				assertArrayEquals(data, c.decrypt(c.encrypt(data)));
+			}
+		}
+	} //END gf256CipherRoundTrips
+
+
+	/**
+	 * Checks that GF256Cipher rejects characters that are not bytes instead of truncating them
+	 */
+	@Test
+	void gf256CipherRejectsWideCharacters() {
+		GF256Cipher c = new GF256Cipher(4);
+
+		assertThrows(IllegalArgumentException.class, () -> c.encrypt("price: 5\u20AC!"));
+		assertThrows(IllegalArgumentException.class, () -> c.decrypt("price: 5\u20AC!"));
+		assertEquals("price: 5\u00FF!", c.decrypt(c.encrypt("price: 5\u00FF!")));
+	} //END gf256CipherRejectsWideCharacters
+
+
+	/**
+	 * Checks round trips of UnicodeCipher over code points from every plane, surrogate pairs
+	 * included
+	 */
+	@Test
+	void unicodeCipherRoundTrips() {
+		SplittableRandom rand = new SplittableRandom(25);
+
+		for (int size : new int[] {1, 3, 8, 33}) {
+			UnicodeCipher c = new UnicodeCipher(size);
+
+			for (int len : new int[] {1, size, size + 1, 3000}) {
+				StringBuilder msg = new StringBuilder("\u00FF");
+
+				while (msg.length() < len) {
+					int codePoint = UnicodeCipher.codePointAt(rand.nextInt(UnicodeCipher.SIZE));
+
+					msg.appendCodePoint(Character.isWhitespace(codePoint) || Character.isISOControl(codePoint) ? 'A' : codePoint);
+				}
+				msg.append('\u00FF');
+
+				assertEquals(msg.toString(), c.decrypt(c.encrypt(msg.toString())));
+			}
+		}
+	} //END unicodeCipherRoundTrips
+
+
+	/**
+	 * Returns an Alphabet of a given size, holding the space used for padding and then
+	 * consecutive characters from U+0100
+	 * @param size The given size, at most 0xD700 so no surrogate is included
+	 * @return The Alphabet
+	 */
+	static Alphabet alphabet(int size) {
+		StringBuilder s = new StringBuilder(" ");
+
+		for (int i = 1; i < size; i++)
+			s.append((char) (0xFF + i));
+
+		return new Alphabet(s.toString());
+	} //END alphabet
+
+
+	/**
+	 * Returns a random message of a given length over a given Alphabet that neither starts nor
+	 * ends with whitespace, so it survives the trimming of padding
+	 * @param rand The random number generator
+	 * @param alph The given Alphabet, of at least two characters
+	 * @param len The given length
+	 * @return The random message
+	 */
+	static String message(SplittableRandom rand, Alphabet alph, int len) {
+		char[] chars = new char[len];
+
+		for (int i = 0; i < len; i++)
+			chars[i] = alph.charAt(rand.nextInt(alph.getSize()));
+
+		chars[0] = chars[len - 1] = alph.charAt(alph.getSize() - 1);
+
+		return new String(chars);
+	} //END message
+
+} //END CipherTest
@@ -0,0 +1,249 @@
+package cipher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests that FileCipher decrypts the files it encrypts, with binary and text Alphabets, over file
+ * sizes on either side of block and region boundaries and with regions smaller than the file
+ * Each encrypted file is also compared with the output of the Cipher itself, so the padding and
+ * the last partial region are checked as well as the round trip.
+ * @author Noah Kime
+ */
+class FileCipherTest {
+
+	//The block size of the ciphers under test
+	private static final int BLOCK = 16;
+
+	//The region size, four blocks
+	private static final int REGION = 4 * BLOCK;
+
+	//File sizes at and around the block and region boundaries
+	private static final int[] SIZES = {0, 1, BLOCK - 1, BLOCK, BLOCK + 1, REGION - 1, REGION, REGION + 1,
+			2*REGION - 1, 2*REGION, 2*REGION + 1, 1000};
+
+	@TempDir
+	Path dir;
+
+
+	/**
+	 * Checks binary round trips over the byte Alphabet, with a given region size that is or is
+	 * not a whole number of blocks, including files ending in bytes that look like padding
+	 * @param regionSize The given region size
+	 * @throws IOException Thrown if a file cannot be read or written, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {1, BLOCK + 1, REGION, REGION + 5, FileCipher.DEFAULT_REGION_SIZE})
+	void binaryFilesRoundTrip(int regionSize) throws IOException {
+		SplittableRandom rand = new SplittableRandom(regionSize);
+		MatrixCipher cipher = new MatrixCipher(Alphabet.bytes(), BLOCK);
+		FileCipher files = new FileCipher(cipher, regionSize);
+
+		for (int size : SIZES) {
+			for (int tail = 0; tail < 3; tail++) {
+				byte[] data = new byte[size];
+				rand.nextBytes(data);
+
+				//01 END SOME FILES WITH A PAD MARK, OR A PAD MARK AND ZEROS
+				if (tail > 0 && size >= 3) {
+					Arrays.fill(data, size - 2, size, (byte) 0);
+					data[size - 1 - (tail - 1) * 2] = Cipher.PAD_MARK;
+				}
+
+				byte[] enc = roundTrip(files, data, size + "/" + tail);
+
+				assertEquals(size - size % BLOCK + BLOCK, enc.length);
+				assertArrayEquals(cipher.encrypt(data), enc, "size " + size);
+			}
+		}
+	} //END binaryFilesRoundTrip
+
+
+	/**
+	 * Checks text round trips over the default Alphabet and a Latin-1 Alphabet of characters
+	 * above 127, with a region size that is not a whole number of blocks
+	 * @throws IOException Thrown if a file cannot be read or written, a failure
+	 */
+	@Test
+	void textFilesRoundTrip() throws IOException {
+		SplittableRandom rand = new SplittableRandom(8);
+		StringBuilder latin = new StringBuilder(" ");
+
+		for (char c = 0xC0; c <= 0xFF; c++)
+			latin.append(c);
+
+		for (Alphabet alph : new Alphabet[] {new Alphabet(), new Alphabet(latin.toString())}) {
+			for (Cipher cipher : new Cipher[] {new MatrixCipher(alph, BLOCK), new AffineCipher(alph)}) {
+				FileCipher files = new FileCipher(cipher, REGION + 5);
+
+				for (int size : SIZES) {
+					String msg = (size == 0) ? "" : CipherTest.message(rand, alph, size);
+					byte[] data = msg.getBytes(StandardCharsets.ISO_8859_1);
+
+					byte[] enc = roundTrip(files, data, cipher.getClass().getSimpleName() + " " + size);
+					int blockSize = cipher.getBlockSize();
+
+					assertEquals((size + blockSize - 1) / blockSize * blockSize, enc.length);
+					assertEquals(cipher.encrypt(msg), new String(enc, StandardCharsets.ISO_8859_1), "size " + size);
+				}
+			}
+		}
+	} //END textFilesRoundTrip
+
+
+	/**
+	 * Checks that spaces inside a text file survive, even when whole regions are spaces or a
+	 * region ends with them, and that only the spaces ending the file are removed
+	 * @throws IOException Thrown if a file cannot be read or written, a failure
+	 */
+	@Test
+	void textPaddingIsTrimmedAcrossRegions() throws IOException {
+		MatrixCipher cipher = new MatrixCipher(new Alphabet(), BLOCK);
+		FileCipher files = new FileCipher(cipher, REGION);
+		String spaces = " ".repeat(3 * REGION);
+
+		String[] inner = {
+				"a" + spaces + "b",
+				"x".repeat(REGION - 3) + spaces.substring(0, 10) + "y",
+				spaces.substring(0, REGION) + "z",
+				"q" + spaces.substring(0, 2*REGION - 2) + "r",
+		};
+
+		for (String msg : inner)
+			roundTrip(files, msg.getBytes(StandardCharsets.ISO_8859_1), msg.length() + " chars");
+
+		//01 SPACES ENDING THE FILE ARE INDISTINGUISHABLE FROM PADDING
+		for (String msg : new String[] {"end" + spaces, spaces, "e" + spaces.substring(0, BLOCK - 1)}) {
+			Path in = write("trailing.txt", msg.getBytes(StandardCharsets.ISO_8859_1));
+			Path enc = dir.resolve("trailing.enc");
+			Path dec = dir.resolve("trailing.dec");
+
+			files.encrypt(in, enc);
+			files.decrypt(enc, dec);
+
+			assertEquals(msg.trim(), Files.readString(dec, StandardCharsets.ISO_8859_1));
+		}
+	} //END textPaddingIsTrimmedAcrossRegions
+
+
+	/**
+	 * Checks that the number of regions and bytes reported matches the files, that encrypting
+	 * replaces a longer previous output, and that the encryption does not depend on the region
+	 * size
+	 * @throws IOException Thrown if a file cannot be read or written, a failure
+	 */
+	@Test
+	void reportMatchesFiles() throws IOException {
+		MatrixCipher cipher = new MatrixCipher(Alphabet.bytes(), BLOCK);
+		byte[] data = new byte[10 * REGION + 3];
+		new SplittableRandom(9).nextBytes(data);
+
+		Path in = write("data.bin", data);
+		Path enc = write("data.enc", new byte[100 * REGION]);
+		Path small = dir.resolve("small.enc");
+
+		FileCipher.Report r = new FileCipher(cipher, REGION).encrypt(in, enc);
+		new FileCipher(cipher).encrypt(in, small);
+
+		assertEquals(data.length, r.getBytesIn());
+		assertEquals(10 * REGION + BLOCK, r.getBytesOut());
+		assertEquals(11, r.getRegions());
+		assertEquals(r.getBytesOut(), Files.size(enc));
+		assertArrayEquals(Files.readAllBytes(small), Files.readAllBytes(enc));
+
+		FileCipher.Report d = new FileCipher(cipher, 3 * REGION).decrypt(enc, dir.resolve("data.dec"));
+		assertEquals(10 * REGION + BLOCK, d.getBytesIn());
+		assertEquals(data.length, d.getBytesOut());
+		assertEquals(4, d.getRegions());
+	} //END reportMatchesFiles
+
+
+	/**
+	 * Checks that binary files that are not a whole number of blocks or are not correctly padded
+	 * are rejected
+	 * @throws IOException Thrown if a file cannot be read or written, a failure
+	 */
+	@Test
+	void badBinaryFilesAreRejected() throws IOException {
+		MatrixCipher cipher = new MatrixCipher(Alphabet.bytes(), BLOCK);
+		FileCipher files = new FileCipher(cipher, REGION);
+		Path out = dir.resolve("bad.dec");
+
+		assertThrows(IOException.class, () -> files.decrypt(write("empty.enc", new byte[0]), out));
+		assertThrows(IOException.class, () -> files.decrypt(write("short.enc", new byte[BLOCK + 1]), out));
+
+		//01 DROPPING THE PADDING BLOCK LEAVES DATA ENDING IN NEITHER A MARK NOR A ZERO
+		byte[] data = new byte[2 * BLOCK];
+		Arrays.fill(data, (byte) 'A');
+		byte[] enc = cipher.encrypt(data);
+
+		Path cut = write("cut.enc", Arrays.copyOf(enc, 2 * BLOCK));
+		assertThrows(IOException.class, () -> files.decrypt(cut, out));
+	} //END badBinaryFilesAreRejected
+
+
+	/**
+	 * Checks that region sizes are rounded down to whole blocks, at least one, and validated, and
+	 * that Alphabets with characters above 255 are rejected
+	 */
+	@Test
+	void regionSizeIsWholeBlocks() {
+		FileCipher files = new FileCipher(new MatrixCipher(Alphabet.bytes(), BLOCK), REGION + 5);
+
+		assertEquals(REGION, files.getRegionSize());
+		files.setRegionSize(BLOCK - 1);
+		assertEquals(BLOCK, files.getRegionSize());
+		assertThrows(IllegalArgumentException.class, () -> files.setRegionSize(0));
+		assertEquals(BLOCK, files.getRegionSize());
+
+		assertThrows(IllegalArgumentException.class, () -> new FileCipher(new AffineCipher(new Alphabet()), -1));
+		assertThrows(IllegalArgumentException.class, () -> new FileCipher(new AffineCipher(CipherTest.alphabet(30))));
+	} //END regionSizeIsWholeBlocks
+
+
+	/**
+	 * Encrypts and decrypts given contents through files and checks the decrypted file is
+	 * identical
+	 * @param files The FileCipher under test
+	 * @param data The given contents
+	 * @param what A description of the contents for failure messages
+	 * @return The contents of the encrypted file
+	 * @throws IOException Thrown if a file cannot be read or written, a failure
+	 */
+	private byte[] roundTrip(FileCipher files, byte[] data, String what) throws IOException {
+		Path in = write("plain", data);
+		Path enc = dir.resolve("enc");
+		Path dec = dir.resolve("dec");
+
+		files.encrypt(in, enc);
+		files.decrypt(enc, dec);
+
+		assertArrayEquals(data, Files.readAllBytes(dec), what);
+
+		return Files.readAllBytes(enc);
+	} //END roundTrip
+
+
+	/**
+	 * Writes given contents to a file in the temporary directory
+	 * @param name The name of the file
+	 * @param data The given contents
+	 * @return The path of the file
+	 * @throws IOException Thrown if the file cannot be written
+	 */
+	private Path write(String name, byte[] data) throws IOException {
+		return Files.write(dir.resolve(name), data);
+	} //END write
+
+} //END FileCipherTest
@@ -0,0 +1,257 @@
+package cipher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests that KeyCodec reads back the keys it writes, for both kinds of cipher and residues one
+ * and two bytes wide, and that it rejects keys that are corrupted, of another format or version,
+ * or cut short
+ * @author Noah Kime
+ */
+class KeyCodecTest {
+
+	/**
+	 * Checks that a VigenereCipher and a MatrixCipher over an Alphabet of a given size are read
+	 * back as ciphers of the same kind that encrypt and decrypt as the originals did
+	 * @param size The size of the Alphabet
+	 * @throws IOException Thrown if a key is not read back, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 6, 95, 97, 256, 257, 46349})
+	void keysRoundTrip(int size) throws IOException {
+		SplittableRandom rand = new SplittableRandom(size);
+		Alphabet alph = CipherTest.alphabet(size);
+
+		for (VigenereCipher c : new VigenereCipher[] {new VigenereCipher(alph, 5), new MatrixCipher(alph, 12)}) {
+			ByteBuffer buf = ByteBuffer.allocate(KeyCodec.size(c) + 3);
+
+			//01 WRITE THE KEY PAST THE START OF THE BUFFER
+			buf.position(3);
+			KeyCodec.write(c, buf);
+			assertEquals(buf.capacity(), buf.position());
+
+			//02 READ IT BACK FROM THE SAME POSITION
+			buf.position(3);
+			VigenereCipher d = KeyCodec.read(buf);
+
+			assertFalse(buf.hasRemaining());
+			checkSame(c, d, rand);
+		}
+	} //END keysRoundTrip
+
+
+	/**
+	 * Checks keys over the byte Alphabet and the default Alphabet, and that writing a key to a
+	 * stream writes the same bytes as writing it to a buffer
+	 * @throws IOException Thrown if a key is not written or read back, a failure
+	 */
+	@Test
+	void byteAndDefaultAlphabetsRoundTrip() throws IOException {
+		SplittableRandom rand = new SplittableRandom(15);
+
+		for (Alphabet alph : new Alphabet[] {Alphabet.bytes(), new Alphabet()}) {
+			MatrixCipher c = new MatrixCipher(alph, 9);
+			ByteBuffer buf = ByteBuffer.allocate(KeyCodec.size(c));
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+			KeyCodec.write(c, buf);
+			KeyCodec.write(c, out);
+			assertArrayEquals(buf.array(), out.toByteArray());
+
+			VigenereCipher d = KeyCodec.read(ByteBuffer.wrap(out.toByteArray()));
+			assertEquals(alph.isBytes(), d.alph.isBytes());
+			checkSame(c, d, rand);
+		}
+	} //END byteAndDefaultAlphabetsRoundTrip
+
+
+	/**
+	 * Checks that readAll reads several concatenated keys from a file in order, sharing one
+	 * Alphabet between consecutive keys over the same characters
+	 * @param dir A temporary directory for the file
+	 * @throws IOException Thrown if the keys are not written or read back, a failure
+	 */
+	@Test
+	void readAllReadsEveryKey(@TempDir Path dir) throws IOException {
+		SplittableRandom rand = new SplittableRandom(16);
+		Alphabet small = CipherTest.alphabet(30);
+		Alphabet large = CipherTest.alphabet(300);
+		VigenereCipher[] keys = {
+				new VigenereCipher(small, 4),
+				new MatrixCipher(small, 6),
+				new MatrixCipher(large, 3),
+				new VigenereCipher(small, 1),
+		};
+
+		//01 WRITE EVERY KEY TO ONE FILE
+		Path file = dir.resolve("keys.bin");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		for (VigenereCipher c : keys)
+			KeyCodec.write(c, out);
+
+		Files.write(file, out.toByteArray());
+
+		//02 READ THEM BACK, FROM THE FILE AND FROM A BUFFER
+		List<VigenereCipher> read = KeyCodec.readAll(file);
+
+		assertEquals(keys.length, read.size());
+		assertEquals(keys.length, KeyCodec.readAll(ByteBuffer.wrap(out.toByteArray())).size());
+
+		for (int i = 0; i < keys.length; i++)
+			checkSame(keys[i], read.get(i), rand);
+
+		assertSame(read.get(0).alph, read.get(1).alph);
+		assertSame(read.get(0).modA, read.get(1).modA);
+		assertNotSame(read.get(2).alph, read.get(3).alph);
+
+		assertTrue(KeyCodec.readAll(ByteBuffer.allocate(0)).isEmpty());
+	} //END readAllReadsEveryKey
+
+
+	/**
+	 * Checks that changing any one bit of the parameters or the checksum of a key fails its
+	 * checksum, and leaves the buffer where it was
+	 */
+	@Test
+	void corruptedKeyIsRejected() {
+		MatrixCipher c = new MatrixCipher(CipherTest.alphabet(97), 5);
+		byte[] key = bytes(c);
+		int params = 4 + 2 + 1 + 1 + 4 + 2*97;
+
+		for (int i = params; i < key.length; i++) {
+			for (int bit = 0; bit < 8; bit += 3) {
+				byte[] bad = key.clone();
+				bad[i] ^= (byte) (1 << bit);
+
+				ByteBuffer buf = ByteBuffer.wrap(bad);
+				IOException e = assertThrows(IOException.class, () -> KeyCodec.read(buf), "byte " + i);
+
+				assertEquals(0, buf.position());
+
+				if (i >= params + 8)
+					assertEquals("Key checksum mismatch", e.getMessage(), "byte " + i);
+			}
+		}
+	} //END corruptedKeyIsRejected
+
+
+	/**
+	 * Checks that a key with a bad magic number, an unknown version or a bad header is rejected
+	 * before anything else is read, and that a bad key in a file fails readAll
+	 */
+	@Test
+	void badHeaderIsRejected() {
+		VigenereCipher c = new VigenereCipher(CipherTest.alphabet(12), 3);
+		byte[] key = bytes(c);
+
+		byte[] magic = key.clone();
+		magic[0] = 'X';
+		assertEquals("Not a key: bad magic number",
+				assertThrows(IOException.class, () -> KeyCodec.read(ByteBuffer.wrap(magic))).getMessage());
+
+		for (short version : new short[] {0, 2, -1}) {
+			byte[] bad = key.clone();
+			ByteBuffer.wrap(bad).putShort(4, version);
+
+			assertEquals("Unsupported key version",
+					assertThrows(IOException.class, () -> KeyCodec.read(ByteBuffer.wrap(bad))).getMessage());
+		}
+
+		byte[] kind = key.clone();
+		kind[6] = 2;
+		assertEquals("Malformed key header",
+				assertThrows(IOException.class, () -> KeyCodec.read(ByteBuffer.wrap(kind))).getMessage());
+
+		byte[] width = key.clone();
+		width[7] = 3;
+		assertEquals("Malformed key header",
+				assertThrows(IOException.class, () -> KeyCodec.read(ByteBuffer.wrap(width))).getMessage());
+
+		//01 A GOOD KEY FOLLOWED BY A BAD ONE FAILS THE WHOLE READ
+		ByteBuffer both = ByteBuffer.allocate(2 * key.length).put(key).put(magic).flip();
+		assertThrows(IOException.class, () -> KeyCodec.readAll(both));
+	} //END badHeaderIsRejected
+
+
+	/**
+	 * Checks that every nonempty proper prefix of a key is rejected as an IOException rather than
+	 * as a BufferUnderflowException, and that an Alphabet or cipher size too large for the buffer
+	 * is rejected before it is allocated
+	 */
+	@Test
+	void truncatedKeyIsRejected() {
+		MatrixCipher c = new MatrixCipher(CipherTest.alphabet(300), 4);
+		byte[] key = bytes(c);
+
+		for (int len = 0; len < key.length; len++) {
+			ByteBuffer buf = ByteBuffer.wrap(key, 0, len);
+
+			assertThrows(IOException.class, () -> KeyCodec.read(buf), "length " + len);
+			if (len > 0)
+				assertThrows(IOException.class, () -> KeyCodec.readAll(buf), "length " + len);
+		}
+
+		byte[] alph = key.clone();
+		ByteBuffer.wrap(alph).putInt(8, Integer.MAX_VALUE);
+		assertEquals("Malformed key: bad Alphabet size",
+				assertThrows(IOException.class, () -> KeyCodec.read(ByteBuffer.wrap(alph))).getMessage());
+
+		byte[] size = key.clone();
+		ByteBuffer.wrap(size).putInt(12 + 2*300, 1 << 20);
+		assertEquals("Malformed key: bad cipher size",
+				assertThrows(IOException.class, () -> KeyCodec.read(ByteBuffer.wrap(size))).getMessage());
+	} //END truncatedKeyIsRejected
+
+
+	/**
+	 * Returns the key of a given cipher as bytes
+	 * @param c The given cipher
+	 * @return The bytes of its key
+	 */
+	private static byte[] bytes(VigenereCipher c) {
+		ByteBuffer buf = ByteBuffer.allocate(KeyCodec.size(c));
+
+		KeyCodec.write(c, buf);
+
+		return buf.array();
+	} //END bytes
+
+
+	/**
+	 * Checks that a cipher read back is of the same kind, size and Alphabet as the one written,
+	 * and encrypts and decrypts random messages as it does
+	 * @param c The cipher written
+	 * @param d The cipher read back
+	 * @param rand The random number generator
+	 */
+	private static void checkSame(VigenereCipher c, VigenereCipher d, SplittableRandom rand) {
+		assertEquals(c.getClass(), d.getClass());
+		assertEquals(c.cipherSize, d.cipherSize);
+		assertEquals(c.alph.getSize(), d.alph.getSize());
+
+		for (int i = 0; i < c.alph.getSize(); i++)
+			assertEquals(c.alph.charAt(i), d.alph.charAt(i));
+
+		for (int len : new int[] {1, c.cipherSize, 3*c.cipherSize + 1}) {
+			String msg = CipherTest.message(rand, c.alph, len);
+
+			assertEquals(c.encrypt(msg), d.encrypt(msg));
+			assertEquals(msg, d.decrypt(c.encrypt(msg)));
+		}
+	} //END checkSame
+
+} //END KeyCodecTest
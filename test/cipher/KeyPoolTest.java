@@ -0,0 +1,311 @@
+package cipher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the refilling, accounting and failure handling of KeyPool with factories that count the
+ * Ciphers they construct, block until released, or throw
+ * Every wait is for a state the pool must reach, bounded by a generous timeout, so the tests do
+ * not depend on how fast the workers run.
+ * @author Noah Kime
+ */
+class KeyPoolTest {
+
+	//The longest any test waits for the workers
+	private static final long TIMEOUT_MILLIS = 30000;
+
+	private static final Alphabet ALPH = new Alphabet();
+
+
+	/**
+	 * Checks that a pool fills to its high watermark, is not refilled while above its low
+	 * watermark, and is refilled to its high watermark once a take reaches the low watermark
+	 * @throws InterruptedException Thrown if the test thread is interrupted
+	 */
+	@Test
+	void refillsBetweenWatermarks() throws InterruptedException {
+		AtomicInteger made = new AtomicInteger();
+		Supplier<AffineCipher> factory = () -> {
+			made.incrementAndGet();
+			return new AffineCipher(ALPH);
+		};
+
+		try (KeyPool<AffineCipher> pool = new KeyPool<>(factory, 2, 5)) {
+			//01 THE POOL FILLS TO ITS HIGH WATERMARK AND STOPS
+			await(() -> pool.getMetrics().getDepth() == 5);
+			Thread.sleep(50);
+			assertEquals(5, made.get());
+			assertEquals(5, pool.getMetrics().getGenerated());
+
+			//02 TAKING DOWN TO ONE ABOVE THE LOW WATERMARK DOES NOT REFILL IT
+			pool.take();
+			pool.take();
+			Thread.sleep(50);
+			assertEquals(3, pool.getMetrics().getDepth());
+			assertEquals(5, made.get());
+
+			//03 REACHING THE LOW WATERMARK REFILLS IT TO THE HIGH WATERMARK
+			pool.take();
+			await(() -> pool.getMetrics().getDepth() == 5);
+			Thread.sleep(50);
+			assertEquals(8, made.get());
+
+			KeyPool.Metrics m = pool.getMetrics();
+			assertEquals(3, m.getTaken());
+			assertEquals(0, m.getMisses());
+			assertEquals(0, m.getFailures());
+			assertEquals(0, m.getDropped());
+			assertEquals(0.0, m.getMissRate());
+		}
+	} //END refillsBetweenWatermarks
+
+
+	/**
+	 * Checks that every Cipher taken is a distinct instance
+	 */
+	@Test
+	void ciphersAreHandedOutOnce() {
+		try (KeyPool<AffineCipher> pool = new KeyPool<>(() -> new AffineCipher(ALPH), 4, 16)) {
+			List<AffineCipher> taken = new ArrayList<>();
+
+			for (int i = 0; i < 200; i++) {
+				AffineCipher c = pool.take();
+
+				for (AffineCipher d : taken)
+					assertNotSame(d, c);
+
+				taken.add(c);
+			}
+
+			assertEquals(200, pool.getMetrics().getTaken());
+		}
+	} //END ciphersAreHandedOutOnce
+
+
+	/**
+	 * Checks that a take from an empty pool is counted as a miss and constructs its Cipher on the
+	 * calling thread, while the worker is held inside the factory
+	 * @throws InterruptedException Thrown if the test thread is interrupted
+	 */
+	@Test
+	void takeFromEmptyPoolIsMiss() throws InterruptedException {
+		Thread caller = Thread.currentThread();
+		CountDownLatch release = new CountDownLatch(1);
+		CountDownLatch entered = new CountDownLatch(1);
+		AtomicInteger onCaller = new AtomicInteger();
+
+		Supplier<AffineCipher> factory = () -> {
+			if (Thread.currentThread() == caller) {
+				onCaller.incrementAndGet();
+			}
+			else {
+				entered.countDown();
+
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+			}
+
+			return new AffineCipher(ALPH);
+		};
+
+		try (KeyPool<AffineCipher> pool = new KeyPool<>(factory, 1, 4)) {
+			entered.await();
+
+			for (int i = 0; i < 3; i++)
+				assertNotNull(pool.take());
+
+			KeyPool.Metrics m = pool.getMetrics();
+			assertEquals(3, onCaller.get());
+			assertEquals(3, m.getTaken());
+			assertEquals(3, m.getMisses());
+			assertEquals(1.0, m.getMissRate());
+			assertEquals(0, m.getGenerated());
+
+			//01 ONCE RELEASED THE WORKER FILLS THE POOL AND TAKES STOP MISSING
+			release.countDown();
+			await(() -> pool.getMetrics().getDepth() == 4);
+
+			pool.take();
+			assertEquals(3, pool.getMetrics().getMisses());
+			assertEquals(0.75, pool.getMetrics().getMissRate());
+		}
+		finally {
+			release.countDown();
+		}
+	} //END takeFromEmptyPoolIsMiss
+
+
+	/**
+	 * Checks that a worker whose factory fails waits at least twice as long after each failure,
+	 * up to MAX_BACKOFF_MILLIS, stops after MAX_FAILURES consecutive failures, and that take()
+	 * then hands out the Ciphers left in the pool before throwing the last failure
+	 * Runs for about six seconds, the sum of the backoffs.
+	 * @throws InterruptedException Thrown if the test thread is interrupted
+	 */
+	@Test
+	void failingFactoryBacksOffAndStops() throws InterruptedException {
+		AtomicInteger calls = new AtomicInteger();
+		List<Long> failedAt = new ArrayList<>();
+		RuntimeException failure = new IllegalStateException("no entropy");
+
+		Supplier<AffineCipher> factory = () -> {
+			if (calls.incrementAndGet() <= 3)
+				return new AffineCipher(ALPH);
+
+			synchronized (failedAt) {
+				failedAt.add(System.nanoTime());
+			}
+
+			throw failure;
+		};
+
+		List<Thread> workers = new ArrayList<>();
+		ThreadFactory threads = r -> {
+			Thread t = new Thread(r, "KeyPoolTest-worker");
+			t.setDaemon(true);
+			workers.add(t);
+			return t;
+		};
+
+		try (KeyPool<AffineCipher> pool = new KeyPool<>(factory, 1, 3, 1, threads)) {
+			//01 FILL THE POOL, THEN TAKE TO THE LOW WATERMARK SO EVERY REFILL FAILS
+			await(() -> pool.getMetrics().getDepth() == 3);
+			pool.take();
+			pool.take();
+
+			workers.get(0).join(TIMEOUT_MILLIS);
+			assertFalse(workers.get(0).isAlive());
+			assertEquals(KeyPool.MAX_FAILURES, pool.getMetrics().getFailures());
+
+			//02 EACH WAIT IS AT LEAST THE DOUBLED BACKOFF
+			synchronized (failedAt) {
+				assertEquals(KeyPool.MAX_FAILURES, failedAt.size());
+
+				long backoff = 1;
+				for (int i = 1; i < failedAt.size(); i++) {
+					long waited = failedAt.get(i) - failedAt.get(i - 1);
+
+					assertTrue(waited >= backoff * 1000000, "wait " + i + " was " + waited + "ns");
+					backoff = Math.min(2 * backoff, KeyPool.MAX_BACKOFF_MILLIS);
+				}
+			}
+
+			//03 THE LAST CIPHER IS STILL HANDED OUT, THEN THE FAILURE IS RETHROWN FOREVER
+			assertNotNull(pool.take());
+
+			for (int i = 0; i < 3; i++) {
+				IllegalStateException e = assertThrows(IllegalStateException.class, pool::take);
+				assertSame(failure, e.getCause());
+			}
+
+			assertEquals(3 + KeyPool.MAX_FAILURES, calls.get());
+			assertEquals(0, pool.getMetrics().getMisses());
+		}
+	} //END failingFactoryBacksOffAndStops
+
+
+	/**
+	 * Checks that failures separated by successes never stop the workers
+	 */
+	@Test
+	void successResetsFailures() {
+		AtomicInteger calls = new AtomicInteger();
+
+		Supplier<AffineCipher> factory = () -> {
+			if (calls.incrementAndGet() % 2 == 0)
+				throw new IllegalStateException("every other call");
+
+			return new AffineCipher(ALPH);
+		};
+
+		try (KeyPool<AffineCipher> pool = new KeyPool<>(factory, 2, 3 * KeyPool.MAX_FAILURES)) {
+			await(() -> pool.getMetrics().getDepth() == 3 * KeyPool.MAX_FAILURES);
+
+			KeyPool.Metrics m = pool.getMetrics();
+			assertTrue(m.getFailures() >= 3 * KeyPool.MAX_FAILURES - 1);
+			assertEquals(3 * KeyPool.MAX_FAILURES, m.getGenerated());
+
+			for (int i = 0; i < 10; i++)
+				assertNotNull(pool.take());
+		}
+	} //END successResetsFailures
+
+
+	/**
+	 * Checks that closing a pool stops every worker, discards its Ciphers, and makes take() throw
+	 * @throws InterruptedException Thrown if the test thread is interrupted
+	 */
+	@Test
+	void closeStopsWorkers() throws InterruptedException {
+		List<Thread> threads = new ArrayList<>();
+		ThreadFactory named = r -> {
+			Thread t = new Thread(r, "KeyPoolTest-worker");
+			t.setDaemon(true);
+			threads.add(t);
+			return t;
+		};
+
+		KeyPool<AffineCipher> pool = new KeyPool<>(() -> new AffineCipher(ALPH), 2, 6, 3, named);
+		await(() -> pool.getMetrics().getDepth() == 6);
+
+		pool.close();
+
+		assertEquals(3, threads.size());
+		for (Thread t : threads) {
+			t.join(TIMEOUT_MILLIS);
+			assertFalse(t.isAlive());
+		}
+
+		assertEquals(0, pool.getMetrics().getDepth());
+		assertThrows(IllegalStateException.class, pool::take);
+
+		pool.close();
+	} //END closeStopsWorkers
+
+
+	/**
+	 * Checks that the watermarks and number of workers are validated
+	 */
+	@Test
+	void badArgumentsAreRejected() {
+		Supplier<AffineCipher> factory = () -> new AffineCipher(ALPH);
+		ThreadFactory threads = Thread::new;
+
+		assertThrows(IllegalArgumentException.class, () -> new KeyPool<>(factory, -1, 4));
+		assertThrows(IllegalArgumentException.class, () -> new KeyPool<>(factory, 4, 4));
+		assertThrows(IllegalArgumentException.class, () -> new KeyPool<>(factory, 5, 4));
+		assertThrows(IllegalArgumentException.class, () -> new KeyPool<>(factory, 1, 4, 0, threads));
+	} //END badArgumentsAreRejected
+
+
+	/**
+	 * Waits until a given condition holds, failing if it does not within TIMEOUT_MILLIS
+	 * @param condition The given condition
+	 */
+	private static void await(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TIMEOUT_MILLIS * 1000000;
+
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline)
+				fail("Timed out waiting for the KeyPool");
+
+			Thread.onSpinWait();
+			Thread.yield();
+		}
+	} //END await
+
+} //END KeyPoolTest
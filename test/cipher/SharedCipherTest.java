@@ -0,0 +1,151 @@
+package cipher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that one instance of each cipher, shared by many threads without locking, gives every
+ * thread the results it gives a single thread
+ * Every thread encrypts and decrypts the same messages in its own order, all released at once,
+ * and each result is compared with the one computed beforehand on the test thread.
+ * @author Noah Kime
+ */
+class SharedCipherTest {
+
+	private static final int THREADS = 8;
+	private static final int MESSAGES = 12;
+	private static final int ROUNDS = 20;
+
+	private ExecutorService pool;
+
+
+	/**
+	 * Starts the threads sharing each cipher
+	 */
+	@BeforeEach
+	void startPool() {
+		pool = Executors.newFixedThreadPool(THREADS);
+	} //END startPool
+
+
+	/**
+	 * Stops the threads
+	 */
+	@AfterEach
+	void stopPool() {
+		pool.shutdownNow();
+	} //END stopPool
+
+
+	/**
+	 * Checks the ciphers over a modular Alphabet
+	 * @throws Exception Thrown if a thread fails or sees a wrong result
+	 */
+	@Test
+	void modularCiphersAreShareable() throws Exception {
+		Alphabet alph = new Alphabet();
+		VigenereCipher vigenere = new VigenereCipher(alph, 16);
+		MatrixCipher matrix = new MatrixCipher(alph, 24);
+		AffineCipher affine = new AffineCipher(alph);
+
+		check(vigenere::encrypt, vigenere::decrypt, messages(alph));
+		check(matrix::encrypt, matrix::decrypt, messages(alph));
+		check(matrix::encryptParallel, matrix::decryptParallel, messages(alph));
+		check(affine::encrypt, affine::decrypt, messages(alph));
+	} //END modularCiphersAreShareable
+
+
+	/**
+	 * Checks the ciphers over bytes and code points
+	 * @throws Exception Thrown if a thread fails or sees a wrong result
+	 */
+	@Test
+	void byteAndUnicodeCiphersAreShareable() throws Exception {
+		GF256Cipher gf = new GF256Cipher(16);
+		MatrixCipher bytes = new MatrixCipher(Alphabet.bytes(), 16);
+		UnicodeCipher unicode = new UnicodeCipher(8);
+
+		check(gf::encrypt, gf::decrypt, messages(Alphabet.bytes()));
+		check(bytes::encrypt, bytes::decrypt, messages(Alphabet.bytes()));
+		check(unicode::encrypt, unicode::decrypt, messages(new Alphabet("一丁丂éabc")));
+	} //END byteAndUnicodeCiphersAreShareable
+
+
+	/**
+	 * Encrypts and decrypts given messages on the test thread and then on every thread at once,
+	 * checking that the results agree
+	 * @param encrypt The encryption of the shared cipher
+	 * @param decrypt The decryption of the shared cipher
+	 * @param plain The given messages
+	 * @throws Exception Thrown if a thread fails or sees a wrong result
+	 */
+	private void check(UnaryOperator<String> encrypt, UnaryOperator<String> decrypt, String[] plain) throws Exception {
+		//01 COMPUTE EVERY RESULT ON THIS THREAD
+		String[] expected = new String[plain.length];
+
+		for (int i = 0; i < plain.length; i++) {
+			expected[i] = encrypt.apply(plain[i]);
+			assertEquals(plain[i], decrypt.apply(expected[i]));
+		}
+
+		//02 RELEASE EVERY THREAD AT ONCE, EACH STARTING AT A DIFFERENT MESSAGE
+		CountDownLatch gate = new CountDownLatch(1);
+		List<Future<Void>> results = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			int first = t;
+
+			Callable<Void> task = () -> {
+				gate.await();
+
+				for (int r = 0; r < ROUNDS; r++) {
+					for (int k = 0; k < plain.length; k++) {
+						int i = (first + k) % plain.length;
+
+						assertEquals(expected[i], encrypt.apply(plain[i]));
+						assertEquals(plain[i], decrypt.apply(expected[i]));
+					}
+				}
+
+				return null;
+			};
+
+			results.add(pool.submit(task));
+		}
+
+		gate.countDown();
+
+		for (Future<Void> f : results)
+			f.get();
+	} //END check
+
+
+	/**
+	 * Returns random messages of several lengths over a given Alphabet
+	 * @param alph The given Alphabet
+	 * @return The messages
+	 */
+	private static String[] messages(Alphabet alph) {
+		SplittableRandom rand = new SplittableRandom(17);
+		String[] plain = new String[MESSAGES];
+
+		for (int i = 0; i < MESSAGES; i++)
+			plain[i] = CipherTest.message(rand, alph, 1 + rand.nextInt(4000));
+
+		return plain;
+	} //END messages
+
+} //END SharedCipherTest
@@ -0,0 +1,211 @@
+package cipher.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import cipher.Alphabet;
+import cipher.MatrixCipher;
+
+/**
+ * Tests CipherServer over loopback with the JDK's HttpClient, on a free port with a small maximum
+ * body: round trips for every type of key, the status of every kind of bad request, and bodies
+ * over the maximum whether their length is declared or they are chunked
+ * @author Noah Kime
+ */
+class CipherServerTest {
+
+	//The maximum body length of the server under test
+	private static final int MAX_BODY = 256;
+
+	private static final String LOOPBACK = "127.0.0.1";
+
+	private static final String MESSAGE = "Attack at dawn! Bring 12 {ladders}, 3 ropes & a map.";
+
+	private CipherServer server;
+	private HttpClient client;
+
+
+	/**
+	 * Starts a CipherServer on a free loopback port and a client for it
+	 * @throws IOException Thrown if the server cannot be bound
+	 */
+	@BeforeEach
+	void start() throws IOException {
+		server = new CipherServer(new InetSocketAddress(LOOPBACK, 0), new Alphabet(), MAX_BODY);
+		server.start();
+		client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	} //END start
+
+
+	/**
+	 * Stops the client and the server
+	 */
+	@AfterEach
+	void stop() {
+		client.close();
+		server.close();
+	} //END stop
+
+
+	/**
+	 * Checks that a key of a given type is created, encrypts and decrypts bodies, and is deleted,
+	 * after which it is unknown
+	 * @param type The given type of key
+	 * @throws Exception Thrown if a request fails, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = {"affine", "vigenere", "matrix"})
+	void keyRoundTrips(String type) throws Exception {
+		HttpResponse<String> created = send("POST", "/keys?type=" + type, BodyPublishers.noBody());
+		assertEquals(201, created.statusCode());
+
+		String id = created.body();
+
+		HttpResponse<String> enc = send("POST", "/encrypt/" + id, BodyPublishers.ofString(MESSAGE));
+		assertEquals(200, enc.statusCode());
+		assertTrue(enc.headers().firstValue("Content-Type").orElse("").startsWith("text/plain"));
+
+		HttpResponse<String> dec = send("POST", "/decrypt/" + id, BodyPublishers.ofString(enc.body()));
+		assertEquals(200, dec.statusCode());
+		assertEquals(MESSAGE, dec.body());
+
+		//01 A DELETED KEY IS UNKNOWN
+		assertEquals(204, send("DELETE", "/keys/" + id, BodyPublishers.noBody()).statusCode());
+		assertEquals(404, send("POST", "/encrypt/" + id, BodyPublishers.ofString(MESSAGE)).statusCode());
+		assertEquals(404, send("DELETE", "/keys/" + id, BodyPublishers.noBody()).statusCode());
+	} //END keyRoundTrips
+
+
+	/**
+	 * Checks that a key added directly encrypts over HTTP exactly as its Cipher does
+	 * @throws Exception Thrown if a request fails, a failure
+	 */
+	@Test
+	void addedKeyMatchesCipher() throws Exception {
+		MatrixCipher cipher = new MatrixCipher(new Alphabet(), 8);
+		String id = server.addKey(cipher);
+
+		HttpResponse<String> enc = send("POST", "/encrypt/" + id, BodyPublishers.ofString(MESSAGE));
+		assertEquals(cipher.encrypt(MESSAGE), enc.body());
+
+		HttpResponse<String> dec = send("POST", "/decrypt/" + id, BodyPublishers.ofString(enc.body()));
+		assertEquals(MESSAGE, dec.body());
+	} //END addedKeyMatchesCipher
+
+
+	/**
+	 * Checks that unknown keys are answered with 404, wrong methods with 405 and unknown key types
+	 * with 400
+	 * @throws Exception Thrown if a request fails, a failure
+	 */
+	@Test
+	void badRequestsAreRefused() throws Exception {
+		String id = server.newKey("affine");
+
+		assertEquals(404, send("POST", "/encrypt/no-such-key", BodyPublishers.ofString(MESSAGE)).statusCode());
+		assertEquals(404, send("POST", "/decrypt/no-such-key", BodyPublishers.ofString(MESSAGE)).statusCode());
+		assertEquals(404, send("DELETE", "/keys/no-such-key", BodyPublishers.noBody()).statusCode());
+
+		assertEquals(405, send("GET", "/encrypt/" + id, BodyPublishers.noBody()).statusCode());
+		assertEquals(405, send("PUT", "/decrypt/" + id, BodyPublishers.ofString(MESSAGE)).statusCode());
+		assertEquals(405, send("GET", "/keys", BodyPublishers.noBody()).statusCode());
+		assertEquals(405, send("POST", "/keys/" + id, BodyPublishers.noBody()).statusCode());
+		assertEquals(405, send("DELETE", "/keys", BodyPublishers.noBody()).statusCode());
+
+		assertEquals(400, send("POST", "/keys?type=rot13", BodyPublishers.noBody()).statusCode());
+		assertEquals(400, send("POST", "/keys", BodyPublishers.noBody()).statusCode());
+		assertEquals(400, send("POST", "/keys?kind=matrix", BodyPublishers.noBody()).statusCode());
+
+		//01 THE KEY SURVIVES THE BAD REQUESTS
+		assertEquals(200, send("POST", "/encrypt/" + id, BodyPublishers.ofString(MESSAGE)).statusCode());
+	} //END badRequestsAreRefused
+
+
+	/**
+	 * Checks that bodies up to the maximum are accepted and longer ones refused with 413, whether
+	 * their Content-Length is declared or they are chunked, and that the client can continue
+	 * afterwards
+	 * @throws Exception Thrown if a request fails, a failure
+	 */
+	@Test
+	void overLimitBodiesAreRefused() throws Exception {
+		String id = server.newKey("vigenere");
+		String atLimit = "x".repeat(MAX_BODY - 1) + "y";
+		String overLimit = atLimit + "z";
+		String farOver = "w".repeat(8 * MAX_BODY);
+
+		//01 DECLARED LENGTHS
+		assertEquals(200, send("POST", "/encrypt/" + id, BodyPublishers.ofString(atLimit)).statusCode());
+		assertEquals(413, send("POST", "/encrypt/" + id, BodyPublishers.ofString(overLimit)).statusCode());
+		assertEquals(413, send("POST", "/decrypt/" + id, BodyPublishers.ofString(farOver)).statusCode());
+
+		//02 CHUNKED BODIES, WHOSE LENGTH IS UNKNOWN UNTIL READ
+		assertEquals(200, send("POST", "/encrypt/" + id, chunked(atLimit)).statusCode());
+		assertEquals(413, send("POST", "/encrypt/" + id, chunked(overLimit)).statusCode());
+		assertEquals(413, send("POST", "/decrypt/" + id, chunked(farOver)).statusCode());
+
+		//03 THE SERVER STILL ANSWERS THE SAME CLIENT
+		HttpResponse<String> enc = send("POST", "/encrypt/" + id, chunked(MESSAGE));
+		assertEquals(200, enc.statusCode());
+		assertEquals(MESSAGE, send("POST", "/decrypt/" + id, BodyPublishers.ofString(enc.body())).body());
+	} //END overLimitBodiesAreRefused
+
+
+	/**
+	 * Checks that the maximum body length is validated
+	 */
+	@Test
+	void badMaximumIsRejected() {
+		InetSocketAddress any = new InetSocketAddress(LOOPBACK, 0);
+
+		assertThrows(IllegalArgumentException.class, () -> new CipherServer(any, new Alphabet(), -1));
+		assertThrows(IllegalArgumentException.class, () -> new CipherServer(any, new Alphabet(), Integer.MAX_VALUE));
+	} //END badMaximumIsRejected
+
+
+	/**
+	 * Sends a request with a given method, path and body to the server and returns its response
+	 * @param method The given HTTP method
+	 * @param path The given path and query
+	 * @param body The given body
+	 * @return The response, with its body as UTF-8 text
+	 * @throws Exception Thrown if the request cannot be sent or is interrupted
+	 */
+	private HttpResponse<String> send(String method, String path, BodyPublisher body) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + LOOPBACK + ":" + server.getPort() + path))
+				.method(method, body)
+				.build();
+
+		return client.send(request, BodyHandlers.ofString(StandardCharsets.UTF_8));
+	} //END send
+
+
+	/**
+	 * Returns a body of given text with no declared length, so it is sent chunked
+	 * @param text The given text
+	 * @return The chunked body
+	 */
+	private static BodyPublisher chunked(String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+
+		return BodyPublishers.ofInputStream(() -> new ByteArrayInputStream(bytes));
+	} //END chunked
+
+} //END CipherServerTest
@@ -0,0 +1,177 @@
+package matrix;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+import matrix.matrixException.*;
+import ring.gf.GF256;
+
+/**
+ * Tests the products, determinants and inverses of GF256Matrix against sums of products of
+ * GF256 elements taken one at a time
+ * @author Noah Kime
+ */
+class GF256MatrixTest {
+
+	/**
+	 * Checks rectangular products against the reference
+	 * @throws InvalidDimException Thrown if the dimensions do not match, a failure
+	 */
+	@Test
+	void multRRetMatchesReference() throws InvalidDimException {
+		SplittableRandom rand = new SplittableRandom(256);
+
+		for (int[] dims : new int[][] {{1, 1, 1}, {3, 7, 2}, {17, 33, 9}, {64, 64, 64}}) {
+			byte[] a = random(rand, dims[0] * dims[1]);
+			byte[] b = random(rand, dims[1] * dims[2]);
+
+			GF256Matrix x = new GF256Matrix(dims[0], dims[1], a);
+			GF256Matrix y = new GF256Matrix(dims[1], dims[2], b);
+
+			assertArrayEquals(Reference.mult(a, b, dims[0], dims[1], dims[2]), x.multRRet(y).toArray());
+		}
+	} //END multRRetMatchesReference
+
+
+	/**
+	 * Checks multAddBlocks and multAddVec, with and without an offset, against the reference,
+	 * over more blocks than fit in one tile and in place
+	 * @throws InvalidDimException Thrown if the dimensions do not match, a failure
+	 */
+	@Test
+	void multAddBlocksMatchesReference() throws InvalidDimException {
+		SplittableRandom rand = new SplittableRandom(256);
+
+		for (int n : new int[] {1, 5, 16, 40}) {
+			int count = (1 << 19) / (Kernel.NIBBLE_PRODUCTS * n) + 77;
+			byte[] a = random(rand, n * n);
+			byte[] x = random(rand, n * count);
+			byte[] b = random(rand, n);
+			GF256Matrix key = new GF256Matrix(n, n, a);
+
+			//01 THE BLOCKS ARE THE COLUMNS OF AN nxcount MATRIX
+			byte[] cols = new byte[n * count];
+			for (int c = 0; c < count; c++)
+				for (int i = 0; i < n; i++)
+					cols[i*count + c] = x[c*n + i];
+
+			byte[] prod = Reference.mult(a, cols, n, n, count);
+
+			//02 COMPARE EVERY BLOCK, WITH AND WITHOUT THE OFFSET, THE LATTER IN PLACE
+			byte[] y = new byte[n * count];
+			byte[] yb = x.clone();
+			byte[] v = new byte[n];
+			key.multAddBlocks(x, 0, count, null, y, 0);
+			key.multAddBlocks(yb, 0, count, b, yb, 0);
+
+			for (int c = 0; c < count; c++) {
+				for (int i = 0; i < n; i++) {
+					assertEquals(prod[i*count + c], y[c*n + i]);
+					assertEquals((byte) (prod[i*count + c] ^ b[i]), yb[c*n + i]);
+				}
+			}
+
+			key.multAddVec(x, (count - 1) * n, b, v, 0);
+			for (int i = 0; i < n; i++)
+				assertEquals(yb[(count - 1)*n + i], v[i]);
+		}
+	} //END multAddBlocksMatchesReference
+
+
+	/**
+	 * Checks that random matrices are inverted exactly when their determinant is nonzero, that
+	 * the inverse is two-sided and that the determinant is multiplicative
+	 * @throws MatrixException Thrown if an invertible matrix is not inverted, a failure
+	 */
+	@Test
+	void getInverseIsTwoSided() throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(256);
+
+		for (int n = 1; n <= 12; n++) {
+			GF256Matrix id = GF256Matrix.identity(n);
+
+			assertEquals(1, id.getDet());
+
+			for (int trial = 0; trial < 30; trial++) {
+				GF256Matrix a = new GF256Matrix(n, n, random(rand, n * n));
+				GF256Matrix b = new GF256Matrix(n, n, random(rand, n * n));
+
+				assertEquals(GF256.mult(a.getDet(), b.getDet()), a.multRRet(b).getDet());
+
+				if (a.getDet() == 0) {
+					assertThrows(InvalidDetException.class, a::getInverse);
+					continue;
+				}
+
+				GF256Matrix inv = a.getInverse();
+				assertEquals(id, a.multRRet(inv));
+				assertEquals(id, inv.multRRet(a));
+				assertEquals(GF256.inverse(a.getDet()), inv.getDet());
+			}
+		}
+	} //END getInverseIsTwoSided
+
+
+	/**
+	 * Checks that matrices with a repeated row are singular
+	 * @throws InvalidDimException Thrown if the matrix is not square, a failure
+	 */
+	@Test
+	void getInverseRefusesSingularMatrices() throws InvalidDimException {
+		GF256Matrix a = new GF256Matrix(3, 3, new byte[] {1, 2, 3, 7, 9, (byte) 200, 1, 2, 3});
+		GF256Matrix b = new GF256Matrix(2, 2, new byte[] {2, 4, 1, 2});
+
+		assertEquals(0, a.getDet());
+		assertEquals(0, b.getDet());
+		assertThrows(InvalidDetException.class, a::getInverse);
+		assertThrows(InvalidDetException.class, b::getInverse);
+	} //END getInverseRefusesSingularMatrices
+
+
+	/**
+	 * Checks that random keys are inverted by the inverse they hold
+	 * @throws MatrixException Thrown if a key cannot be multiplied, a failure
+	 */
+	@Test
+	void randomKeysAreInvertible() throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(256);
+
+		for (int n : new int[] {1, 2, 10, 33}) {
+			GLn_GF256 key = null;
+
+			while (key == null) {
+				try {
+					key = new GLn_GF256(n, rand);
+				}
+				catch (InvalidDetException e) {
+					//Singular draws are drawn again, as by GF256Cipher
+				}
+			}
+
+			GF256Matrix a = new GF256Matrix(key);
+			GF256Matrix inv = new GF256Matrix(key.getInverse());
+
+			assertEquals(a.getDet(), key.getDet().getVal());
+			assertEquals(GF256Matrix.identity(n), a.multRRet(inv));
+			assertEquals(GF256Matrix.identity(n), inv.multRRet(a));
+		}
+	} //END randomKeysAreInvertible
+
+
+	/**
+	 * Returns an array of uniformly random bytes
+	 * @param rand The random number generator
+	 * @param len The length of the array
+	 * @return The random bytes
+	 */
+	private static byte[] random(SplittableRandom rand, int len) {
+		byte[] x = new byte[len];
+		rand.nextBytes(x);
+
+		return x;
+	} //END random
+
+} //END GF256MatrixTest
@@ -0,0 +1,281 @@
+package matrix;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import matrix.matrixException.*;
+import ring.modInt.ModInt_M;
+import ring.modInt.Z_M;
+
+/**
+ * Tests the products, determinants and inverses of IntModMatrix against exact BigInteger
+ * arithmetic, over prime, prime power and composite moduli
+ * Over a composite m a pivot may be a nonzero non-unit, which the elimination must clear with
+ * the extended gcd rather than by division.
+ * @author Noah Kime
+ */
+class IntModMatrixTest {
+
+	/**
+	 * Checks rectangular products against the reference, with enough terms per entry to reduce
+	 * partial sums for the largest moduli
+	 * @param m The modulus
+	 * @throws InvalidDimException Thrown if the dimensions do not match, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003, 1 << 30, Integer.MAX_VALUE})
+	void multRRetMatchesReference(int m) throws InvalidDimException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_M z = new Z_M(m);
+
+		for (int[] dims : new int[][] {{1, 1, 1}, {3, 7, 2}, {17, 33, 9}, {40, 40, 40}}) {
+			long[] a = Reference.random(rand, dims[0] * dims[1], m);
+			long[] b = Reference.random(rand, dims[1] * dims[2], m);
+
+			IntModMatrix x = new IntModMatrix(dims[0], dims[1], Reference.toInts(a), z);
+			IntModMatrix y = new IntModMatrix(dims[1], dims[2], Reference.toInts(b), z);
+
+			assertArrayEquals(Reference.toInts(Reference.mult(a, b, dims[0], dims[1], dims[2], m)), x.multRRet(y).toArray());
+		}
+	} //END multRRetMatchesReference
+
+
+	/**
+	 * Checks multAddVec and multAddBlocks, with and without an offset, against the reference,
+	 * over more blocks than fit in one tile
+	 * @param m The modulus
+	 * @throws InvalidDimException Thrown if the dimensions do not match, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 6, 95, 256, 65521, 1000003, Integer.MAX_VALUE})
+	void multAddBlocksMatchesReference(int m) throws InvalidDimException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_M z = new Z_M(m);
+		int n = 7;
+		int count = 2501;
+
+		long[] a = Reference.random(rand, n * n, m);
+		long[] x = Reference.random(rand, n * count, m);
+		long[] b = Reference.random(rand, n, m);
+		IntModMatrix key = new IntModMatrix(n, n, Reference.toInts(a), z);
+
+		//01 THE BLOCKS ARE THE COLUMNS OF AN nxcount MATRIX
+		long[] cols = new long[n * count];
+		for (int c = 0; c < count; c++)
+			for (int i = 0; i < n; i++)
+				cols[i*count + c] = x[c*n + i];
+
+		long[] prod = Reference.mult(a, cols, n, n, count, m);
+
+		//02 COMPARE EVERY BLOCK, WITH AND WITHOUT THE OFFSET
+		int[] y = new int[n * count];
+		int[] yb = new int[n * count];
+		int[] v = new int[n];
+		key.multAddBlocks(Reference.toInts(x), 0, count, null, y, 0);
+		key.multAddBlocks(Reference.toInts(x), 0, count, Reference.toInts(b), yb, 0);
+
+		for (int c = 0; c < count; c++) {
+			for (int i = 0; i < n; i++) {
+				assertEquals(prod[i*count + c], y[c*n + i]);
+				assertEquals((prod[i*count + c] + b[i]) % m, yb[c*n + i]);
+			}
+		}
+
+		key.multAddVec(Reference.toInts(x), n, Reference.toInts(b), v, 0);
+		for (int i = 0; i < n; i++)
+			assertEquals(yb[n + i], v[i]);
+	} //END multAddBlocksMatchesReference
+
+
+	/**
+	 * Checks determinants of random matrices against the reference
+	 * @param m The modulus
+	 * @throws InvalidDimException Thrown if the matrix is not square, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003})
+	void getDetMatchesReference(int m) throws InvalidDimException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_M z = new Z_M(m);
+
+		for (int n = 1; n <= 8; n++) {
+			for (int trial = 0; trial < 20; trial++) {
+				long[] a = Reference.random(rand, n * n, m);
+
+				assertEquals(Reference.det(a, n, m), new IntModMatrix(n, n, Reference.toInts(a), z).getDet());
+			}
+		}
+	} //END getDetMatchesReference
+
+
+	/**
+	 * Checks that random matrices are inverted exactly when their determinant is a unit, and that
+	 * the inverse is a two-sided inverse
+	 * Over a composite m most of these matrices need a gcd step at some pivot.
+	 * @param m The modulus
+	 * @throws MatrixException Thrown if an invertible matrix is not inverted, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003})
+	void getInverseIsTwoSided(int m) throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_M z = new Z_M(m);
+		int inverted = 0;
+
+		for (int n = 1; n <= 8; n++) {
+			IntModMatrix id = IntModMatrix.identity(n, z);
+
+			for (int trial = 0; trial < 30; trial++) {
+				IntModMatrix a = new IntModMatrix(n, n, Reference.toInts(Reference.random(rand, n * n, m)), z);
+
+				if (!z.isUnit(a.getDet())) {
+					assertThrows(InvalidDetException.class, a::getInverse);
+					continue;
+				}
+
+				IntModMatrix inv = a.getInverse();
+				assertEquals(id, a.multRRet(inv));
+				assertEquals(id, inv.multRRet(a));
+				inverted++;
+			}
+		}
+
+		assertTrue(inverted > 0);
+	} //END getInverseIsTwoSided
+
+
+	/**
+	 * Checks inverses of matrices over composite moduli whose every leading pivot is a nonzero
+	 * non-unit, so division alone cannot eliminate them
+	 * @throws MatrixException Thrown if an invertible matrix is not inverted, a failure
+	 */
+	@Test
+	void getInverseClearsNonUnitPivots() throws MatrixException {
+		int[][] cases = {
+				//m, then the entries of a 2x2 matrix with a unit determinant
+				{6, 2, 3, 3, 2},
+				{12, 3, 4, 8, 3},
+				{30, 6, 5, 5, 6},
+				{9, 3, 1, 5, 3},
+		};
+
+		for (int[] c : cases) {
+			Z_M z = new Z_M(c[0]);
+			IntModMatrix a = new IntModMatrix(2, 2, new int[] {c[1], c[2], c[3], c[4]}, z);
+
+			assertFalse(z.isUnit(c[1]));
+			assertTrue(z.isUnit(a.getDet()));
+			assertEquals(IntModMatrix.identity(2, z), a.multRRet(a.getInverse()));
+		}
+
+		//A 3x3 MATRIX MOD 12 WITH NO UNIT IN ITS FIRST COLUMN
+		Z_M z = new Z_M(12);
+		IntModMatrix a = new IntModMatrix(3, 3, new int[] {2, 1, 0, 3, 0, 1, 4, 1, 1}, z);
+
+		assertEquals(Reference.det(new long[] {2, 1, 0, 3, 0, 1, 4, 1, 1}, 3, 12), a.getDet());
+		assertEquals(IntModMatrix.identity(3, z), a.multRRet(a.getInverse()));
+	} //END getInverseClearsNonUnitPivots
+
+
+	/**
+	 * Checks that matrices with a nonzero non-unit determinant are refused
+	 * @throws InvalidDimException Thrown if the matrix is not square, a failure
+	 */
+	@Test
+	void getInverseRefusesNonUnitDeterminants() throws InvalidDimException {
+		Z_M z = new Z_M(6);
+		IntModMatrix a = new IntModMatrix(2, 2, new int[] {2, 0, 0, 1}, z);
+		IntModMatrix b = new IntModMatrix(2, 2, new int[] {3, 3, 1, 3}, z);
+
+		assertEquals(2, a.getDet());
+		assertEquals(0, b.getDet());
+		assertThrows(InvalidDetException.class, a::getInverse);
+		assertThrows(InvalidDetException.class, b::getInverse);
+		assertThrows(InvalidDetException.class, () -> new GLn_Zm(a.asGrid()));
+	} //END getInverseRefusesNonUnitDeterminants
+
+
+	/**
+	 * Checks the substitution used for triangular matrices against the reference inverse property
+	 * @param m The modulus
+	 * @throws MatrixException Thrown if a triangular matrix is not inverted, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 6, 12, 97, 65536, 1000003})
+	void getInverseOfTriangular(int m) throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_M z = new Z_M(m);
+		int n = 9;
+		int[] vals = new int[n * n];
+
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j < i; j++)
+				vals[i*n + j] = rand.nextInt(m);
+			vals[i*n + i] = z.randomUnit(rand);
+		}
+
+		IntModMatrix lower = new IntModMatrix(n, n, vals, z);
+		IntModMatrix upper = lower.transpose();
+
+		assertEquals(IntModMatrix.identity(n, z), lower.multRRet(lower.getInverse()));
+		assertEquals(IntModMatrix.identity(n, z), upper.multRRet(upper.getInverse()));
+	} //END getInverseOfTriangular
+
+
+	/**
+	 * Checks that a GLn_Zm built from a Grid over a composite modulus finds the determinant and
+	 * inverse of the reference
+	 * @param m The modulus
+	 * @throws MatrixException Thrown if an invertible matrix is refused, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {4, 6, 12, 30, 65536})
+	void genDetOverCompositeModuli(int m) throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_M z = new Z_M(m);
+		int n = 5;
+
+		for (int trial = 0; trial < 20; trial++) {
+			long[] a = Reference.random(rand, n * n, m);
+			IntModMatrix x = new IntModMatrix(n, n, Reference.toInts(a), z);
+			long d = Reference.det(a, n, m);
+
+			if (!z.isUnit((int) d))
+				continue;
+
+			GLn_Zm g = new GLn_Zm(x.asGrid());
+
+			assertEquals(ModInt_M.valueOf((int) d, z), g.getDet());
+			assertEquals(IntModMatrix.identity(n, z), x.multRRet(new IntModMatrix(g.getInverse())));
+		}
+	} //END genDetOverCompositeModuli
+
+
+	/**
+	 * Checks that random PLU keys are invertible, with the determinant and inverse they claim
+	 * @param m The modulus
+	 * @throws MatrixException Thrown if a key cannot be built, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003})
+	void randomKeysAreInvertible(int m) throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_M z = new Z_M(m);
+
+		for (int n : new int[] {1, 2, 10, 33}) {
+			GLn_Zm key = new GLn_Zm(n, z, rand);
+			IntModMatrix a = new IntModMatrix(key);
+			IntModMatrix inv = new IntModMatrix(key.getInverse());
+
+			assertEquals(Reference.det(Reference.toLongs(a.toArray()), n, m), key.getDet().getVal());
+			assertEquals(IntModMatrix.identity(n, z), a.multRRet(inv));
+			assertEquals(IntModMatrix.identity(n, z), inv.multRRet(a));
+		}
+	} //END randomKeysAreInvertible
+
+} //END IntModMatrixTest
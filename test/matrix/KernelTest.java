@@ -0,0 +1,162 @@
+package matrix;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import ring.gf.GF256;
+
+/**
+ * Tests both Kernels directly, whichever one is the default on this CPU, over row widths that
+ * are and are not multiples of their vector lengths and at nonzero offsets
+ * @author Noah Kime
+ */
+class KernelTest {
+
+	//Row widths around the vector lengths and unrolled blocks of both Kernels
+	private static final int[] WIDTHS = {1, 3, 15, 16, 17, 31, 32, 33, 63, 64, 65, 127, 128, 129, 255, 256, 257, 1000};
+
+
+	/**
+	 * Returns the Kernels under test
+	 * @return The scalar and vector Kernels
+	 */
+	static Stream<Kernel> kernels() {
+		return Stream.of(new ScalarKernel(), new VectorKernel());
+	} //END kernels
+
+
+	/**
+	 * Checks that the nibble products of a row are its products with every nibble, low and high,
+	 * and that the product with 0 and the space past the row are left alone
+	 * @param kernel The Kernel under test
+	 */
+	@ParameterizedTest
+	@MethodSource("kernels")
+	void nibbleProductsMatchGF256(Kernel kernel) {
+		SplittableRandom rand = new SplittableRandom(24);
+
+		for (int w : WIDTHS) {
+			int stride = w + 5;
+			int base = 3;
+			byte[] products = new byte[base + Kernel.NIBBLE_PRODUCTS * stride];
+			byte[] row = new byte[w];
+
+			rand.nextBytes(row);
+			Arrays.fill(products, (byte) 0x5A);
+			System.arraycopy(row, 0, products, base + stride, w);
+
+			kernel.nibbleProducts(products, base, stride, w);
+
+			for (int j = 0; j < w; j++) {
+				int x = row[j] & 0xFF;
+
+				assertEquals((byte) 0x5A, products[base + j]);
+
+				for (int c = 1; c < 16; c++) {
+					assertEquals((byte) GF256.mult(c, x), products[base + c*stride + j], kernel.name() + " low nibble " + c);
+					assertEquals((byte) GF256.mult(c << 4, x), products[base + (16 + c)*stride + j], kernel.name() + " high nibble " + c);
+				}
+			}
+
+			for (int r = 1; r < Kernel.NIBBLE_PRODUCTS; r++)
+				if (r != 16)
+					for (int j = w; j < stride && base + r*stride + j < products.length; j++)
+						assertEquals((byte) 0x5A, products[base + r*stride + j]);
+		}
+	} //END nibbleProductsMatchGF256
+
+
+	/**
+	 * Checks the row product over GF(2^8) against sums of products looked up from GF256
+	 * @param kernel The Kernel under test
+	 */
+	@ParameterizedTest
+	@MethodSource("kernels")
+	void byteMultRowMatchesGF256(Kernel kernel) {
+		SplittableRandom rand = new SplittableRandom(24);
+
+		for (int w : WIDTHS) {
+			for (int n : new int[] {1, 2, 7, 16}) {
+				int stride = w + 1;
+				byte[] a = new byte[n + 2];
+				byte[] x = new byte[n * w];
+				byte[] products = new byte[n * Kernel.NIBBLE_PRODUCTS * stride];
+				byte[] acc = new byte[w + 4];
+				byte init = (byte) rand.nextInt(256);
+
+				rand.nextBytes(a);
+				rand.nextBytes(x);
+				a[2] = 0;
+
+				//01 EXPAND EACH ROW OF THE MATRIX INTO ITS NIBBLE PRODUCTS
+				for (int k = 0; k < n; k++) {
+					int base = Kernel.NIBBLE_PRODUCTS * k * stride;
+
+					System.arraycopy(x, k*w, products, base + stride, w);
+					kernel.nibbleProducts(products, base, stride, w);
+				}
+
+				kernel.multRow(a, 2, n, products, stride, w, init, acc, 3);
+
+				//02 COMPARE WITH THE SUM OF THE PRODUCTS, LEAVING THE REST OF acc ALONE
+				for (int j = 0; j < w; j++) {
+					int sum = init & 0xFF;
+
+					for (int k = 0; k < n; k++)
+						sum ^= GF256.mult(a[2 + k] & 0xFF, x[k*w + j] & 0xFF);
+
+					assertEquals((byte) sum, acc[3 + j], kernel.name() + " column " + j);
+				}
+
+				assertEquals(0, acc[0] | acc[1] | acc[2] | acc[acc.length - 1]);
+			}
+		}
+	} //END byteMultRowMatchesGF256
+
+
+	/**
+	 * Checks the row product of longs against sums that wrap as unsigned 64-bit integers, with
+	 * entries large enough that every product overflows
+	 * @param kernel The Kernel under test
+	 */
+	@ParameterizedTest
+	@MethodSource("kernels")
+	void longMultRowWrapsLikeLongs(Kernel kernel) {
+		SplittableRandom rand = new SplittableRandom(25);
+
+		for (int w : WIDTHS) {
+			for (int n : new int[] {1, 2, 7, 16}) {
+				int stride = w + 3;
+				long[] a = new long[n + 1];
+				long[] x = new long[2 + n * stride];
+				long[] acc = new long[w + 2];
+				long init = rand.nextLong();
+
+				for (int k = 0; k < a.length; k++)
+					a[k] = (k == 1) ? 0 : rand.nextLong();
+				for (int k = 0; k < x.length; k++)
+					x[k] = rand.nextLong();
+
+				kernel.multRow(a, 1, n, x, 2, stride, w, init, acc, 1);
+
+				for (int j = 0; j < w; j++) {
+					long sum = init;
+
+					for (int k = 0; k < n; k++)
+						sum += a[1 + k] * x[2 + k*stride + j];
+
+					assertEquals(sum, acc[1 + j], kernel.name() + " column " + j);
+				}
+
+				assertEquals(0, acc[0] | acc[acc.length - 1]);
+			}
+		}
+	} //END longMultRowWrapsLikeLongs
+
+} //END KernelTest
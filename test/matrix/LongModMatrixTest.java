@@ -0,0 +1,191 @@
+package matrix;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import matrix.matrixException.*;
+import ring.modInt.Z_ML;
+
+/**
+ * Tests the products, determinants and inverses of LongModMatrix against exact BigInteger
+ * arithmetic, on the narrow path accumulating with the Kernel and on the wide path reducing
+ * 128-bit products
+ * @author Noah Kime
+ */
+class LongModMatrixTest {
+
+	/**
+	 * Checks rectangular products against the reference, with enough terms per entry to reduce
+	 * partial sums more than once near MAX_NARROW
+	 * @param m The modulus
+	 * @throws InvalidDimException Thrown if the dimensions do not match, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003,
+			(1L << 32) - 5, 1L << 32, (1L << 32) + 15, (1L << 61) - 1, Long.MAX_VALUE})
+	void multRRetMatchesReference(long m) throws InvalidDimException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_ML z = new Z_ML(m);
+
+		for (int[] dims : new int[][] {{1, 1, 1}, {3, 7, 2}, {17, 33, 9}, {40, 40, 40}}) {
+			long[] a = Reference.random(rand, dims[0] * dims[1], m);
+			long[] b = Reference.random(rand, dims[1] * dims[2], m);
+
+			LongModMatrix x = new LongModMatrix(dims[0], dims[1], a, z);
+			LongModMatrix y = new LongModMatrix(dims[1], dims[2], b, z);
+
+			assertArrayEquals(Reference.mult(a, b, dims[0], dims[1], dims[2], m), x.multRRet(y).toArray());
+		}
+	} //END multRRetMatchesReference
+
+
+	/**
+	 * Checks multAddVec and multAddBlocks, with and without an offset, against the reference,
+	 * over more blocks than fit in one tile and in place
+	 * @param m The modulus
+	 * @throws InvalidDimException Thrown if the dimensions do not match, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = {2, 6, 95, 65521, 1000003, (1L << 32) - 5, 1L << 32, (1L << 61) - 1, Long.MAX_VALUE})
+	void multAddBlocksMatchesReference(long m) throws InvalidDimException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_ML z = new Z_ML(m);
+		int n = 7;
+		int count = 1301;
+
+		long[] a = Reference.random(rand, n * n, m);
+		long[] x = Reference.random(rand, n * count, m);
+		long[] b = Reference.random(rand, n, m);
+		LongModMatrix key = new LongModMatrix(n, n, a, z);
+
+		//01 THE BLOCKS ARE THE COLUMNS OF AN nxcount MATRIX
+		long[] cols = new long[n * count];
+		for (int c = 0; c < count; c++)
+			for (int i = 0; i < n; i++)
+				cols[i*count + c] = x[c*n + i];
+
+		long[] prod = Reference.mult(a, cols, n, n, count, m);
+
+		//02 COMPARE EVERY BLOCK, WITH AND WITHOUT THE OFFSET, THE LATTER IN PLACE
+		long[] y = new long[n * count];
+		long[] yb = x.clone();
+		long[] v = new long[n];
+		key.multAddBlocks(x, 0, count, null, y, 0);
+		key.multAddBlocks(yb, 0, count, b, yb, 0);
+
+		for (int c = 0; c < count; c++) {
+			for (int i = 0; i < n; i++) {
+				assertEquals(prod[i*count + c], y[c*n + i]);
+				assertEquals(z.add(prod[i*count + c], b[i]), yb[c*n + i]);
+			}
+		}
+
+		key.multAddVec(x, n, b, v, 0);
+		for (int i = 0; i < n; i++)
+			assertEquals(yb[n + i], v[i]);
+	} //END multAddBlocksMatchesReference
+
+
+	/**
+	 * Checks determinants of random matrices against the reference
+	 * @param m The modulus
+	 * @throws InvalidDimException Thrown if the matrix is not square, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = {2, 6, 12, 30, 97, 65536, 1000003, 1L << 32, (1L << 32) + 15, (1L << 61) - 1, Long.MAX_VALUE})
+	void getDetMatchesReference(long m) throws InvalidDimException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_ML z = new Z_ML(m);
+
+		for (int n = 1; n <= 7; n++) {
+			for (int trial = 0; trial < 20; trial++) {
+				long[] a = Reference.random(rand, n * n, m);
+
+				assertEquals(Reference.det(a, n, m), new LongModMatrix(n, n, a, z).getDet());
+			}
+		}
+	} //END getDetMatchesReference
+
+
+	/**
+	 * Checks that random matrices are inverted exactly when their determinant is a unit, and that
+	 * the inverse is a two-sided inverse
+	 * @param m The modulus
+	 * @throws MatrixException Thrown if an invertible matrix is not inverted, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = {2, 4, 6, 9, 12, 30, 256, 65521, 1000003, 1L << 32, (1L << 32) + 15, (1L << 61) - 1, Long.MAX_VALUE})
+	void getInverseIsTwoSided(long m) throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_ML z = new Z_ML(m);
+		int inverted = 0;
+
+		for (int n = 1; n <= 7; n++) {
+			LongModMatrix id = LongModMatrix.identity(n, z);
+
+			for (int trial = 0; trial < 30; trial++) {
+				LongModMatrix a = new LongModMatrix(n, n, Reference.random(rand, n * n, m), z);
+
+				if (!z.isUnit(a.getDet())) {
+					assertThrows(InvalidDetException.class, a::getInverse);
+					continue;
+				}
+
+				LongModMatrix inv = a.getInverse();
+				assertEquals(id, a.multRRet(inv));
+				assertEquals(id, inv.multRRet(a));
+				inverted++;
+			}
+		}
+
+		assertTrue(inverted > 0);
+	} //END getInverseIsTwoSided
+
+
+	/**
+	 * Checks an inverse over a wide composite modulus whose first column holds no unit
+	 * @throws MatrixException Thrown if an invertible matrix is not inverted, a failure
+	 */
+	@Test
+	void getInverseClearsNonUnitPivots() throws MatrixException {
+		long m = 6L * (1L << 40);
+		Z_ML z = new Z_ML(m);
+		long[] vals = {2, 3, 3, 2};
+		LongModMatrix a = new LongModMatrix(2, 2, vals, z);
+
+		assertTrue(z.isWide());
+		assertFalse(z.isUnit(2));
+		assertFalse(z.isUnit(3));
+		assertEquals(Reference.det(vals, 2, m), a.getDet());
+		assertEquals(LongModMatrix.identity(2, z), a.multRRet(a.getInverse()));
+	} //END getInverseClearsNonUnitPivots
+
+
+	/**
+	 * Checks that random PLU keys are invertible, with the determinant and inverse they claim
+	 * @param m The modulus
+	 * @throws MatrixException Thrown if a key cannot be built, a failure
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = {2, 6, 30, 65536, 1000003, (1L << 32) - 5, 1L << 32, (1L << 61) - 1, Long.MAX_VALUE})
+	void randomKeysAreInvertible(long m) throws MatrixException {
+		SplittableRandom rand = new SplittableRandom(m);
+		Z_ML z = new Z_ML(m);
+
+		for (int n : new int[] {1, 2, 10, 33}) {
+			GLn_ZmL key = new GLn_ZmL(n, z, rand);
+			LongModMatrix a = new LongModMatrix(key);
+			LongModMatrix inv = new LongModMatrix(key.getInverse());
+
+			assertEquals(Reference.det(a.toArray(), n, m), key.getDet().getVal());
+			assertEquals(LongModMatrix.identity(n, z), a.multRRet(inv));
+			assertEquals(LongModMatrix.identity(n, z), inv.multRRet(a));
+		}
+	} //END randomKeysAreInvertible
+
+} //END LongModMatrixTest
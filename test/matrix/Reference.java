@@ -0,0 +1,190 @@
+package matrix;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+import ring.gf.GF256;
+
+/**
+ * Reference arithmetic for the matrix tests, computed exactly over the integers with BigInteger
+ * and reduced modulo m only at the end, so it shares no code with the kernels under test
+ * Matrices are row-major arrays of residues, held in longs for every modulus. Over GF(2^8) the
+ * reference sums the products of single elements given by GF256.
+ * @author Noah Kime
+ */
+final class Reference {
+
+	/**
+	 * Not instantiable
+	 */
+	private Reference() {
+	} //END Reference (constructor)
+
+
+	/**
+	 * Returns the product of two given matrices modulo a given m
+	 * @param a The given mxk matrix
+	 * @param b The given kxp matrix
+	 * @param m The number of rows of a
+	 * @param k The number of columns of a and rows of b
+	 * @param p The number of columns of b
+	 * @param mod The given modulus
+	 * @return The mxp product ab modulo mod
+	 */
+	static long[] mult(long[] a, long[] b, int m, int k, int p, long mod) {
+		BigInteger bigMod = BigInteger.valueOf(mod);
+		long[] c = new long[m * p];
+
+		for (int i = 0; i < m; i++) {
+			for (int j = 0; j < p; j++) {
+				BigInteger sum = BigInteger.ZERO;
+
+				for (int t = 0; t < k; t++)
+					sum = sum.add(BigInteger.valueOf(a[i*k + t]).multiply(BigInteger.valueOf(b[t*p + j])));
+
+				c[i*p + j] = sum.mod(bigMod).longValueExact();
+			}
+		}
+
+		return c;
+	} //END mult
+
+
+	/**
+	 * Returns the product of two given matrices over GF(2^8)
+	 * @param a The given mxk matrix
+	 * @param b The given kxp matrix
+	 * @param m The number of rows of a
+	 * @param k The number of columns of a and rows of b
+	 * @param p The number of columns of b
+	 * @return The mxp product ab
+	 */
+	static byte[] mult(byte[] a, byte[] b, int m, int k, int p) {
+		byte[] c = new byte[m * p];
+
+		for (int i = 0; i < m; i++) {
+			for (int j = 0; j < p; j++) {
+				int sum = 0;
+
+				for (int t = 0; t < k; t++)
+					sum = GF256.add(sum, GF256.mult(a[i*k + t] & 0xFF, b[t*p + j] & 0xFF));
+
+				c[i*p + j] = (byte) sum;
+			}
+		}
+
+		return c;
+	} //END mult
+
+
+	/**
+	 * Returns the determinant of a given nxn matrix modulo a given m
+	 * The determinant is computed exactly by fraction-free Bareiss elimination over the integers.
+	 * @param a The given nxn matrix
+	 * @param n The size of the given matrix
+	 * @param mod The given modulus
+	 * @return The determinant of the given matrix modulo mod
+	 */
+	static long det(long[] a, int n, long mod) {
+		BigInteger[] x = new BigInteger[n * n];
+		BigInteger prev = BigInteger.ONE;
+		int sign = 1;
+
+		for (int i = 0; i < n*n; i++)
+			x[i] = BigInteger.valueOf(a[i]);
+
+		for (int k = 0; k < n-1; k++) {
+			//01 FIND A NONZERO PIVOT, SWAPPING ROWS IF NEEDED
+			int p = k;
+			while (p < n && x[p*n + k].signum() == 0)
+				p++;
+
+			if (p == n)
+				return 0;
+
+			if (p != k) {
+				for (int j = 0; j < n; j++) {
+					BigInteger temp = x[k*n + j];
+					x[k*n + j] = x[p*n + j];
+					x[p*n + j] = temp;
+				}
+				sign = -sign;
+			}
+
+			//02 ELIMINATE BELOW IT, DIVIDING EXACTLY BY THE PREVIOUS PIVOT
+			for (int i = k+1; i < n; i++)
+				for (int j = k+1; j < n; j++)
+					x[i*n + j] = x[i*n + j].multiply(x[k*n + k]).subtract(x[i*n + k].multiply(x[k*n + j])).divide(prev);
+
+			prev = x[k*n + k];
+		}
+
+		BigInteger d = x[n*n - 1].multiply(BigInteger.valueOf(sign));
+
+		return d.mod(BigInteger.valueOf(mod)).longValueExact();
+	} //END det
+
+
+	/**
+	 * Returns the nxn identity matrix modulo a given m
+	 * @param n The given size
+	 * @param mod The given modulus
+	 * @return The identity matrix, with 1 % mod on its diagonal
+	 */
+	static long[] identity(int n, long mod) {
+		long[] id = new long[n * n];
+
+		for (int i = 0; i < n; i++)
+			id[i*n + i] = 1 % mod;
+
+		return id;
+	} //END identity
+
+
+	/**
+	 * Returns an array of uniformly random residues modulo a given m
+	 * @param rand The random number generator
+	 * @param len The length of the array
+	 * @param mod The given modulus
+	 * @return The random residues
+	 */
+	static long[] random(SplittableRandom rand, int len, long mod) {
+		long[] x = new long[len];
+
+		for (int i = 0; i < len; i++)
+			x[i] = rand.nextLong(mod);
+
+		return x;
+	} //END random
+
+
+	/**
+	 * Returns a given array of longs as ints
+	 * @param x The given array, every entry of which fits in an int
+	 * @return The entries of the given array as ints
+	 */
+	static int[] toInts(long[] x) {
+		int[] y = new int[x.length];
+
+		for (int i = 0; i < x.length; i++)
+			y[i] = Math.toIntExact(x[i]);
+
+		return y;
+	} //END toInts
+
+
+	/**
+	 * Returns a given array of ints as longs
+	 * @param x The given array
+	 * @return The entries of the given array as longs
+	 */
+	static long[] toLongs(int[] x) {
+		long[] y = new long[x.length];
+
+		for (int i = 0; i < x.length; i++)
+			y[i] = x[i];
+
+		return y;
+	} //END toLongs
+
+} //END Reference
@@ -0,0 +1,88 @@
+package ring.gf;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the log and antilog tables of GF256 against multiplication of polynomials over GF(2)
+ * reduced by x^8 + x^4 + x^3 + x + 1, for every pair of elements
+ * @author Noah Kime
+ */
+class GF256Test {
+
+	//x^8 + x^4 + x^3 + x + 1, written out here rather than shared with GF256
+	private static final int POLY = 0x11B;
+
+
+	/**
+	 * Checks every product against shift-and-add multiplication
+	 */
+	@Test
+	void multMatchesPolynomialProduct() {
+		for (int x = 0; x < GF256.ORDER; x++) {
+			for (int y = 0; y < GF256.ORDER; y++) {
+				int expected = polyMult(x, y);
+
+				assertEquals(expected, GF256.mult(x, y), x + " * " + y);
+				assertEquals(expected, GF256.valueOf(x).mult(GF256.valueOf(y)).getVal());
+			}
+		}
+	} //END multMatchesPolynomialProduct
+
+
+	/**
+	 * Checks that every nonzero element has the inverse the product agrees with, and zero none
+	 */
+	@Test
+	void inverseIsTheUniqueInverse() {
+		assertEquals(-1, GF256.inverse(0));
+		assertNull(GF256.valueOf(0).getMultInverse());
+
+		for (int x = 1; x < GF256.ORDER; x++) {
+			int inv = GF256.inverse(x);
+
+			assertEquals(1, polyMult(x, inv), "inverse of " + x);
+			assertEquals(inv, GF256.valueOf(x).getMultInverse().getVal());
+		}
+	} //END inverseIsTheUniqueInverse
+
+
+	/**
+	 * Checks that sums are XORs and that every element is its own additive inverse
+	 */
+	@Test
+	void addIsXor() {
+		for (int x = 0; x < GF256.ORDER; x++) {
+			for (int y = 0; y < GF256.ORDER; y++)
+				assertEquals(x ^ y, GF256.add(x, y));
+
+			assertEquals(GF256.valueOf(x), GF256.valueOf(x).getAddInverse());
+			assertEquals(x, GF256.valueOf(x + GF256.ORDER).getVal());
+		}
+	} //END addIsXor
+
+
+	/**
+	 * Returns the product of two elements of GF(2^8) by shifting and adding, reducing by POLY
+	 * whenever the running multiple overflows 8 bits
+	 * @param x A given element, in [0,256)
+	 * @param y A given element, in [0,256)
+	 * @return The product of the given elements
+	 */
+	private static int polyMult(int x, int y) {
+		int p = 0;
+
+		for (; y != 0; y >>>= 1) {
+			if ((y & 1) != 0)
+				p ^= x;
+
+			x <<= 1;
+			if ((x & GF256.ORDER) != 0)
+				x ^= POLY;
+		}
+
+		return p;
+	} //END polyMult
+
+} //END GF256Test
@@ -0,0 +1,126 @@
+package ring.modInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests the mask and Barrett Reducers against the division operators of Java, at the edges of
+ * their input ranges and on random inputs
+ * @author Noah Kime
+ */
+class ReducerTest {
+
+	/**
+	 * Checks that a mask is chosen exactly for powers of two
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {1, 2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003, 1 << 30, Integer.MAX_VALUE})
+	void ofPicksMaskForPowersOfTwo(int m) {
+		Reducer red = Reducer.of(m);
+
+		assertEquals(m, red.getM());
+		assertEquals(Integer.bitCount(m) == 1, red instanceof MaskReducer);
+		assertEquals(Integer.bitCount(m) != 1, red instanceof BarrettReducer);
+	} //END ofPicksMaskForPowersOfTwo
+
+
+	/**
+	 * Checks reduce(int) on every non-negative input near a multiple of m, near the top of the
+	 * range and at random
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003, 1 << 30, Integer.MAX_VALUE - 1, Integer.MAX_VALUE})
+	void reduceIntMatchesRemainder(int m) {
+		Reducer red = Reducer.of(m);
+		SplittableRandom rand = new SplittableRandom(m);
+
+		for (long k = 0; k * m <= Integer.MAX_VALUE && k < 1000; k++)
+			for (long d = -2; d <= 2; d++)
+				checkInt(red, k*m + d);
+
+		for (long x = Integer.MAX_VALUE - 1000; x <= Integer.MAX_VALUE; x++)
+			checkInt(red, x);
+
+		for (int trial = 0; trial < 100000; trial++)
+			checkInt(red, rand.nextInt(Integer.MAX_VALUE));
+	} //END reduceIntMatchesRemainder
+
+
+	/**
+	 * Checks reduce(long), read as unsigned, and floorMod on inputs near multiples of m, near the
+	 * powers of two up to 2^63, at both ends of the long range and at random
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003, 1 << 30, Integer.MAX_VALUE})
+	void reduceLongMatchesRemainder(int m) {
+		Reducer red = Reducer.of(m);
+		SplittableRandom rand = new SplittableRandom(m);
+		long[] edges = {0, 1, (long) m * m, (long) (m-1) * (m-1), Long.MAX_VALUE / m * m, Long.MAX_VALUE, Long.MIN_VALUE, -1L};
+
+		for (long x : edges)
+			for (long d = -2; d <= 2; d++)
+				checkLong(red, x + d);
+
+		for (int p = 1; p < 64; p++)
+			for (long d = -2; d <= 2; d++)
+				checkLong(red, (1L << p) + d);
+
+		for (int trial = 0; trial < 100000; trial++)
+			checkLong(red, rand.nextLong());
+	} //END reduceLongMatchesRemainder
+
+
+	/**
+	 * Checks products of residues at the largest residues and at random
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003, 1 << 30, Integer.MAX_VALUE})
+	void multMatchesRemainder(int m) {
+		Reducer red = Reducer.of(m);
+		SplittableRandom rand = new SplittableRandom(m);
+
+		for (int x = Math.max(0, m - 50); x < m; x++)
+			for (int y = Math.max(0, m - 50); y < m; y++)
+				assertEquals((long) x * y % m, red.mult(x, y));
+
+		for (int trial = 0; trial < 100000; trial++) {
+			int x = rand.nextInt(m);
+			int y = rand.nextInt(m);
+
+			assertEquals((long) x * y % m, red.mult(x, y));
+		}
+	} //END multMatchesRemainder
+
+
+	/**
+	 * Checks reduce(int) on a given input if it is a non-negative int
+	 * @param red The Reducer under test
+	 * @param x The given input
+	 */
+	private static void checkInt(Reducer red, long x) {
+		if (x < 0 || x > Integer.MAX_VALUE)
+			return;
+
+		assertEquals(x % red.getM(), red.reduce((int) x), () -> "reduce(int) of " + x);
+	} //END checkInt
+
+
+	/**
+	 * Checks reduce(long) and floorMod on a given input
+	 * @param red The Reducer under test
+	 * @param x The given input
+	 */
+	private static void checkLong(Reducer red, long x) {
+		assertEquals(Long.remainderUnsigned(x, red.getM()), red.reduce(x), () -> "reduce(long) of " + x);
+		assertEquals(Math.floorMod(x, red.getM()), red.floorMod(x), () -> "floorMod of " + x);
+	} //END checkLong
+
+} //END ReducerTest
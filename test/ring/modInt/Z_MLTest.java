@@ -0,0 +1,173 @@
+package ring.modInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests the arithmetic of Z_ML against BigInteger, for moduli below MAX_NARROW reduced by
+ * Barrett reduction and for moduli above it reduced from 128-bit products
+ * @author Noah Kime
+ */
+class Z_MLTest {
+
+	//2^64, the weight of the high half of a 128-bit product
+	private static final BigInteger TWO_64 = BigInteger.ONE.shiftLeft(64);
+
+
+	/**
+	 * Checks that reduce and floorMod read their inputs as unsigned and signed, near multiples of
+	 * m, near the powers of two, at both ends of the long range and at random
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = {1, 2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003,
+			(1L << 32) - 5, 1L << 32, (1L << 32) + 15, (1L << 61) - 1, (1L << 62) + 1, Long.MAX_VALUE})
+	void reduceMatchesRemainder(long m) {
+		Z_ML z = new Z_ML(m);
+		SplittableRandom rand = new SplittableRandom(m);
+		long[] edges = {0, 1, m, 2*m, Long.MAX_VALUE / m * m, Long.MAX_VALUE, Long.MIN_VALUE, -1L, -m};
+
+		for (long x : edges)
+			for (long d = -2; d <= 2; d++)
+				check(z, x + d);
+
+		for (int p = 1; p < 64; p++)
+			for (long d = -2; d <= 2; d++)
+				check(z, (1L << p) + d);
+
+		for (int trial = 0; trial < 100000; trial++)
+			check(z, rand.nextLong());
+	} //END reduceMatchesRemainder
+
+
+	/**
+	 * Checks reduce(hi, lo) against BigInteger at the largest high halves and at random
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = {1, 2, 6, 97, 65536, 1000003, (1L << 32) - 5, 1L << 32, (1L << 32) + 15,
+			(1L << 61) - 1, (1L << 62) + 1, Long.MAX_VALUE})
+	void reduceWideMatchesBigInteger(long m) {
+		Z_ML z = new Z_ML(m);
+		SplittableRandom rand = new SplittableRandom(m);
+		long[] his = {0, 1, m - 1, m - 2, m / 2};
+		long[] los = {0, 1, -1L, m, Long.MAX_VALUE, Long.MIN_VALUE};
+
+		for (long hi : his)
+			for (long lo : los)
+				if (hi >= 0 && hi < m)
+					checkWide(z, hi, lo);
+
+		for (int trial = 0; trial < 100000; trial++)
+			checkWide(z, rand.nextLong(m), rand.nextLong());
+	} //END reduceWideMatchesBigInteger
+
+
+	/**
+	 * Checks sums, additive inverses and products of residues, including the largest ones, on
+	 * both the narrow and the wide path
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003,
+			(1L << 32) - 5, 1L << 32, (1L << 32) + 15, (1L << 61) - 1, Long.MAX_VALUE})
+	void arithmeticMatchesBigInteger(long m) {
+		Z_ML z = new Z_ML(m);
+		BigInteger bigM = BigInteger.valueOf(m);
+		SplittableRandom rand = new SplittableRandom(m);
+
+		assertEquals(m > Z_ML.MAX_NARROW, z.isWide());
+
+		for (int trial = 0; trial < 100000; trial++) {
+			long x = (trial < 100) ? m - 1 - trial % 10 : rand.nextLong(m);
+			long y = (trial < 100) ? m - 1 - trial / 10 : rand.nextLong(m);
+
+			if (x < 0 || y < 0)
+				continue;
+
+			BigInteger bx = BigInteger.valueOf(x);
+			BigInteger by = BigInteger.valueOf(y);
+
+			assertEquals(bx.add(by).mod(bigM).longValueExact(), z.add(x, y));
+			assertEquals(bx.negate().mod(bigM).longValueExact(), z.getAddInverse(x));
+			assertEquals(bx.multiply(by).mod(bigM).longValueExact(), z.mult(x, y), x + " * " + y);
+		}
+	} //END arithmeticMatchesBigInteger
+
+
+	/**
+	 * Checks inverses and units of residues and of negative longs against BigInteger.modInverse
+	 * and the gcd, and that random units are units
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(longs = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003,
+			1L << 32, (1L << 32) + 15, (1L << 61) - 1, Long.MAX_VALUE})
+	void inversesMatchBigInteger(long m) {
+		Z_ML z = new Z_ML(m);
+		BigInteger bigM = BigInteger.valueOf(m);
+		SplittableRandom rand = new SplittableRandom(m);
+
+		for (int trial = 0; trial < 20000; trial++) {
+			long x = (trial % 4 == 0) ? rand.nextLong() : rand.nextLong(m);
+			BigInteger bx = BigInteger.valueOf(x);
+			boolean unit = bx.gcd(bigM).equals(BigInteger.ONE);
+
+			assertEquals(unit, z.isUnit(x), "isUnit of " + x);
+			assertEquals(unit ? bx.modInverse(bigM).longValueExact() : -1, z.getMultInverse(x), "inverse of " + x);
+		}
+
+		for (int trial = 0; trial < 1000; trial++) {
+			long u = z.randomUnit(rand);
+
+			assertTrue(u >= 0 && u < m);
+			assertEquals(z.getMultIdentity(), z.mult(u, z.getMultInverse(u)));
+		}
+	} //END inversesMatchBigInteger
+
+
+	/**
+	 * Checks that a modulus must be positive and that 1 has every residue equal to 0
+	 */
+	@Test
+	void modulusMustBePositive() {
+		assertThrows(IllegalArgumentException.class, () -> new Z_ML(0));
+		assertThrows(IllegalArgumentException.class, () -> new Z_ML(Long.MIN_VALUE));
+
+		Z_ML one = new Z_ML(1);
+		assertEquals(0, one.getMultIdentity());
+		assertEquals(0, one.mult(0, 0));
+		assertEquals(0, one.floorMod(-7));
+	} //END modulusMustBePositive
+
+
+	/**
+	 * Checks reduce(long) and floorMod on a given input
+	 * @param z The Z_ML under test
+	 * @param x The given input
+	 */
+	private static void check(Z_ML z, long x) {
+		assertEquals(Long.remainderUnsigned(x, z.getM()), z.reduce(x), "reduce of " + x);
+		assertEquals(Math.floorMod(x, z.getM()), z.floorMod(x), "floorMod of " + x);
+	} //END check
+
+
+	/**
+	 * Checks reduce(hi, lo) on a given 128-bit input
+	 * @param z The Z_ML under test
+	 * @param hi The high 64 bits of the input, below m
+	 * @param lo The low 64 bits of the input
+	 */
+	private static void checkWide(Z_ML z, long hi, long lo) {
+		BigInteger x = BigInteger.valueOf(hi).multiply(TWO_64).add(new BigInteger(Long.toUnsignedString(lo)));
+
+		assertEquals(x.mod(BigInteger.valueOf(z.getM())).longValueExact(), z.reduce(hi, lo), hi + ":" + lo);
+	} //END checkWide
+
+} //END Z_MLTest
@@ -0,0 +1,114 @@
+package ring.modInt;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests the arithmetic, inverses and units of Z_M against BigInteger, on both sides of the sizes
+ * at which its tables are built
+ * @author Noah Kime
+ */
+class Z_MTest {
+
+	/**
+	 * Checks sums, additive inverses and products of residues and of integers of either sign
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 257, 46349, 65521, 65536, 65537, 1000003, Integer.MAX_VALUE})
+	void arithmeticMatchesBigInteger(int m) {
+		Z_M z = new Z_M(m);
+		BigInteger bigM = BigInteger.valueOf(m);
+		SplittableRandom rand = new SplittableRandom(m);
+
+		for (int trial = 0; trial < 20000; trial++) {
+			int x = (trial % 2 == 0) ? rand.nextInt(m) : rand.nextInt();
+			int y = (trial % 3 == 0) ? rand.nextInt(m) : rand.nextInt();
+			BigInteger bx = BigInteger.valueOf(x);
+			BigInteger by = BigInteger.valueOf(y);
+
+			assertEquals(bx.add(by).mod(bigM).intValue(), z.add(x, y));
+			assertEquals(bx.multiply(by).mod(bigM).intValue(), z.mult(x, y));
+			assertEquals(bx.negate().mod(bigM).intValue(), z.getAddInverse(Math.floorMod(x, m)));
+		}
+	} //END arithmeticMatchesBigInteger
+
+
+	/**
+	 * Checks inverses and units of every residue for small moduli and of random residues for
+	 * large ones, against BigInteger.modInverse and the gcd
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 65537, 1000003, Integer.MAX_VALUE})
+	void inversesMatchBigInteger(int m) {
+		Z_M z = new Z_M(m);
+		BigInteger bigM = BigInteger.valueOf(m);
+		SplittableRandom rand = new SplittableRandom(m);
+		int count = Math.min(m, 100000);
+
+		for (int i = 0; i < count; i++) {
+			int x = (m <= count) ? i : rand.nextInt(m);
+			BigInteger bx = BigInteger.valueOf(x);
+			boolean unit = bx.gcd(bigM).equals(BigInteger.ONE);
+
+			assertEquals(unit, z.isUnit(x), () -> "isUnit of " + x);
+			assertEquals(unit ? bx.modInverse(bigM).intValue() : -1, z.getMultInverse(x), () -> "inverse of " + x);
+			assertEquals(z.getMultInverse(x), z.getMultInverse(x - m));
+		}
+	} //END inversesMatchBigInteger
+
+
+	/**
+	 * Checks that the units are enumerated in increasing order and that random units are units
+	 * @param m The modulus
+	 */
+	@ParameterizedTest
+	@ValueSource(ints = {2, 4, 6, 8, 9, 12, 30, 95, 97, 256, 46349, 65521, 65536, 1000003})
+	void multSetHoldsTheUnits(int m) {
+		Z_M z = new Z_M(m);
+		SplittableRandom rand = new SplittableRandom(m);
+		int[] set = z.getMultSet();
+		int next = 0;
+
+		for (int x = 0; x < m; x++) {
+			if (z.isUnit(x)) {
+				assertEquals(x, set[next]);
+				assertEquals(x, z.getMultSetElement(next));
+				next++;
+			}
+		}
+
+		assertEquals(next, set.length);
+		assertEquals(next, z.getMultSetSize());
+
+		for (int trial = 0; trial < 1000; trial++) {
+			int u = z.randomUnit(rand);
+
+			assertTrue(u >= 0 && u < m);
+			assertTrue(z.isUnit(u));
+		}
+	} //END multSetHoldsTheUnits
+
+
+	/**
+	 * Checks that the largest modulus builds no tables on construction and still finds inverses
+	 */
+	@Test
+	void largestModulusNeedsNoTables() {
+		Z_M z = new Z_M(Integer.MAX_VALUE);
+		SplittableRandom rand = new SplittableRandom(1);
+
+		assertEquals(1, z.mult(z.getMultInverse(2), 2));
+		assertEquals(1, z.mult(z.getMultInverse(Integer.MAX_VALUE - 1), Integer.MAX_VALUE - 1));
+		assertTrue(z.isUnit(z.randomUnit(rand)));
+		assertSame(z.valueOf(3).getM(), z);
+	} //END largestModulusNeedsNoTables
+
+} //END Z_MTest